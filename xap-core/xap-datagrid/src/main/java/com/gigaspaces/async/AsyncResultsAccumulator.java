@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.async;
+
+/**
+ * Folds the results of a single execution one at a time, as they arrive.
+ *
+ * @see StreamingAsyncResultsReducer
+ * @since 15.5
+ */
+public interface AsyncResultsAccumulator<T, R> {
+    /**
+     * Folds a result into the accumulated result.
+     *
+     * @return true to continue receiving results, false to terminate the execution - results which
+     * did not arrive yet are ignored.
+     */
+    boolean accumulate(AsyncResult<T> result) throws Exception;
+
+    /**
+     * @return the result which was accumulated so far
+     */
+    R getResult() throws Exception;
+}
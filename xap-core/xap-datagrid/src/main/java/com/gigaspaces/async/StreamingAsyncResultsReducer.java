@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.async;
+
+import java.util.List;
+
+/**
+ * A reducer which folds results as they arrive, rather than reducing the list of all the results
+ * once they all arrived. Results are not retained after they were folded, and the execution can
+ * be terminated early by the accumulator (e.g. once the top K results are known, or once any
+ * result matches).
+ *
+ * <p>When a distributed task is a streaming reducer, its results are passed to the accumulator
+ * without invoking an {@link AsyncResultFilter} - filtering, if required, is done by the
+ * accumulator.
+ *
+ * @since 15.5
+ */
+public interface StreamingAsyncResultsReducer<T, R> extends AsyncResultsReducer<T, R> {
+    /**
+     * Creates an accumulator for the results of a single execution.
+     *
+     * @param expectedResults the number of results the execution produces
+     */
+    AsyncResultsAccumulator<T, R> createAccumulator(int expectedResults);
+
+    /**
+     * @return the max number of results which are in flight at the same time, 0 for no limit. When
+     * limited, the execution proceeds on more targets as results are folded.
+     */
+    default int getMaxInFlightResults() {
+        return 0;
+    }
+
+    @Override
+    default R reduce(List<AsyncResult<T>> results) throws Exception {
+        AsyncResultsAccumulator<T, R> accumulator = createAccumulator(results.size());
+        for (AsyncResult<T> result : results) {
+            if (!accumulator.accumulate(result))
+                break;
+        }
+        return accumulator.getResult();
+    }
+}
@@ -105,6 +105,17 @@ public class ReadModifiers extends IsolationLevelModifiers {
      */
     public static final ReadModifiers IF_EXISTS = new ReadModifiers(Modifiers.IF_EXISTS);
 
+    /**
+     * Reads the committed state of the space as of the beginning of the operation: matching entries
+     * are not locked, entries locked by non committed transactions are read in their last committed
+     * state, and changes committed while the operation is running are not visible to it. Supported
+     * only by read multiple and aggregate operations, and only when snapshot reads are enabled in
+     * the space (<code>space-config.engine.snapshot_reads_enabled</code>).
+     *
+     * @since 15.5
+     */
+    public static final ReadModifiers SNAPSHOT_READ = new ReadModifiers(Modifiers.SNAPSHOT_READ);
+
     private static final Map<Integer, SpaceProxyOperationModifiers> cache = initCache();
 
     private static Map<Integer, SpaceProxyOperationModifiers> initCache() {
@@ -119,6 +130,7 @@ public class ReadModifiers extends IsolationLevelModifiers {
         initialValues.put(FIFO_GROUPING_POLL.getCode(), FIFO_GROUPING_POLL);
         initialValues.put(MEMORY_ONLY_SEARCH.getCode(), MEMORY_ONLY_SEARCH);
         initialValues.put(IF_EXISTS.getCode(), IF_EXISTS);
+        initialValues.put(SNAPSHOT_READ.getCode(), SNAPSHOT_READ);
         return initialValues;
     }
 
@@ -253,6 +265,16 @@ public class ReadModifiers extends IsolationLevelModifiers {
         return contains(IF_EXISTS);
     }
 
+    /**
+     * Checks if this instance contains the {@link #SNAPSHOT_READ} setting.
+     *
+     * @return true if this instance contains the {@link #SNAPSHOT_READ} setting, false otherwise.
+     * @since 15.5
+     */
+    public boolean isSnapshotRead() {
+        return contains(SNAPSHOT_READ);
+    }
+
     @Override
     protected ReadModifiers create(int modifiers) {
         return new ReadModifiers(modifiers);
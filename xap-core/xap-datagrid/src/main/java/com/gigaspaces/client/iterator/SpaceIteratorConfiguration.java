@@ -4,6 +4,8 @@ import com.gigaspaces.client.ReadModifiers;
 import com.gigaspaces.internal.utils.GsEnv;
 
 import java.time.Duration;
+import static com.j_spaces.kernel.SystemProperties.SPACE_ITERATOR_PREFETCH_BATCHES;
+import static com.j_spaces.kernel.SystemProperties.SPACE_ITERATOR_PREFETCH_BATCHES_DEFAULT;
 import static com.j_spaces.kernel.SystemProperties.SPACE_ITERATOR_TYPE;
 import static com.j_spaces.kernel.SystemProperties.SPACE_ITERATOR_TYPE_DEFAULT;
 
@@ -18,10 +20,12 @@ public class SpaceIteratorConfiguration {
     }
     public static Duration getDefaultMaxInactiveDuration() { return Duration.ofMinutes(1);}
     private static final SpaceIteratorType defaultIteratorType = SpaceIteratorType.valueOf(GsEnv.property(SPACE_ITERATOR_TYPE).get(SPACE_ITERATOR_TYPE_DEFAULT));
+    private static final int defaultPrefetchBatches = Integer.parseInt(GsEnv.property(SPACE_ITERATOR_PREFETCH_BATCHES).get(SPACE_ITERATOR_PREFETCH_BATCHES_DEFAULT));
 
     private SpaceIteratorType iteratorType = defaultIteratorType;
     private int batchSize = getDefaultBatchSize();
     private Duration maxInactiveDuration = null;
+    private int prefetchBatches = defaultPrefetchBatches;
     private ReadModifiers readModifiers;
 
     /**
@@ -103,4 +107,29 @@ public class SpaceIteratorConfiguration {
         this.readModifiers = readModifiers;
         return this;
     }
+
+    /**
+     * @return max number of batches fetched from each partition ahead of consumption.
+     * Note: relevant only to {@link SpaceIteratorType#CURSOR}
+     * @since 15.5
+     */
+    public int getPrefetchBatches() {
+        return prefetchBatches;
+    }
+
+    /**
+     * Sets the max number of batches fetched from each partition ahead of consumption. With the
+     * default (1) a partition's next batch is requested only when its current batch is consumed.
+     * Larger values request the next batch as soon as the previous one arrives, as long as the
+     * partition has less than prefetchBatches batches waiting to be consumed, which trades client
+     * memory (up to prefetchBatches * batchSize entries per partition) for throughput of full scans.
+     * Note: relevant only to {@link SpaceIteratorType#CURSOR}
+     * @param prefetchBatches
+     * @return updated iterator configuration
+     * @since 15.5
+     */
+    public SpaceIteratorConfiguration setPrefetchBatches(int prefetchBatches) {
+        this.prefetchBatches = prefetchBatches;
+        return this;
+    }
 }
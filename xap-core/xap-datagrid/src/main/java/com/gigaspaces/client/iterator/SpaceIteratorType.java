@@ -20,6 +20,9 @@ public enum SpaceIteratorType {
      * 3. When the iterator starts consuming entries from a partition batch, it implicitly sends an asynchronous request
      * in the background to that partition for the next batch, which further reduces the time waiting for entries.
      * With each partition batch consumption, the next batch is fetched in the background from that specific partition
+     * 4. Optionally, partitions can stream ahead of consumption: when SpaceIteratorConfiguration.setPrefetchBatches()
+     * is larger than 1, the next batch of a partition is requested as soon as its previous batch arrives, until that
+     * many batches of the partition are waiting to be consumed (credit based flow control).
      * Advantages (compared to PREFETCH_UIDS):
      *  1. Short latency till first entry is served (independent of number of matching entries).
      *  2. Small memory footprint on client side (independent of number of matching entries).
@@ -40,9 +40,18 @@ public class SpaceIteratorBatchResultProvider implements Serializable {
     private final UUID _uuid;
     private final SpaceClusterInfo _clusterInfo;
     private final transient SpaceIteratorBatchResultListener _spaceIteratorBatchResultListener;
+    private final transient int _prefetchBatches;
+    private final transient ConcurrentMap<Integer, PartitionCredits> _partitionsCredits;
+    private transient volatile boolean _closed;
 
 
     public SpaceIteratorBatchResultProvider(ISpaceProxy spaceProxy, int batchSize, int readModifiers, ITemplatePacket queryPacket, UUID uuid, long maxInactiveDuration) {
+        this(spaceProxy, batchSize, readModifiers, queryPacket, uuid, maxInactiveDuration, 1);
+    }
+
+    public SpaceIteratorBatchResultProvider(ISpaceProxy spaceProxy, int batchSize, int readModifiers, ITemplatePacket queryPacket, UUID uuid, long maxInactiveDuration, int prefetchBatches) {
+        if (prefetchBatches <= 0)
+            throw new IllegalArgumentException("prefetchBatches must be greater than zero.");
         this._spaceProxy = spaceProxy;
         this._batchSize = batchSize;
         this._readModifiers = readModifiers;
@@ -50,7 +59,10 @@ public class SpaceIteratorBatchResultProvider implements Serializable {
         this._queryPacket = queryPacket;
         this._uuid = uuid;
         this._clusterInfo = _spaceProxy.getDirectProxy().getSpaceClusterInfo();
-        this._queue = new LinkedBlockingQueue<>(getInitialNumberOfActivePartitions());
+        this._prefetchBatches = prefetchBatches;
+        this._partitionsCredits = new ConcurrentHashMap<>();
+        // each partition never has more than prefetchBatches batches buffered or in flight
+        this._queue = new LinkedBlockingQueue<>(getInitialNumberOfActivePartitions() * prefetchBatches);
         this._spaceIteratorBatchResultListener = new SpaceIteratorBatchResultListener(this);
         initBatchTask();
     }
@@ -91,6 +103,7 @@ public class SpaceIteratorBatchResultProvider implements Serializable {
         }
         if(spaceIteratorBatchResult != null) {
             addBatchResult(spaceIteratorBatchResult);
+            onBatchArrived(spaceIteratorBatchResult);
             return;
         }
         throw new IllegalStateException("Received async space iterator batch without result or exception");
@@ -108,11 +121,83 @@ public class SpaceIteratorBatchResultProvider implements Serializable {
         _spaceProxy.execute(new SinglePartitionGetBatchForIteratorSpaceTask(this, batchNumber), partitionId, null, _spaceIteratorBatchResultListener);
     }
 
+    /**
+     * Called when a batch arrives from a partition. If the partition has not used all its credits,
+     * its next batch is requested right away, so it is fetched while the buffered batches are
+     * consumed.
+     */
+    private void onBatchArrived(SpaceIteratorBatchResult spaceIteratorBatchResult) {
+        if (_prefetchBatches <= 1 || _closed || !hasMoreBatches(spaceIteratorBatchResult))
+            return;
+        PartitionCredits credits = getPartitionCredits(spaceIteratorBatchResult.getPartitionId());
+        int nextBatchNumber;
+        synchronized (credits) {
+            credits.inFlight = false;
+            credits.buffered++;
+            credits.nextBatchNumber = spaceIteratorBatchResult.getBatchNumber() + 1;
+            if (credits.buffered >= _prefetchBatches)
+                return;
+            credits.inFlight = true;
+            nextBatchNumber = credits.nextBatchNumber;
+        }
+        requestBatch(spaceIteratorBatchResult.getPartitionId(), nextBatchNumber);
+    }
+
+    /**
+     * Called when a full batch of a partition is consumed, the partition's next batch is requested
+     * unless it has already been requested when the consumed batch arrived.
+     */
+    public void onBatchConsumed(SpaceIteratorBatchResult spaceIteratorBatchResult) {
+        if (_closed)
+            return;
+        if (_prefetchBatches == 1) {
+            requestBatch(spaceIteratorBatchResult.getPartitionId(), spaceIteratorBatchResult.getBatchNumber() + 1);
+            return;
+        }
+        PartitionCredits credits = getPartitionCredits(spaceIteratorBatchResult.getPartitionId());
+        int nextBatchNumber;
+        synchronized (credits) {
+            credits.buffered--;
+            if (credits.inFlight || credits.nextBatchNumber == 0)
+                return;
+            credits.inFlight = true;
+            nextBatchNumber = credits.nextBatchNumber;
+        }
+        requestBatch(spaceIteratorBatchResult.getPartitionId(), nextBatchNumber);
+    }
+
+    private void requestBatch(int partitionId, int batchNumber) {
+        try {
+            triggerSinglePartitionBatchTask(partitionId, batchNumber);
+        } catch (RemoteException | TransactionException e) {
+            addBatchResult(new SpaceIteratorBatchResult(e, _uuid, partitionId, batchNumber));
+        }
+    }
+
+    private boolean hasMoreBatches(SpaceIteratorBatchResult spaceIteratorBatchResult) {
+        return !spaceIteratorBatchResult.isFailed()
+                && spaceIteratorBatchResult.getBatchNumber() != SpaceIteratorBatchResult.NO_BATCH_NUMBER
+                && spaceIteratorBatchResult.getEntries() != null
+                && spaceIteratorBatchResult.getEntries().length >= _batchSize;
+    }
+
+    private PartitionCredits getPartitionCredits(int partitionId) {
+        PartitionCredits credits = _partitionsCredits.get(partitionId);
+        if (credits == null) {
+            PartitionCredits newCredits = new PartitionCredits();
+            credits = _partitionsCredits.putIfAbsent(partitionId, newCredits);
+            if (credits == null)
+                credits = newCredits;
+        }
+        return credits;
+    }
+
     private void triggerBatchTaskInAllPartitions() throws RemoteException, TransactionException {
         _spaceProxy.execute(new GetBatchForIteratorDistributedSpaceTask(this), null, null, null);
     }
 
     public void close() {
+        _closed = true;
         if(_logger.isDebugEnabled())
             _logger.debug("Sending close request to space iterator "  + _uuid);
         try {
@@ -121,6 +206,7 @@ public class SpaceIteratorBatchResultProvider implements Serializable {
             processCloseIteratorFailure(e);
         }
         _queue.clear();
+        _partitionsCredits.clear();
     }
 
     public int getBatchSize() {
@@ -143,6 +229,22 @@ public class SpaceIteratorBatchResultProvider implements Serializable {
         return _clusterInfo.getNumberOfPartitions();
     }
 
+    public int getPrefetchBatches() {
+        return _prefetchBatches;
+    }
+
+    /**
+     * @return the number of arrived full batches of the partition which were not consumed yet
+     */
+    int getBufferedBatches(int partitionId) {
+        PartitionCredits credits = _partitionsCredits.get(partitionId);
+        if (credits == null)
+            return 0;
+        synchronized (credits) {
+            return credits.buffered;
+        }
+    }
+
     public long getMaxInactiveDuration() {
         return _maxInactiveDuration;
     }
@@ -178,4 +280,16 @@ public class SpaceIteratorBatchResultProvider implements Serializable {
         if (_logger.isWarnEnabled())
             _logger.warn("Failed to renew space iterator " + getUuid() + " lease.", e);
     }
+
+    /**
+     * Flow control state of a single partition, guarded by its own monitor
+     */
+    private static class PartitionCredits {
+        // number of arrived full batches which were not consumed yet
+        private int buffered;
+        // whether a batch request is currently executing in the partition
+        private boolean inFlight;
+        // the batch number to request next, 0 until the first batch arrives
+        private int nextBatchNumber;
+    }
 }
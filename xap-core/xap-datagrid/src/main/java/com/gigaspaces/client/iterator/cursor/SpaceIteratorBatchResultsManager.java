@@ -5,9 +5,7 @@ import com.gigaspaces.internal.client.spaceproxy.ISpaceProxy;
 import com.gigaspaces.internal.transport.ITemplatePacket;
 import com.gigaspaces.logger.Constants;
 import com.j_spaces.core.GetBatchForIteratorException;
-import net.jini.core.transaction.TransactionException;
 
-import java.rmi.RemoteException;
 import java.util.*;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -30,8 +28,12 @@ public class SpaceIteratorBatchResultsManager {
     private int _activePartitions;
 
     public SpaceIteratorBatchResultsManager(ISpaceProxy spaceProxy, int batchSize, int readModifiers, ITemplatePacket queryPacket, long maxInactiveDuration){
+        this(spaceProxy, batchSize, readModifiers, queryPacket, maxInactiveDuration, 1);
+    }
+
+    public SpaceIteratorBatchResultsManager(ISpaceProxy spaceProxy, int batchSize, int readModifiers, ITemplatePacket queryPacket, long maxInactiveDuration, int prefetchBatches){
         this._partitionIteratorBatchResults = new HashMap<>();
-        this._spaceIteratorBatchResultProvider = new SpaceIteratorBatchResultProvider(spaceProxy, batchSize, readModifiers, queryPacket, UUID.randomUUID(), maxInactiveDuration);
+        this._spaceIteratorBatchResultProvider = new SpaceIteratorBatchResultProvider(spaceProxy, batchSize, readModifiers, queryPacket, UUID.randomUUID(), maxInactiveDuration, prefetchBatches);
         this._activePartitions = this._spaceIteratorBatchResultProvider.getInitialNumberOfActivePartitions();
         this._scheduler = Executors.newScheduledThreadPool(1);
         initRenewLeaseTask(maxInactiveDuration/2);
@@ -126,11 +128,7 @@ public class SpaceIteratorBatchResultsManager {
     }
 
     private Object[] handleNormalBatchResult(SpaceIteratorBatchResult currentSpaceIteratorBatchResult){
-        try {
-            _spaceIteratorBatchResultProvider.triggerSinglePartitionBatchTask(currentSpaceIteratorBatchResult.getPartitionId(), currentSpaceIteratorBatchResult.getBatchNumber() + 1);
-        } catch (RemoteException | TransactionException e) {
-            _spaceIteratorBatchResultProvider.addBatchResult(new SpaceIteratorBatchResult(e, currentSpaceIteratorBatchResult.getUuid(), currentSpaceIteratorBatchResult.getPartitionId(), currentSpaceIteratorBatchResult.getBatchNumber() + 1));
-        }
+        _spaceIteratorBatchResultProvider.onBatchConsumed(currentSpaceIteratorBatchResult);
         return currentSpaceIteratorBatchResult.getEntries();
     }
 
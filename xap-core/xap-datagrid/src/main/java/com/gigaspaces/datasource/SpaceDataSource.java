@@ -60,6 +60,22 @@ public abstract class SpaceDataSource {
         return null;
     }
 
+    /**
+     * This method is invoked after {@link #initialMetadataLoad()} and is used for pre fetching data
+     * from the data source on space initialization using several independent iterators - for
+     * example one per type or per key range. {@link #initialDataLoad()} is invoked only if this
+     * method returns null. <p>The returned iterators are consumed concurrently by the space, each on a single
+     * thread, and each object should be returned by only one of them.</p>
+     *
+     * @return A list of {@link DataIterator} instances which together contain all data to be
+     * written to Space upon its initialization - null (the default) if the data should be loaded
+     * using {@link #initialDataLoad()} instead.
+     * @since 15.5
+     */
+    public List<DataIterator<Object>> initialDataLoadStreams() {
+        return null;
+    }
+
     /**
      * This method is invoked whenever the space needs to read data which matches the provided
      * {@link DataSourceQuery} from the space data source. <p>If this implementation doesn't
@@ -24,8 +24,11 @@ import com.gigaspaces.datasource.DataSourceQuery;
 import com.gigaspaces.datasource.DataSourceSQLQuery;
 import com.gigaspaces.datasource.SpaceDataSource;
 import com.gigaspaces.datasource.SpaceDataSourceException;
+import com.gigaspaces.internal.cluster.SpaceClusterInfo;
+import com.gigaspaces.internal.sync.SpaceClusterInfoAware;
 import com.gigaspaces.metadata.SpaceTypeDescriptor;
 
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
@@ -44,7 +47,7 @@ import org.slf4j.LoggerFactory;
 @com.gigaspaces.api.InternalApi
 public class SharedIteratorSpaceDataSourceDecorator
         extends SpaceDataSource
-        implements ISharedDataIteratorSourceStateChangedListener<Object> {
+        implements ISharedDataIteratorSourceStateChangedListener<Object>, SpaceClusterInfoAware {
     private final static Logger _logger = LoggerFactory.getLogger(com.gigaspaces.logger.Constants.LOGGER_PERSISTENT_SHARED_ITERATOR);
 
     private final ConcurrentHashMap<DataSourceSQLQuery, SharedDataIteratorSource<Object>> _queryToSources;
@@ -143,11 +146,22 @@ public class SharedIteratorSpaceDataSourceDecorator
             _queryToSources.remove(query);
     }
 
+    @Override
+    public void setSpaceClusterInfo(SpaceClusterInfo clusterInfo, int partitionIdZeroBased) {
+        if (_spaceDataSource instanceof SpaceClusterInfoAware)
+            ((SpaceClusterInfoAware) _spaceDataSource).setSpaceClusterInfo(clusterInfo, partitionIdZeroBased);
+    }
+
     @Override
     public DataIterator<Object> initialDataLoad() {
         return _spaceDataSource.initialDataLoad();
     }
 
+    @Override
+    public List<DataIterator<Object>> initialDataLoadStreams() {
+        return _spaceDataSource.initialDataLoadStreams();
+    }
+
     @Override
     public DataIterator<SpaceTypeDescriptor> initialMetadataLoad() {
         return _spaceDataSource.initialMetadataLoad();
@@ -617,6 +617,10 @@ public class SpaceProxyImpl extends AbstractDirectSpaceProxy implements SameProx
         if(this._proxyRouter != oldRouter){
             return;
         }
+        //a stale member may respond with an older map
+        if(chunksMap == null || chunksMap.getGeneration() <= oldRouter.getChunksMapGeneration()){
+            return;
+        }
         synchronized (_spaceInitializeLock) {
             if(this._proxyRouter != oldRouter){
                 return;
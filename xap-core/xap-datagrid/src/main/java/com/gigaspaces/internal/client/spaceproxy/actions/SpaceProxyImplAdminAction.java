@@ -68,7 +68,9 @@ public class SpaceProxyImplAdminAction extends AdminProxyAction<SpaceProxyImpl>
     public AsyncFuture execute(SpaceProxyImpl spaceProxy, SpaceTask task, Object routing, Transaction txn, AsyncFutureListener listener)
             throws RemoteException, TransactionException {
         txn = spaceProxy.beforeSpaceAction(txn);
-        ExecuteTaskSpaceOperationRequest request = new ExecuteTaskSpaceOperationRequest(task, txn, routing);
+        // the reply is deferred only if the space executes tasks on task lanes
+        final boolean deferredReply = spaceProxy.getProxySettings().getSpaceAttributes().getEngineTaskLanes() > 0;
+        ExecuteTaskSpaceOperationRequest request = new ExecuteTaskSpaceOperationRequest(task, txn, routing, deferredReply);
         return spaceProxy.getProxyRouter().executeAsync(request, listener);
     }
 }
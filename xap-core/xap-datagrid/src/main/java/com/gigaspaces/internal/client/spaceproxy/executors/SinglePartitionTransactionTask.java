@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.gigaspaces.internal.client.spaceproxy.executors;
+
+import com.gigaspaces.internal.io.IOUtils;
+import com.gigaspaces.internal.space.requests.SinglePartitionTransactionRequestInfo;
+import com.gigaspaces.internal.space.requests.SpaceRequestInfo;
+import com.gigaspaces.internal.space.responses.SinglePartitionTransactionResponseInfo;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * @since 15.5
+ */
+@com.gigaspaces.api.InternalApi
+public class SinglePartitionTransactionTask extends SystemTask<SinglePartitionTransactionResponseInfo> {
+    private static final long serialVersionUID = 1L;
+
+    private SinglePartitionTransactionRequestInfo _requestInfo;
+
+    /**
+     * Required for Externalizable
+     */
+    public SinglePartitionTransactionTask() {
+    }
+
+    public SinglePartitionTransactionTask(SinglePartitionTransactionRequestInfo requestInfo) {
+        this._requestInfo = requestInfo;
+    }
+
+    @Override
+    public SpaceRequestInfo getSpaceRequestInfo() {
+        return _requestInfo;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out)
+            throws IOException {
+        super.writeExternal(out);
+        IOUtils.writeObject(out, _requestInfo);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in)
+            throws IOException, ClassNotFoundException {
+        super.readExternal(in);
+        _requestInfo = IOUtils.readObject(in);
+    }
+}
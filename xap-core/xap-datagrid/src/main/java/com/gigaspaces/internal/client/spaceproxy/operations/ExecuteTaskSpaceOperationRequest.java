@@ -20,10 +20,13 @@ import com.gigaspaces.async.AsyncResult;
 import com.gigaspaces.async.AsyncResultFilter;
 import com.gigaspaces.async.AsyncResultFilter.Decision;
 import com.gigaspaces.async.AsyncResultFilterEvent;
+import com.gigaspaces.async.AsyncResultsAccumulator;
 import com.gigaspaces.async.AsyncResultsReducer;
+import com.gigaspaces.async.StreamingAsyncResultsReducer;
 import com.gigaspaces.async.internal.DefaultAsyncResult;
 import com.gigaspaces.executor.SpaceTask;
 import com.gigaspaces.executor.SpaceTaskWrapper;
+import com.gigaspaces.internal.client.spaceproxy.executors.SystemTask;
 import com.gigaspaces.internal.io.IOUtils;
 import com.gigaspaces.internal.remoting.routing.partitioned.PartitionedClusterExecutionType;
 import com.gigaspaces.internal.remoting.routing.partitioned.PartitionedClusterRemoteOperationRouter;
@@ -55,8 +58,13 @@ public class ExecuteTaskSpaceOperationRequest extends SpaceOperationRequest<Exec
     private SpaceTask<?> _task;
     private Transaction _txn;
     private transient Object _routingValue;
+    private transient Integer _routingHash;
+    private transient boolean _deferredReply;
     private transient AsyncResultsReducer<Object, Object> _reducer;
     private transient AsyncResultFilter<Object> _filter;
+    private transient StreamingAsyncResultsReducer<Object, Object> _streamingReducer;
+    private transient AsyncResultsAccumulator<Object, Object> _accumulator;
+    private transient Exception _accumulationException;
 
     private transient List<AsyncResult<Object>> _prevResults;
     private Transaction _originalTranscation;
@@ -67,13 +75,17 @@ public class ExecuteTaskSpaceOperationRequest extends SpaceOperationRequest<Exec
     public ExecuteTaskSpaceOperationRequest() {
     }
 
-    public ExecuteTaskSpaceOperationRequest(SpaceTask<?> task, Transaction txn, Object routingValue) {
+    public ExecuteTaskSpaceOperationRequest(SpaceTask<?> task, Transaction txn, Object routingValue, boolean deferredReply) {
         this._task = task;
         this._txn = txn;
         this._originalTranscation = txn;
         this._routingValue = routingValue;
+        this._deferredReply = deferredReply;
         this._reducer = task instanceof AsyncResultsReducer ? (AsyncResultsReducer<Object, Object>) task : null;
         this._filter = task instanceof AsyncResultFilter ? (AsyncResultFilter<Object>) task : null;
+        // The reducer of a wrapped task is the wrapped task itself
+        Object reducer = task instanceof SpaceTaskWrapper ? ((SpaceTaskWrapper) task).getWrappedTask() : task;
+        this._streamingReducer = _reducer != null && reducer instanceof StreamingAsyncResultsReducer ? (StreamingAsyncResultsReducer<Object, Object>) reducer : null;
     }
 
     @Override
@@ -101,11 +113,28 @@ public class ExecuteTaskSpaceOperationRequest extends SpaceOperationRequest<Exec
         return new ExecuteTaskSpaceOperationResult();
     }
 
+    /**
+     * @return the hash of the routing value, used by the space to execute tasks of the same routing
+     * serially, or null if the task was executed without a routing value
+     */
+    public Integer getRoutingHash() {
+        return _routingValue != null ? Integer.valueOf(_routingValue.hashCode()) : _routingHash;
+    }
+
     @Override
     public boolean isDedicatedPoolRequired() {
         return true;
     }
 
+    /**
+     * User tasks may be executed by the space after the invocation returned if the space executes
+     * tasks on task lanes, in which case the reply is sent when the task completes.
+     */
+    @Override
+    public boolean isDeferredReply(PlatformLogicalVersion targetVersion) {
+        return _deferredReply && !(_task instanceof SystemTask) && targetVersion.greaterOrEquals(PlatformLogicalVersion.v15_5_0);
+    }
+
     @Override
     public PartitionedClusterExecutionType getPartitionedClusterExecutionType() {
         if (_routingValue == null && _reducer == null)
@@ -122,6 +151,8 @@ public class ExecuteTaskSpaceOperationRequest extends SpaceOperationRequest<Exec
     public boolean processPartitionResult(ExecuteTaskSpaceOperationResult remoteOperationResult, List<ExecuteTaskSpaceOperationResult> previousResults,
                                           int numOfPartitions) {
         AsyncResult<Object> currResult = new DefaultAsyncResult<Object>(remoteOperationResult.getResult(), remoteOperationResult.getExecutionException());
+        if (_streamingReducer != null)
+            return accumulate(currResult, numOfPartitions);
         if (_filter != null)
             return filterResult(currResult, numOfPartitions);
 
@@ -138,12 +169,51 @@ public class ExecuteTaskSpaceOperationRequest extends SpaceOperationRequest<Exec
                     throw remoteResult.getExecutionException();
                 return remoteResult.getResult();
             }
-            _prevResults = append(_prevResults, new DefaultAsyncResult<Object>(remoteResult.getResult(), remoteResult.getExecutionException()));
+            AsyncResult<Object> result = new DefaultAsyncResult<Object>(remoteResult.getResult(), remoteResult.getExecutionException());
+            if (_streamingReducer != null)
+                accumulate(result, 1);
+            else
+                _prevResults = append(_prevResults, result);
         }
 
+        if (_streamingReducer != null) {
+            if (_accumulationException != null)
+                throw _accumulationException;
+            return getAccumulator(0).getResult();
+        }
         return _reducer.reduce(_prevResults);
     }
 
+    @Override
+    public boolean requiresPreviousPartitionResults() {
+        return _streamingReducer == null;
+    }
+
+    @Override
+    public int getMaxConcurrentPartitions() {
+        return _streamingReducer != null ? _streamingReducer.getMaxInFlightResults() : 0;
+    }
+
+    /**
+     * Folds the result into the accumulator of the streaming reducer.
+     *
+     * @return false if the accumulator terminated the execution
+     */
+    private boolean accumulate(AsyncResult<Object> result, int expectedResults) {
+        try {
+            return getAccumulator(expectedResults).accumulate(result);
+        } catch (Exception e) {
+            _accumulationException = e;
+            return false;
+        }
+    }
+
+    private AsyncResultsAccumulator<Object, Object> getAccumulator(int expectedResults) {
+        if (_accumulator == null)
+            _accumulator = _streamingReducer.createAccumulator(expectedResults);
+        return _accumulator;
+    }
+
     @Override
     public boolean beforeOperationExecution(boolean isEmbedded) {
         if (!super.beforeOperationExecution(isEmbedded))
@@ -229,6 +299,12 @@ public class ExecuteTaskSpaceOperationRequest extends SpaceOperationRequest<Exec
         }
         out.writeObject(_task);
         IOUtils.writeWithCachedStubs(out, _txn);
+        if (version.greaterOrEquals(PlatformLogicalVersion.v15_5_0)) {
+            Integer routingHash = getRoutingHash();
+            out.writeBoolean(routingHash != null);
+            if (routingHash != null)
+                out.writeInt(routingHash);
+        }
     }
 
     @Override
@@ -245,5 +321,7 @@ public class ExecuteTaskSpaceOperationRequest extends SpaceOperationRequest<Exec
         }
         _task = (SpaceTask<?>) IOUtils.readObject(in, supportCodeChangeAnnotationContainer, useIOUtilsReadExternal);
         _txn = IOUtils.readWithCachedStubs(in);
+        if (version.greaterOrEquals(PlatformLogicalVersion.v15_5_0) && in.readBoolean())
+            _routingHash = in.readInt();
     }
 }
@@ -87,11 +87,26 @@ public abstract class SpaceOperationRequest<TResult extends SpaceOperationResult
         return false;
     }
 
+    @Override
+    public boolean isDeferredReply(PlatformLogicalVersion targetVersion) {
+        return false;
+    }
+
     @Override
     public boolean isDedicatedPoolRequired() {
         return false;
     }
 
+    @Override
+    public boolean requiresPreviousPartitionResults() {
+        return true;
+    }
+
+    @Override
+    public int getMaxConcurrentPartitions() {
+        return 0;
+    }
+
     @Override
     public boolean processUnknownTypeException(List<Integer> positions) {
         return false;
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.client.spaceproxy.router;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Estimates the delay after which a read is hedged, as a percentile of the latencies of the recent
+ * reads which were served by the active member. The percentile is recalculated periodically, so
+ * adding a sample is cheap.
+ *
+ * @since 15.5
+ */
+@com.gigaspaces.api.InternalApi
+public class HedgeDelayEstimator {
+    static final int MAX_SAMPLES = 1024;
+    static final int RECALCULATE_INTERVAL = 128;
+
+    private final AtomicLongArray _samples = new AtomicLongArray(MAX_SAMPLES);
+    private final AtomicLong _samplesCounter = new AtomicLong();
+    private final int _percentile;
+    private final long _minDelayNanos;
+    private volatile long _delayNanos;
+
+    public HedgeDelayEstimator(int percentile, long minDelayNanos) {
+        if (percentile <= 0 || percentile > 100)
+            throw new IllegalArgumentException("Hedge percentile must be between 1 and 100 - " + percentile);
+        this._percentile = percentile;
+        this._minDelayNanos = minDelayNanos;
+        this._delayNanos = minDelayNanos;
+    }
+
+    public void addSample(long latencyNanos) {
+        final long count = _samplesCounter.getAndIncrement();
+        _samples.set((int) (count % MAX_SAMPLES), latencyNanos);
+        if ((count + 1) % RECALCULATE_INTERVAL == 0)
+            recalculate((int) Math.min(count + 1, MAX_SAMPLES));
+    }
+
+    private void recalculate(int numOfSamples) {
+        final long[] sortedSamples = new long[numOfSamples];
+        for (int i = 0; i < numOfSamples; i++)
+            sortedSamples[i] = _samples.get(i);
+        Arrays.sort(sortedSamples);
+        final int index = Math.max(0, (int) Math.ceil(numOfSamples * _percentile / 100d) - 1);
+        _delayNanos = Math.max(_minDelayNanos, sortedSamples[index]);
+    }
+
+    public long getDelayNanos() {
+        return _delayNanos;
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.client.spaceproxy.router;
+
+import com.gigaspaces.async.AsyncFutureListener;
+import com.gigaspaces.async.AsyncResult;
+import com.gigaspaces.internal.client.spaceproxy.SpaceProxyImpl;
+import com.gigaspaces.internal.client.spaceproxy.operations.ReadTakeEntriesByIdsSpaceOperationRequest;
+import com.gigaspaces.internal.client.spaceproxy.operations.ReadTakeEntrySpaceOperationRequest;
+import com.gigaspaces.internal.client.spaceproxy.operations.SpaceOperationRequest;
+import com.gigaspaces.internal.remoting.RemoteOperationFutureListener;
+import com.gigaspaces.internal.remoting.RemoteOperationRequest;
+import com.gigaspaces.internal.remoting.RemoteOperationResult;
+import com.gigaspaces.internal.remoting.routing.clustered.RemoteOperationsExecutorProxy;
+import com.gigaspaces.internal.remoting.routing.clustered.RemoteOperationsExecutorsCluster;
+import com.gigaspaces.internal.server.space.IRemoteSpace;
+import com.j_spaces.core.IdQueryPacket;
+import com.j_spaces.core.IdsQueryPacket;
+import com.j_spaces.core.SpaceContext;
+
+import org.slf4j.Logger;
+
+import java.rmi.RemoteException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serves reads by id from a backup member of the partition, when the proxy is configured to accept
+ * reads whose staleness is bounded. The backup serves a read only if within the accepted staleness
+ * it was known to hold all the operations the primary acknowledged (a synchronously replicated
+ * packet was processed, i.e the primary had no replication backlog to it), otherwise it rejects it.
+ *
+ * In hedged mode a read is executed on the active member, and if it does not complete within the
+ * hedge delay it is also sent to a backup member - the first successful result is used. Otherwise
+ * a read is executed on a backup member first, and on the active member if the backup rejected it.
+ * Only connected backup members are used, disconnected members are located by the clusters monitor.
+ *
+ * @since 15.5
+ */
+@com.gigaspaces.api.InternalApi
+public class SpaceBackupReadsHandler {
+    private final Logger _logger;
+    private final SpaceClusterRemoteOperationRouter _router;
+    private final RemoteOperationsExecutorsCluster _cluster;
+    private final long _maxStaleness;
+    private final boolean _hedge;
+    private final HedgeDelayEstimator _hedgeDelayEstimator;
+
+    public SpaceBackupReadsHandler(SpaceClusterRemoteOperationRouter router, RemoteOperationsExecutorsCluster cluster,
+                                   SpaceRemoteOperationsExecutorsClusterConfig config) {
+        this._logger = cluster.getLogger();
+        this._router = router;
+        this._cluster = cluster;
+        this._maxStaleness = config.getBackupReadsMaxStaleness();
+        this._hedge = config.isBackupReadsHedge();
+        this._hedgeDelayEstimator = new HedgeDelayEstimator(config.getBackupReadsHedgePercentile(),
+                TimeUnit.MICROSECONDS.toNanos(config.getBackupReadsHedgeMinDelayMicros()));
+    }
+
+    /**
+     * @return true if the request was executed, false if the request cannot be served by a backup
+     * member and should be executed as usual
+     */
+    public <T extends RemoteOperationResult> boolean execute(RemoteOperationRequest<T> request)
+            throws InterruptedException {
+        if (!isBackupReadable(request))
+            return false;
+
+        if (_hedge)
+            executeHedged(request);
+        else
+            executeOnBackupFirst(request);
+        return true;
+    }
+
+    static boolean isBackupReadable(RemoteOperationRequest<?> request) {
+        if (request instanceof ReadTakeEntrySpaceOperationRequest) {
+            ReadTakeEntrySpaceOperationRequest readRequest = (ReadTakeEntrySpaceOperationRequest) request;
+            return !readRequest.isTake() && readRequest.getTransaction() == null && readRequest.getTimeout() == 0
+                    && readRequest.getTemplatePacket() instanceof IdQueryPacket;
+        }
+        if (request instanceof ReadTakeEntriesByIdsSpaceOperationRequest) {
+            ReadTakeEntriesByIdsSpaceOperationRequest readRequest = (ReadTakeEntriesByIdsSpaceOperationRequest) request;
+            return !readRequest.isTake() && readRequest.getTransaction() == null
+                    && readRequest.getTemplate() instanceof IdsQueryPacket;
+        }
+        return false;
+    }
+
+    private <T extends RemoteOperationResult> void executeOnBackupFirst(RemoteOperationRequest<T> request)
+            throws InterruptedException {
+        final RemoteOperationsExecutorProxy backup = _cluster.getAnyConnectedMemberExcept(_cluster.getLoadBalancer().getCandidate(request));
+        if (backup != null) {
+            final RemoteOperationRequest<T> backupRequest = request.createCopy(_cluster.getPartitionId());
+            if (executeOnBackup(backupRequest, backup)) {
+                request.setRemoteOperationResult(backupRequest.getRemoteOperationResult());
+                return;
+            }
+        }
+        _router.executeOnActiveMember(request);
+    }
+
+    private <T extends RemoteOperationResult> boolean executeOnBackup(RemoteOperationRequest<T> request, RemoteOperationsExecutorProxy backup) {
+        boolean served = false;
+        try {
+            if (!beforeBackupExecution(request, backup))
+                return false;
+            T result = backup.execute(request);
+            served = result != null && result.getExecutionException() == null;
+            if (served)
+                request.setRemoteOperationResult(result);
+            else if (_logger.isDebugEnabled())
+                _logger.debug("Backup read was rejected by " + backup.getName() + ", executing on active member", result != null ? result.getExecutionException() : null);
+        } catch (RemoteException e) {
+            if (_logger.isDebugEnabled())
+                _logger.debug("Backup read failed on " + backup.getName() + ", executing on active member", e);
+        }
+        afterBackupExecution(request, backup, !served);
+        return served;
+    }
+
+    private <T extends RemoteOperationResult> void executeHedged(RemoteOperationRequest<T> request)
+            throws InterruptedException {
+        final RemoteOperationsExecutorProxy active = _cluster.getLoadBalancer().getCandidate(request);
+        final RemoteOperationsExecutorProxy backup = active != null ? _cluster.getAnyConnectedMemberExcept(active) : null;
+        if (backup == null) {
+            _router.executeOnActiveMember(request);
+            return;
+        }
+
+        // the request is not shared by the concurrent executions - the result of the first is copied to it
+        final HedgedRead<T> hedgedRead = new HedgedRead<T>();
+        final RemoteOperationRequest<T> activeRequest = request.createCopy(_cluster.getPartitionId());
+        _router.executeAsync(activeRequest, new ActiveMemberListener<T>(hedgedRead, activeRequest, System.nanoTime()));
+
+        if (!hedgedRead.await(_hedgeDelayEstimator.getDelayNanos())) {
+            final RemoteOperationRequest<T> backupRequest = request.createCopy(_cluster.getPartitionId());
+            executeOnBackupAsync(backupRequest, backup, hedgedRead);
+            hedgedRead.await();
+        }
+        request.setRemoteOperationResult(hedgedRead.getResult());
+    }
+
+    private <T extends RemoteOperationResult> void executeOnBackupAsync(final RemoteOperationRequest<T> request, final RemoteOperationsExecutorProxy backup,
+                                                                        final HedgedRead<T> hedgedRead) {
+        try {
+            if (!beforeBackupExecution(request, backup))
+                return;
+            backup.executeAsync(request, new AsyncFutureListener<T>() {
+                @Override
+                public void onResult(AsyncResult<T> asyncResult) {
+                    final T result = asyncResult.getResult();
+                    final boolean served = asyncResult.getException() == null && result != null && result.getExecutionException() == null;
+                    if (served)
+                        hedgedRead.complete(result);
+                    afterBackupExecution(request, backup, !served);
+                }
+            });
+        } catch (RemoteException e) {
+            if (_logger.isDebugEnabled())
+                _logger.debug("Hedged backup read failed on " + backup.getName(), e);
+            afterBackupExecution(request, backup, true);
+        }
+    }
+
+    private boolean beforeBackupExecution(RemoteOperationRequest<?> request, RemoteOperationsExecutorProxy backup)
+            throws RemoteException {
+        final SpaceOperationRequest<?> spaceRequest = (SpaceOperationRequest<?>) request;
+        if (!_router.getSpaceProxy().beforeExecute(spaceRequest, (IRemoteSpace) backup.getExecutor(), _cluster.getPartitionId(), _cluster.getName(), false))
+            return false;
+        final SpaceContext spaceContext = spaceRequest.getSpaceContext() != null ? spaceRequest.getSpaceContext() : new SpaceContext();
+        spaceRequest.setSpaceContext(spaceContext.createBackupReadCopy(_maxStaleness));
+        return true;
+    }
+
+    private void afterBackupExecution(RemoteOperationRequest<?> request, RemoteOperationsExecutorProxy backup, boolean rejected) {
+        SpaceProxyImpl.afterExecute((SpaceOperationRequest<?>) request, (IRemoteSpace) backup.getExecutor(), _cluster.getPartitionId(), rejected);
+    }
+
+    /**
+     * Holds the result of the first execution of a hedged read which completed.
+     */
+    private static class HedgedRead<T extends RemoteOperationResult> {
+        private final CountDownLatch _completionLatch = new CountDownLatch(1);
+        private final AtomicBoolean _completed = new AtomicBoolean();
+        private volatile T _result;
+
+        void complete(T result) {
+            if (_completed.compareAndSet(false, true)) {
+                _result = result;
+                _completionLatch.countDown();
+            }
+        }
+
+        boolean await(long timeoutNanos) throws InterruptedException {
+            return _completionLatch.await(timeoutNanos, TimeUnit.NANOSECONDS);
+        }
+
+        void await() throws InterruptedException {
+            _completionLatch.await();
+        }
+
+        T getResult() {
+            return _result;
+        }
+    }
+
+    private class ActiveMemberListener<T extends RemoteOperationResult> extends RemoteOperationFutureListener<T> {
+        private final HedgedRead<T> _hedgedRead;
+        private final RemoteOperationRequest<T> _request;
+        private final long _startTime;
+
+        private ActiveMemberListener(HedgedRead<T> hedgedRead, RemoteOperationRequest<T> request, long startTime) {
+            super(SpaceBackupReadsHandler.this._logger, null, false);
+            this._hedgedRead = hedgedRead;
+            this._request = request;
+            this._startTime = startTime;
+        }
+
+        @Override
+        protected boolean onOperationResultArrival(RemoteOperationRequest<T> request) {
+            // latencies are sampled even if the backup completed first, so slow replies raise the hedge delay
+            _hedgeDelayEstimator.addSample(System.nanoTime() - _startTime);
+            _hedgedRead.complete(_request.getRemoteOperationResult());
+            return true;
+        }
+    }
+}
@@ -19,6 +19,7 @@ package com.gigaspaces.internal.client.spaceproxy.router;
 import com.gigaspaces.internal.client.spaceproxy.SpaceProxyImpl;
 import com.gigaspaces.internal.client.spaceproxy.operations.SpaceOperationRequest;
 import com.gigaspaces.internal.remoting.RemoteOperationRequest;
+import com.gigaspaces.internal.remoting.RemoteOperationResult;
 import com.gigaspaces.internal.remoting.routing.clustered.ClusterRemoteOperationRouter;
 import com.gigaspaces.internal.remoting.routing.clustered.PostponedAsyncOperationsQueue;
 import com.gigaspaces.internal.remoting.routing.clustered.RemoteOperationsExecutorProxy;
@@ -35,6 +36,7 @@ import java.rmi.RemoteException;
 public class SpaceClusterRemoteOperationRouter extends ClusterRemoteOperationRouter implements SpaceProxyRemoteOperationRouter {
     private final SpaceProxyImpl _spaceProxy;
     private final int _failOverPartitionId;
+    private final SpaceBackupReadsHandler _backupReadsHandler;
 
     public SpaceClusterRemoteOperationRouter(RemoteOperationsExecutorsCluster cluster,
                                              PostponedAsyncOperationsQueue postponedAsyncOperationsQueue, SpaceProxyImpl spaceProxy) {
@@ -42,6 +44,31 @@ public class SpaceClusterRemoteOperationRouter extends ClusterRemoteOperationRou
         _spaceProxy = spaceProxy;
         // failOverPartitionId != -1 indicates fail over support for transactions (relevant on partitioned topology with backups)
         _failOverPartitionId = cluster.getPartitionId();
+        _backupReadsHandler = createBackupReadsHandler(cluster);
+    }
+
+    private SpaceBackupReadsHandler createBackupReadsHandler(RemoteOperationsExecutorsCluster cluster) {
+        if (!(cluster.getConfig() instanceof SpaceRemoteOperationsExecutorsClusterConfig) || cluster.getMembersNames().size() < 2)
+            return null;
+        SpaceRemoteOperationsExecutorsClusterConfig config = (SpaceRemoteOperationsExecutorsClusterConfig) cluster.getConfig();
+        if (config.getBackupReadsMaxStaleness() <= 0)
+            return null;
+        if (_logger.isDebugEnabled())
+            _logger.debug("Reads by id may be served by backup members" + cluster.getPartitionDesc() + " - [max staleness=" +
+                    config.getBackupReadsMaxStaleness() + "ms, hedge=" + config.isBackupReadsHedge() + "]");
+        return new SpaceBackupReadsHandler(this, cluster, config);
+    }
+
+    @Override
+    public <T extends RemoteOperationResult> void execute(RemoteOperationRequest<T> request)
+            throws InterruptedException {
+        if (_backupReadsHandler == null || !_backupReadsHandler.execute(request))
+            super.execute(request);
+    }
+
+    <T extends RemoteOperationResult> void executeOnActiveMember(RemoteOperationRequest<T> request)
+            throws InterruptedException {
+        super.execute(request);
     }
 
     @Override
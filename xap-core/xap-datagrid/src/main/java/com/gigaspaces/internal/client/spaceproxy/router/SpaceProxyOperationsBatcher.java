@@ -0,0 +1,365 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.client.spaceproxy.router;
+
+import com.gigaspaces.client.ReadTakeByIdResult;
+import com.gigaspaces.client.ReadTakeByIdsException;
+import com.gigaspaces.internal.client.QueryResultTypeInternal;
+import com.gigaspaces.internal.client.spaceproxy.operations.ReadTakeEntriesByIdsSpaceOperationRequest;
+import com.gigaspaces.internal.client.spaceproxy.operations.ReadTakeEntriesByIdsSpaceOperationResult;
+import com.gigaspaces.internal.client.spaceproxy.operations.ReadTakeEntrySpaceOperationRequest;
+import com.gigaspaces.internal.client.spaceproxy.operations.ReadTakeEntrySpaceOperationResult;
+import com.gigaspaces.internal.client.spaceproxy.operations.SpaceOperationRequest;
+import com.gigaspaces.internal.client.spaceproxy.operations.WriteEntriesSpaceOperationRequest;
+import com.gigaspaces.internal.client.spaceproxy.operations.WriteEntriesSpaceOperationResult;
+import com.gigaspaces.internal.client.spaceproxy.operations.WriteEntrySpaceOperationRequest;
+import com.gigaspaces.internal.client.spaceproxy.operations.WriteEntrySpaceOperationResult;
+import com.gigaspaces.internal.remoting.RemoteOperationRequest;
+import com.gigaspaces.internal.remoting.routing.RemoteOperationRouter;
+import com.gigaspaces.internal.remoting.routing.partitioned.PartitionedClusterRemoteOperationRouter;
+import com.gigaspaces.internal.remoting.routing.partitioned.PartitionedClusterUtils;
+import com.gigaspaces.internal.server.space.operations.WriteEntriesResult;
+import com.gigaspaces.internal.transport.IEntryPacket;
+import com.j_spaces.core.IdQueryPacket;
+import com.j_spaces.core.IdsMultiRoutingQueryPacket;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Coalesces concurrent single entry operations (write, read by id and take by id) which are
+ * routed to the same partition into a single batch operation, and demultiplexes the batch result
+ * back to the requests.
+ *
+ * The first request which arrives to an empty queue becomes the leader of the next batch - it waits
+ * up to the batching window (or until the batch is full), and executes the batch on the caller
+ * thread. The other requests wait for the batch result, so no additional threads are used.
+ *
+ * @since 15.5
+ */
+@com.gigaspaces.api.InternalApi
+public class SpaceProxyOperationsBatcher {
+    private final PartitionedClusterRemoteOperationRouter _router;
+    private final int _maxBatchSize;
+    private final long _windowNanos;
+    private final ConcurrentHashMap<BatchKey, BatchQueue> _queues = new ConcurrentHashMap<BatchKey, BatchQueue>();
+
+    public SpaceProxyOperationsBatcher(PartitionedClusterRemoteOperationRouter router, int maxBatchSize, long windowMicros) {
+        this._router = router;
+        this._maxBatchSize = maxBatchSize;
+        this._windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+    }
+
+    /**
+     * Executes the request as part of a batch, if it can be batched.
+     *
+     * @return true if the request was executed, false if it should be executed as is
+     */
+    public boolean execute(RemoteOperationRequest<?> request) throws InterruptedException {
+        BatchKey key = getBatchKey(request);
+        if (key == null)
+            return false;
+        BatchQueue queue = _queues.get(key);
+        if (queue == null) {
+            BatchQueue newQueue = new BatchQueue(key);
+            queue = _queues.putIfAbsent(key, newQueue);
+            if (queue == null)
+                queue = newQueue;
+        }
+        queue.execute((SpaceOperationRequest<?>) request);
+        return true;
+    }
+
+    private BatchKey getBatchKey(RemoteOperationRequest<?> request) {
+        if (request instanceof WriteEntrySpaceOperationRequest) {
+            WriteEntrySpaceOperationRequest writeRequest = (WriteEntrySpaceOperationRequest) request;
+            if (writeRequest.getTransaction() != null || writeRequest.isUpdate() || writeRequest.getTimeout() != 0)
+                return null;
+            int partitionId = getPartitionId(request);
+            return partitionId == -1 ? null : new BatchKey(partitionId, writeRequest.getModifiers(), null, false, null);
+        }
+        if (request instanceof ReadTakeEntrySpaceOperationRequest) {
+            ReadTakeEntrySpaceOperationRequest readRequest = (ReadTakeEntrySpaceOperationRequest) request;
+            if (!(readRequest.getTemplatePacket() instanceof IdQueryPacket) || readRequest.getTransaction() != null
+                    || readRequest.getTimeout() != 0 || readRequest.isIfExists() || readRequest.isReturnOnlyUid()
+                    || readRequest.getExplainPlan() != null)
+                return null;
+            IdQueryPacket template = (IdQueryPacket) readRequest.getTemplatePacket();
+            if (template.getUID() != null || template.getID() == null || template.getVersion() != 0
+                    || template.getProjectionTemplate() != null || template.getRoutingFieldValue() == null)
+                return null;
+            int partitionId = getPartitionId(request);
+            return partitionId == -1 ? null : new BatchKey(partitionId, readRequest.getModifiers(), template.getTypeName(),
+                    readRequest.isTake(), template.getQueryResultType());
+        }
+        return null;
+    }
+
+    private int getPartitionId(RemoteOperationRequest<?> request) {
+        Object routingValue = request.getPartitionedClusterRoutingValue(_router);
+        int partitionId = PartitionedClusterUtils.getPartitionId(routingValue, _router.getClusterInfo());
+        if (partitionId == PartitionedClusterUtils.NO_PARTITION || partitionId >= _router.getNumOfPartitions())
+            return -1;
+        // operations on an embedded partition have no remote call to save
+        if (_router.getPartitionRouter(partitionId) instanceof SpaceEmbeddedRemoteOperationRouter)
+            return -1;
+        return partitionId;
+    }
+
+    private void executeBatch(BatchKey key, List<SpaceOperationRequest<?>> batch) throws InterruptedException {
+        RemoteOperationRouter partitionRouter = _router.getPartitionRouter(key._partitionId);
+        if (key._typeName == null)
+            executeWriteBatch(partitionRouter, key, batch);
+        else
+            executeReadTakeBatch(partitionRouter, key, batch);
+    }
+
+    private void executeWriteBatch(RemoteOperationRouter partitionRouter, BatchKey key, List<SpaceOperationRequest<?>> batch)
+            throws InterruptedException {
+        final int size = batch.size();
+        IEntryPacket[] packets = new IEntryPacket[size];
+        long[] leases = new long[size];
+        for (int i = 0; i < size; i++) {
+            WriteEntrySpaceOperationRequest request = (WriteEntrySpaceOperationRequest) batch.get(i);
+            packets[i] = request.getEntryPacket();
+            leases[i] = request.getLease();
+        }
+        WriteEntriesSpaceOperationRequest batchRequest = new WriteEntriesSpaceOperationRequest(null, null, packets,
+                null, leases[0], leases, 0, key._modifiers);
+        partitionRouter.execute(batchRequest);
+
+        WriteEntriesSpaceOperationResult batchResult = batchRequest.getRemoteOperationResult();
+        Exception batchException = batchResult != null ? batchResult.getExecutionException() : null;
+        WriteEntriesResult writeResults = batchResult != null ? batchResult.getResult() : null;
+        for (int i = 0; i < size; i++) {
+            WriteEntrySpaceOperationRequest request = (WriteEntrySpaceOperationRequest) batch.get(i);
+            if (batchException != null || writeResults == null)
+                request.setRemoteOperationResult(new WriteEntrySpaceOperationResult(null, batchException));
+            else if (writeResults.isError(i))
+                request.setRemoteOperationResult(new WriteEntrySpaceOperationResult(null, writeResults.getErrors()[i]));
+            else
+                request.setRemoteOperationResult(new WriteEntrySpaceOperationResult(writeResults.getResults()[i], null));
+        }
+    }
+
+    private void executeReadTakeBatch(RemoteOperationRouter partitionRouter, BatchKey key, List<SpaceOperationRequest<?>> batch)
+            throws InterruptedException {
+        final int size = batch.size();
+        Object[] ids = new Object[size];
+        Object[] routings = new Object[size];
+        IdQueryPacket firstTemplate = null;
+        for (int i = 0; i < size; i++) {
+            IdQueryPacket template = (IdQueryPacket) ((ReadTakeEntrySpaceOperationRequest) batch.get(i)).getTemplatePacket();
+            if (firstTemplate == null)
+                firstTemplate = template;
+            ids[i] = template.getID();
+            routings[i] = template.getRoutingFieldValue();
+        }
+        IdsMultiRoutingQueryPacket batchTemplate = new IdsMultiRoutingQueryPacket(ids, routings, 0,
+                firstTemplate.getTypeDescriptor(), key._queryResultType, null);
+        batchTemplate.setSerializeTypeDesc(firstTemplate.isSerializeTypeDesc());
+        ReadTakeEntriesByIdsSpaceOperationRequest batchRequest = new ReadTakeEntriesByIdsSpaceOperationRequest(batchTemplate,
+                key._take, key._modifiers, null);
+        partitionRouter.execute(batchRequest);
+
+        ReadTakeEntriesByIdsSpaceOperationResult batchResult = batchRequest.getRemoteOperationResult();
+        Exception batchException = batchResult != null ? batchResult.getExecutionException() : null;
+        ReadTakeByIdResult[] partialResults = batchException instanceof ReadTakeByIdsException
+                ? ((ReadTakeByIdsException) batchException).getResults() : null;
+        for (int i = 0; i < size; i++) {
+            ReadTakeEntrySpaceOperationResult result = new ReadTakeEntrySpaceOperationResult();
+            if (partialResults != null) {
+                if (partialResults[i].isError())
+                    result.setExecutionException(toException(partialResults[i].getError()));
+                else
+                    result.setEntryPacket((IEntryPacket) partialResults[i].getObject());
+            } else if (batchException != null || batchResult == null) {
+                result.setExecutionException(batchException);
+            } else {
+                result.setEntryPacket(batchResult.getEntryPackets()[i]);
+            }
+            ((ReadTakeEntrySpaceOperationRequest) batch.get(i)).setRemoteOperationResult(result);
+        }
+    }
+
+    private static Exception toException(Throwable t) {
+        return t instanceof Exception ? (Exception) t : new RuntimeException(t);
+    }
+
+    private static void setError(List<SpaceOperationRequest<?>> batch, Exception e) {
+        for (SpaceOperationRequest<?> request : batch)
+            request.setRemoteOperationExecutionError(e);
+    }
+
+    private class BatchQueue {
+        private final BatchKey _key;
+        private final ReentrantLock _lock = new ReentrantLock();
+        private final Condition _changed = _lock.newCondition();
+        private final List<PendingRequest> _pending = new ArrayList<PendingRequest>();
+        private boolean _hasLeader;
+
+        private BatchQueue(BatchKey key) {
+            this._key = key;
+        }
+
+        private void execute(SpaceOperationRequest<?> request) throws InterruptedException {
+            final PendingRequest pendingRequest = new PendingRequest(request);
+            _lock.lock();
+            try {
+                _pending.add(pendingRequest);
+                if (_pending.size() >= _maxBatchSize)
+                    _changed.signalAll();
+            } finally {
+                _lock.unlock();
+            }
+
+            // A request which is not drained by the current leader takes over once the leader drained its batch
+            while (true) {
+                List<PendingRequest> batch;
+                boolean interrupted = false;
+                _lock.lock();
+                try {
+                    if (pendingRequest._drained)
+                        break;
+                    if (_hasLeader) {
+                        try {
+                            _changed.await();
+                        } catch (InterruptedException e) {
+                            if (!pendingRequest._drained) {
+                                _pending.remove(pendingRequest);
+                                throw e;
+                            }
+                            Thread.currentThread().interrupt();
+                        }
+                        continue;
+                    }
+                    _hasLeader = true;
+                    try {
+                        interrupted = awaitBatch();
+                    } finally {
+                        batch = drain();
+                        _hasLeader = false;
+                        _changed.signalAll();
+                    }
+                } finally {
+                    _lock.unlock();
+                }
+                execute(batch);
+                if (interrupted)
+                    Thread.currentThread().interrupt();
+            }
+            pendingRequest._completed.await();
+        }
+
+        /**
+         * @return true if the leader was interrupted while waiting, in which case the batch is
+         * executed right away and the interruption is restored after it was executed
+         */
+        private boolean awaitBatch() {
+            long remaining = _windowNanos;
+            while (_pending.size() < _maxBatchSize && remaining > 0) {
+                try {
+                    remaining = _changed.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private List<PendingRequest> drain() {
+            final int size = Math.min(_pending.size(), _maxBatchSize);
+            List<PendingRequest> batch = new ArrayList<PendingRequest>(_pending.subList(0, size));
+            _pending.subList(0, size).clear();
+            for (PendingRequest pendingRequest : batch)
+                pendingRequest._drained = true;
+            return batch;
+        }
+
+        private void execute(List<PendingRequest> batch) throws InterruptedException {
+            List<SpaceOperationRequest<?>> requests = new ArrayList<SpaceOperationRequest<?>>(batch.size());
+            for (PendingRequest pendingRequest : batch)
+                requests.add(pendingRequest._request);
+            try {
+                executeBatch(_key, requests);
+            } catch (InterruptedException e) {
+                setError(requests, e);
+                throw e;
+            } catch (RuntimeException e) {
+                setError(requests, e);
+            } finally {
+                for (PendingRequest pendingRequest : batch)
+                    pendingRequest._completed.countDown();
+            }
+        }
+    }
+
+    private static class PendingRequest {
+        private final SpaceOperationRequest<?> _request;
+        private final CountDownLatch _completed = new CountDownLatch(1);
+        // guarded by the queue lock
+        private boolean _drained;
+
+        private PendingRequest(SpaceOperationRequest<?> request) {
+            this._request = request;
+        }
+    }
+
+    private static class BatchKey {
+        private final int _partitionId;
+        private final int _modifiers;
+        // null for write operations
+        private final String _typeName;
+        private final boolean _take;
+        private final QueryResultTypeInternal _queryResultType;
+
+        private BatchKey(int partitionId, int modifiers, String typeName, boolean take, QueryResultTypeInternal queryResultType) {
+            this._partitionId = partitionId;
+            this._modifiers = modifiers;
+            this._typeName = typeName;
+            this._take = take;
+            this._queryResultType = queryResultType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof BatchKey))
+                return false;
+            BatchKey other = (BatchKey) o;
+            return _partitionId == other._partitionId && _modifiers == other._modifiers && _take == other._take
+                    && _queryResultType == other._queryResultType
+                    && (_typeName == null ? other._typeName == null : _typeName.equals(other._typeName));
+        }
+
+        @Override
+        public int hashCode() {
+            int result = _partitionId;
+            result = 31 * result + _modifiers;
+            result = 31 * result + (_typeName != null ? _typeName.hashCode() : 0);
+            result = 31 * result + (_take ? 1 : 0);
+            result = 31 * result + (_queryResultType != null ? _queryResultType.hashCode() : 0);
+            return result;
+        }
+    }
+}
@@ -20,17 +20,22 @@ import com.gigaspaces.admin.quiesce.QuiesceToken;
 import com.gigaspaces.async.AsyncFutureListener;
 import com.gigaspaces.internal.client.spaceproxy.SpaceProxyImpl;
 import com.gigaspaces.internal.client.spaceproxy.operations.SpaceOperationResult;
+import com.gigaspaces.internal.cluster.PartitionToChunksMap;
 import com.gigaspaces.internal.cluster.SpaceClusterInfo;
 import com.gigaspaces.internal.cluster.SpaceProxyLoadBalancerType;
+import com.gigaspaces.internal.exceptions.ChunksMapGenerationException;
 import com.gigaspaces.internal.lookup.SpaceUrlUtils;
 import com.gigaspaces.internal.quiesce.QuiesceTokenProviderImpl;
 import com.gigaspaces.internal.remoting.RemoteOperationFutureListener;
 import com.gigaspaces.internal.remoting.RemoteOperationRequest;
+import com.gigaspaces.internal.remoting.RemoteOperationResult;
 import com.gigaspaces.internal.remoting.routing.clustered.PostponedAsyncOperationsQueue;
 import com.gigaspaces.internal.remoting.routing.clustered.RemoteOperationsExecutorProxy;
 import com.gigaspaces.internal.remoting.routing.clustered.RemoteOperationsExecutorsCluster;
 import com.gigaspaces.internal.remoting.routing.clustered.RemoteOperationsExecutorsClusterConfig;
 import com.gigaspaces.internal.remoting.routing.clustered.RemoteSpaceProxyLocator;
+import com.gigaspaces.internal.remoting.routing.partitioned.PartitionedClusterExecutionType;
+import com.gigaspaces.internal.remoting.routing.partitioned.PartitionedClusterRemoteOperationRouter;
 import com.gigaspaces.internal.remoting.routing.partitioned.PartitionedClusterUtils;
 import com.gigaspaces.internal.server.space.IRemoteSpace;
 import com.gigaspaces.internal.utils.CollectionUtils;
@@ -56,7 +61,11 @@ import org.slf4j.LoggerFactory;
  */
 @com.gigaspaces.api.InternalApi
 public class SpaceProxyRouter {
+    // requests rejected due to a stale chunks map are routed again with the new map
+    private static final int MAX_CHUNKS_MAP_RETRIES = 10;
+
     private final Logger _logger;
+    private final SpaceProxyImpl _spaceProxy;
     private final SpaceClusterInfo _clusterInfo;
     private SpaceContext _defaultSpaceContext;
     private final SpaceRemoteOperationsExecutorsClusterConfig _config;
@@ -67,9 +76,11 @@ public class SpaceProxyRouter {
     private final boolean isGateway;
     private final boolean isSecured;
     private final QuiesceTokenProviderImpl quiesceTokenProvider;
+    private final SpaceProxyOperationsBatcher _batcher;
 
     public SpaceProxyRouter(SpaceProxyImpl spaceProxy) {
         this._logger = LoggerFactory.getLogger(com.gigaspaces.logger.Constants.LOGGER_SPACEPROXY_ROUTER + '.' + spaceProxy.getName());
+        this._spaceProxy = spaceProxy;
         this._clusterInfo = spaceProxy.getSpaceClusterInfo();
         this.isGateway = spaceProxy.isGatewayProxy();
         this.isSecured = spaceProxy.isSecured();
@@ -103,6 +114,13 @@ public class SpaceProxyRouter {
                 this._router = createClusteredRouter(spaceProxy, CollectionUtils.toList(spaceProxy.getRemoteMemberName()), _config);
         }
 
+        this._batcher = _config.isBatchingEnabled() && _router instanceof PartitionedClusterRemoteOperationRouter
+                ? new SpaceProxyOperationsBatcher((PartitionedClusterRemoteOperationRouter) _router, _config.getBatchingMaxSize(), _config.getBatchingWindowMicros())
+                : null;
+        if (_batcher != null && _logger.isDebugEnabled())
+            _logger.debug("Batching single entry operations per partition - [max size=" + _config.getBatchingMaxSize() +
+                    ", window=" + _config.getBatchingWindowMicros() + "us]");
+
         warnIfOldConfigIsUsed(properties);
     }
 
@@ -219,15 +237,87 @@ public class SpaceProxyRouter {
 
     public <T extends SpaceOperationResult> void execute(RemoteOperationRequest<T> request)
             throws InterruptedException {
-        _router.execute(request);
+        if (_batcher == null || !_batcher.execute(request))
+            _router.execute(request);
+        if (_clusterInfo.isChunksRouting() && request.getPartitionedClusterExecutionType() == PartitionedClusterExecutionType.SINGLE)
+            retryIfStaleChunksMap(request);
+    }
+
+    /**
+     * Chunks of a partition may be migrated to another partition while the request is routed. In
+     * that case the request is rejected with the new chunks map, and it is routed again using a
+     * router of the new map. Operations on migrated chunks wait in the source partition until the
+     * new map is published, so the request is not retried if the map it was rejected with is not
+     * newer.
+     */
+    private <T extends SpaceOperationResult> void retryIfStaleChunksMap(RemoteOperationRequest<T> request)
+            throws InterruptedException {
+        SpaceProxyRouter router = this;
+        for (int attempt = 1; attempt <= MAX_CHUNKS_MAP_RETRIES; attempt++) {
+            router = router.getChunksMapRetryRouter(request, attempt);
+            if (router == null)
+                return;
+            router._router.execute(request);
+        }
+    }
+
+    /**
+     * @return router of the new chunks map to execute the request again, or null if the request
+     * was not rejected due to a stale chunks map
+     */
+    private SpaceProxyRouter getChunksMapRetryRouter(RemoteOperationRequest<?> request, int attempt) {
+        RemoteOperationResult result = request.getRemoteOperationResult();
+        if (result == null || !(result.getExecutionException() instanceof ChunksMapGenerationException))
+            return null;
+        PartitionToChunksMap newMap = ((ChunksMapGenerationException) result.getExecutionException()).getNewMap();
+        if (newMap == null || newMap.getGeneration() <= getChunksMapGeneration())
+            return null;
+        _spaceProxy.updateProxyRouter(this, newMap);
+        SpaceProxyRouter newRouter = _spaceProxy.getProxyRouter();
+        if (newRouter.getChunksMapGeneration() <= getChunksMapGeneration())
+            return null;
+        if (_logger.isDebugEnabled())
+            _logger.debug("Retrying request with chunks map generation " + newRouter.getChunksMapGeneration() + " [attempt=" + attempt + "]: " + request);
+        request.setRemoteOperationResult(null);
+        return newRouter;
     }
 
     public <T extends SpaceOperationResult> RemoteOperationFutureListener<T> executeAsync(RemoteOperationRequest<T> request, AsyncFutureListener<Object> listener) {
-        RemoteOperationFutureListener<T> futureListener = _router.createFutureListener(request, listener);
+        RemoteOperationFutureListener<T> futureListener;
+        if (_clusterInfo.isChunksRouting() && request.getPartitionedClusterExecutionType() == PartitionedClusterExecutionType.SINGLE)
+            futureListener = new ChunksMapRetryFutureListener<T>(this, listener);
+        else
+            futureListener = _router.createFutureListener(request, listener);
         _router.executeAsync(request, futureListener);
         return futureListener;
     }
 
+    /**
+     * Async version of {@link #retryIfStaleChunksMap(RemoteOperationRequest)}, requests of
+     * multiple partitions are scattered again by their future listener.
+     */
+    private static class ChunksMapRetryFutureListener<T extends RemoteOperationResult> extends RemoteOperationFutureListener<T> {
+        private SpaceProxyRouter _router;
+        private int _attempts;
+
+        private ChunksMapRetryFutureListener(SpaceProxyRouter router, AsyncFutureListener<Object> listener) {
+            super(router._logger, listener);
+            this._router = router;
+        }
+
+        @Override
+        protected boolean onOperationResultArrival(RemoteOperationRequest<T> request) {
+            if (_attempts >= MAX_CHUNKS_MAP_RETRIES)
+                return true;
+            SpaceProxyRouter newRouter = _router.getChunksMapRetryRouter(request, ++_attempts);
+            if (newRouter == null)
+                return true;
+            _router = newRouter;
+            newRouter._router.executeAsync(request, this);
+            return false;
+        }
+    }
+
     public void executeOneway(RemoteOperationRequest<?> request) throws InterruptedException {
         _router.executeOneway(request);
     }
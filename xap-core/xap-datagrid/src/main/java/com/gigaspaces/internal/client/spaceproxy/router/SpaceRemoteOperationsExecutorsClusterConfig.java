@@ -35,6 +35,13 @@ public class SpaceRemoteOperationsExecutorsClusterConfig implements RemoteOperat
     private final int _threadPoolSize;
     private SpaceProxyLoadBalancerType _loadBalancerType;
     private final int _numOfOperationsTypes;
+    private final boolean _batchingEnabled;
+    private final int _batchingMaxSize;
+    private final long _batchingWindowMicros;
+    private final long _backupReadsMaxStaleness;
+    private final boolean _backupReadsHedge;
+    private final int _backupReadsHedgePercentile;
+    private final long _backupReadsHedgeMinDelayMicros;
 
     public SpaceRemoteOperationsExecutorsClusterConfig() {
         this(null);
@@ -50,6 +57,20 @@ public class SpaceRemoteOperationsExecutorsClusterConfig implements RemoteOperat
         this._numOfOperationsTypes = SpaceOperationsCodes.NUM_OF_OPERATIONS;
         this._loadBalancerType = PropertiesUtils.getEnum(properties, Constants.SpaceProxy.Router.LOAD_BALANCER_TYPE,
                 SpaceProxyLoadBalancerType.class, SpaceProxyLoadBalancerType.STICKY);
+        this._batchingEnabled = PropertiesUtils.getBoolean(properties, Constants.SpaceProxy.Router.BATCHING_ENABLED,
+                Constants.SpaceProxy.Router.BATCHING_ENABLED_DEFAULT);
+        this._batchingMaxSize = PropertiesUtils.getInteger(properties, Constants.SpaceProxy.Router.BATCHING_MAX_SIZE,
+                Constants.SpaceProxy.Router.BATCHING_MAX_SIZE_DEFAULT);
+        this._batchingWindowMicros = PropertiesUtils.getLong(properties, Constants.SpaceProxy.Router.BATCHING_WINDOW_MICROS,
+                Constants.SpaceProxy.Router.BATCHING_WINDOW_MICROS_DEFAULT);
+        this._backupReadsMaxStaleness = PropertiesUtils.getLong(properties, Constants.SpaceProxy.Router.BACKUP_READS_MAX_STALENESS,
+                Constants.SpaceProxy.Router.BACKUP_READS_MAX_STALENESS_DEFAULT);
+        this._backupReadsHedge = PropertiesUtils.getBoolean(properties, Constants.SpaceProxy.Router.BACKUP_READS_HEDGE,
+                Constants.SpaceProxy.Router.BACKUP_READS_HEDGE_DEFAULT);
+        this._backupReadsHedgePercentile = PropertiesUtils.getInteger(properties, Constants.SpaceProxy.Router.BACKUP_READS_HEDGE_PERCENTILE,
+                Constants.SpaceProxy.Router.BACKUP_READS_HEDGE_PERCENTILE_DEFAULT);
+        this._backupReadsHedgeMinDelayMicros = PropertiesUtils.getLong(properties, Constants.SpaceProxy.Router.BACKUP_READS_HEDGE_MIN_DELAY_MICROS,
+                Constants.SpaceProxy.Router.BACKUP_READS_HEDGE_MIN_DELAY_MICROS_DEFAULT);
     }
 
     @Override
@@ -76,4 +97,44 @@ public class SpaceRemoteOperationsExecutorsClusterConfig implements RemoteOperat
     public int getNumOfOperationsTypes() {
         return _numOfOperationsTypes;
     }
+
+    /**
+     * @return true if concurrent single entry operations on the same partition should be
+     * coalesced into batch operations
+     */
+    public boolean isBatchingEnabled() {
+        return _batchingEnabled;
+    }
+
+    public int getBatchingMaxSize() {
+        return _batchingMaxSize;
+    }
+
+    public long getBatchingWindowMicros() {
+        return _batchingWindowMicros;
+    }
+
+    /**
+     * @return max staleness in milliseconds of reads by id which may be served by a backup member,
+     * 0 if reads are served only by the active member
+     */
+    public long getBackupReadsMaxStaleness() {
+        return _backupReadsMaxStaleness;
+    }
+
+    /**
+     * @return true if a read is sent to a backup member only when the active member did not reply
+     * within the hedge delay, false if a read is sent to a backup member first
+     */
+    public boolean isBackupReadsHedge() {
+        return _backupReadsHedge;
+    }
+
+    public int getBackupReadsHedgePercentile() {
+        return _backupReadsHedgePercentile;
+    }
+
+    public long getBackupReadsHedgeMinDelayMicros() {
+        return _backupReadsHedgeMinDelayMicros;
+    }
 }
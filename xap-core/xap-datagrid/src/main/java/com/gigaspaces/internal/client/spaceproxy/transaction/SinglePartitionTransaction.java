@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.gigaspaces.internal.client.spaceproxy.transaction;
+
+import com.gigaspaces.internal.client.QueryResultTypeInternal;
+import com.gigaspaces.internal.client.spaceproxy.ISpaceProxy;
+import com.gigaspaces.internal.client.spaceproxy.actioninfo.ReadTakeProxyActionInfo;
+import com.gigaspaces.internal.client.spaceproxy.actioninfo.WriteProxyActionInfo;
+import com.gigaspaces.internal.client.spaceproxy.executors.SinglePartitionTransactionTask;
+import com.gigaspaces.internal.cluster.SpaceClusterInfo;
+import com.gigaspaces.internal.remoting.routing.partitioned.PartitionedClusterUtils;
+import com.gigaspaces.internal.server.space.operations.WriteEntryResult;
+import com.gigaspaces.internal.space.requests.SinglePartitionTransactionRequestInfo;
+import com.gigaspaces.internal.space.requests.SinglePartitionTransactionRequestInfo.Operation;
+import com.gigaspaces.internal.space.requests.SinglePartitionTransactionRequestInfo.OperationType;
+import com.gigaspaces.internal.space.responses.SinglePartitionTransactionResponseInfo;
+import com.gigaspaces.internal.transport.IEntryPacket;
+import com.j_spaces.core.UnknownTypeException;
+import com.j_spaces.core.UnknownTypesException;
+
+import net.jini.core.lease.Lease;
+import net.jini.core.transaction.CannotCommitException;
+import net.jini.core.transaction.TransactionException;
+
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * A transaction whose operations are all routed to the same partition. The operations are
+ * collected by the proxy and sent to the partition in a single request when the transaction is
+ * committed, where they are executed and committed atomically without a transaction manager, a
+ * lease or a separate prepare phase.
+ *
+ * The operations are not executed until commit, so a read-modify-write is expressed by reading the
+ * entries beforehand and writing them back. Conflicts are detected only for entries which carry a
+ * version - objects of types with a version property and documents with a version. If such an
+ * entry was modified in the meantime, the version conflict aborts the transaction. Entries without
+ * a version are updated and taken regardless of concurrent modifications, so concurrent
+ * transactions which modify the same entries of such types silently overwrite each other, and the
+ * last one to commit wins. The partition is determined from the routing value of the first
+ * operation, and an operation routed to another partition is rejected.
+ *
+ * @since 15.5
+ */
+@com.gigaspaces.api.InternalApi
+public class SinglePartitionTransaction {
+    private final ISpaceProxy _spaceProxy;
+    private final List<Operation> _operations = new ArrayList<Operation>();
+    private final List<Object> _actionInfos = new ArrayList<Object>();
+    private Object _routing;
+    private int _partitionId;
+
+    public SinglePartitionTransaction(ISpaceProxy spaceProxy) {
+        this._spaceProxy = spaceProxy;
+    }
+
+    public SinglePartitionTransaction write(Object entry, int modifiers) {
+        return write(entry, Lease.FOREVER, modifiers);
+    }
+
+    public SinglePartitionTransaction write(Object entry, long lease, int modifiers) {
+        WriteProxyActionInfo actionInfo = new WriteProxyActionInfo(_spaceProxy, entry, null, lease, 0, modifiers);
+        OperationType type = actionInfo.isUpdate() ? OperationType.UPDATE : OperationType.WRITE;
+        return add(new Operation(type, actionInfo.entryPacket, actionInfo.modifiers, lease), actionInfo);
+    }
+
+    public SinglePartitionTransaction take(Object template, int modifiers) {
+        ReadTakeProxyActionInfo actionInfo = new ReadTakeProxyActionInfo(_spaceProxy, template, null, 0, modifiers, false, true);
+        return add(new Operation(OperationType.TAKE, actionInfo.queryPacket, actionInfo.modifiers, 0), actionInfo);
+    }
+
+    public SinglePartitionTransaction takeById(String className, Object id, Object routing, int modifiers) {
+        ReadTakeProxyActionInfo actionInfo = new ReadTakeProxyActionInfo(_spaceProxy, className, id, routing, 0, null, 0,
+                modifiers, QueryResultTypeInternal.NOT_SET, false, true, null, null);
+        return add(new Operation(OperationType.TAKE, actionInfo.queryPacket, actionInfo.modifiers, 0), actionInfo);
+    }
+
+    public int size() {
+        return _operations.size();
+    }
+
+    private SinglePartitionTransaction add(Operation operation, Object actionInfo) {
+        final Object routing = operation.getPacket().getRoutingFieldValue();
+        if (routing == null)
+            throw new IllegalArgumentException("Single partition transaction operation must have a routing value - " + operation.getPacket().getTypeName());
+        final SpaceClusterInfo clusterInfo = _spaceProxy.getDirectProxy().getSpaceClusterInfo();
+        final int partitionId = clusterInfo.isPartitioned() ? PartitionedClusterUtils.getPartitionId(routing, clusterInfo) : 0;
+        if (_operations.isEmpty()) {
+            _routing = routing;
+            _partitionId = partitionId;
+        } else if (partitionId != _partitionId) {
+            throw new IllegalArgumentException("Single partition transaction operation is routed to partition " + partitionId +
+                    " while previous operations are routed to partition " + _partitionId + " - " + operation.getPacket().getTypeName());
+        }
+        _operations.add(operation);
+        _actionInfos.add(actionInfo);
+        return this;
+    }
+
+    /**
+     * Executes and commits the operations of the transaction on their partition.
+     *
+     * @return result of each operation in the order they were added - the lease of each write and
+     * the taken entry (or null) of each take
+     * @throws CannotCommitException if an operation failed, in which case none of the operations
+     *                               took effect
+     */
+    public Object[] commit() throws TransactionException, RemoteException, InterruptedException {
+        if (_operations.isEmpty())
+            return new Object[0];
+
+        SinglePartitionTransactionResponseInfo response = execute();
+        if (response.getException() instanceof UnknownTypeException || response.getException() instanceof UnknownTypesException) {
+            // the partition does not know some type yet - the transaction was aborted so it is retried with the type descriptors
+            for (Operation operation : _operations)
+                operation.getPacket().setSerializeTypeDesc(true);
+            response = execute();
+        }
+        if (response.getException() != null)
+            throw new CannotCommitException(response.getFailedOperation() == -1
+                    ? "Single partition transaction failed to commit"
+                    : "Single partition transaction was aborted since operation #" + response.getFailedOperation() + " failed",
+                    response.getException());
+
+        final Object[] results = response.getResults();
+        for (int i = 0; i < results.length; i++)
+            results[i] = convertResult(i, results[i]);
+        return results;
+    }
+
+    private SinglePartitionTransactionResponseInfo execute()
+            throws TransactionException, RemoteException, InterruptedException {
+        final SinglePartitionTransactionTask task = new SinglePartitionTransactionTask(new SinglePartitionTransactionRequestInfo(_operations));
+        try {
+            return (SinglePartitionTransactionResponseInfo) _spaceProxy.execute(task, _routing, null, null).get();
+        } catch (ExecutionException e) {
+            throw new CannotCommitException("Single partition transaction failed to execute", e.getCause());
+        }
+    }
+
+    private Object convertResult(int index, Object result) {
+        final Object actionInfo = _actionInfos.get(index);
+        if (actionInfo instanceof WriteProxyActionInfo) {
+            final WriteProxyActionInfo writeActionInfo = (WriteProxyActionInfo) actionInfo;
+            return _spaceProxy.getDirectProxy().getTypeManager().processWriteResult((WriteEntryResult) result,
+                    writeActionInfo.entry, writeActionInfo.entryPacket);
+        }
+        return result != null ? ((ReadTakeProxyActionInfo) actionInfo).convertQueryResult(_spaceProxy, (IEntryPacket) result, null) : null;
+    }
+}
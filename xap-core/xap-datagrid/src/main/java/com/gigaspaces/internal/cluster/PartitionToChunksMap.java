@@ -6,6 +6,8 @@ import java.io.Externalizable;
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -58,20 +60,126 @@ public class PartitionToChunksMap implements Externalizable {
         this.numOfPartitions = numOfPartitions;
     }
 
+    public static int getChunkId(int routingValue) {
+        return routingValue % CHUNKS_COUNT;
+    }
+
+    public static int getChunkId(long routingValue) {
+        return (int) (routingValue % CHUNKS_COUNT);
+    }
+
     public int getPartitionId(int routingValue) {
-        int chunk = routingValue % CHUNKS_COUNT;
-        return getPartitionIdImpl(chunk);
+        return getPartitionIdByChunk(getChunkId(routingValue));
     }
 
     public int getPartitionId(long routingValue) {
-        int chunk = (int) (routingValue % CHUNKS_COUNT);
-        return getPartitionIdImpl(chunk);
+        return getPartitionIdByChunk(getChunkId(routingValue));
     }
 
-    private int getPartitionIdImpl(int chunk) {
+    /**
+     * @return zero based id of the partition which owns the chunk
+     */
+    public int getPartitionIdByChunk(int chunk) {
         return chunksToPartitionMap.get(chunk) - 1;
     }
 
+    /**
+     * @param partitionId zero based partition id
+     * @return the chunks owned by the partition
+     */
+    public Set<Integer> getChunks(int partitionId) {
+        Set<Integer> chunks = partitionsToChunksMap.get(partitionId + 1);
+        return chunks == null ? Collections.<Integer>emptySet() : Collections.unmodifiableSet(chunks);
+    }
+
+    /**
+     * Creates the map of the next generation, in which the specified chunks are owned by the target
+     * partition.
+     *
+     * @param targetPartitionId zero based partition id
+     */
+    public PartitionToChunksMap moveChunks(Collection<Integer> chunks, int targetPartitionId) {
+        if (targetPartitionId < 0 || targetPartitionId >= numOfPartitions)
+            throw new IllegalArgumentException("Illegal target partition id " + targetPartitionId + ", number of partitions is " + numOfPartitions);
+        PartitionToChunksMap result = copy(numOfPartitions, generation + 1);
+        for (Integer chunk : chunks) {
+            result.moveChunk(chunk, targetPartitionId + 1);
+        }
+        return result;
+    }
+
+    /**
+     * Creates the map of the next generation for a cluster which grows to the specified number of
+     * partitions. The new partitions take chunks from the most loaded partitions until all
+     * partitions own an even share, the rest of the chunks stay where they are.
+     */
+    public PartitionToChunksMap scaleOut(int newNumOfPartitions) {
+        if (newNumOfPartitions <= numOfPartitions)
+            throw new IllegalArgumentException("Cannot scale out from " + numOfPartitions + " to " + newNumOfPartitions + " partitions");
+        if (newNumOfPartitions > CHUNKS_COUNT)
+            throw new IllegalArgumentException("Number of partitions cannot exceed the number of chunks (" + CHUNKS_COUNT + ")");
+        PartitionToChunksMap result = copy(newNumOfPartitions, generation + 1);
+        int quota = CHUNKS_COUNT / newNumOfPartitions;
+        int remainder = CHUNKS_COUNT % newNumOfPartitions;
+        for (int partition = numOfPartitions + 1; partition <= newNumOfPartitions; partition++) {
+            int partitionQuota = partition <= remainder ? quota + 1 : quota;
+            while (result.getPartitionChunksCount(partition) < partitionQuota) {
+                Set<Integer> sourceChunks = result.partitionsToChunksMap.get(result.getMostLoadedPartition());
+                result.moveChunk(Collections.max(sourceChunks), partition);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param newMap            map of a later generation
+     * @param targetPartitionId zero based partition id
+     * @return the chunks which are owned by the target partition in the new map and by another
+     * partition in this map, grouped by their (zero based) current partition
+     */
+    public Map<Integer, Set<Integer>> getIncomingChunks(PartitionToChunksMap newMap, int targetPartitionId) {
+        Map<Integer, Set<Integer>> result = new HashMap<>();
+        for (Integer chunk : newMap.getChunks(targetPartitionId)) {
+            int currentPartitionId = getPartitionIdByChunk(chunk);
+            if (currentPartitionId == targetPartitionId)
+                continue;
+            Set<Integer> chunks = result.get(currentPartitionId);
+            if (chunks == null) {
+                chunks = new TreeSet<>();
+                result.put(currentPartitionId, chunks);
+            }
+            chunks.add(chunk);
+        }
+        return result;
+    }
+
+    private PartitionToChunksMap copy(int partitions, int newGeneration) {
+        PartitionToChunksMap result = new PartitionToChunksMap(partitions, newGeneration);
+        for (Map.Entry<Integer, Integer> entry : chunksToPartitionMap.entrySet()) {
+            result.addChunk(entry.getValue(), entry.getKey());
+            result.chunksToPartitionMap.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    private void moveChunk(int chunk, int partitionKey) {
+        Integer currentPartitionKey = chunksToPartitionMap.get(chunk);
+        if (currentPartitionKey == null)
+            throw new IllegalArgumentException("Illegal chunk " + chunk);
+        partitionsToChunksMap.get(currentPartitionKey).remove(chunk);
+        addChunk(partitionKey, chunk);
+        chunksToPartitionMap.put(chunk, partitionKey);
+    }
+
+    private int getMostLoadedPartition() {
+        int result = 1;
+        for (int partition = 2; partition <= numOfPartitions; partition++) {
+            if (getPartitionChunksCount(partition) > getPartitionChunksCount(result))
+                result = partition;
+        }
+        return result;
+    }
+
     public int getGeneration() {
         return generation;
     }
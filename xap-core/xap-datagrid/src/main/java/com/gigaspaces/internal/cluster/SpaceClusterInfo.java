@@ -64,7 +64,7 @@ public class SpaceClusterInfo implements Externalizable {
     private boolean clustered;
     private String clusterName;
     private String clusterSchema;
-    private PartitionToChunksMap chunksMap;
+    private volatile PartitionToChunksMap chunksMap;
     private boolean replicated;
     private boolean primaryElectionAvailable;
     private boolean activeActive;
@@ -65,6 +65,7 @@ import com.j_spaces.core.cluster.ReplicationPolicy;
 import com.j_spaces.core.cluster.ReplicationProcessingType;
 import com.j_spaces.core.filters.ReplicationStatistics.ReplicationMode;
 import com.j_spaces.core.sadapter.IStorageAdapter;
+import com.j_spaces.kernel.SystemProperties;
 
 import java.util.HashMap;
 import java.util.Iterator;
@@ -648,6 +649,10 @@ public class ReplicationNodeConfigBuilder {
         sourceSync.setThrottleController(createSyncGroupThrottleController(replicationPolicy));
         sourceSync.setBacklogBuilder(nodeBuilder.getReplicationBacklogBuilder());
         sourceSync.setChannelType(channelType);
+        sourceSync.setGroupCommit(Long.getLong(SystemProperties.REPLICATION_GROUP_COMMIT_MAX_DELAY_MICROS,
+                        SystemProperties.REPLICATION_GROUP_COMMIT_MAX_DELAY_MICROS_DEFAULT),
+                Integer.getInteger(SystemProperties.REPLICATION_GROUP_COMMIT_MAX_BATCH_SIZE,
+                        SystemProperties.REPLICATION_GROUP_COMMIT_MAX_BATCH_SIZE_DEFAULT));
         replicationNodeConfig.addSourceGroupBuilder(sourceSync,
                 ReplicationNodeMode.ACTIVE);
     }
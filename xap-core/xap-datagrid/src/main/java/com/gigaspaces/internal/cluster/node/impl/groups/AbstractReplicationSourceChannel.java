@@ -591,7 +591,7 @@ public abstract class AbstractReplicationSourceChannel
 
         boolean containsDiscardedPacket = invokeBeforeReplicatingChannelDataFilter(packets);
 
-        return replicateBatchAfterChannelFilter(packets, containsDiscardedPacket);
+        return replicateBatchAfterChannelFilter(packets, containsDiscardedPacket, true);
     }
 
     protected int replicate(IReplicationOrderedPacket packet)
@@ -611,7 +611,7 @@ public abstract class AbstractReplicationSourceChannel
 
         boolean containsDiscardedPacket = invokeBeforeReplicatingChannelDataFilter(packets);
 
-        return replicateBatchAsyncAfterChannelFilter(packets, null, containsDiscardedPacket);
+        return replicateBatchAsyncAfterChannelFilter(packets, null, containsDiscardedPacket, true);
     }
 
     protected Future replicateAsync(IReplicationOrderedPacket packet)
@@ -625,7 +625,7 @@ public abstract class AbstractReplicationSourceChannel
     }
 
     private int replicateBatchAfterChannelFilter(
-            List<IReplicationOrderedPacket> packets, boolean containsDiscardedPacket) throws RemoteException,
+            List<IReplicationOrderedPacket> packets, boolean containsDiscardedPacket, boolean synchronous) throws RemoteException,
             ReplicationException {
         invokeOutputFilterIfNeeded(packets, containsDiscardedPacket);
         if (_specificLogger.isTraceEnabled())
@@ -635,7 +635,7 @@ public abstract class AbstractReplicationSourceChannel
         int replicatedCompleted = 0;
         try {
             replicatedCompleted = dispatchBatchReplicationPacket(packets,
-                    replicatedDataPacketResource);
+                    replicatedDataPacketResource, synchronous);
             // Accumulate statistics
             _statisticsCounter.add(packets.size());
         } finally {
@@ -646,11 +646,12 @@ public abstract class AbstractReplicationSourceChannel
 
     private int dispatchBatchReplicationPacket(
             List<IReplicationOrderedPacket> packets,
-            ReplicatedDataPacketResource replicatedDataPacketResource)
+            ReplicatedDataPacketResource replicatedDataPacketResource, boolean synchronous)
             throws RemoteException, ReplicationException {
         try {
             BatchReplicatedDataPacket batchPacket = replicatedDataPacketResource.getBatchPacket();
             batchPacket.setBatch(packets);
+            batchPacket.setSynchronous(synchronous);
             Object wiredProcessResult = getConnection().dispatch(batchPacket);
             IProcessResult processResult = _groupBacklog.fromWireForm(wiredProcessResult);
 
@@ -818,7 +819,8 @@ public abstract class AbstractReplicationSourceChannel
     }
 
     private Future replicateBatchAsyncAfterChannelFilter(
-            List<IReplicationOrderedPacket> packets, final IAsyncReplicationListener listener, boolean containsDiscardedPacket) throws RemoteException {
+            List<IReplicationOrderedPacket> packets, final IAsyncReplicationListener listener, boolean containsDiscardedPacket,
+            boolean synchronous) throws RemoteException {
         final boolean containsDiscarded = invokeOutputFilterIfNeeded(packets, containsDiscardedPacket);
         final List<IReplicationOrderedPacket> finalPackets = packets;
 
@@ -832,6 +834,7 @@ public abstract class AbstractReplicationSourceChannel
             BatchReplicatedDataPacket batchPacket = replicatedDataPacketResource.getBatchPacket();
 
             batchPacket.setBatch(finalPackets);
+            batchPacket.setSynchronous(synchronous);
 
             if(_isNetworkCompressionEnabled) {
 
@@ -993,7 +996,7 @@ public abstract class AbstractReplicationSourceChannel
         // Execute before delayed first to filter obsolete packets
         boolean containsDiscardedPacket = beforeDelayedReplication(packets);
         // Replicate packets
-        replicateBatchAfterChannelFilter(packets, containsDiscardedPacket);
+        replicateBatchAfterChannelFilter(packets, containsDiscardedPacket, false);
     }
 
     protected void replicateBatchDelayedAsync(List<IReplicationOrderedPacket> packets, IAsyncReplicationListener listener)
@@ -1001,7 +1004,7 @@ public abstract class AbstractReplicationSourceChannel
         // Execute before delayed first to filter obsolete packets
         boolean containsDiscardedPacket = beforeDelayedReplication(packets);
         // Replicate packets in async manner
-        replicateBatchAsyncAfterChannelFilter(packets, listener, containsDiscardedPacket);
+        replicateBatchAsyncAfterChannelFilter(packets, listener, containsDiscardedPacket, false);
     }
 
     private boolean invokeOutputFilterIfNeeded(
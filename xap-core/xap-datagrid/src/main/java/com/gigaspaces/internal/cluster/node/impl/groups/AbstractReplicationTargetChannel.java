@@ -32,6 +32,7 @@ import com.gigaspaces.internal.cluster.node.impl.packets.data.IReplicationPacket
 import com.gigaspaces.internal.cluster.node.impl.processlog.IProcessLogHandshakeResponse;
 import com.gigaspaces.internal.cluster.node.impl.processlog.IProcessResult;
 import com.gigaspaces.internal.cluster.node.impl.processlog.IReplicationTargetProcessLog;
+import com.gigaspaces.internal.cluster.node.impl.processlog.globalorder.GlobalOrderProcessResult;
 import com.gigaspaces.internal.cluster.node.impl.router.IConnectionStateListener;
 import com.gigaspaces.internal.cluster.node.impl.router.IConnectivityCheckListener;
 import com.gigaspaces.internal.cluster.node.impl.router.IReplicationMonitoredConnection;
@@ -78,6 +79,10 @@ public abstract class AbstractReplicationTargetChannel
     //having packets being processes but the time stamp is not flushed to memory is extremely low.
     //Worse case the upper layer will think there was no process progress and restart recovery process
     private long _lastProcessTimeStamp = -1;
+    //The arrival time of the last packet which was replicated synchronously (not from the backlog) and processed. A global order process log
+    //processes it only after all the preceding packets, hence once processed the target holds all the operations the source
+    //acknowledged before the packet was sent. Same visibility considerations as above.
+    private long _lastSyncProcessTimeStamp = -1;
 
 
     public AbstractReplicationTargetChannel(TargetGroupConfig groupConfig,
@@ -127,17 +132,19 @@ public abstract class AbstractReplicationTargetChannel
         return _sourceEndpointDetails.getUniqueId();
     }
 
-    public Object processBatch(List<IReplicationOrderedPacket> packets) {
+    public Object processBatch(List<IReplicationOrderedPacket> packets, boolean synchronous) {
         if (_specificLogger.isTraceEnabled())
             _specificLogger.trace("Incoming packets: " + ReplicationLogUtils.packetsToLogString(packets));
 
-        updateLastProcessTimeStamp();
+        final long arrivalTimeStamp = updateLastProcessTimeStamp();
 
         // Process packets
         IProcessResult processResult = _processLog.processBatch(getSourceLookupName(),
                 packets,
                 _isInFiltered ? this
                         : null);
+        if (synchronous)
+            updateLastSyncProcessTimeStamp(processResult, arrivalTimeStamp);
         logProcessResultIfNecessary(processResult, packets);
         return _processLog.toWireForm(processResult);
     }
@@ -172,21 +179,30 @@ public abstract class AbstractReplicationTargetChannel
         }
     }
 
-    private void updateLastProcessTimeStamp() {
-        _lastProcessTimeStamp = SystemTime.timeMillis();
+    private long updateLastProcessTimeStamp() {
+        final long timeStamp = SystemTime.timeMillis();
+        _lastProcessTimeStamp = timeStamp;
+        return timeStamp;
+    }
+
+    private void updateLastSyncProcessTimeStamp(IProcessResult processResult, long arrivalTimeStamp) {
+        // Multi bucket process logs process a packet once its own buckets are in order, which does not imply the rest
+        if (processResult == GlobalOrderProcessResult.OK)
+            _lastSyncProcessTimeStamp = arrivalTimeStamp;
     }
 
     public Object process(IReplicationOrderedPacket packet) {
         if (_specificLogger.isTraceEnabled())
             _specificLogger.trace("Incoming packet: " + packet);
 
-        updateLastProcessTimeStamp();
+        final long arrivalTimeStamp = updateLastProcessTimeStamp();
 
         // Process packets
         IProcessResult processResult = _processLog.process(getSourceLookupName(),
                 packet,
                 _isInFiltered ? this
                         : null);
+        updateLastSyncProcessTimeStamp(processResult, arrivalTimeStamp);
         if (_specificVerboseLogger.isTraceEnabled())
             _specificVerboseLogger.trace("Returning " + processResult.toString() + " for received packet [packetKey=" + packet.getKey() + "]");
 
@@ -447,6 +463,18 @@ public abstract class AbstractReplicationTargetChannel
         }
     }
 
+    /**
+     * @return the local time in which this target was last known to contain all the operations the
+     * source has acknowledged, or -1 if it is not known. Packets which are replicated from the source
+     * backlog (i.e while the target is lagging) do not advance it.
+     */
+    public long getLastSyncProcessTimeStamp() {
+        //Force memory barrier
+        synchronized (_lastProcessSampleLock) {
+            return _lastSyncProcessTimeStamp;
+        }
+    }
+
     private boolean requiresHighLevelLogging() {
         //Safety code, should not occur
         if (_channelType == null)
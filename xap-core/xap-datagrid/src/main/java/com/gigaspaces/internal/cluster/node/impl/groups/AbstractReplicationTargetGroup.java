@@ -289,13 +289,13 @@ public abstract class AbstractReplicationTargetGroup
     }
 
     public Object processBatch(String sourceMemberLookupName,
-                               Object sourceUniqueId, List<IReplicationOrderedPacket> packets) {
+                               Object sourceUniqueId, List<IReplicationOrderedPacket> packets, boolean synchronous) {
         validNotClosed();
 
         AbstractReplicationTargetChannel channel = getCorrespondingChannel(sourceMemberLookupName,
                 sourceUniqueId);
 
-        return channel.processBatch(packets);
+        return channel.processBatch(packets, synchronous);
     }
 
     @Override
@@ -405,6 +405,14 @@ public abstract class AbstractReplicationTargetGroup
         return -1;
     }
 
+    @Override
+    public long getLastSyncProcessTimeStamp(String replicaSourceLookupName) {
+        AbstractReplicationTargetChannel channel = _channels.get(replicaSourceLookupName);
+        if (channel != null)
+            return channel.getLastSyncProcessTimeStamp();
+        return -1;
+    }
+
     public synchronized void addSynchronizeState(String sourceMemberLookupName,
                                                  SpaceReplicaState spaceReplicaState) {
         _spaceReplicaStates.put(sourceMemberLookupName, spaceReplicaState);
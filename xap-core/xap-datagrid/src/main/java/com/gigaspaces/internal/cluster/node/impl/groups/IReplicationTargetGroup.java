@@ -59,7 +59,7 @@ public interface IReplicationTargetGroup {
                                    Object sourceUniqueId, IHandshakeIteration handshakeIteration);
 
     Object processBatch(String sourceMemberLookupName,
-                        Object sourceUniqueId, List<IReplicationOrderedPacket> packets);
+                        Object sourceUniqueId, List<IReplicationOrderedPacket> packets, boolean synchronous);
 
     Object process(String sourceMemberLookupName,
                    Object sourceUniqueId, IReplicationOrderedPacket packet);
@@ -77,6 +77,13 @@ public interface IReplicationTargetGroup {
 
     long getLastProcessTimeStamp(String replicaSourceLookupName);
 
+    /**
+     * @return the local time in which this group was last known to contain all the operations the
+     * specified source has acknowledged, or -1 if it is not known
+     * @since 15.5
+     */
+    long getLastSyncProcessTimeStamp(String replicaSourceLookupName);
+
     String getGroupName();
 
     void setActive();
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.gigaspaces.internal.cluster.node.impl.groups.sync;
+
+import com.gigaspaces.internal.cluster.node.impl.packets.IReplicationOrderedPacket;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit stage of a sync replication group. When a replication is executed while another
+ * one is in flight, it is not dispatched on its own but waits for the in flight replication to
+ * complete (up to a max delay), and is then dispatched together with all the replications that
+ * arrived meanwhile as one batch, which releases all of their committers once it is acknowledged.
+ * Without contention a replication is dispatched immediately, and a committer is released only
+ * after its own packets were replicated, so the replication guarantees are not changed.
+ *
+ * @since 15.5
+ */
+@com.gigaspaces.api.InternalApi
+public class SyncReplicationGroupCommitter {
+
+    public interface Dispatcher {
+        int dispatch(ISyncReplicationGroupOutContext context);
+    }
+
+    private static final Comparator<IReplicationOrderedPacket> KEY_COMPARATOR = new Comparator<IReplicationOrderedPacket>() {
+        @Override
+        public int compare(IReplicationOrderedPacket o1, IReplicationOrderedPacket o2) {
+            return o1.getKey() < o2.getKey() ? -1 : (o1.getKey() == o2.getKey() ? 0 : 1);
+        }
+    };
+
+    private final String _groupName;
+    private final Dispatcher _dispatcher;
+    private final long _maxDelayNanos;
+    private final int _maxBatchSize;
+    private final Object _lock = new Object();
+    private PendingCommits _pending;
+    private int _inFlight;
+
+    public SyncReplicationGroupCommitter(String groupName, Dispatcher dispatcher, long maxDelayNanos, int maxBatchSize) {
+        this._groupName = groupName;
+        this._dispatcher = dispatcher;
+        this._maxDelayNanos = maxDelayNanos;
+        this._maxBatchSize = maxBatchSize;
+    }
+
+    public int execute(ISyncReplicationGroupOutContext context) {
+        final PendingCommits pending;
+        final boolean leader;
+        synchronized (_lock) {
+            if (_inFlight == 0 && _pending == null) {
+                _inFlight++;
+                pending = null;
+                leader = false;
+            } else {
+                leader = _pending == null;
+                if (leader)
+                    _pending = new PendingCommits(System.nanoTime() + _maxDelayNanos);
+                pending = _pending;
+                pending.add(context);
+                // a full batch is closed, and its leader dispatches it without waiting
+                if (pending.size() >= _maxBatchSize) {
+                    _pending = null;
+                    _lock.notifyAll();
+                }
+            }
+        }
+
+        if (pending == null)
+            return dispatch(context);
+        if (!leader)
+            return pending.await();
+
+        awaitDispatchTurn(pending);
+        final int result;
+        try {
+            result = dispatch(pending.merge());
+        } catch (RuntimeException e) {
+            pending.complete(0, e);
+            throw e;
+        } catch (Error e) {
+            pending.complete(0, e);
+            throw e;
+        }
+        pending.complete(result, null);
+        return result;
+    }
+
+    private void awaitDispatchTurn(PendingCommits pending) {
+        boolean interrupted = false;
+        synchronized (_lock) {
+            long remaining;
+            while (_pending == pending && _inFlight != 0 && (remaining = pending._deadline - System.nanoTime()) > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(_lock, remaining);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (_pending == pending)
+                _pending = null;
+            _inFlight++;
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+    private int dispatch(ISyncReplicationGroupOutContext context) {
+        try {
+            return _dispatcher.dispatch(context);
+        } finally {
+            synchronized (_lock) {
+                _inFlight--;
+                _lock.notifyAll();
+            }
+        }
+    }
+
+    private class PendingCommits {
+        private final long _deadline;
+        private final List<ISyncReplicationGroupOutContext> _contexts = new ArrayList<ISyncReplicationGroupOutContext>();
+        private final CountDownLatch _completionLatch = new CountDownLatch(1);
+        private int _size;
+        private volatile int _result;
+        private volatile Throwable _error;
+
+        private PendingCommits(long deadline) {
+            this._deadline = deadline;
+        }
+
+        private void add(ISyncReplicationGroupOutContext context) {
+            _contexts.add(context);
+            _size += context.size();
+        }
+
+        private int size() {
+            return _size;
+        }
+
+        private ISyncReplicationGroupOutContext merge() {
+            if (_contexts.size() == 1)
+                return _contexts.get(0);
+            final List<IReplicationOrderedPacket> packets = new ArrayList<IReplicationOrderedPacket>(_size);
+            for (ISyncReplicationGroupOutContext context : _contexts) {
+                if (context.isSinglePacket())
+                    packets.add(context.getSinglePacket());
+                else
+                    packets.addAll(context.getOrderedPackets());
+            }
+            // each context holds packets of its own committer, the batch must be ordered by backlog keys
+            Collections.sort(packets, KEY_COMPARATOR);
+            final SyncReplicationGroupOutContext mergedContext = new SyncReplicationGroupOutContext(_groupName);
+            for (IReplicationOrderedPacket packet : packets)
+                mergedContext.addOrderedPacket(packet);
+            return mergedContext;
+        }
+
+        private void complete(int result, Throwable error) {
+            _result = result;
+            _error = error;
+            _completionLatch.countDown();
+        }
+
+        private int await() {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    _completionLatch.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted)
+                Thread.currentThread().interrupt();
+            if (_error instanceof RuntimeException)
+                throw (RuntimeException) _error;
+            if (_error instanceof Error)
+                throw (Error) _error;
+            return _result;
+        }
+    }
+}
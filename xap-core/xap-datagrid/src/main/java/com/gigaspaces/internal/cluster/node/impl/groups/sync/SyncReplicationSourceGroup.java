@@ -44,6 +44,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 
 @com.gigaspaces.api.InternalApi
@@ -62,6 +63,7 @@ public class SyncReplicationSourceGroup
     final private boolean _singleTarget;
     final private SyncReplicationSourceChannel _singleTargetChannel;
     final private ReplicationMode _channelType;
+    final private SyncReplicationGroupCommitter _groupCommitter;
 
     public SyncReplicationSourceGroup(
             DynamicSourceGroupConfigHolder groupConfig,
@@ -72,7 +74,8 @@ public class SyncReplicationSourceGroup
             int asyncStateBatchSize, long idleDelayMilis,
             IReplicationSyncGroupBacklog groupBacklog, String myLookupName,
             IReplicationSourceGroupStateListener stateListener,
-            ReplicationMode channelType) {
+            ReplicationMode channelType,
+            long groupCommitMaxDelayMicros, int groupCommitMaxBatchSize) {
         super(groupConfig,
                 replicationRouter,
                 groupBacklog,
@@ -96,6 +99,12 @@ public class SyncReplicationSourceGroup
             // In multi target scenario.
             _singleTargetChannel = null;
         }
+        _groupCommitter = groupCommitMaxDelayMicros > 0 ? new SyncReplicationGroupCommitter(getGroupName(), new SyncReplicationGroupCommitter.Dispatcher() {
+            @Override
+            public int dispatch(ISyncReplicationGroupOutContext context) {
+                return executeGroupContext(context);
+            }
+        }, TimeUnit.MICROSECONDS.toNanos(groupCommitMaxDelayMicros), groupCommitMaxBatchSize) : null;
     }
 
     private SyncReplicationSourceChannel[] prepareChannelsArray() {
@@ -137,6 +146,12 @@ public class SyncReplicationSourceGroup
         if (groupContext.isEmpty())
             return 0;
         ISyncReplicationGroupOutContext syncGroupContext = (ISyncReplicationGroupOutContext) groupContext;
+        if (_groupCommitter != null)
+            return _groupCommitter.execute(syncGroupContext);
+        return executeGroupContext(syncGroupContext);
+    }
+
+    private int executeGroupContext(ISyncReplicationGroupOutContext syncGroupContext) {
         int res = 0;
         if (isSingleTarget())
             return _singleTargetChannel.execute(syncGroupContext);
@@ -39,6 +39,8 @@ public class SyncReplicationSourceGroupBuilder
     private long _asyncStateIdleDelayMilis;
     private IReplicationThrottleControllerBuilder _throttleControllerBuilder;
     private ReplicationMode _channelType;
+    private long _groupCommitMaxDelayMicros;
+    private int _groupCommitMaxBatchSize;
 
     public SyncReplicationSourceGroupBuilder(
             DynamicSourceGroupConfigHolder groupConfig) {
@@ -71,6 +73,18 @@ public class SyncReplicationSourceGroupBuilder
         _asyncStateIdleDelayMilis = asyncStateIdleDelayMilis;
     }
 
+    /**
+     * @param maxDelayMicros max time a replication waits for an in flight replication in order to
+     *                       be dispatched in the same batch with other replications, 0 disables
+     *                       group commit
+     * @param maxBatchSize   number of packets after which a group commit batch is dispatched
+     *                       without waiting
+     */
+    public void setGroupCommit(long maxDelayMicros, int maxBatchSize) {
+        _groupCommitMaxDelayMicros = maxDelayMicros;
+        _groupCommitMaxBatchSize = maxBatchSize;
+    }
+
     public IReplicationSourceGroup createGroupImpl(
             DynamicSourceGroupConfigHolder groupConfig,
             IReplicationRouter replicationRouter,
@@ -87,7 +101,9 @@ public class SyncReplicationSourceGroupBuilder
                 groupBacklog,
                 replicationRouter.getMyLookupName(),
                 stateListener,
-                _channelType);
+                _channelType,
+                _groupCommitMaxDelayMicros,
+                _groupCommitMaxBatchSize);
     }
 
     @Override
@@ -97,7 +113,9 @@ public class SyncReplicationSourceGroupBuilder
                 + _asyncHandlerProvider + ", _asyncStateBatchSize="
                 + _asyncStateBatchSize + ", _backlogBuilder=" + _backlogBuilder
                 + ", _asyncStateIdleDelayMilis=" + _asyncStateIdleDelayMilis
-                + ", _throttleControllerBuilder=" + _throttleControllerBuilder + "]";
+                + ", _throttleControllerBuilder=" + _throttleControllerBuilder
+                + ", _groupCommitMaxDelayMicros=" + _groupCommitMaxDelayMicros
+                + ", _groupCommitMaxBatchSize=" + _groupCommitMaxBatchSize + "]";
     }
 
 }
@@ -44,6 +44,8 @@ public class BatchReplicatedDataPacket
 
     private boolean _compressed = false;
 
+    private boolean _synchronous = false;
+
     private transient boolean _clean = true;
 
     public BatchReplicatedDataPacket() {
@@ -60,8 +62,8 @@ public class BatchReplicatedDataPacket
     @Override
     public Object accept(IIncomingReplicationFacade replicationFacade) {
         IReplicationTargetGroup targetGroup = replicationFacade.getReplicationTargetGroup(getGroupName());
-        if(_compressed) return targetGroup.processBatch(getSourceLookupName(), getSourceUniqueId(), decompressBatch());
-        return targetGroup.processBatch(getSourceLookupName(), getSourceUniqueId(), _batch);
+        if(_compressed) return targetGroup.processBatch(getSourceLookupName(), getSourceUniqueId(), decompressBatch(), _synchronous);
+        return targetGroup.processBatch(getSourceLookupName(), getSourceUniqueId(), _batch, _synchronous);
     }
 
     public void readExternalImpl(ObjectInput in, PlatformLogicalVersion endpointLogicalVersion) throws IOException,
@@ -74,6 +76,8 @@ public class BatchReplicatedDataPacket
                 _totalBatchKeySize = in.readInt();
             }
         }
+        if (endpointLogicalVersion.greaterOrEquals(PlatformLogicalVersion.v15_5_0))
+            _synchronous = in.readBoolean();
     }
 
     public void writeExternalImpl(ObjectOutput out, PlatformLogicalVersion endpointLogicalVersion) throws IOException {
@@ -90,6 +94,8 @@ public class BatchReplicatedDataPacket
                 out.writeInt(_totalBatchKeySize);
             }
         }
+        if (endpointLogicalVersion.greaterOrEquals(PlatformLogicalVersion.v15_5_0))
+            out.writeBoolean(_synchronous);
     }
 
     public void setBatch(List<IReplicationOrderedPacket> batch) {
@@ -105,10 +111,23 @@ public class BatchReplicatedDataPacket
         return _batch;
     }
 
+    /**
+     * @param synchronous true if the batch is replicated as part of the operations which generated
+     *                    it, false if it is replicated from the backlog
+     */
+    public void setSynchronous(boolean synchronous) {
+        _synchronous = synchronous;
+    }
+
+    public boolean isSynchronous() {
+        return _synchronous;
+    }
+
     public void clean() {
         _clean = true;
         _batch = null;
         _compressed = false;
+        _synchronous = false;
         _startKey = 0;
         _totalBatchKeySize = 0;
     }
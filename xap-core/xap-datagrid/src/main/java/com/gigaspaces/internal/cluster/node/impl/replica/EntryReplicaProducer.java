@@ -23,6 +23,7 @@ import com.gigaspaces.internal.cluster.node.impl.replica.data.EntryCopyReplicaDa
 import com.gigaspaces.internal.cluster.node.impl.replica.data.EntrySynchronizeReplicaData;
 import com.gigaspaces.internal.cluster.node.replica.SpaceCopyReplicaParameters;
 import com.gigaspaces.internal.metadata.ITypeDesc;
+import com.gigaspaces.internal.remoting.routing.partitioned.PartitionedClusterUtils;
 import com.gigaspaces.internal.server.metadata.IServerTypeDesc;
 import com.gigaspaces.internal.server.space.MatchResult;
 import com.gigaspaces.internal.server.space.SpaceEngine;
@@ -188,6 +189,10 @@ public class EntryReplicaProducer
         if (!_isFullReplication && !typeDesc.isReplicable())
             return false; // non replicable entry - ignore
 
+        if (_parameters.hasChunksFilter()
+                && !_parameters.isIncludedChunk(PartitionedClusterUtils.getChunkId(entry.getRoutingValue())))
+            return false; // entry of a chunk which is not copied - ignore
+
         return true;
     }
 
@@ -27,6 +27,8 @@ import com.j_spaces.core.SpaceContext;
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -46,6 +48,7 @@ public class SpaceCopyReplicaParameters implements ISpaceCopyReplicaParameters {
     private SpaceContext _spaceContext;
     private DirectPersistencySyncListFetcher _fetcher;
     private transient List<String> _syncList;
+    private BitSet _chunks; //used to copy only the entries whose routing value belongs to these chunks
 
     public SpaceCopyReplicaParameters() {
     }
@@ -68,7 +71,9 @@ public class SpaceCopyReplicaParameters implements ISpaceCopyReplicaParameters {
         if (LRMIInvocationContext.getEndpointLogicalVersion().greaterOrEquals(PlatformLogicalVersion.v10_2_0)) {
             IOUtils.writeObject(out, _fetcher);
         }
-
+        if (LRMIInvocationContext.getEndpointLogicalVersion().greaterOrEquals(PlatformLogicalVersion.v15_5_0)) {
+            IOUtils.writeObject(out, _chunks);
+        }
     }
 
     public void readExternal(ObjectInput in) throws IOException,
@@ -88,6 +93,9 @@ public class SpaceCopyReplicaParameters implements ISpaceCopyReplicaParameters {
         if (LRMIInvocationContext.getEndpointLogicalVersion().greaterOrEquals(PlatformLogicalVersion.v10_2_0)) {
             _fetcher = IOUtils.readObject(in);
         }
+        if (LRMIInvocationContext.getEndpointLogicalVersion().greaterOrEquals(PlatformLogicalVersion.v15_5_0)) {
+            _chunks = IOUtils.readObject(in);
+        }
     }
 
     public boolean isCopyNotifyTemplates() {
@@ -162,6 +170,20 @@ public class SpaceCopyReplicaParameters implements ISpaceCopyReplicaParameters {
         return _includeEvictionReplicationMarkers;
     }
 
+    public void setChunks(Collection<Integer> chunks) {
+        _chunks = new BitSet();
+        for (Integer chunk : chunks)
+            _chunks.set(chunk);
+    }
+
+    public boolean hasChunksFilter() {
+        return _chunks != null;
+    }
+
+    public boolean isIncludedChunk(int chunk) {
+        return _chunks == null || (chunk >= 0 && _chunks.get(chunk));
+    }
+
     @Override
     public String toString() {
         return "ReplicaType=" + _replicaType + StringUtils.NEW_LINE +
@@ -170,6 +192,7 @@ public class SpaceCopyReplicaParameters implements ISpaceCopyReplicaParameters {
                 "MemoryOnly=" + _memoryOnly + StringUtils.NEW_LINE +
                 "IncludeEvictionReplicationMarkers=" + _includeEvictionReplicationMarkers + StringUtils.NEW_LINE +
                 "TemplatePackets=" + _templatePackets + StringUtils.NEW_LINE +
+                "Chunks=" + _chunks + StringUtils.NEW_LINE +
                 "SpaceContext=" + String.valueOf(_spaceContext != null);
     }
 
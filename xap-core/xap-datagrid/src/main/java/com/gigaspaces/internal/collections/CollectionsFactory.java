@@ -16,6 +16,7 @@
 
 package com.gigaspaces.internal.collections;
 
+import com.gigaspaces.internal.collections.concurrent.StripedOpenLongObjectMap;
 import com.gigaspaces.internal.collections.standard.StandardCollectionsFactory;
 import com.gigaspaces.internal.collections.standard.StandardObjectShortMap;
 import com.gigaspaces.internal.collections.standard.StandardShortLongMap;
@@ -89,6 +90,10 @@ public abstract class CollectionsFactory {
 
     public abstract <K> ObjectLongMap<K> createObjectLongMap();
 
+    public <V> ConcurrentLongObjectMap<V> createConcurrentLongObjectMap() {
+        return new StripedOpenLongObjectMap<V>();
+    }
+
     public <K> ObjectShortMap<K> deserializeObjectShortMap(ObjectInput in) throws IOException, ClassNotFoundException {
         Object map = in.readObject();
         if (map instanceof java.util.Map)
@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.collections;
+
+/**
+ * A {@link LongObjectMap} which is safe for concurrent use. Reads do not block, and iteration is
+ * weakly consistent.
+ *
+ * @since 15.5
+ */
+public interface ConcurrentLongObjectMap<V> extends LongObjectMap<V> {
+    /**
+     * @return the current value of the key, or null if the value was put
+     */
+    V putIfAbsent(long key, V value);
+}
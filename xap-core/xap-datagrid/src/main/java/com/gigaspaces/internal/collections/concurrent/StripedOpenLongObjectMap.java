@@ -0,0 +1,357 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.collections.concurrent;
+
+import com.gigaspaces.internal.collections.ConcurrentLongObjectMap;
+import com.gigaspaces.internal.collections.LongObjectIterator;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrent long keyed map which keeps its keys in open addressing primitive arrays, so no entry
+ * nodes or boxed keys are allocated. The map is split to segments which are modified under a lock,
+ * while reads do not lock.
+ *
+ * A key is never moved within a segment's table - a removed key keeps its slot with a null value
+ * until the table is rebuilt, and a rebuilt table is published only after it is complete. This
+ * lets a read probe the table it sees without validation.
+ *
+ * @since 15.5
+ */
+@com.gigaspaces.api.InternalApi
+public class StripedOpenLongObjectMap<V> implements ConcurrentLongObjectMap<V> {
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+    private static final int MIN_SEGMENT_CAPACITY = 8;
+    // the key of free slots - the zero key is kept outside the segments
+    private static final long FREE_KEY = 0;
+
+    private final Segment<V>[] _segments;
+    private final int _segmentShift;
+    private final AtomicReference<V> _zeroKeyValue = new AtomicReference<V>();
+
+    public StripedOpenLongObjectMap() {
+        this(DEFAULT_CONCURRENCY_LEVEL, MIN_SEGMENT_CAPACITY * DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    public StripedOpenLongObjectMap(int concurrencyLevel, int initialCapacity) {
+        if (concurrencyLevel <= 0 || initialCapacity < 0)
+            throw new IllegalArgumentException("Illegal concurrency level [" + concurrencyLevel + "] or initial capacity [" + initialCapacity + "]");
+        final int numOfSegments = ceilingPowerOfTwo(Math.min(concurrencyLevel, 1 << 16));
+        final int segmentCapacity = ceilingPowerOfTwo(Math.max(MIN_SEGMENT_CAPACITY, (initialCapacity / numOfSegments) * 2));
+        this._segments = new Segment[numOfSegments];
+        for (int i = 0; i < numOfSegments; i++)
+            _segments[i] = new Segment<V>(segmentCapacity);
+        this._segmentShift = 32 - Integer.numberOfTrailingZeros(numOfSegments);
+    }
+
+    @Override
+    public int size() {
+        int size = _zeroKeyValue.get() != null ? 1 : 0;
+        for (Segment<V> segment : _segments)
+            size += segment._size;
+        return size;
+    }
+
+    @Override
+    public V get(long key) {
+        if (key == FREE_KEY)
+            return _zeroKeyValue.get();
+        final int hash = hash(key);
+        return segmentFor(hash).get(key, hash);
+    }
+
+    @Override
+    public void put(long key, V value) {
+        if (value == null)
+            throw new NullPointerException("value");
+        if (key == FREE_KEY)
+            _zeroKeyValue.set(value);
+        else {
+            final int hash = hash(key);
+            segmentFor(hash).put(key, hash, value, false);
+        }
+    }
+
+    @Override
+    public V putIfAbsent(long key, V value) {
+        if (value == null)
+            throw new NullPointerException("value");
+        if (key == FREE_KEY)
+            return _zeroKeyValue.compareAndSet(null, value) ? null : _zeroKeyValue.get();
+        final int hash = hash(key);
+        return segmentFor(hash).put(key, hash, value, true);
+    }
+
+    @Override
+    public V remove(long key) {
+        if (key == FREE_KEY)
+            return _zeroKeyValue.getAndSet(null);
+        final int hash = hash(key);
+        return segmentFor(hash).remove(key, hash);
+    }
+
+    @Override
+    public void clear() {
+        _zeroKeyValue.set(null);
+        for (Segment<V> segment : _segments)
+            segment.clear();
+    }
+
+    @Override
+    public V[] getValues(V[] array) {
+        int counter = 0;
+        final LongObjectIterator<V> iterator = iterator();
+        while (counter < array.length && iterator.hasNext()) {
+            iterator.advance();
+            array[counter++] = iterator.value();
+        }
+        return array;
+    }
+
+    @Override
+    public LongObjectIterator<V> iterator() {
+        return new StripedOpenLongObjectIterator();
+    }
+
+    private Segment<V> segmentFor(int hash) {
+        return _segments[_segments.length == 1 ? 0 : hash >>> _segmentShift];
+    }
+
+    private static int hash(long key) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int ceilingPowerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    private static class Table {
+        private final AtomicLongArray keys;
+        private final AtomicReferenceArray<Object> values;
+        private final int mask;
+        // slots with a key, including removed keys, guarded by the segment lock
+        private int usedSlots;
+
+        private Table(int capacity) {
+            this.keys = new AtomicLongArray(capacity);
+            this.values = new AtomicReferenceArray<Object>(capacity);
+            this.mask = capacity - 1;
+        }
+
+        private int capacity() {
+            return mask + 1;
+        }
+    }
+
+    private static class Segment<V> extends ReentrantLock {
+        private static final long serialVersionUID = 1L;
+
+        private volatile Table _table;
+        private volatile int _size;
+
+        private Segment(int capacity) {
+            this._table = new Table(capacity);
+        }
+
+        V get(long key, int hash) {
+            final Table table = _table;
+            for (int i = hash & table.mask; ; i = (i + 1) & table.mask) {
+                final long currKey = table.keys.get(i);
+                if (currKey == key)
+                    return (V) table.values.get(i);
+                // the table always has free slots, so probing ends
+                if (currKey == FREE_KEY)
+                    return null;
+            }
+        }
+
+        V put(long key, int hash, V value, boolean onlyIfAbsent) {
+            lock();
+            try {
+                Table table = _table;
+                int slot = find(table, key, hash);
+                if (slot < 0) {
+                    if ((table.usedSlots + 1) * 4 > table.capacity() * 3) {
+                        table = rebuild(table, _size + 1);
+                        slot = find(table, key, hash);
+                    }
+                    slot = -slot - 1;
+                    table.usedSlots++;
+                    // the value is set before the key is published, so a read never sees an unset key
+                    table.values.set(slot, value);
+                    table.keys.set(slot, key);
+                    _size++;
+                    return null;
+                }
+                final V prev = (V) table.values.get(slot);
+                if (prev == null) {
+                    table.values.set(slot, value);
+                    _size++;
+                } else if (!onlyIfAbsent)
+                    table.values.set(slot, value);
+                return prev;
+            } finally {
+                unlock();
+            }
+        }
+
+        V remove(long key, int hash) {
+            lock();
+            try {
+                final Table table = _table;
+                final int slot = find(table, key, hash);
+                if (slot < 0)
+                    return null;
+                final V prev = (V) table.values.getAndSet(slot, null);
+                if (prev != null)
+                    _size--;
+                return prev;
+            } finally {
+                unlock();
+            }
+        }
+
+        void clear() {
+            lock();
+            try {
+                _table = new Table(_table.capacity());
+                _size = 0;
+            } finally {
+                unlock();
+            }
+        }
+
+        /**
+         * @return the slot of the key, or (-slot - 1) of the free slot it should be inserted to
+         */
+        private static int find(Table table, long key, int hash) {
+            for (int i = hash & table.mask; ; i = (i + 1) & table.mask) {
+                final long currKey = table.keys.get(i);
+                if (currKey == key)
+                    return i;
+                if (currKey == FREE_KEY)
+                    return -i - 1;
+            }
+        }
+
+        /**
+         * Copies the live keys to a new table sized for the expected number of keys, which drops
+         * the slots of removed keys.
+         */
+        private Table rebuild(Table table, int expectedSize) {
+            int capacity = MIN_SEGMENT_CAPACITY;
+            while (expectedSize * 2 > capacity)
+                capacity <<= 1;
+            final Table newTable = new Table(capacity);
+            for (int i = 0; i < table.capacity(); i++) {
+                final long key = table.keys.get(i);
+                final Object value = table.values.get(i);
+                if (key == FREE_KEY || value == null)
+                    continue;
+                final int slot = -find(newTable, key, hash(key)) - 1;
+                newTable.values.set(slot, value);
+                newTable.keys.set(slot, key);
+                newTable.usedSlots++;
+            }
+            _table = newTable;
+            return newTable;
+        }
+    }
+
+    private class StripedOpenLongObjectIterator implements LongObjectIterator<V> {
+        private int _segmentIndex = -1;
+        private Table _table;
+        private int _slot;
+        private long _nextKey;
+        private V _nextValue;
+        private boolean _hasNext;
+        private long _key;
+        private V _value;
+        private boolean _hasCurrent;
+
+        private StripedOpenLongObjectIterator() {
+            final V zeroKeyValue = _zeroKeyValue.get();
+            if (zeroKeyValue != null) {
+                _nextKey = FREE_KEY;
+                _nextValue = zeroKeyValue;
+                _hasNext = true;
+            } else
+                findNext();
+        }
+
+        private void findNext() {
+            _hasNext = false;
+            while (true) {
+                if (_table != null) {
+                    while (_slot < _table.capacity()) {
+                        final int slot = _slot++;
+                        final long key = _table.keys.get(slot);
+                        final Object value = _table.values.get(slot);
+                        if (key != FREE_KEY && value != null) {
+                            _nextKey = key;
+                            _nextValue = (V) value;
+                            _hasNext = true;
+                            return;
+                        }
+                    }
+                }
+                if (++_segmentIndex == _segments.length)
+                    return;
+                _table = _segments[_segmentIndex]._table;
+                _slot = 0;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return _hasNext;
+        }
+
+        @Override
+        public void advance() {
+            if (!_hasNext)
+                throw new NoSuchElementException();
+            _key = _nextKey;
+            _value = _nextValue;
+            _hasCurrent = true;
+            findNext();
+        }
+
+        @Override
+        public void remove() {
+            if (!_hasCurrent)
+                throw new IllegalStateException();
+            StripedOpenLongObjectMap.this.remove(_key);
+            _hasCurrent = false;
+        }
+
+        @Override
+        public long key() {
+            return _key;
+        }
+
+        @Override
+        public V value() {
+            return _value;
+        }
+    }
+}
@@ -68,6 +68,8 @@ public class XapExtensions {
         registerSystemTaskExecutor(SinglePartitionGetBatchForIteratorSpaceTask.class, new SpaceGetBatchForIteratorExecutor());
         registerSystemTaskExecutor(CloseIteratorDistributedSpaceTask.class, new SpaceCloseIteratorExecutor());
         registerSystemTaskExecutor(RenewIteratorLeaseDistributedSpaceTask.class, new SpaceRenewIteratorLeaseExecutor());
+        registerSystemTaskExecutor(ChunksMigrationTask.class, new SpaceChunksMigrationExecutor());
+        registerSystemTaskExecutor(SinglePartitionTransactionTask.class, new SpaceSinglePartitionTransactionExecutor());
     }
 
     public ReplicationRouterBuilderFactory getReplicationRouterBuilderFactory() {
@@ -18,6 +18,7 @@ package com.gigaspaces.internal.remoting;
 
 import com.gigaspaces.internal.remoting.routing.partitioned.PartitionedClusterExecutionType;
 import com.gigaspaces.internal.remoting.routing.partitioned.PartitionedClusterRemoteOperationRouter;
+import com.gigaspaces.internal.version.PlatformLogicalVersion;
 import com.gigaspaces.lrmi.nio.LRMIMethodTrackingIdProvider;
 import com.j_spaces.core.SpaceContext;
 
@@ -42,6 +43,12 @@ public interface RemoteOperationRequest<TResult extends RemoteOperationResult> e
 
     boolean isBlockingOperation();
 
+    /**
+     * @return true if the target may send the reply after the invocation returned, in which case
+     * the invocation is executed in callback mode
+     */
+    boolean isDeferredReply(PlatformLogicalVersion targetVersion);
+
     boolean processUnknownTypeException(List<Integer> positions);
 
     PartitionedClusterExecutionType getPartitionedClusterExecutionType();
@@ -58,6 +65,18 @@ public interface RemoteOperationRequest<TResult extends RemoteOperationResult> e
 
     boolean processPartitionResult(TResult remoteOperationResult, List<TResult> previousResults, int numOfPartitions);
 
+    /**
+     * @return false if partition results are folded into the request as they arrive, so the
+     * previous results are not retained by the router.
+     */
+    boolean requiresPreviousPartitionResults();
+
+    /**
+     * @return max number of partitions a concurrent broadcast is executed on at the same time, 0
+     * for all partitions.
+     */
+    int getMaxConcurrentPartitions();
+
     boolean isDedicatedPoolRequired();
 
 }
@@ -23,6 +23,7 @@ import com.gigaspaces.internal.remoting.RemoteOperationResult;
 import com.gigaspaces.internal.remoting.RemoteOperationsExecutor;
 import com.gigaspaces.lrmi.ILRMIProxy;
 import com.gigaspaces.lrmi.LRMIInvocationContext;
+import com.gigaspaces.lrmi.LRMIUtilities;
 import com.gigaspaces.lrmi.nio.async.FutureContext;
 
 import java.rmi.RemoteException;
@@ -53,7 +54,7 @@ public class RemoteOperationsExecutorProxy {
 
     public <T extends RemoteOperationResult> T execute(RemoteOperationRequest<T> request)
             throws RemoteException {
-        if (request.isBlockingOperation())
+        if (isCallbackModeRequired(request))
             LRMIInvocationContext.enableCallbackModeForNextInvocation();
         if (request.isDedicatedPoolRequired())
             LRMIInvocationContext.enableCustomPriorityForNextInvocation();
@@ -63,7 +64,7 @@ public class RemoteOperationsExecutorProxy {
     public <T extends RemoteOperationResult> void executeAsync(RemoteOperationRequest<T> request, AsyncFutureListener<T> listener)
             throws RemoteException {
         try {
-            if (request.isBlockingOperation())
+            if (isCallbackModeRequired(request))
                 LRMIInvocationContext.enableCallbackModeForNextInvocation();
             if (request.isDedicatedPoolRequired())
                 LRMIInvocationContext.enableCustomPriorityForNextInvocation();
@@ -74,6 +75,10 @@ public class RemoteOperationsExecutorProxy {
         }
     }
 
+    private boolean isCallbackModeRequired(RemoteOperationRequest<?> request) {
+        return request.isBlockingOperation() || request.isDeferredReply(LRMIUtilities.getServicePlatformLogicalVersion(_executor));
+    }
+
     public void executeOneway(RemoteOperationRequest<?> request) throws RemoteException {
         _executor.executeOperationOneway(request);
     }
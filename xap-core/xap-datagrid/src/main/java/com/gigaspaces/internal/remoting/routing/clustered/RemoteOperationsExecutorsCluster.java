@@ -178,6 +178,21 @@ public class RemoteOperationsExecutorsCluster {
     }
 
 
+    /**
+     * @return a connected member other than the specified member, or null if there is none.
+     * Disconnected members are not located.
+     */
+    public RemoteOperationsExecutorProxy getAnyConnectedMemberExcept(RemoteOperationsExecutorProxy excludedMember) {
+        synchronized (_lock) {
+            validateNotClosed();
+            for (RemoteOperationsExecutorProxy proxy : _members.values()) {
+                if (proxy != null && proxy != excludedMember)
+                    return proxy;
+            }
+        }
+        return null;
+    }
+
     private void validateNotClosed() {
         if (_closed)
             throw new ClosedResourceException("Proxy is closed");
@@ -37,6 +37,10 @@ public class BroadcastOperationFutureListener<T extends RemoteOperationResult> e
     private final PartitionedClusterRemoteOperationRouter _router;
     private final List<T> _previousResults;
     private final int _startPartitionId;
+    private int _numOfPreviousResults;
+    // Set when a concurrent broadcast is limited to a window of partitions:
+    private volatile RemoteOperationRequest<T> _isolatedRequest;
+    private volatile int _nextPartitionId;
 
     public BroadcastOperationFutureListener(RemoteOperationRequest<T> mainRequest, AsyncFutureListener<Object> listener, PartitionedClusterRemoteOperationRouter router, boolean getResultOnCompletion) {
         super(router.getLogger(), listener, getResultOnCompletion);
@@ -57,23 +61,46 @@ public class BroadcastOperationFutureListener<T extends RemoteOperationResult> e
         }
         boolean continueProcessing = _mainRequest.processPartitionResult(partitionResult, _previousResults, _router.getNumOfPartitions());
         // If there are enough accumulated results, or this is the last possible result, signal completion:
-        if (!continueProcessing || _previousResults.size() + 1 >= _router.getNumOfPartitions())
+        if (!continueProcessing || _numOfPreviousResults + 1 >= _router.getNumOfPartitions())
             return true;
 
         // When the partition request is same as the main, clear the result for safety:
         if (_mainRequest == partitionRequest)
             _mainRequest.setRemoteOperationResult(null);
 
-        _previousResults.add(partitionResult);
+        _numOfPreviousResults++;
+        if (_mainRequest.requiresPreviousPartitionResults())
+            _previousResults.add(partitionResult);
         if (_mainRequest.getPartitionedClusterExecutionType() == PartitionedClusterExecutionType.BROADCAST_SEQUENTIAL) {
             // Get next partition to execute:
-            final int partitionId = (getStartPartitionId() + _previousResults.size()) % _router.getNumOfPartitions();
+            final int partitionId = (getStartPartitionId() + _numOfPreviousResults) % _router.getNumOfPartitions();
             // Process request in next partition asynchronously:
             _router.getPartitionRouter(partitionId).executeAsync(_mainRequest, this);
+        } else if (_isolatedRequest != null && _nextPartitionId < _router.getNumOfPartitions()) {
+            // A result was processed, so the window can proceed to the next partition:
+            final int partitionId = _nextPartitionId++;
+            _router.getPartitionRouter(partitionId).executeAsync(_isolatedRequest.createCopy(partitionId), this);
         }
         return false;
     }
 
+    /**
+     * Executes copies of the request on the partitions concurrently. If the request limits the
+     * number of concurrent partitions, the next partition is executed whenever a partition result
+     * is processed, until the execution completes.
+     */
+    public void executeConcurrently(RemoteOperationRequest<T> isolatedRequest) {
+        final int numOfPartitions = _router.getNumOfPartitions();
+        final int maxConcurrentPartitions = _mainRequest.getMaxConcurrentPartitions();
+        final int initialPartitions = maxConcurrentPartitions > 0 ? Math.min(maxConcurrentPartitions, numOfPartitions) : numOfPartitions;
+        if (initialPartitions < numOfPartitions) {
+            _nextPartitionId = initialPartitions;
+            _isolatedRequest = isolatedRequest;
+        }
+        for (int i = 0; i < initialPartitions; i++)
+            _router.getPartitionRouter(i).executeAsync(isolatedRequest.createCopy(i), this);
+    }
+
     @Override
     protected Object getResult(RemoteOperationRequest<T> request)
             throws Exception {
@@ -271,8 +271,7 @@ public class PartitionedClusterRemoteOperationRouter extends AbstractRemoteOpera
         // Execute request on each partition asynchronously:
         // TODO: Ask Eitan why the duplicate clone.
         RemoteOperationRequest<T> isolatedCopy = request.createCopy(-1);
-        for (int i = 0; i < _partitions.length; i++)
-            this._partitions[i].executeAsync(isolatedCopy.createCopy(i), listener);
+        listener.executeConcurrently(isolatedCopy);
     }
 
     private void executeBroadcastConcurrentOneway(
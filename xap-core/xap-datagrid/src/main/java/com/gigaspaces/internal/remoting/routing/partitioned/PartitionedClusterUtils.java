@@ -16,6 +16,7 @@
 
 package com.gigaspaces.internal.remoting.routing.partitioned;
 
+import com.gigaspaces.internal.cluster.PartitionToChunksMap;
 import com.gigaspaces.internal.cluster.SpaceClusterInfo;
 
 /**
@@ -39,6 +40,17 @@ public class PartitionedClusterUtils {
         return clusterInfo.isChunksRouting() ? clusterInfo.getPartitionId(safeAbs(routingValue.hashCode())) : safeAbs(routingValue.hashCode()) % clusterInfo.getNumberOfPartitions();
     }
 
+    /**
+     * @return the chunk of the routing value, or {@link #NO_PARTITION} if the routing value is null
+     */
+    public static int getChunkId(Object routingValue) {
+        if (routingValue == null)
+            return NO_PARTITION;
+        if (routingValue instanceof Long && PRECISE_LONG_ROUTING)
+            return PartitionToChunksMap.getChunkId(safeAbs((Long) routingValue));
+        return PartitionToChunksMap.getChunkId(safeAbs(routingValue.hashCode()));
+    }
+
     public static int safeAbs(int value) {
         return value == Integer.MIN_VALUE ? Integer.MAX_VALUE : Math.abs(value);
     }
@@ -19,12 +19,19 @@ package com.gigaspaces.internal.remoting.routing.partitioned;
 import com.gigaspaces.async.AsyncFutureListener;
 import com.gigaspaces.internal.collections.CollectionsFactory;
 import com.gigaspaces.internal.collections.IntegerObjectMap;
+import com.gigaspaces.internal.cluster.PartitionToChunksMap;
+import com.gigaspaces.internal.cluster.SpaceClusterInfo;
+import com.gigaspaces.internal.exceptions.ChunksMapGenerationException;
 import com.gigaspaces.internal.remoting.RemoteOperationFutureListener;
 import com.gigaspaces.internal.remoting.RemoteOperationRequest;
 import com.gigaspaces.internal.remoting.RemoteOperationResult;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author Niv Ingberg
@@ -32,11 +39,23 @@ import java.util.List;
  */
 @com.gigaspaces.api.InternalApi
 public class ScatterGatherOperationFutureListener<T extends RemoteOperationResult> extends RemoteOperationFutureListener<T> {
+    private static final int MAX_CHUNKS_MAP_RETRIES = 10;
+
     private final IntegerObjectMap<ScatterGatherRemoteOperationRequest<T>> _map;
     private final ScatterGatherRemoteOperationRequest<T> _mainRequest;
     private final PartitionedClusterRemoteOperationRouter _router;
     private final List<ScatterGatherRemoteOperationRequest<T>> _previousResults;
     private int[] _partitionIds;
+    private final int _initialGeneration;
+    private SpaceClusterInfo _clusterInfo;
+    // state of scattering again the indexes of a partition request which was rejected due to a stale chunks map
+    private IntegerObjectMap<ScatterGatherRemoteOperationRequest<T>> _scatterMap;
+    private BitSet _scatterIndexes;
+    private int _scatterPartitionId;
+    private Map<ScatterGatherRemoteOperationRequest<T>, Integer> _scatteredGenerations;
+    private int _chunksMapRetries;
+    // partition requests added by scattering again, less the requests they replaced
+    private int _extraRequests;
 
     public ScatterGatherOperationFutureListener(ScatterGatherRemoteOperationRequest<T> mainRequest, AsyncFutureListener<Object> listener, PartitionedClusterRemoteOperationRouter router, boolean getResultOnCompletion) {
         super(router.getLogger(), listener, getResultOnCompletion);
@@ -44,6 +63,9 @@ public class ScatterGatherOperationFutureListener<T extends RemoteOperationResul
         this._router = router;
         this._previousResults = new ArrayList<ScatterGatherRemoteOperationRequest<T>>();
         this._map = CollectionsFactory.getInstance().createIntegerObjectMap();
+        this._scatterMap = _map;
+        this._clusterInfo = router.getClusterInfo();
+        this._initialGeneration = _clusterInfo.isChunksRouting() ? _clusterInfo.getChunksMap().getGeneration() : 0;
     }
 
     public void mapValuesByHashCode(Object[] array, ScatterGatherRemoteOperationRequest<T> request) {
@@ -52,7 +74,7 @@ public class ScatterGatherOperationFutureListener<T extends RemoteOperationResul
     }
 
     public int getPartitionIdByHashcode(Object value) {
-        return PartitionedClusterUtils.getPartitionId(value, _router.getClusterInfo());
+        return PartitionedClusterUtils.getPartitionId(value, _clusterInfo);
     }
 
     public int getNextDistributionPartitionId() {
@@ -60,19 +82,33 @@ public class ScatterGatherOperationFutureListener<T extends RemoteOperationResul
     }
 
     public void mapIndexToPartition(int index, int partitionId, ScatterGatherRemoteOperationRequest<T> request) {
+        if (_scatterIndexes != null) {
+            if (!_scatterIndexes.get(index))
+                return;
+            // an index of all the partitions is scattered again only to the partition which rejected it
+            if (partitionId == PartitionedClusterUtils.NO_PARTITION)
+                partitionId = _scatterPartitionId;
+        }
         if (partitionId != PartitionedClusterUtils.NO_PARTITION)
-            addPartition(partitionId, request).add(index);
+            getPartitionInfo(partitionId, request).add(index);
         else {
             for (int i = 0; i < _router.getNumOfPartitions(); i++)
-                addPartition(i, request).add(index);
+                getPartitionInfo(i, request).add(index);
         }
     }
 
     public ScatterGatherPartitionInfo addPartition(int partitionId, ScatterGatherRemoteOperationRequest<T> request) {
-        ScatterGatherRemoteOperationRequest<T> partitionRequest = _map.get(partitionId);
+        // a request scattered by partitions is sent again only to the partition which rejected it
+        if (_scatterIndexes != null && partitionId != _scatterPartitionId)
+            return new ScatterGatherPartitionInfo(partitionId);
+        return getPartitionInfo(partitionId, request);
+    }
+
+    private ScatterGatherPartitionInfo getPartitionInfo(int partitionId, ScatterGatherRemoteOperationRequest<T> request) {
+        ScatterGatherRemoteOperationRequest<T> partitionRequest = _scatterMap.get(partitionId);
         if (partitionRequest == null) {
             partitionRequest = (ScatterGatherRemoteOperationRequest<T>) request.createCopy(partitionId);
-            _map.put(partitionId, partitionRequest);
+            _scatterMap.put(partitionId, partitionRequest);
         }
 
         return partitionRequest.getPartitionInfo();
@@ -99,13 +135,16 @@ public class ScatterGatherOperationFutureListener<T extends RemoteOperationResul
     @Override
     protected boolean onOperationResultArrival(RemoteOperationRequest<T> request) {
         ScatterGatherRemoteOperationRequest<T> partitionRequest = (ScatterGatherRemoteOperationRequest<T>) request;
+        // A partition rejected the request due to a stale chunks map, the result arrives from its replacements:
+        if (scatterAgain(partitionRequest))
+            return false;
         // Process incoming partition result:
         boolean continueProcessing = _mainRequest.processPartitionResult(partitionRequest, _previousResults);
         // When the partition request is same as the main, clear the result for safety:
         if (_mainRequest == partitionRequest)
             _mainRequest.setRemoteOperationResult(null);
         // If there are enough accumulated results, or this is the last possible result, signal completion:
-        if (!continueProcessing || _previousResults.size() + 1 >= _map.size())
+        if (!continueProcessing || _previousResults.size() + 1 >= _map.size() + _extraRequests)
             return true;
 
         //TODO: should there be some round robin here as well? Is there anyone using this atm? (Eitan)
@@ -120,6 +159,65 @@ public class ScatterGatherOperationFutureListener<T extends RemoteOperationResul
         return false;
     }
 
+    /**
+     * Chunks may be migrated between partitions while the request is executed, in which case a
+     * partition rejects its part of the request with the new chunks map. The indexes of the
+     * rejected part are scattered again using the new map and executed concurrently, the other
+     * parts are not executed again. Sequential scatter is not retried, its error is returned.
+     */
+    private boolean scatterAgain(ScatterGatherRemoteOperationRequest<T> partitionRequest) {
+        T result = partitionRequest.getRemoteOperationResult();
+        if (result == null || !(result.getExecutionException() instanceof ChunksMapGenerationException))
+            return false;
+        if (_mainRequest.getPartitionedClusterExecutionType() != PartitionedClusterExecutionType.SCATTER_CONCURRENT ||
+                _mainRequest == partitionRequest || _chunksMapRetries >= MAX_CHUNKS_MAP_RETRIES)
+            return false;
+        PartitionToChunksMap newMap = ((ChunksMapGenerationException) result.getExecutionException()).getNewMap();
+        if (newMap == null || newMap.getGeneration() <= getRoutedGeneration(partitionRequest))
+            return false;
+        _chunksMapRetries++;
+        if (newMap.getGeneration() > _clusterInfo.getChunksMap().getGeneration())
+            _clusterInfo = _clusterInfo.cloneAndUpdate(newMap);
+
+        ScatterGatherPartitionInfo partitionInfo = partitionRequest.getPartitionInfo();
+        _scatterIndexes = new BitSet();
+        for (int i = 0; i < partitionInfo.size(); i++)
+            _scatterIndexes.set(partitionInfo.getQuick(i));
+        _scatterPartitionId = partitionInfo.getPartitionId();
+        _scatterMap = CollectionsFactory.getInstance().createIntegerObjectMap();
+        final IntegerObjectMap<ScatterGatherRemoteOperationRequest<T>> scattered = _scatterMap;
+        try {
+            _mainRequest.scatterIndexesToPartitions(this);
+        } finally {
+            _scatterIndexes = null;
+            _scatterMap = _map;
+        }
+
+        final int[] partitionIds = scattered.keys();
+        if (partitionIds.length == 0)
+            return false;
+        _extraRequests += partitionIds.length - 1;
+        if (_scatteredGenerations == null)
+            _scatteredGenerations = new IdentityHashMap<ScatterGatherRemoteOperationRequest<T>, Integer>();
+        for (int partitionId : partitionIds)
+            _scatteredGenerations.put(scattered.get(partitionId), _clusterInfo.getChunksMap().getGeneration());
+        if (_logger.isDebugEnabled())
+            _logger.debug("Scattering again the request rejected by partition " + _scatterPartitionId + " to partitions " +
+                    Arrays.toString(partitionIds) + " using chunks map generation " + _clusterInfo.getChunksMap().getGeneration());
+        // the requests are counted before they are executed, since a result may arrive on this thread
+        for (int partitionId : partitionIds) {
+            ScatterGatherRemoteOperationRequest<T> scatteredRequest = scattered.get(partitionId);
+            scatteredRequest.loadPartitionData(_mainRequest);
+            _router.getPartitionRouter(partitionId).executeAsync(scatteredRequest, this);
+        }
+        return true;
+    }
+
+    private int getRoutedGeneration(ScatterGatherRemoteOperationRequest<T> partitionRequest) {
+        Integer generation = _scatteredGenerations != null ? _scatteredGenerations.get(partitionRequest) : null;
+        return generation != null ? generation : _initialGeneration;
+    }
+
     @Override
     protected Object getResult(RemoteOperationRequest<T> request)
             throws Exception {
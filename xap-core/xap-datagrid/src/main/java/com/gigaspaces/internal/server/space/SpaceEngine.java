@@ -70,20 +70,26 @@ import com.gigaspaces.internal.remoting.routing.partitioned.PartitionedClusterUt
 import com.gigaspaces.internal.server.metadata.AddTypeDescResult;
 import com.gigaspaces.internal.server.metadata.AddTypeDescResultType;
 import com.gigaspaces.internal.server.metadata.IServerTypeDesc;
+import com.gigaspaces.internal.server.space.chunks.ChunksMigrationSource;
 import com.gigaspaces.internal.server.space.events.SpaceDataEventManager;
 import com.gigaspaces.internal.server.space.iterator.*;
 import com.gigaspaces.internal.server.space.metadata.ServerTypeDesc;
+import com.gigaspaces.internal.server.space.mvcc.SnapshotReadContext;
+import com.gigaspaces.internal.server.space.mvcc.SnapshotReadsManager;
 import com.gigaspaces.internal.server.space.metadata.SpaceTypeManager;
 import com.gigaspaces.internal.server.space.operations.WriteEntriesResult;
 import com.gigaspaces.internal.server.space.operations.WriteEntryResult;
+import com.gigaspaces.internal.server.space.recovery.LocalCheckpointManager;
 import com.gigaspaces.internal.server.space.recovery.direct_persistency.StorageConsistencyModes;
 import com.gigaspaces.internal.server.space.replication.SpaceReplicationInitializer;
 import com.gigaspaces.internal.server.space.replication.SpaceReplicationManager;
+import com.gigaspaces.internal.server.space.tasks.SpaceTaskScheduler;
 import com.gigaspaces.internal.server.storage.*;
 import com.gigaspaces.internal.sync.SynchronizationStorageAdapter;
 import com.gigaspaces.internal.sync.hybrid.SyncHybridSAException;
 import com.gigaspaces.internal.sync.hybrid.SyncHybridTransactionException;
 import com.gigaspaces.internal.transport.*;
+import com.gigaspaces.internal.utils.ObjectUtils;
 import com.gigaspaces.internal.utils.StringUtils;
 import com.gigaspaces.internal.utils.collections.IAddOnlySet;
 import com.gigaspaces.logger.LogLevel;
@@ -125,6 +131,7 @@ import com.j_spaces.core.filters.ReplicationStatistics.ReplicationMode;
 import com.j_spaces.core.sadapter.*;
 import com.j_spaces.core.server.processor.*;
 import com.j_spaces.core.transaction.TransactionHandler;
+import com.j_spaces.jdbc.QueryCache;
 import com.j_spaces.kernel.ClassLoaderHelper;
 import com.j_spaces.kernel.*;
 import com.j_spaces.kernel.list.IScanListIterator;
@@ -163,6 +170,9 @@ public class SpaceEngine implements ISpaceModeListener {
     private final Logger _loggerConfig;
 
     private static final IEntryPacket EMPTY_ENTRYPACKET;
+    // modifiers which do not affect a read by id which is not under a transaction
+    private static final int DIRECT_READ_BY_ID_MODIFIERS = Modifiers.DIRTY_READ | Modifiers.READ_COMMITTED
+            | Modifiers.FIFO | Modifiers.MEMORY_ONLY_SEARCH;
 
     //---------------  constant exceptions ---------------
     private final static TemplateDeletedException TEMPLATE_DELETED_EXCEPTION = new TemplateDeletedException(null);
@@ -203,10 +213,12 @@ public class SpaceEngine implements ISpaceModeListener {
     private LeaseManager _leaseManager;
     private MemoryManager _memoryManager;
     private ServerIteratorsManager _serverIteratorsManager;
+    private final LocalCheckpointManager _checkpointManager;
 
     /*--------- Working Groups ---------*/
     private final WorkingGroup<BusPacket<Processor>> _processorWG;
     private final Processor _coreProcessor; //only for SA
+    private final SpaceTaskScheduler _taskScheduler;
     /*--------- end of Working Groups ---------*/
 
     /**
@@ -243,6 +255,7 @@ public class SpaceEngine implements ISpaceModeListener {
     private final int _partitionId;
 
     private final boolean _allowNonBlockingRead;
+    private final boolean _directReadById;
     private boolean _memoryRecoveryEnabled;
     /**
      * Synchronize replication, if true synchronize replication enabled.
@@ -286,6 +299,7 @@ public class SpaceEngine implements ISpaceModeListener {
         _isLocalCache = spaceImpl.isLocalCache();
         _allowNonBlockingRead = _configReader.getBooleanSpaceProperty(ENGINE_NON_BLOCKING_READ_PROP, ENGINE_NON_BLOCKING_READ_DEFAULT);
         _useDirtyRead = _configReader.getBooleanSpaceProperty(ENGINE_DIRTY_READ_PROP, ENGINE_DIRTY_READ_DEFAULT);
+        _directReadById = !_isLocalCache && _allowNonBlockingRead && _configReader.getBooleanSpaceProperty(ENGINE_DIRECT_READ_BY_ID_PROP, ENGINE_DIRECT_READ_BY_ID_DEFAULT);
         _TTL = _configReader.getIntSpaceProperty(SpaceProxy.OldRouter.RETRY_CONNECTION, SpaceProxy.OldRouter.RETRY_CONNECTION_DEFAULT);
         _entryDataType = initEntryDataType(_configReader, _isLocalCache);
 
@@ -349,6 +363,22 @@ public class SpaceEngine implements ISpaceModeListener {
 
         _processorWG.start();
 
+        final int taskLanes = _configReader.getIntSpaceProperty(ENGINE_TASK_LANES_PROP, ENGINE_TASK_LANES_DEFAULT);
+        if (taskLanes > 0 && !_isLocalCache) {
+            final int taskLaneCapacity = _configReader.getIntSpaceProperty(ENGINE_TASK_LANE_CAPACITY_PROP, ENGINE_TASK_LANE_CAPACITY_DEFAULT);
+            final long longTaskThreshold = StringUtils.parseDurationAsMillis(_configReader.getSpaceProperty(ENGINE_TASK_LONG_THRESHOLD_PROP, ENGINE_TASK_LONG_THRESHOLD_DEFAULT));
+            _taskScheduler = new SpaceTaskScheduler(_fullSpaceName, taskLanes, taskLaneCapacity, TimeUnit.MILLISECONDS.toNanos(longTaskThreshold));
+        } else {
+            _taskScheduler = null;
+        }
+
+        final long checkpointInterval = StringUtils.parseDurationAsMillis(_configReader.getSpaceProperty(ENGINE_CHECKPOINT_INTERVAL_PROP, ENGINE_CHECKPOINT_INTERVAL_DEFAULT));
+        if (checkpointInterval > 0 && !_isLocalCache && _cacheManager.isMemorySpace() && _cacheManager.isAllInCachePolicy()) {
+            _checkpointManager = new LocalCheckpointManager(this, _configReader.getSpaceProperty(ENGINE_CHECKPOINT_DIR_PROP, ENGINE_CHECKPOINT_DIR_DEFAULT), checkpointInterval);
+        } else {
+            _checkpointManager = null;
+        }
+
         // call the filter ON_INIT
         /* filters */
         // GS-12157 - passing direct proxy which can be transformed into clustered proxy on demand
@@ -363,6 +393,8 @@ public class SpaceEngine implements ISpaceModeListener {
         _resultsSizeLimitMemoryCheckBatchSize = _configReader.getIntSpaceProperty(ENGINE_QUERY_RESULT_SIZE_LIMIT_MEMORY_CHECK_BATCH_SIZE, ENGINE_QUERY_RESULT_SIZE_LIMIT_MEMORY_CHECK_BATCH_SIZE_DEFAULT);
         if (!_isLocalCache)
             registerSpaceMetrics(_metricRegistrator);
+        if (_taskScheduler != null)
+            _taskScheduler.registerMetrics(_metricRegistrator);
         _serverIteratorsManager = new ServerIteratorsManager(_spaceImpl.getPartitionId());
     }
 
@@ -455,6 +487,38 @@ public class SpaceEngine implements ISpaceModeListener {
                 return countTransactions(TransactionInfo.Types.ALL, TransactionConstants.ACTIVE);
             }
         });
+
+        registrator.register(registrator.toPath(MetricConstants.QUERY_CACHE_METRIC_NAME, "size"), new Gauge<Integer>() {
+            @Override
+            public Integer getValue() throws Exception {
+                QueryCache queryCache = _spaceImpl.getQueryProcessorCache();
+                return queryCache != null ? queryCache.size() : 0;
+            }
+        });
+
+        registrator.register(registrator.toPath(MetricConstants.QUERY_CACHE_METRIC_NAME, "hits"), new Gauge<Long>() {
+            @Override
+            public Long getValue() throws Exception {
+                QueryCache queryCache = _spaceImpl.getQueryProcessorCache();
+                return queryCache != null ? queryCache.getHits() : 0;
+            }
+        });
+
+        registrator.register(registrator.toPath(MetricConstants.QUERY_CACHE_METRIC_NAME, "misses"), new Gauge<Long>() {
+            @Override
+            public Long getValue() throws Exception {
+                QueryCache queryCache = _spaceImpl.getQueryProcessorCache();
+                return queryCache != null ? queryCache.getMisses() : 0;
+            }
+        });
+
+        registrator.register(registrator.toPath(MetricConstants.QUERY_CACHE_METRIC_NAME, "evictions"), new Gauge<Long>() {
+            @Override
+            public Long getValue() throws Exception {
+                QueryCache queryCache = _spaceImpl.getQueryProcessorCache();
+                return queryCache != null ? queryCache.getEvictions() : 0;
+            }
+        });
     }
 
     private IDuplicateOperationFilter createDuplicateOperationIDFilter() {
@@ -708,6 +772,14 @@ public class SpaceEngine implements ISpaceModeListener {
         return _processorWG;
     }
 
+    /**
+     * @return the scheduler remote space tasks are executed on, or null if tasks are executed on
+     * the invoking thread
+     */
+    public SpaceTaskScheduler getTaskScheduler() {
+        return _taskScheduler;
+    }
+
 
     public void invokeFilters(SpaceContext sc, int operationCode, Object subject) {
         if (_filterManager != null && _filterManager._isFilter[operationCode])
@@ -1133,6 +1205,13 @@ public class SpaceEngine implements ISpaceModeListener {
         if (take)
             monitorReplicationStateForModifyingOperation(txn, OperationWeightInfoFactory.create(1, WeightInfoOperationType.TAKE));
 
+        if (_directReadById && !take && txn == null && timeout == 0 && !returnOnlyUid && !fromReplication
+                && template instanceof IdQueryPacket) {
+            AnswerHolder answerHolder = directReadById((IdQueryPacket) template, sc, operationModifiers);
+            if (answerHolder != null)
+                return answerHolder;
+        }
+
         return unsafeRead(template, txn, timeout, ifExists, take, sc,
                 returnOnlyUid, fromReplication, origin, operationModifiers, null, null /* prefetchedEntries */);
     }
@@ -1290,25 +1369,33 @@ public class SpaceEngine implements ISpaceModeListener {
         long expirationTimeInMillis = getExpirationTimeInMillis(timeout,
                 startTime,
                 tHolder);
-        while (true) {
-            if (timeout != Long.MAX_VALUE) {
-                timeToWait = expirationTimeInMillis - SystemTime.timeMillis();
-            }
-            if (timeout == Long.MAX_VALUE || timeToWait > 0) {
-                synchronized (aHolder) {
-                    if (!tHolder.hasAnswer()) {
-                        if (timeout != Long.MAX_VALUE)
-                            aHolder.wait(timeToWait);
-                        else
-                            aHolder.wait();
-                    }
-                    if (tHolder.hasAnswer())
-                        break;
-                }//synchronized
-            }//if  (timeout == Long.MAX_VALUE || timeToWait > 0)
-            else
-                break; //no wating any more
-        }//while
+        // the chunk of the operation is not held while it waits, so waiting does not delay a chunks migration
+        final ChunksMigrationSource migrationSource = _cacheManager.getChunksMigrationSource();
+        final int slot = migrationSource != null ? migrationSource.suspend() : PartitionedClusterUtils.NO_PARTITION;
+        try {
+            while (true) {
+                if (timeout != Long.MAX_VALUE) {
+                    timeToWait = expirationTimeInMillis - SystemTime.timeMillis();
+                }
+                if (timeout == Long.MAX_VALUE || timeToWait > 0) {
+                    synchronized (aHolder) {
+                        if (!tHolder.hasAnswer()) {
+                            if (timeout != Long.MAX_VALUE)
+                                aHolder.wait(timeToWait);
+                            else
+                                aHolder.wait();
+                        }
+                        if (tHolder.hasAnswer())
+                            break;
+                    }//synchronized
+                }//if  (timeout == Long.MAX_VALUE || timeToWait > 0)
+                else
+                    break; //no wating any more
+            }//while
+        } finally {
+            if (migrationSource != null)
+                migrationSource.resume(slot);
+        }
     }
 
     private long getExpirationTimeInMillis(long timeout, final long startTime,
@@ -1909,6 +1996,10 @@ public class SpaceEngine implements ISpaceModeListener {
         if (timeout != 0 && ReadModifiers.isFifoGroupingPoll(operationModifiers))
             timeout = 0;   //f-g not supporting r-t multiple + timeou
 
+        final boolean isSnapshotRead = ReadModifiers.isSnapshotRead(operationModifiers);
+        if (isSnapshotRead)
+            validateSnapshotRead(txn, timeout, ifExists, take, isFifoOperation, operationModifiers, isServerIteratorRequest);
+
         final XtnEntry txnEntry = initTransactionEntry(txn, sc, false /*fromReplication*/);
 
         // create template UID
@@ -1968,6 +2059,7 @@ public class SpaceEngine implements ISpaceModeListener {
         Context context = null;
         boolean answerSetByThisThread = false;
         int numOfEntriesMatched;
+        SnapshotReadsManager.Snapshot snapshot = null;
 
         try {
             context = _cacheManager.getCacheContext();
@@ -1977,6 +2069,10 @@ public class SpaceEngine implements ISpaceModeListener {
             if (take && txn == null && _cacheManager.isBlobStoreCachePolicy() && _cacheManager.useBlobStoreBulks()) {//can we exploit blob-store bulking ?
                 context.setBlobStoreBulkInfo(new BlobStoreBulkInfo(_cacheManager, true /*takeMultipleBulk*/));
             }
+            if (isSnapshotRead) {
+                snapshot = _cacheManager.getSnapshotReadsManager().openSnapshot(startTime);
+                tHolder.setSnapshotReadContext(new SnapshotReadContext(snapshot));
+            }
 
             if (ifExists)
                 _coreProcessor.handleDirectMultipleReadIEOrTakeIESA(context, tHolder);
@@ -1989,6 +2085,8 @@ public class SpaceEngine implements ISpaceModeListener {
                 tHolder.getAnswerHolder().setSyncRelplicationLevel(context.getReplicationContext().getCompleted());
             }
         } finally {
+            if (snapshot != null)
+                _cacheManager.getSnapshotReadsManager().closeSnapshot(snapshot);
             context = _cacheManager.freeCacheContext(context);
         }
 
@@ -2731,6 +2829,9 @@ public class SpaceEngine implements ISpaceModeListener {
         if (partitionIdZeroBased != getPartitionIdZeroBased()) {
             if (ProtectiveMode.shouldIgnoreWrongRoutingProtectiveMode(typeDesc.getTypeName()))
                 return null;
+            //entries of chunks which are migrated to this partition
+            if (_spaceImpl.getChunksMigrationHandler() != null && _spaceImpl.getChunksMigrationHandler().isIncomingChunk(routingValue))
+                return null;
             return new ProtectiveModeException("Operation is rejected - the routing value in the " + operation + " entry of type '" + typeDesc.getTypeName() + "' does not match this space partition id. " +
                     "The value within the entry's routing property named '" + typeDesc.getTypeDesc().getRoutingPropertyName() + "' is " + routingValue +
                     " which matches partition id " + (partitionIdZeroBased + 1) + " while current partition id is " + getPartitionIdOneBased() + ". Having a mismatching routing value would result in a remote client not being able to locate this entry as the routing value will not match the partition the entry is located. (you can disable this protection, though it is not recommended, by setting the following system property: " + ProtectiveMode.WRONG_ENTRY_ROUTING_USAGE + "=false)");
@@ -3083,6 +3184,10 @@ public class SpaceEngine implements ISpaceModeListener {
                 xtnEntry.m_SingleParticipant = singleParticipant;
 
 
+                //single participant xtn changes become visible to read committed operations during prepare
+                if (singleParticipant)
+                    beginSnapshotCommit(xtnEntry);
+
                 // write to SA + update xtn record in xtn log
                 _cacheManager.prepare(context, xtnEntry, supportsTwoPhaseReplication, true /*handleReplication*/, singleParticipant/* handleSA*/);
                 if (singleParticipant && xtnEntry.m_AnyUpdates)
@@ -3144,7 +3249,11 @@ public class SpaceEngine implements ISpaceModeListener {
 
                 if (considerNotifyFifoForNonFifoEvents)
                     xtnEntry.getAllowFifoNotificationsForNonFifoEntries().allow();
+
+                endSnapshotCommit(xtnEntry, true /*committed*/);
             } finally {
+                if (xtnEntry != null)
+                    endSnapshotCommit(xtnEntry, false /*committed*/);
                 getTransactionHandler().unlockXtnOnXtnEnd(xtnEntryLocked, lockedXtnTable);
                 isTxnLocked = false;
             }
@@ -3504,6 +3613,12 @@ public class SpaceEngine implements ISpaceModeListener {
         if (_processorWG != null)
             _processorWG.shutdown();
 
+        if (_taskScheduler != null)
+            _taskScheduler.close();
+
+        if (_checkpointManager != null)
+            _checkpointManager.close();
+
         if (_leaseManager != null)
             _leaseManager.close();
 
@@ -3890,6 +4005,10 @@ public class SpaceEngine implements ISpaceModeListener {
 
     public void executeOnMatchingEntries(Context context, ITemplateHolder template, boolean makeWaitForInfo)
             throws TransactionException, TemplateDeletedException, SAException {
+        if (template.getSnapshotReadContext() != null) {
+            executeSnapshotReadOnMatchingEntries(context, template);
+            return;
+        }
         // If template is a multiple uids template:
         final String[] multipleUids = template.getMultipleUids();
 
@@ -3955,6 +4074,137 @@ public class SpaceEngine implements ISpaceModeListener {
     }
 
 
+    private void validateSnapshotRead(Transaction txn, long timeout, boolean ifExists, boolean take, boolean isFifoOperation,
+                                      int operationModifiers, boolean isServerIteratorRequest) {
+        if (_cacheManager.getSnapshotReadsManager() == null)
+            throw new UnsupportedOperationException("Snapshot read is not enabled, in order to use snapshot reads set " + FULL_CACHE_MANAGER_SNAPSHOT_READS_ENABLED_PROP + "=true");
+        if (take)
+            throw new IllegalArgumentException("Snapshot read modifier is not supported by take operations");
+        if (txn != null)
+            throw new IllegalArgumentException("Snapshot read modifier is not supported under transaction");
+        if (timeout != 0 || ifExists)
+            throw new IllegalArgumentException("Snapshot read modifier is not supported by blocking operations");
+        if (isFifoOperation || ReadModifiers.isFifoGroupingPoll(operationModifiers) || ReadModifiers.isExclusiveReadLock(operationModifiers))
+            throw new IllegalArgumentException("Snapshot read modifier can not be combined with fifo or exclusive read lock");
+        if (isServerIteratorRequest)
+            throw new IllegalArgumentException("Snapshot read modifier is not supported by space iterator");
+    }
+
+    /**
+     * snapshot read- matches the committed state of the entries as of the snapshot opening. the
+     * live entries are scanned without locking them, entries changed since the snapshot was
+     * opened are resolved from their retained versions.
+     */
+    private void executeSnapshotReadOnMatchingEntries(Context context, ITemplateHolder template)
+            throws SAException {
+        final SnapshotReadContext snapshotContext = template.getSnapshotReadContext();
+        final SnapshotReadsManager snapshotReadsManager = _cacheManager.getSnapshotReadsManager();
+        final BatchQueryOperationContext batchContext = template.getBatchOperationContext();
+
+        final String[] multipleUids = template.getMultipleUids();
+        if (multipleUids != null) {
+            for (int i = 0; i < multipleUids.length && !batchContext.reachedMaxEntries(); i++) {
+                if (multipleUids[i] != null)
+                    snapshotReadByUid(context, template, multipleUids[i]);
+            }
+            return;
+        }
+        if (template.getUidToOperateBy() != null) {
+            snapshotReadByUid(context, template, template.getUidToOperateBy());
+            return;
+        }
+
+        final IServerTypeDesc serverTypeDesc = _typeManager.getServerTypeDesc(template.getClassName());
+        final IServerTypeDesc[] subTypes = serverTypeDesc.getAssignableTypes();
+        final Set<String> typeNames = new HashSet<String>();
+        for (IServerTypeDesc subType : subTypes) {
+            typeNames.add(subType.getTypeName());
+            IScanListIterator<IEntryCacheInfo> toScan = _cacheManager.getMatchingMemoryEntriesForScanning(context, subType, template, serverTypeDesc);
+            if (toScan == null)
+                continue;
+            if (!toScan.isIterator()) {
+                snapshotReadEntry(context, template, toScan.next());
+            } else {
+                try {
+                    while (toScan.hasNext() && !batchContext.reachedMaxEntries())
+                        snapshotReadEntry(context, template, toScan.next());
+                } finally {
+                    // scan ended, release resource
+                    toScan.releaseScan();
+                }
+            }
+            if (batchContext.reachedMaxEntries())
+                return;
+        }
+
+        //entries which were changed or removed since the snapshot was opened
+        for (SnapshotReadsManager.VersionChain chain : snapshotReadsManager.getVersionChains(snapshotContext.getSnapshot())) {
+            if (batchContext.reachedMaxEntries())
+                return;
+            if (typeNames.contains(chain.getTypeName()) && !snapshotContext.isProcessedUid(chain.getUid()))
+                snapshotReadByUid(context, template, chain.getUid());
+        }
+    }
+
+    private void snapshotReadEntry(Context context, ITemplateHolder template, IEntryCacheInfo pEntry) {
+        if (pEntry == null)
+            return;
+        IEntryHolder entry = pEntry.getEntryHolder(_cacheManager, context);
+        final SnapshotReadContext snapshotContext = template.getSnapshotReadContext();
+        if (snapshotContext.isProcessedUid(entry.getUID()))
+            return;
+        //the entry data must be read before its versions are checked
+        IEntryData entryData = SnapshotReadsManager.getCommittedEntryData(entry);
+        SnapshotReadsManager.EntryVersion version = _cacheManager.getSnapshotReadsManager().getVisibleVersion(snapshotContext.getSnapshot(), entry.getUID());
+        if (version != null) {
+            snapshotContext.addProcessedUid(entry.getUID());
+            if (version.isAbsent())
+                return;
+            if (!version.isLive())
+                entryData = version.getData();
+        }
+        snapshotReadMatchAndAddResult(context, template, entryData, entry.getUID(), entry.isTransient());
+    }
+
+    private void snapshotReadByUid(Context context, ITemplateHolder template, String uid) {
+        final SnapshotReadContext snapshotContext = template.getSnapshotReadContext();
+        if (!snapshotContext.addProcessedUid(uid))
+            return;
+        //the entry data must be read before its versions are checked
+        IEntryHolder entry = _cacheManager.getEntryByUidFromPureCache(uid);
+        IEntryData entryData = entry != null ? SnapshotReadsManager.getCommittedEntryData(entry) : null;
+        SnapshotReadsManager.VersionChain chain = _cacheManager.getSnapshotReadsManager().getVersionChain(snapshotContext.getSnapshot(), uid);
+        SnapshotReadsManager.EntryVersion version = chain != null ? chain.getVisibleVersion(snapshotContext.getSnapshot().getSequence()) : null;
+        if (version != null) {
+            if (version.isAbsent())
+                return;
+            if (!version.isLive())
+                entryData = version.getData();
+        }
+        if (entryData == null)
+            return;
+        snapshotReadMatchAndAddResult(context, template, entryData, uid, entry != null ? entry.isTransient() : chain.isTransient());
+    }
+
+    private void snapshotReadMatchAndAddResult(Context context, ITemplateHolder template, IEntryData entryData, String uid, boolean isTransient) {
+        if (entryData == null || entryData.getExpirationTime() < template.getSnapshotReadContext().getSnapshot().getOpenTime())
+            return;
+        if (!_templateScanner.match(context, entryData, uid, template))
+            return;
+        template.getSnapshotReadContext().addProcessedUid(uid);
+
+        IEntryPacket entryPacket = null;
+        EntryHolderAggregatorContext aggregatorContext = template.getAggregatorContext();
+        if (aggregatorContext != null)
+            aggregatorContext.scan(entryData, uid, isTransient);
+        else
+            entryPacket = EntryPacketFactory.createFullPacket(template, entryData, uid, isTransient);
+
+        template.getBatchOperationContext().addResult(entryPacket);
+        if (template.canFinishBatchOperation())
+            context.setOperationAnswer(template, null, null);
+    }
+
     private void getMatchedEntriesAndOperateSA_Scan(Context context,
                                                     ITemplateHolder template,
                                                     IScanListIterator<IEntryCacheInfo> toScan,
@@ -5322,6 +5572,60 @@ public class SpaceEngine implements ISpaceModeListener {
         return _transactionHandler.attachToXtnGranular(txn, fromReplication);
     }
 
+    /**
+     * Writes an entry of a chunk which is migrated to this partition, replacing the entry with the
+     * same uid. The entry keeps the version of the source partition, it is replicated to the backups
+     * but no filters are invoked and no listeners are notified.
+     */
+    public void writeMigratedEntry(IEntryPacket entryPacket)
+            throws TransactionException, UnusableEntryException, UnknownTypeException, RemoteException {
+        removeMigratedEntry(entryPacket.getUID());
+        Context context = null;
+        try {
+            context = _cacheManager.getCacheContext();
+            write(context, entryPacket, null /*txn*/, entryPacket.getTTL(), Modifiers.OVERRIDE_VERSION, false /*fromReplication*/,
+                    true /*origin*/, null /*sc*/, true /*reInsertedEntry*/, false /*fromWriteMultiple*/);
+        } finally {
+            if (context != null)
+                _cacheManager.freeCacheContext(context);
+        }
+    }
+
+    /**
+     * Removes an entry of a chunk which is migrated between partitions. The removal is replicated
+     * to the backups but no filters are invoked and no listeners are notified. Entries which are
+     * locked by a transaction are not removed.
+     */
+    public void removeMigratedEntry(String uid) {
+        IEntryHolder entry = _cacheManager.getEntryByUidFromPureCache(uid);
+        if (entry == null)
+            return;
+        Context context = null;
+        ILockObject entryLock = null;
+        try {
+            context = _cacheManager.getCacheContext();
+            entryLock = _cacheManager.getLockManager().getLockObject(entry);
+            synchronized (entryLock) {
+                if (entry.isDeleted() || entry.isEntryUnderWriteLockXtn())
+                    return;
+                removeEntrySA(context, entry, _typeManager.getServerTypeDesc(entry.getClassName()), false /*fromReplication*/,
+                        true /*origin*/, EntryRemoveReasonCodes.TAKE);
+            }
+        } catch (SAException e) {
+            throw new EngineInternalSpaceException(e.toString(), e);
+        } finally {
+            if (entryLock != null)
+                _cacheManager.getLockManager().freeLockObject(entryLock);
+            if (context != null) {
+                try {
+                    performReplication(context);
+                } finally {
+                    _cacheManager.freeCacheContext(context);
+                }
+            }
+        }
+    }
+
     /**
      * Delete an entry (direct delete). Assumes the specified entry is locked.
      */
@@ -5587,6 +5891,9 @@ public class SpaceEngine implements ISpaceModeListener {
                 if (!xtnEntry.m_SingleParticipant)
                     xtnEntry.m_CommitRollbackTimeStamp = SystemTime.timeMillis();
 
+                if (!xtnEntry.m_SingleParticipant)
+                    beginSnapshotCommit(xtnEntry);
+
                 //write to SA in case of 2PC
                 _cacheManager.prepare(context, xtnEntry, supportsTwoPhaseReplication, false /*handleReplication*/, !xtnEntry.m_SingleParticipant/* handleSA*/);
 
@@ -5632,6 +5939,7 @@ public class SpaceEngine implements ISpaceModeListener {
 
 
                 xtnEntry.setStatus(XtnStatus.COMMITED);
+                endSnapshotCommit(xtnEntry, true /*committed*/);
 
                 //set latest fifo xtn number if relevant
                 if (fifoEntries && currentFifoXtn != TerminatingFifoXtnsInfo.UNKNOWN_FIFO_XTN)
@@ -5645,6 +5953,8 @@ public class SpaceEngine implements ISpaceModeListener {
                     _coreProcessor.handleNotifyFifoInCommit(context, xtnEntry, false);
 
             } finally {
+                if (xtnEntry != null)
+                    endSnapshotCommit(xtnEntry, false /*committed*/);
                 getTransactionHandler().unlockXtnOnXtnEnd(xtnEntryLocked, lockedXtnTable);
             }
 
@@ -5926,6 +6236,70 @@ public class SpaceEngine implements ISpaceModeListener {
 
     //	--------------local xtn manager lease apis -------------------
 
+    /**
+     * records the changes of a committing transaction for snapshot reads before they are applied.
+     * all the changes are published under a single commit sequence by {@link
+     * #endSnapshotCommit(XtnEntry, boolean)} once applied.
+     */
+    private void beginSnapshotCommit(XtnEntry xtnEntry) {
+        final SnapshotReadsManager snapshotReadsManager = _cacheManager.getSnapshotReadsManager();
+        if (snapshotReadsManager == null || xtnEntry.isSnapshotCommitPending())
+            return;
+
+        int writeToken = snapshotReadsManager.beginWrite();
+        if (!snapshotReadsManager.isTracking()) {
+            xtnEntry.setSnapshotCommit(writeToken, null);
+            return;
+        }
+        SnapshotReadsManager.CommitStamp stamp = snapshotReadsManager.newCommitStamp();
+        xtnEntry.setSnapshotCommit(writeToken, stamp);
+        IStoredList<IEntryCacheInfo> lockedEntries = xtnEntry.getXtnData().getLockedEntries();
+        if (lockedEntries == null || lockedEntries.isEmpty())
+            return;
+        for (IStoredListIterator<IEntryCacheInfo> slh = lockedEntries.establishListScan(false); slh != null; slh = lockedEntries.next(slh)) {
+            IEntryCacheInfo pEntry = slh.getSubject();
+            if (pEntry == null)
+                continue;
+            IEntryHolder entry = pEntry.getEntryHolder(_cacheManager);
+            ITransactionalEntryData entryData = entry.getTxnEntryData();
+            if (entry.isDeleted() || entryData.getWriteLockOwner() != xtnEntry)
+                continue;
+
+            final boolean writtenByXtn = entryData.getXidOriginated() == xtnEntry;
+            IEntryHolder shadow = entryData.getOtherUpdateUnderXtnEntry();
+            IEntryData prevData = writtenByXtn ? null : (shadow != null ? shadow.getEntryData() : entryData);
+            switch (entryData.getWriteLockOperation()) {
+                case SpaceOperations.WRITE:
+                case SpaceOperations.UPDATE:
+                    snapshotReadsManager.recordChange(stamp, entry.getUID(), entry.getClassName(), entry.isTransient(), prevData, false /*removed*/);
+                    break;
+                case SpaceOperations.TAKE:
+                case SpaceOperations.TAKE_IE:
+                    //an entry written & taken by the same xtn is never visible
+                    if (!writtenByXtn)
+                        snapshotReadsManager.recordChange(stamp, entry.getUID(), entry.getClassName(), entry.isTransient(), prevData, true /*removed*/);
+                    break;
+                default:
+                    //read locks
+            }
+        }
+    }
+
+    private void endSnapshotCommit(XtnEntry xtnEntry, boolean committed) {
+        if (!xtnEntry.isSnapshotCommitPending())
+            return;
+        final SnapshotReadsManager snapshotReadsManager = _cacheManager.getSnapshotReadsManager();
+        SnapshotReadsManager.CommitStamp stamp = xtnEntry.getSnapshotCommitStamp();
+        if (stamp != null) {
+            if (committed)
+                snapshotReadsManager.publish(stamp);
+            else
+                snapshotReadsManager.abort(stamp);
+        }
+        snapshotReadsManager.endWrite(xtnEntry.getSnapshotWriteToken());
+        xtnEntry.resetSnapshotCommit();
+    }
+
     /**
      * handle under xtn updates- restore in case of RB or remove shadow in case of commit.
      */
@@ -6341,6 +6715,17 @@ public class SpaceEngine implements ISpaceModeListener {
     public ISpaceCopyReplicaState spaceCopyReplica(SpaceURL sourceRemoteUrl, String sourceMemberName,
                                                    IRemoteSpace remoteJSpace, ITemplatePacket templPacket, boolean includeNotifyTemplates,
                                                    int chunkSize, SpaceContext sc, SpaceContext remoteSpaceContext) {
+        return spaceCopyReplica(sourceRemoteUrl, sourceMemberName, remoteJSpace, templPacket, includeNotifyTemplates,
+                chunkSize, sc, remoteSpaceContext, null);
+    }
+
+    /**
+     * Copies the entries of the remote space, if chunks is not null only the entries whose routing
+     * value belongs to the specified chunks are copied.
+     */
+    public ISpaceCopyReplicaState spaceCopyReplica(SpaceURL sourceRemoteUrl, String sourceMemberName,
+                                                   IRemoteSpace remoteJSpace, ITemplatePacket templPacket, boolean includeNotifyTemplates,
+                                                   int chunkSize, SpaceContext sc, SpaceContext remoteSpaceContext, Collection<Integer> chunks) {
         if (remoteJSpace == null)
             throw new EngineInternalSpaceException("Remote space for : " + sourceRemoteUrl + " can not be null!");
 
@@ -6361,6 +6746,8 @@ public class SpaceEngine implements ISpaceModeListener {
                 false,
                 remoteSpaceContext,
                 ReplicaType.COPY);
+        if (chunks != null)
+            ((SpaceCopyReplicaParameters) context.getParameters()).setChunks(chunks);
         ISpaceCopyReplicaState spaceCopyReplica = getReplicationNode().spaceCopyReplicaRequest(context);
 
         try {
@@ -6838,6 +7225,15 @@ public class SpaceEngine implements ISpaceModeListener {
         return _coldStart;
     }
 
+    /**
+     * Loads the last local checkpoint of the space, if checkpoints are enabled. Used when the space
+     * has no other member to recover from.
+     */
+    public void recoverFromCheckpoint() throws Exception {
+        if (_checkpointManager != null)
+            _checkpointManager.recover();
+    }
+
 
     public boolean isMemoryRecoveryEnabled() {
         return _memoryRecoveryEnabled;
@@ -6928,6 +7324,76 @@ public class SpaceEngine implements ISpaceModeListener {
         return null;
     }
 
+    /**
+     * Optimistic read by id for reads which are not under a transaction and are not affected by
+     * filters. The entry is resolved from the uids map or the id index without locking it - since
+     * the entry data is replaced rather than modified by updates and transactions, the read is
+     * valid if the entry data was not replaced while the reply packet was created.
+     *
+     * @return the answer, or null if the read should be executed through the regular read path
+     */
+    private AnswerHolder directReadById(IdQueryPacket template, SpaceContext sc, int operationModifiers) {
+        if (!_cacheManager.isAllInCachePolicy() || (operationModifiers & ~DIRECT_READ_BY_ID_MODIFIERS) != 0)
+            return null;
+        if (template.getVersion() != 0 || template.getProjectionTemplate() != null)
+            return null;
+        if (_filterManager.hasNonStatisticsFilter(FilterOperationCodes.BEFORE_READ) || _filterManager.hasNonStatisticsFilter(FilterOperationCodes.AFTER_READ))
+            return null;
+
+        final IServerTypeDesc serverTypeDesc = _typeManager.getServerTypeDesc(template.getTypeName());
+        if (serverTypeDesc == null || serverTypeDesc.isInactive() || serverTypeDesc.getTypeDesc().getIdPropertyName() == null)
+            return null;
+
+        final IEntryHolder entryHolder;
+        final Object id = template.getID();
+        if (template.getUID() != null)
+            entryHolder = _cacheManager.getEntryByUidFromPureCache(template.getUID());
+        else if (id == null)
+            return null;
+        else if (serverTypeDesc.getTypeDesc().isAutoGenerateId())
+            entryHolder = id instanceof String ? _cacheManager.getEntryByUidFromPureCache((String) id) : null;
+        else if (isIdIndexUsable(serverTypeDesc))
+            entryHolder = _cacheManager.getEntryByIdFromPureCache(id, serverTypeDesc);
+        else
+            return null;
+
+        // entries which are missing, expired or under transaction are left for the regular read path
+        if (entryHolder == null || entryHolder.isDeleted() || entryHolder.isMaybeUnderXtn() || entryHolder.isUnstable())
+            return null;
+        final ITransactionalEntryData entryData = entryHolder.getTxnEntryData();
+        if (entryData.isExpired() || !entryData.getEntryTypeDesc().getTypeDesc().getTypeName().equals(template.getTypeName()))
+            return null;
+        final Object[] values = template.getFieldValues();
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null && !ObjectUtils.equals(values[i], entryData.getFixedPropertyValue(i)))
+                return null;
+        }
+
+        final IEntryPacket entryPacket = EntryPacketFactory.createFullPacket(entryData, null /*operationID*/,
+                entryHolder.getUID(), entryHolder.isTransient(), template.getQueryResultType());
+        if (entryHolder.getTxnEntryData() != entryData || entryHolder.isDeleted())
+            return null;
+
+        // only the space statistics may be registered - invoked as in the regular read path to keep its counts
+        if (_filterManager._isFilter[FilterOperationCodes.BEFORE_READ])
+            _filterManager.invokeFilters(FilterOperationCodes.BEFORE_READ, sc, null);
+        if (_filterManager._isFilter[FilterOperationCodes.AFTER_READ])
+            _filterManager.invokeFilters(FilterOperationCodes.AFTER_READ, sc, entryPacket);
+
+        AnswerHolder answerHolder = new AnswerHolder();
+        answerHolder.m_AnswerPacket = new AnswerPacket(entryPacket);
+        answerHolder.setNumOfEntriesMatched(1);
+        return answerHolder;
+    }
+
+    private boolean isIdIndexUsable(IServerTypeDesc serverTypeDesc) {
+        final TypeData typeData = _cacheManager.getTypeData(serverTypeDesc);
+        if (typeData == null)
+            return false;
+        final TypeDataIndex<?> idPropertyIndex = typeData.getIdField();
+        return idPropertyIndex != null && typeData.getLastIndexCreationNumber() >= idPropertyIndex.getIndexCreationNumber();
+    }
+
     private IEntryHolder directLocalReadByUidForClass(String uid, String className) {
         try {
             return _cacheManager.getEntry(null, uid, className, null, false /*tryInsertToCache*/, false/*lockedEntry*/, true /*useOnlyCache*/);
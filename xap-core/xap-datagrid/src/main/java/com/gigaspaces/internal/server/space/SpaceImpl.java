@@ -45,9 +45,14 @@ import com.gigaspaces.internal.client.spaceproxy.SpaceProxyImpl;
 import com.gigaspaces.internal.client.spaceproxy.executors.SystemTask;
 import com.gigaspaces.internal.client.spaceproxy.operations.SpaceConnectRequest;
 import com.gigaspaces.internal.client.spaceproxy.operations.SpaceConnectResult;
+import com.gigaspaces.internal.cluster.PartitionToChunksMap;
 import com.gigaspaces.internal.cluster.SpaceClusterInfo;
+import com.gigaspaces.internal.cluster.node.IReplicationNode;
 import com.gigaspaces.internal.cluster.node.impl.directPersistency.DirectPersistencyBackupSyncIteratorHandler;
 import com.gigaspaces.internal.cluster.node.impl.directPersistency.DirectPersistencySyncListBatch;
+import com.gigaspaces.internal.cluster.node.impl.ReplicationNode;
+import com.gigaspaces.internal.cluster.node.impl.groups.IReplicationTargetGroup;
+import com.gigaspaces.internal.cluster.node.impl.groups.NoSuchReplicationGroupExistException;
 import com.gigaspaces.internal.cluster.node.impl.router.spacefinder.IReplicationConnectionProxy;
 import com.gigaspaces.internal.cluster.node.replica.ISpaceCopyReplicaState;
 import com.gigaspaces.internal.cluster.node.replica.ISpaceSynchronizeReplicaState;
@@ -55,6 +60,8 @@ import com.gigaspaces.internal.cluster.node.replica.ISpaceSynchronizeResult;
 import com.gigaspaces.internal.document.DocumentObjectConverterInternal;
 import com.gigaspaces.internal.exceptions.BatchQueryException;
 import com.gigaspaces.internal.exceptions.ChunksMapGenerationException;
+import com.gigaspaces.internal.server.space.chunks.ChunksMigrationHandler;
+import com.gigaspaces.internal.server.space.chunks.ChunksMigrationSource;
 import com.gigaspaces.internal.exceptions.ChunksMapMissingException;
 import com.gigaspaces.internal.exceptions.WriteResultImpl;
 import com.gigaspaces.internal.extension.XapExtensions;
@@ -71,6 +78,7 @@ import com.gigaspaces.internal.os.OSStatistics;
 import com.gigaspaces.internal.query.explainplan.SingleExplainPlan;
 import com.gigaspaces.internal.remoting.RemoteOperationRequest;
 import com.gigaspaces.internal.remoting.RemoteOperationResult;
+import com.gigaspaces.internal.remoting.routing.partitioned.PartitionedClusterUtils;
 import com.gigaspaces.internal.server.space.demote.DemoteHandler;
 import com.gigaspaces.internal.server.space.executors.SpaceActionExecutor;
 import com.gigaspaces.internal.server.space.iterator.ServerIteratorRequestInfo;
@@ -134,6 +142,7 @@ import com.j_spaces.core.server.processor.UpdateOrWriteBusPacket;
 import com.j_spaces.core.service.AbstractService;
 import com.j_spaces.core.service.Service;
 import com.j_spaces.jdbc.IQueryProcessor;
+import com.j_spaces.jdbc.QueryCache;
 import com.j_spaces.jdbc.QueryProcessor;
 import com.j_spaces.jdbc.QueryProcessorFactory;
 import com.j_spaces.kernel.ClassLoaderHelper;
@@ -263,6 +272,7 @@ public class SpaceImpl extends AbstractService implements IRemoteSpace, IInterna
     private final AttributeStore attributeStore;
     private final ZookeeperLastPrimaryHandler zookeeperLastPrimaryHandler;
     private ZookeeperChunksMapHandler zookeeperChunksMapHandler;
+    private ChunksMigrationHandler chunksMigrationHandler;
 
     private final Map<Class<? extends SystemTask>, SpaceActionExecutor> executorMap = XapExtensions.getInstance().getActionExecutors();
 
@@ -348,6 +358,7 @@ public class SpaceImpl extends AbstractService implements IRemoteSpace, IInterna
             zookeeperChunksMapHandler = new ZookeeperChunksMapHandler(_spaceName, attributeStore);
             try {
                 clusterInfo.setChunksMap(zookeeperChunksMapHandler.initChunksMap(clusterInfo.getNumberOfPartitions()));
+                chunksMigrationHandler = new ChunksMigrationHandler(this, zookeeperChunksMapHandler);
                 return clusterInfo;
             }catch (ChunksMapMissingException e){
                 _logger.warn("Failed to find chunks map in zk - disabling chunks space routing",e);
@@ -611,6 +622,9 @@ public class SpaceImpl extends AbstractService implements IRemoteSpace, IInterna
 
         if(sc != null && this.getClusterInfo().isChunksRouting()) {
             int spaceGeneration = getClusterInfo().getChunksMap().getGeneration();
+            //the map was changed by another partition (e.g. chunks migration) and was not received yet
+            if (sc.getChunksMapGeneration() > spaceGeneration)
+                spaceGeneration = refreshChunksMap().getGeneration();
             if (sc.getChunksMapGeneration() != spaceGeneration) {
                 ChunksMapGenerationException exception = new ChunksMapGenerationException("chunks map generation of client is " + sc.getChunksMapGeneration()
                         + " but partition " + getPartitionId() + " is at generation " + spaceGeneration);
@@ -621,6 +635,108 @@ public class SpaceImpl extends AbstractService implements IRemoteSpace, IInterna
 
     }
 
+    /**
+     * Updates the chunks map of this space to the latest map in zookeeper, if it is newer. A migration
+     * from this partition whose chunks the map assigns to another partition is completed.
+     */
+    public PartitionToChunksMap refreshChunksMap() {
+        PartitionToChunksMap chunksMap;
+        synchronized (this) {
+            chunksMap = getClusterInfo().getChunksMap();
+            if (zookeeperChunksMapHandler != null) {
+                PartitionToChunksMap latestMap = zookeeperChunksMapHandler.getChunksMap();
+                if (latestMap.getGeneration() > chunksMap.getGeneration()) {
+                    _logger.info("Updating chunks map from generation " + chunksMap.getGeneration() + " to " + latestMap.getGeneration());
+                    getClusterInfo().setChunksMap(latestMap);
+                    chunksMap = latestMap;
+                }
+            }
+        }
+        // the map may also be updated by the zookeeper listener, so the migration is checked on every refresh
+        if (chunksMigrationHandler != null)
+            chunksMigrationHandler.onChunksMapRefreshed(chunksMap);
+        return chunksMap;
+    }
+
+    /**
+     * @return the chunks migration handler, null if the space does not use chunks based routing
+     */
+    public ChunksMigrationHandler getChunksMigrationHandler() {
+        return chunksMigrationHandler;
+    }
+
+    /**
+     * Counts the operation on the chunk of the packet, so migrating the chunk to another partition
+     * waits for it to end.
+     *
+     * @return slot to pass to {@link #endPacketOperation(int)}, NO_PARTITION if the operation is not counted
+     */
+    private int enterChunk(ITransportPacket packet, Privilege privilege) {
+        ChunksMigrationSource migrationSource = _engine.getCacheManager().getChunksMigrationSource();
+        if (migrationSource == null || packet == null)
+            return PartitionedClusterUtils.NO_PARTITION;
+        Object routingValue = packet.getRoutingFieldValue();
+        // reads without a routing value span all the chunks, they are not held by a migration
+        if (routingValue == null && privilege == SpacePrivilege.READ)
+            return PartitionedClusterUtils.NO_PARTITION;
+        final int slot = ChunksMigrationSource.getSlot(routingValue);
+        try {
+            migrationSource.enter(slot);
+        } catch (ChunksMapGenerationException e) {
+            // the chunks stayed frozen, the new map may have been published without completing the migration
+            e.setNewMap(refreshChunksMap());
+            throw e;
+        }
+        // the chunk may have been migrated while the operation was routed or waited for the migration
+        if (isMigratedChunk(slot)) {
+            migrationSource.exit(slot);
+            throw createMigratedChunkException(routingValue);
+        }
+        return slot;
+    }
+
+    private int[] enterChunks(ITransportPacket[] packets) {
+        ChunksMigrationSource migrationSource = _engine.getCacheManager().getChunksMigrationSource();
+        if (migrationSource == null)
+            return null;
+        int size = 0;
+        for (ITransportPacket packet : packets)
+            if (packet != null)
+                size++;
+        final int[] slots = new int[size];
+        size = 0;
+        for (ITransportPacket packet : packets)
+            if (packet != null)
+                slots[size++] = ChunksMigrationSource.getSlot(packet.getRoutingFieldValue());
+        try {
+            migrationSource.enter(slots);
+        } catch (ChunksMapGenerationException e) {
+            // the chunks stayed frozen, the new map may have been published without completing the migration
+            e.setNewMap(refreshChunksMap());
+            throw e;
+        }
+        for (ITransportPacket packet : packets) {
+            if (packet != null && isMigratedChunk(ChunksMigrationSource.getSlot(packet.getRoutingFieldValue()))) {
+                migrationSource.exit(slots);
+                throw createMigratedChunkException(packet.getRoutingFieldValue());
+            }
+        }
+        return slots;
+    }
+
+    private boolean isMigratedChunk(int slot) {
+        return slot != ChunksMigrationSource.UNROUTED && slot != PartitionedClusterUtils.NO_PARTITION
+                && getClusterInfo().getChunksMap().getPartitionIdByChunk(slot) != getPartitionId();
+    }
+
+    private ChunksMapGenerationException createMigratedChunkException(Object routingValue) {
+        //the client routes the operation again using the new map
+        ChunksMapGenerationException exception = new ChunksMapGenerationException("chunk of routing value " + routingValue
+                + " was migrated from partition " + getPartitionIdOneBased());
+        exception.setNewMap(getClusterInfo().getChunksMap());
+        return exception;
+    }
+
     private void assertAvailable()
             throws SpaceUnavailableException {
         /** Checks that the space is not stopped or aborted. */
@@ -646,7 +762,10 @@ public class SpaceImpl extends AbstractService implements IRemoteSpace, IInterna
             _securityInterceptor.intercept(SpaceContextHelper.getSecurityContext(sc), privilege, className);
     }
 
-    public void beginPacketOperation(boolean isCheckForStandBy, SpaceContext sc, Privilege privilege, ITransportPacket packet)
+    /**
+     * @return slot to pass to {@link #endPacketOperation(int)} when the operation ends
+     */
+    public int beginPacketOperation(boolean isCheckForStandBy, SpaceContext sc, Privilege privilege, ITransportPacket packet)
             throws RemoteException {
         beforeOperation(isCheckForStandBy, true /*checkQuiesceMode*/, sc);
 
@@ -656,9 +775,10 @@ public class SpaceImpl extends AbstractService implements IRemoteSpace, IInterna
                     packet != null ? packet.getTypeName() : null);
 
         //_operationsCoordinator.beginConcurrentOperation();
+        return enterChunk(packet, privilege);
     }
 
-    private void beginBatchOperation(SpaceContext sc, Privilege privilege, ITransportPacket[] packets)
+    private int[] beginBatchOperation(SpaceContext sc, Privilege privilege, ITransportPacket[] packets)
             throws RemoteException {
         beforeOperation(true, true /*checkQuiesceMode*/, sc);
 
@@ -671,10 +791,19 @@ public class SpaceImpl extends AbstractService implements IRemoteSpace, IInterna
         }
 
         //_operationsCoordinator.beginConcurrentOperation();
+        return enterChunks(packets);
     }
 
-    private void endPacketOperation() {
+    public void endPacketOperation(int slot) {
         //_operationsCoordinator.endConcurrentOperation();
+        if (slot != PartitionedClusterUtils.NO_PARTITION)
+            _engine.getCacheManager().getChunksMigrationSource().exit(slot);
+    }
+
+    private void endBatchOperation(int[] slots) {
+        //_operationsCoordinator.endConcurrentOperation();
+        if (slots != null)
+            _engine.getCacheManager().getChunksMigrationSource().exit(slots);
     }
 
     /**
@@ -742,6 +871,31 @@ public class SpaceImpl extends AbstractService implements IRemoteSpace, IInterna
         Runtime.getRuntime().gc();
     }
 
+    /**
+     * @return false if the read can be served by this space even if it is a backup - the client
+     * accepts stale reads and within the accepted staleness this space was known to contain all the
+     * operations the primary acknowledged, i.e. the primary had no replication backlog to it.
+     */
+    private boolean isCheckForStandByOnRead(SpaceContext sc, Transaction txn, boolean take) {
+        if (take || txn != null || sc == null || sc.getMaxBackupStaleness() <= 0)
+            return true;
+        final LeaderSelectorHandler leaderSelector = _leaderSelector;
+        if (leaderSelector == null || leaderSelector.isPrimary() || isRecovering())
+            return true;
+        final String primaryMemberName = leaderSelector.getPrimaryMemberName();
+        final IReplicationNode replicationNode = _engine.getReplicationNode();
+        if (primaryMemberName == null || !(replicationNode instanceof ReplicationNode))
+            return true;
+        final long lastSyncProcessTimeStamp;
+        try {
+            IReplicationTargetGroup targetGroup = ((ReplicationNode) replicationNode).getReplicationTargetGroup(_engine.generateGroupName());
+            lastSyncProcessTimeStamp = targetGroup.getLastSyncProcessTimeStamp(primaryMemberName);
+        } catch (NoSuchReplicationGroupExistException e) {
+            return true;
+        }
+        return lastSyncProcessTimeStamp < 0 || SystemTime.timeMillis() - lastSyncProcessTimeStamp > sc.getMaxBackupStaleness();
+    }
+
     /**
      * Throw inactive space exception. Called when user tries to execute space operation on backup
      * space
@@ -1865,6 +2019,15 @@ public class SpaceImpl extends AbstractService implements IRemoteSpace, IInterna
         return _qp.getStub();
     }
 
+    /**
+     * @return the query cache of the space query processor, null if the query processor is not
+     * created yet
+     */
+    QueryCache getQueryProcessorCache() {
+        QueryProcessor qp = _qp;
+        return qp != null ? qp.getQueryCache() : null;
+    }
+
     public IStubHandler getStubHandler() {
         return _stubHandler;
     }
@@ -1940,10 +2103,7 @@ public class SpaceImpl extends AbstractService implements IRemoteSpace, IInterna
 
     public WriteEntryResult write(IEntryPacket entry, Transaction txn, long lease, int modifiers, boolean fromReplication, SpaceContext sc)
             throws TransactionException, UnusableEntryException, UnknownTypeException, RemoteException {
-        if (UpdateModifiers.isPotentialUpdate(modifiers))
-            beginPacketOperation(true, sc, SpacePrivilege.WRITE, entry);
-        else
-            beginPacketOperation(true, sc, SpacePrivilege.CREATE, entry);
+        final int slot = beginPacketOperation(true, sc, UpdateModifiers.isPotentialUpdate(modifiers) ? SpacePrivilege.WRITE : SpacePrivilege.CREATE, entry);
 
         try {
             if (txn != null && !_engine.isLocalCache() && !fromReplication)
@@ -1955,17 +2115,13 @@ public class SpaceImpl extends AbstractService implements IRemoteSpace, IInterna
         } catch (RuntimeException e) {
             throw logException(e);
         } finally {
-            endPacketOperation();
+            endPacketOperation(slot);
         }
     }
 
     public LeaseContext<?>[] writeOld(IEntryPacket[] entries, Transaction txn, long lease, long[] leases, SpaceContext sc, int modifiers)
             throws TransactionException, UnknownTypesException, RemoteException {
-        if (UpdateModifiers.isPotentialUpdate(modifiers))
-            beginBatchOperation(sc, SpacePrivilege.WRITE, entries);
-        else
-            beginBatchOperation(sc, SpacePrivilege.CREATE, entries);
-
+        // the operation is begun by the write it delegates to
         try {
             WriteEntriesResult result = write(entries, txn, lease, leases, sc, 0L, modifiers, false);
             return convertWriteMultipleResult(result, entries, modifiers);
@@ -1973,18 +2129,13 @@ public class SpaceImpl extends AbstractService implements IRemoteSpace, IInterna
             throw e;
         } catch (RuntimeException e) {
             throw logException(e);
-        } finally {
-            endPacketOperation();
         }
     }
 
     public WriteEntriesResult write(IEntryPacket[] entries, Transaction txn, long lease, long[] leases, SpaceContext sc, long timeout, int modifiers,
                                     boolean newRouter)
             throws TransactionException, UnknownTypesException, RemoteException {
-        if (UpdateModifiers.isPotentialUpdate(modifiers))
-            beginBatchOperation(sc, SpacePrivilege.WRITE, entries);
-        else
-            beginBatchOperation(sc, SpacePrivilege.CREATE, entries);
+        final int[] slots = beginBatchOperation(sc, UpdateModifiers.isPotentialUpdate(modifiers) ? SpacePrivilege.WRITE : SpacePrivilege.CREATE, entries);
 
         try {
             if (txn != null && !_engine.isLocalCache() && entries.length >0)
@@ -1995,7 +2146,7 @@ public class SpaceImpl extends AbstractService implements IRemoteSpace, IInterna
         } catch (RuntimeException e) {
             throw logException(e);
         } finally {
-            endPacketOperation();
+            endBatchOperation(slots);
         }
     }
 
@@ -2041,10 +2192,7 @@ public class SpaceImpl extends AbstractService implements IRemoteSpace, IInterna
     public AnswerPacket update(IEntryPacket entry, Transaction txn, long lease, long timeout,
                                SpaceContext sc, int modifiers, boolean newRouter)
             throws TransactionException, UnusableEntryException, UnknownTypeException, RemoteException, InterruptedException {
-        if (UpdateModifiers.isPotentialUpdate(modifiers))
-            beginPacketOperation(true, sc, SpacePrivilege.WRITE, entry);
-        else
-            beginPacketOperation(true, sc, SpacePrivilege.CREATE, entry);
+        final int slot = beginPacketOperation(true, sc, UpdateModifiers.isPotentialUpdate(modifiers) ? SpacePrivilege.WRITE : SpacePrivilege.CREATE, entry);
 
         try {
             if (txn != null && !_engine.isLocalCache())
@@ -2056,7 +2204,7 @@ public class SpaceImpl extends AbstractService implements IRemoteSpace, IInterna
                 result = updateOrWrite(ctx, newRouter);
             } else if (UpdateModifiers.isWriteOnly(modifiers)) {
                 boolean fromReplication = false;
-                WriteEntryResult writeResult = write(entry, txn, lease, modifiers, fromReplication, sc);
+                WriteEntryResult writeResult = _engine.write(entry, txn, lease, modifiers, fromReplication, true/*origin*/, sc);
                 if (UpdateModifiers.isNoReturnValue(modifiers))
                     result = null;
                 else if (newRouter)
@@ -2077,61 +2225,57 @@ public class SpaceImpl extends AbstractService implements IRemoteSpace, IInterna
         } catch (RuntimeException e) {
             throw logException(e);
         } finally {
-            endPacketOperation();
+            endPacketOperation(slot);
         }
     }
 
     private Object[] updateMultiple(IEntryPacket[] entries, Transaction txn, long[] leases,
                                     SpaceContext sc, int modifiers)
             throws UnusableEntryException, UnknownTypeException, TransactionException, RemoteException {
-        if (UpdateModifiers.isPotentialUpdate(modifiers))
-            beginBatchOperation(sc, SpacePrivilege.WRITE, entries);
-        else
-            beginBatchOperation(sc, SpacePrivilege.CREATE, entries);
-
-        if (UpdateModifiers.isUpdateOrWrite(modifiers))
-            return _engine.updateOrWrite(entries, txn, leases, sc, modifiers, false, false);
-        if (UpdateModifiers.isWriteOnly(modifiers)) //need to loop and so each entry will get its lease.
-        {
-            Object[] res = new Object[entries.length];
-            boolean fromReplication = false;
-            for (int i = 0; i < entries.length; ++i) {
-                WriteEntryResult writeResult = _engine.write(entries[i], txn, leases[i], modifiers, fromReplication, true, sc);
-                LeaseContext<?> lease = writeResult.createLease(entries[i].getTypeName(), this,
-                        _engine.isNoWriteLease(entries[i], modifiers, fromReplication));
-                // update API should return null for new objects, returning only UID at this point will result in null to the end user
-                // where returning LeaseContext at this point will return this object to the user.
-                res[i] = lease.getUID();
-            }
-            return res;
-        }
-
+        final int[] slots = beginBatchOperation(sc, UpdateModifiers.isPotentialUpdate(modifiers) ? SpacePrivilege.WRITE : SpacePrivilege.CREATE, entries);
 
         try {
+            if (UpdateModifiers.isUpdateOrWrite(modifiers))
+                return _engine.updateOrWrite(entries, txn, leases, sc, modifiers, false, false);
+            if (UpdateModifiers.isWriteOnly(modifiers)) //need to loop and so each entry will get its lease.
+            {
+                Object[] res = new Object[entries.length];
+                boolean fromReplication = false;
+                for (int i = 0; i < entries.length; ++i) {
+                    WriteEntryResult writeResult = _engine.write(entries[i], txn, leases[i], modifiers, fromReplication, true, sc);
+                    LeaseContext<?> lease = writeResult.createLease(entries[i].getTypeName(), this,
+                            _engine.isNoWriteLease(entries[i], modifiers, fromReplication));
+                    // update API should return null for new objects, returning only UID at this point will result in null to the end user
+                    // where returning LeaseContext at this point will return this object to the user.
+                    res[i] = lease.getUID();
+                }
+                return res;
+            }
+
             return _engine.updateMultiple(entries, txn, leases, sc, modifiers, false /*newRouter*/);
         } catch (RuntimeException e) {
             throw logException(e);
         } finally {
-            endPacketOperation();
+            endBatchOperation(slots);
         }
     }
 
     public Pair<Integer,SingleExplainPlan> count(ITemplatePacket template, Transaction txn, SpaceContext sc, int modifiers)
             throws UnusableEntryException, UnknownTypeException, TransactionException, RemoteException {
-        beginPacketOperation(true, sc, SpacePrivilege.READ, template);
+        final int slot = beginPacketOperation(true, sc, SpacePrivilege.READ, template);
 
         try {
             return _engine.count(template, txn, sc, modifiers);
         } catch (RuntimeException e) {
             throw logException(e);
         } finally {
-            endPacketOperation();
+            endPacketOperation(slot);
         }
     }
 
     public Pair<Integer,SingleExplainPlan> clear(ITemplatePacket template, Transaction txn, int modifiers, SpaceContext sc)
             throws UnusableEntryException, UnknownTypeException, TransactionException, RemoteException {
-        beginPacketOperation(true, sc, SpacePrivilege.TAKE, template);
+        final int slot = beginPacketOperation(true, sc, SpacePrivilege.TAKE, template);
 
         try {
             if(txn != null && !_engine.isLocalCache())
@@ -2140,14 +2284,14 @@ public class SpaceImpl extends AbstractService implements IRemoteSpace, IInterna
         } catch (RuntimeException e) {
             throw logException(e);
         } finally {
-            endPacketOperation();
+            endPacketOperation(slot);
         }
     }
 
     public AnswerHolder readNew(ITemplatePacket template, Transaction txn, long timeout, boolean ifExists,
                                 boolean take, IJSpaceProxyListener listener, SpaceContext sc, boolean returnOnlyUid, int modifiers)
             throws TransactionException, UnusableEntryException, UnknownTypeException, RemoteException, InterruptedException {
-        beginPacketOperation(true, sc, (take ? SpacePrivilege.TAKE : SpacePrivilege.READ), template);
+        final int slot = beginPacketOperation(isCheckForStandByOnRead(sc, txn, take), sc, (take ? SpacePrivilege.TAKE : SpacePrivilege.READ), template);
 
         try {
             if (txn != null && take && !_engine.isLocalCache())
@@ -2168,7 +2312,7 @@ public class SpaceImpl extends AbstractService implements IRemoteSpace, IInterna
         } catch (RuntimeException e) {
             throw logException(e);
         } finally {
-            endPacketOperation();
+            endPacketOperation(slot);
         }
     }
 
@@ -2244,7 +2388,7 @@ public class SpaceImpl extends AbstractService implements IRemoteSpace, IInterna
     public AnswerHolder readMultiple(ITemplatePacket template, Transaction txn, boolean take,
                                      int maxEntries, SpaceContext sc, boolean returnOnlyUid, int modifiers, int minEntries, long timeout, boolean isIfExist)
             throws TransactionException, UnusableEntryException, UnknownTypeException, RemoteException {
-        beginPacketOperation(true, sc, (take ? SpacePrivilege.TAKE : SpacePrivilege.READ), template);
+        final int slot = beginPacketOperation(true, sc, (take ? SpacePrivilege.TAKE : SpacePrivilege.READ), template);
 
         try {
             BatchQueryOperationContext operationContext = take
@@ -2303,7 +2447,7 @@ public class SpaceImpl extends AbstractService implements IRemoteSpace, IInterna
         } catch (InterruptedException e) {
             throw new RuntimeException(logException(e));
         } finally {
-            endPacketOperation();
+            endPacketOperation(slot);
         }
     }
 
@@ -2346,9 +2490,8 @@ public class SpaceImpl extends AbstractService implements IRemoteSpace, IInterna
     public IEntryPacket[] readByIds(ITemplatePacket template, Transaction txn, boolean take,
                                     SpaceContext spaceContext, int modifiers)
             throws TransactionException, UnusableEntryException, UnknownTypeException, RemoteException, InterruptedException {
+        final int slot = beginPacketOperation(isCheckForStandByOnRead(spaceContext, txn, take), spaceContext, (take ? SpacePrivilege.TAKE : SpacePrivilege.READ), template);
         try {
-            beginPacketOperation(true, spaceContext, (take ? SpacePrivilege.TAKE : SpacePrivilege.READ), template);
-
             ReadByIdsContext readByIdsContext = new ReadByIdsContext(template, true);
 
             if (take && txn != null && !_engine.isLocalCache())
@@ -2375,14 +2518,14 @@ public class SpaceImpl extends AbstractService implements IRemoteSpace, IInterna
         } catch (RuntimeException e) {
             throw logException(e);
         } finally {
-            endPacketOperation();
+            endPacketOperation(slot);
         }
     }
 
     public GSEventRegistration notify(ITemplatePacket template, Transaction txn, long lease, SpaceContext sc,
                                       NotifyInfo info)
             throws TransactionException, UnusableEntryException, UnknownTypeException, RemoteException {
-        beginPacketOperation(true, sc, SpacePrivilege.READ, template);
+        final int slot = beginPacketOperation(true, sc, SpacePrivilege.READ, template);
 
         try {
             if (txn != null)
@@ -2408,7 +2551,7 @@ public class SpaceImpl extends AbstractService implements IRemoteSpace, IInterna
         } catch (RuntimeException e) {
             throw logException(e);
         } finally {
-            endPacketOperation();
+            endPacketOperation(slot);
         }
     }
 
@@ -2985,6 +3128,7 @@ public class SpaceImpl extends AbstractService implements IRemoteSpace, IInterna
 
         spaceConfig.setEngineMinThreads(configReader.getSpaceProperty(Engine.ENGINE_MIN_THREADS_PROP, Engine.ENGINE_MIN_THREADS_DEFAULT));
         spaceConfig.setEngineMaxThreads(configReader.getSpaceProperty(Engine.ENGINE_MAX_THREADS_PROP, Engine.ENGINE_MAX_THREADS_DEFAULT));
+        spaceConfig.setEngineTaskLanes(configReader.getIntSpaceProperty(Engine.ENGINE_TASK_LANES_PROP, Engine.ENGINE_TASK_LANES_DEFAULT));
 
         //db properties
         boolean isPersitent = configReader.getBooleanSpaceProperty(StorageAdapter.PERSISTENT_ENABLED_PROP, StorageAdapter.PERSISTENT_ENABLED_DEFAULT);
@@ -3486,7 +3630,7 @@ public class SpaceImpl extends AbstractService implements IRemoteSpace, IInterna
     public SpaceCopyStatus spaceCopy(String remoteUrl, ITemplatePacket template,
                                      boolean includeNotifyTemplates, int chunkSize, SpaceContext sc)
             throws RemoteException {
-        beginPacketOperation(false, sc, SpacePrivilege.WRITE, template);
+        final int slot = beginPacketOperation(false, sc, SpacePrivilege.WRITE, template);
 
         try {
             final int findTimeout = 3 * 1000;
@@ -3516,7 +3660,7 @@ public class SpaceImpl extends AbstractService implements IRemoteSpace, IInterna
         } catch (Exception ex) {
             throw new RemoteException(ex.getMessage(), ex);
         } finally {
-            endPacketOperation();
+            endPacketOperation(slot);
         }
     }
 
@@ -24,6 +24,7 @@ import com.gigaspaces.internal.server.space.events.NotifyContextsHolder;
 import com.gigaspaces.internal.server.space.events.SpaceDataEventManager;
 import com.gigaspaces.internal.server.space.events.UpdateNotifyContextHolder;
 import com.gigaspaces.internal.server.space.metadata.SpaceTypeManager;
+import com.gigaspaces.internal.server.storage.IEntryData;
 import com.gigaspaces.internal.server.storage.IEntryHolder;
 import com.gigaspaces.internal.server.storage.ITemplateHolder;
 import com.gigaspaces.internal.server.storage.ITransactionalEntryData;
@@ -478,6 +479,10 @@ public class TemplateScanner {
         return res != MatchResult.NONE;
     }
 
+    public boolean match(Context context, IEntryData entryData, String uid, ITemplateHolder template) {
+        return template.matchEntryData(_cacheManager, entryData, uid, context, _regexCache);
+    }
+
     public boolean notifyMatch(Context context, IEntryHolder entry, ITemplateHolder template) {
         MatchResult res = template.match(_cacheManager, entry, -1, null, false, context, _regexCache);
         return res == MatchResult.MASTER || res == MatchResult.MASTER_AND_SHADOW;
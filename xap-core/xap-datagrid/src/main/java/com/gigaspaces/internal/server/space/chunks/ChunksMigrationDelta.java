@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.server.space.chunks;
+
+import com.gigaspaces.internal.io.IOUtils;
+import com.gigaspaces.internal.transport.IEntryPacket;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Changes of the migrated chunks which were drained from the source partition. Entries hold the
+ * current state of changed entries, removed uids are entries which no longer exist in the source.
+ *
+ * @since 15.5
+ */
+@com.gigaspaces.api.InternalApi
+public class ChunksMigrationDelta implements Externalizable {
+    private static final long serialVersionUID = 1L;
+
+    private List<IEntryPacket> _entries = new ArrayList<IEntryPacket>();
+    private List<String> _removedUids = new ArrayList<String>();
+    //changed entries which are locked by a transaction which is not resolved yet
+    private int _pendingEntries;
+    //changed entries which are left for the next drain
+    private int _remainingEntries;
+
+    /**
+     * Required for Externalizable
+     */
+    public ChunksMigrationDelta() {
+    }
+
+    public List<IEntryPacket> getEntries() {
+        return _entries;
+    }
+
+    public void addEntry(IEntryPacket entryPacket) {
+        _entries.add(entryPacket);
+    }
+
+    public List<String> getRemovedUids() {
+        return _removedUids;
+    }
+
+    public void addRemovedUid(String uid) {
+        _removedUids.add(uid);
+    }
+
+    public int getPendingEntries() {
+        return _pendingEntries;
+    }
+
+    public void setPendingEntries(int pendingEntries) {
+        this._pendingEntries = pendingEntries;
+    }
+
+    public int getRemainingEntries() {
+        return _remainingEntries;
+    }
+
+    public void setRemainingEntries(int remainingEntries) {
+        this._remainingEntries = remainingEntries;
+    }
+
+    public int size() {
+        return _entries.size() + _removedUids.size();
+    }
+
+    /**
+     * @return true if there are no changes in this delta and no changes left in the source
+     */
+    public boolean isFullyDrained() {
+        return size() == 0 && _remainingEntries == 0;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeInt(_entries.size());
+        for (IEntryPacket entry : _entries)
+            IOUtils.writeObject(out, entry);
+        out.writeInt(_removedUids.size());
+        for (String uid : _removedUids)
+            IOUtils.writeString(out, uid);
+        out.writeInt(_pendingEntries);
+        out.writeInt(_remainingEntries);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        int numOfEntries = in.readInt();
+        _entries = new ArrayList<IEntryPacket>(numOfEntries);
+        for (int i = 0; i < numOfEntries; i++)
+            _entries.add(IOUtils.<IEntryPacket>readObject(in));
+        int numOfRemovedUids = in.readInt();
+        _removedUids = new ArrayList<String>(numOfRemovedUids);
+        for (int i = 0; i < numOfRemovedUids; i++)
+            _removedUids.add(IOUtils.readString(in));
+        _pendingEntries = in.readInt();
+        _remainingEntries = in.readInt();
+    }
+
+    @Override
+    public String toString() {
+        return "ChunksMigrationDelta [entries=" + _entries.size() +
+                ", removedUids=" + _removedUids.size() +
+                ", pendingEntries=" + _pendingEntries +
+                ", remainingEntries=" + _remainingEntries + "]";
+    }
+}
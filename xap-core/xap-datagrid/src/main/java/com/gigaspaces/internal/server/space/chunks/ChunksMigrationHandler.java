@@ -0,0 +1,379 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.server.space.chunks;
+
+import com.gigaspaces.internal.client.spaceproxy.IDirectSpaceProxy;
+import com.gigaspaces.internal.client.spaceproxy.ISpaceProxy;
+import com.gigaspaces.internal.client.spaceproxy.executors.ChunksMigrationTask;
+import com.gigaspaces.internal.cluster.PartitionToChunksMap;
+import com.gigaspaces.internal.cluster.node.replica.ISpaceCopyResult;
+import com.gigaspaces.internal.server.space.SpaceEngine;
+import com.gigaspaces.internal.server.space.SpaceImpl;
+import com.gigaspaces.internal.server.space.ZookeeperChunksMapHandler;
+import com.gigaspaces.internal.space.requests.ChunksMigrationRequestInfo;
+import com.gigaspaces.internal.space.responses.ChunksMigrationResponseInfo;
+import com.gigaspaces.internal.transport.IEntryPacket;
+import com.gigaspaces.logger.Constants;
+import com.j_spaces.core.client.SpaceFinder;
+import com.j_spaces.core.client.SpaceURL;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Migrates the entries of chunks between partitions of a space which uses chunks based routing,
+ * while the space keeps serving operations. The migration is driven by the primary of the target
+ * partition:
+ * <ol>
+ * <li>the source partition starts tracking the changes of the migrated chunks</li>
+ * <li>the entries of the chunks are copied from the source using space copy replica</li>
+ * <li>the changes made since the copy started are drained until only few are left</li>
+ * <li>the source freezes the chunks - it waits for the operations in progress on them, and new
+ * operations on them wait for the migration to end - and the rest of the changes are drained</li>
+ * <li>the chunks map of the next generation is published, and the source removes the entries of
+ * the chunks. Waiting operations are rejected with the new map and retried by the clients. Once
+ * the map is published the completion is retried until the source acknowledges it, and a source
+ * which adopts the new map completes the migration by itself</li>
+ * </ol>
+ *
+ * @since 15.5
+ */
+@com.gigaspaces.api.InternalApi
+public class ChunksMigrationHandler {
+    private static final Logger _logger = LoggerFactory.getLogger(Constants.LOGGER_ENGINE + ".chunks");
+
+    private static final int COPY_BATCH_SIZE = 1000;
+    private static final int DRAIN_BATCH_SIZE = 1000;
+    // changes left in the source below which the chunks are frozen
+    private static final int CATCH_UP_THRESHOLD = 100;
+    private static final int MAX_CATCH_UP_ROUNDS = 100;
+    private static final long PENDING_CHANGES_BACKOFF = 10;
+    private static final long COMPLETE_RETRY_MIN_BACKOFF = 10;
+    private static final long COMPLETE_RETRY_MAX_BACKOFF = 1000;
+
+    private final SpaceImpl _space;
+    private final ZookeeperChunksMapHandler _chunksMapHandler;
+    private final Object _migrationLock = new Object();
+    // chunks which are copied to this partition before it owns them
+    private volatile BitSet _incomingChunks;
+
+    public ChunksMigrationHandler(SpaceImpl space, ZookeeperChunksMapHandler chunksMapHandler) {
+        this._space = space;
+        this._chunksMapHandler = chunksMapHandler;
+    }
+
+    public ChunksMigrationResponseInfo execute(ChunksMigrationRequestInfo request) {
+        if (_logger.isDebugEnabled())
+            _logger.debug("Executing " + request);
+        ChunksMigrationResponseInfo response = new ChunksMigrationResponseInfo();
+        switch (request.getAction()) {
+            case MIGRATE:
+                response.setMigratedEntries(migrate(request.getSourcePartitionId(), request.getChunks()));
+                break;
+            case BEGIN:
+                getSource().begin(request.getMigrationId(), request.getChunks());
+                break;
+            case DRAIN:
+                response.setDelta(getSource().drainChanges(request.getMigrationId(), request.getMaxEntries()));
+                break;
+            case FREEZE:
+                getSource().freeze(request.getMigrationId());
+                break;
+            case COMPLETE:
+                response.setDelta(complete(request.getMigrationId(), request.getChunks()));
+                break;
+            case ABORT:
+                getSource().end(request.getMigrationId());
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported chunks migration action " + request.getAction());
+        }
+        return response;
+    }
+
+    /**
+     * @return true if the routing value belongs to a chunk which is migrated to this partition
+     */
+    public boolean isIncomingChunk(Object routingValue) {
+        final BitSet incomingChunks = _incomingChunks;
+        return incomingChunks != null && ChunksMigrationSource.isIncluded(incomingChunks, routingValue);
+    }
+
+    private ChunksMigrationSource getSource() {
+        ChunksMigrationSource source = _space.getEngine().getCacheManager().getChunksMigrationSource();
+        if (source == null)
+            throw new UnsupportedOperationException("Chunks migration is supported only in ALL_IN_CACHE cache policy without blob store");
+        return source;
+    }
+
+    /**
+     * Migrates the chunks from the source partition to this partition.
+     *
+     * @return number of copied entries
+     */
+    private int migrate(int sourcePartitionId, List<Integer> chunks) {
+        synchronized (_migrationLock) {
+            final int targetPartitionId = _space.getPartitionId();
+            validate(sourcePartitionId, targetPartitionId, chunks);
+
+            final String migrationId = UUID.randomUUID().toString();
+            final long startTime = System.currentTimeMillis();
+            _logger.info("Starting migration " + migrationId + " of " + chunks.size() + " chunks from partition " + (sourcePartitionId + 1) + " to partition " + (targetPartitionId + 1));
+
+            IDirectSpaceProxy source = findPrimary(sourcePartitionId);
+            executeOnSource(source, new ChunksMigrationRequestInfo(ChunksMigrationRequestInfo.Action.BEGIN, migrationId).setChunks(chunks));
+            _incomingChunks = ChunksMigrationSource.toBitSet(chunks);
+            boolean published = false;
+            try {
+                int copiedEntries = copy(source, chunks);
+                int changes = catchUp(source, migrationId);
+                executeOnSource(source, new ChunksMigrationRequestInfo(ChunksMigrationRequestInfo.Action.FREEZE, migrationId));
+                long freezeTime = System.currentTimeMillis();
+                changes += drainFrozen(source, migrationId);
+
+                PartitionToChunksMap newMap = _chunksMapHandler.getChunksMap().moveChunks(chunks, targetPartitionId);
+                _chunksMapHandler.setChunksMap(newMap);
+                _space.getClusterInfo().setChunksMap(newMap);
+                published = true;
+
+                changes += apply(completeOnSource(sourcePartitionId, source, migrationId, chunks));
+                _logger.info("Completed migration " + migrationId + " [copied entries=" + copiedEntries + ", applied changes=" + changes +
+                        ", chunks map generation=" + newMap.getGeneration() + ", frozen time=" + (System.currentTimeMillis() - freezeTime) +
+                        "ms, duration=" + (System.currentTimeMillis() - startTime) + "ms]");
+                return copiedEntries;
+            } catch (RuntimeException e) {
+                if (!published)
+                    abort(source, migrationId, chunks, e);
+                throw e;
+            } finally {
+                _incomingChunks = null;
+            }
+        }
+    }
+
+    private void validate(int sourcePartitionId, int targetPartitionId, List<Integer> chunks) {
+        if (!_space.getClusterInfo().isChunksRouting())
+            throw new UnsupportedOperationException("Chunks migration requires chunks based routing");
+        if (!_space.isPrimary())
+            throw new IllegalStateException("Chunks can be migrated only to a primary space");
+        if (_space.getEngine().hasMirror())
+            throw new UnsupportedOperationException("Chunks migration is not supported with a mirror service");
+        // a data source would get the writes of the target and the removals of the source as user changes
+        if (!_space.getEngine().getCacheManager().isMemorySpace())
+            throw new UnsupportedOperationException("Chunks migration is not supported with an external data source");
+        getSource();
+        if (chunks == null || chunks.isEmpty())
+            throw new IllegalArgumentException("No chunks to migrate");
+        if (sourcePartitionId == targetPartitionId)
+            throw new IllegalArgumentException("Cannot migrate chunks from partition " + (sourcePartitionId + 1) + " to itself");
+        PartitionToChunksMap chunksMap = _chunksMapHandler.getChunksMap();
+        for (Integer chunk : chunks) {
+            if (chunk == null || chunk < 0 || chunk >= PartitionToChunksMap.CHUNKS_COUNT)
+                throw new IllegalArgumentException("Illegal chunk " + chunk);
+            if (chunksMap.getPartitionIdByChunk(chunk) != sourcePartitionId)
+                throw new IllegalArgumentException("Chunk " + chunk + " is not owned by partition " + (sourcePartitionId + 1));
+        }
+    }
+
+    IDirectSpaceProxy findPrimary(int partitionId) {
+        try {
+            SpaceURL url = ((ISpaceProxy) _space.getSpaceProxy()).getDirectProxy().getProxyRouter().getPrimaryMemberUrl(partitionId);
+            if (url == null)
+                throw new IllegalStateException("Primary of partition " + (partitionId + 1) + " is not available");
+            return (IDirectSpaceProxy) SpaceFinder.find(url);
+        } catch (IllegalStateException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to locate primary of partition " + (partitionId + 1), e);
+        }
+    }
+
+    /**
+     * The new chunks map is already published and the source keeps the chunks frozen until the
+     * migration is completed, so the completion is retried until it succeeds. Completion is
+     * idempotent in the source, a retry after a lost response gets the same changes.
+     */
+    private ChunksMigrationDelta completeOnSource(int sourcePartitionId, IDirectSpaceProxy source, String migrationId, List<Integer> chunks) {
+        final ChunksMigrationRequestInfo request = new ChunksMigrationRequestInfo(ChunksMigrationRequestInfo.Action.COMPLETE, migrationId).setChunks(chunks);
+        long backoff = COMPLETE_RETRY_MIN_BACKOFF;
+        while (true) {
+            try {
+                return executeOnSource(source, request).getDelta();
+            } catch (RuntimeException e) {
+                _logger.warn("Failed to complete migration " + migrationId + " in partition " + (sourcePartitionId + 1) + ", retrying in " + backoff + "ms", e);
+            }
+            sleep(backoff);
+            backoff = Math.min(backoff * 2, COMPLETE_RETRY_MAX_BACKOFF);
+            try {
+                source = findPrimary(sourcePartitionId);
+            } catch (RuntimeException e) {
+                // the primary may be failing over, the next attempt uses the last known one
+            }
+        }
+    }
+
+    private int copy(IDirectSpaceProxy source, List<Integer> chunks) {
+        SpaceURL url = source.getProxyRouter().getMemberUrl(source.getRemoteMemberName());
+        ISpaceCopyResult result = _space.getEngine().spaceCopyReplica(url, source.getRemoteMemberName(), source.getRemoteJSpace(),
+                null /*template*/, false /*includeNotifyTemplates*/, COPY_BATCH_SIZE, null, null, chunks).getCopyResult();
+        if (!result.isSuccessful())
+            throw new IllegalStateException("Failed to copy chunks from " + source.getRemoteMemberName(), result.getFailureReason());
+        return ChunksMigrationSource.getEntriesUids(_space.getEngine().getCacheManager(), _incomingChunks).size();
+    }
+
+    /**
+     * Drains changes until only few changes are left, so the chunks are frozen for a short time.
+     */
+    private int catchUp(IDirectSpaceProxy source, String migrationId) {
+        int changes = 0;
+        for (int round = 0; round < MAX_CATCH_UP_ROUNDS; round++) {
+            ChunksMigrationDelta delta = drain(source, migrationId);
+            changes += apply(delta);
+            if (delta.getRemainingEntries() <= CATCH_UP_THRESHOLD)
+                break;
+        }
+        return changes;
+    }
+
+    private int drainFrozen(IDirectSpaceProxy source, String migrationId) {
+        int changes = 0;
+        long deadline = System.currentTimeMillis() + ChunksMigrationSource.FREEZE_TIMEOUT;
+        while (true) {
+            ChunksMigrationDelta delta = drain(source, migrationId);
+            changes += apply(delta);
+            if (delta.isFullyDrained())
+                return changes;
+            if (System.currentTimeMillis() > deadline)
+                throw new IllegalStateException("Timed out waiting for the changes of the frozen chunks to be drained, " + delta);
+            // waiting for the transactions of locked entries to be resolved
+            if (delta.size() == 0)
+                sleep(PENDING_CHANGES_BACKOFF);
+        }
+    }
+
+    private ChunksMigrationDelta drain(IDirectSpaceProxy source, String migrationId) {
+        return executeOnSource(source, new ChunksMigrationRequestInfo(ChunksMigrationRequestInfo.Action.DRAIN, migrationId)
+                .setMaxEntries(DRAIN_BATCH_SIZE)).getDelta();
+    }
+
+    /**
+     * Applies the changes drained from the source, entries are written with the version of the
+     * source. Like the copied entries, they are not user operations - no filters are invoked and
+     * no listeners are notified.
+     */
+    private int apply(ChunksMigrationDelta delta) {
+        if (delta == null)
+            return 0;
+        SpaceEngine engine = _space.getEngine();
+        try {
+            for (IEntryPacket entry : delta.getEntries())
+                engine.writeMigratedEntry(entry);
+            removeEntries(delta.getRemovedUids());
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to apply changes of migrated chunks", e);
+        }
+        return delta.size();
+    }
+
+    /**
+     * Source side completion - the target already published the new chunks map. The migration may
+     * already be completed when the target retries, or when this space refreshed the map before.
+     */
+    private ChunksMigrationDelta complete(String migrationId, List<Integer> chunks) {
+        ChunksMigrationSource source = getSource();
+        // adopt the new map before the last drain, so operations on the chunks are redirected to the target
+        PartitionToChunksMap chunksMap = _space.refreshChunksMap();
+        ChunksMigrationDelta delta = source.complete(migrationId);
+        if (delta == null) {
+            // a primary which took over after the migration began does not know it, the chunks were frozen by its former primary
+            if (chunksMap.getPartitionIdByChunk(chunks.get(0)) == _space.getPartitionId())
+                throw new IllegalStateException("Chunks migration " + migrationId + " is not in progress");
+            delta = new ChunksMigrationDelta();
+        }
+        removeMigratedEntries("migration=" + migrationId, ChunksMigrationSource.toBitSet(chunks));
+        return delta;
+    }
+
+    /**
+     * Called when this space adopted the chunks map. A migration from this partition whose chunks
+     * the map assigns to another partition is completed.
+     */
+    public void onChunksMapRefreshed(PartitionToChunksMap chunksMap) {
+        ChunksMigrationSource source = _space.getEngine().getCacheManager().getChunksMigrationSource();
+        if (source == null)
+            return;
+        BitSet chunks = source.completeIfMoved(chunksMap, _space.getPartitionId());
+        if (chunks != null)
+            removeMigratedEntries("chunks map generation=" + chunksMap.getGeneration(), chunks);
+    }
+
+    private void removeMigratedEntries(String reason, BitSet chunks) {
+        List<String> uids = ChunksMigrationSource.getEntriesUids(_space.getEngine().getCacheManager(), chunks);
+        if (uids.isEmpty())
+            return;
+        try {
+            removeEntries(uids);
+        } catch (Exception e) {
+            _logger.warn("Failed to remove entries of migrated chunks [" + reason + "]", e);
+        }
+        _logger.info("Removed " + uids.size() + " entries of " + chunks.cardinality() + " chunks migrated from partition " + _space.getPartitionIdOneBased() +
+                " [" + reason + "]");
+    }
+
+    private void abort(IDirectSpaceProxy source, String migrationId, List<Integer> chunks, Exception cause) {
+        _logger.warn("Aborting migration " + migrationId, cause);
+        try {
+            executeOnSource(source, new ChunksMigrationRequestInfo(ChunksMigrationRequestInfo.Action.ABORT, migrationId));
+        } catch (Exception e) {
+            _logger.warn("Failed to abort migration " + migrationId + " in source partition", e);
+        }
+        try {
+            removeEntries(ChunksMigrationSource.getEntriesUids(_space.getEngine().getCacheManager(), ChunksMigrationSource.toBitSet(chunks)));
+        } catch (Exception e) {
+            _logger.warn("Failed to remove copied entries of aborted migration " + migrationId, e);
+        }
+    }
+
+    private void removeEntries(List<String> uids) {
+        SpaceEngine engine = _space.getEngine();
+        for (String uid : uids)
+            engine.removeMigratedEntry(uid);
+    }
+
+    ChunksMigrationResponseInfo executeOnSource(IDirectSpaceProxy source, ChunksMigrationRequestInfo request) {
+        try {
+            return (ChunksMigrationResponseInfo) source.execute(new ChunksMigrationTask(request), null, null, null).get();
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to execute " + request + " on " + source.getRemoteMemberName(), e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while migrating chunks", e);
+        }
+    }
+}
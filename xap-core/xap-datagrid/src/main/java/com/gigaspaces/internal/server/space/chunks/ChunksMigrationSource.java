@@ -0,0 +1,389 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.server.space.chunks;
+
+import com.gigaspaces.internal.cluster.PartitionToChunksMap;
+import com.gigaspaces.internal.exceptions.ChunksMapGenerationException;
+import com.gigaspaces.internal.remoting.routing.partitioned.PartitionedClusterUtils;
+import com.gigaspaces.internal.server.storage.IEntryHolder;
+import com.gigaspaces.internal.transport.EntryPacketFactory;
+import com.gigaspaces.internal.transport.IEntryPacket;
+import com.j_spaces.core.cache.CacheManager;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Source side state of a chunks migration. While a migration is active the uids of the changed
+ * entries of the migrated chunks are tracked, so the target partition can drain the changes which
+ * were made after the copy of the chunks has started. Operations which may change entries are
+ * counted per chunk while they are executed, so freezing the chunks waits for the operations in
+ * progress on them. Once frozen, such operations wait until the migration is completed or aborted.
+ *
+ * @since 15.5
+ */
+@com.gigaspaces.api.InternalApi
+public class ChunksMigrationSource {
+    static final long FREEZE_TIMEOUT = Long.getLong("com.gs.chunks.migration.freeze-timeout", 10000);
+    // operations without a routing value may change entries of any chunk
+    public static final int UNROUTED = PartitionToChunksMap.CHUNKS_COUNT;
+
+    private final CacheManager _cacheManager;
+    private final long _freezeTimeout;
+    // changing operations in progress per chunk, the last slot counts the unrouted operations
+    private final AtomicIntegerArray _inProgress = new AtomicIntegerArray(PartitionToChunksMap.CHUNKS_COUNT + 1);
+    private final Object _inProgressLock = new Object();
+    // the slot entered by the current thread, so it can be released while the thread blocks on a template
+    private final ThreadLocal<int[]> _enteredSlot = new ThreadLocal<int[]>() {
+        @Override
+        protected int[] initialValue() {
+            return new int[]{PartitionedClusterUtils.NO_PARTITION};
+        }
+    };
+    private volatile Migration _migration;
+    // the last completed migration and its final changes, so a retried completion gets the same changes
+    private String _completedId;
+    private ChunksMigrationDelta _completedDelta;
+
+    public ChunksMigrationSource(CacheManager cacheManager) {
+        this(cacheManager, FREEZE_TIMEOUT);
+    }
+
+    ChunksMigrationSource(CacheManager cacheManager, long freezeTimeout) {
+        this._cacheManager = cacheManager;
+        this._freezeTimeout = freezeTimeout;
+    }
+
+    public synchronized void begin(String migrationId, Collection<Integer> chunks) {
+        if (_migration != null)
+            throw new IllegalStateException("Cannot begin chunks migration " + migrationId + " - migration " + _migration._id + " is in progress");
+        final Migration migration = new Migration(migrationId, chunks);
+        _migration = migration;
+        //entries locked before the migration began are tracked until their transaction is resolved
+        for (String uid : getEntriesUids(_cacheManager, migration._chunks)) {
+            IEntryHolder entryHolder = _cacheManager.getEntryByUidFromPureCache(uid);
+            if (entryHolder != null && entryHolder.isEntryUnderWriteLockXtn())
+                migration._changedUids.add(uid);
+        }
+    }
+
+    /**
+     * Called after an entry was written, updated, removed or locked by a transaction.
+     */
+    public void onEntryChanged(IEntryHolder entryHolder) {
+        final Migration migration = _migration;
+        if (migration != null && migration.isMigrated(entryHolder.getRoutingValue()))
+            migration._changedUids.add(entryHolder.getUID());
+    }
+
+    public boolean isActive() {
+        return _migration != null;
+    }
+
+    /**
+     * @return the slot which counts the operations in progress on the routing value
+     */
+    public static int getSlot(Object routingValue) {
+        return routingValue == null ? UNROUTED : PartitionedClusterUtils.getChunkId(routingValue);
+    }
+
+    /**
+     * Called before an operation which may change entries of the slot. If the slot is frozen the
+     * operation waits until the migration is completed or aborted.
+     *
+     * @throws ChunksMapGenerationException if the slot is still frozen after the freeze timeout
+     */
+    public void enter(int slot) {
+        while (true) {
+            _inProgress.incrementAndGet(slot);
+            // freeze sets the flag before it checks the counters, so either side sees the other
+            final Migration migration = _migration;
+            if (migration == null || !migration._frozen || !migration.includes(slot)) {
+                _enteredSlot.get()[0] = slot;
+                return;
+            }
+            exit(slot);
+            awaitEnd(migration);
+        }
+    }
+
+    /**
+     * Batch version of {@link #enter(int)}, a batch waits without holding any of its slots.
+     */
+    public void enter(int[] slots) {
+        while (true) {
+            for (int slot : slots)
+                _inProgress.incrementAndGet(slot);
+            final Migration migration = _migration;
+            if (migration == null || !migration._frozen || !migration.includes(slots))
+                return;
+            exit(slots);
+            awaitEnd(migration);
+        }
+    }
+
+    public void exit(int slot) {
+        final int[] enteredSlot = _enteredSlot.get();
+        if (enteredSlot[0] == slot)
+            enteredSlot[0] = PartitionedClusterUtils.NO_PARTITION;
+        if (_inProgress.decrementAndGet(slot) == 0)
+            notifyIfFrozen();
+    }
+
+    /**
+     * Releases the slot entered by the current thread while it blocks until a template is matched,
+     * so a blocking operation does not delay freezing. Waiting does not change entries, a waiting
+     * template is matched when a later operation makes a matching entry available.
+     *
+     * @return the released slot to pass to {@link #resume(int)}
+     */
+    public int suspend() {
+        final int[] enteredSlot = _enteredSlot.get();
+        final int slot = enteredSlot[0];
+        if (slot != PartitionedClusterUtils.NO_PARTITION)
+            exit(slot);
+        return slot;
+    }
+
+    /**
+     * Takes back the slot released by {@link #suspend()}. The template may already be matched, so
+     * the slot is taken without waiting for frozen chunks.
+     */
+    public void resume(int slot) {
+        if (slot != PartitionedClusterUtils.NO_PARTITION) {
+            _inProgress.incrementAndGet(slot);
+            _enteredSlot.get()[0] = slot;
+        }
+    }
+
+    public void exit(int[] slots) {
+        boolean drained = false;
+        for (int slot : slots)
+            drained |= _inProgress.decrementAndGet(slot) == 0;
+        if (drained)
+            notifyIfFrozen();
+    }
+
+    private void notifyIfFrozen() {
+        final Migration migration = _migration;
+        if (migration != null && migration._frozen) {
+            synchronized (_inProgressLock) {
+                _inProgressLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Freezes the migrated chunks, and waits for the operations in progress on them to end.
+     * Operations which block on a template do not delay the freeze while they wait, see {@link
+     * #suspend()}. If the operations do not end within the freeze timeout the migration fails and
+     * the chunks are unfrozen.
+     */
+    public void freeze(String migrationId) {
+        final Migration migration = getMigration(migrationId);
+        migration._frozen = true;
+        final long deadline = System.currentTimeMillis() + _freezeTimeout;
+        synchronized (_inProgressLock) {
+            while (hasOperationsInProgress(migration)) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0)
+                    throw new IllegalStateException("Timed out waiting for the operations in progress on the chunks of migration " + migrationId);
+                try {
+                    _inProgressLock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while freezing the chunks of migration " + migrationId, e);
+                }
+            }
+        }
+    }
+
+    private boolean hasOperationsInProgress(Migration migration) {
+        if (_inProgress.get(UNROUTED) != 0)
+            return true;
+        for (int chunk = migration._chunks.nextSetBit(0); chunk >= 0; chunk = migration._chunks.nextSetBit(chunk + 1))
+            if (_inProgress.get(chunk) != 0)
+                return true;
+        return false;
+    }
+
+    private void awaitEnd(Migration migration) {
+        final long deadline = System.currentTimeMillis() + _freezeTimeout;
+        synchronized (_inProgressLock) {
+            while (_migration == migration) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0)
+                    throw new ChunksMapGenerationException("Timed out waiting for chunks migration " + migration._id + " to end");
+                try {
+                    _inProgressLock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ChunksMapGenerationException("Interrupted while waiting for chunks migration " + migration._id + " to end");
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes up to maxEntries changed entries from the tracked changes, and returns their current
+     * state.
+     */
+    public ChunksMigrationDelta drainChanges(String migrationId, int maxEntries) {
+        final Migration migration = getMigration(migrationId);
+        ChunksMigrationDelta delta = new ChunksMigrationDelta();
+        List<String> pendingUids = null;
+        for (Iterator<String> iterator = migration._changedUids.iterator(); iterator.hasNext() && delta.size() < maxEntries; ) {
+            String uid = iterator.next();
+            //removed before reading the entry - a change made after the read is tracked again
+            iterator.remove();
+            IEntryHolder entryHolder = _cacheManager.getEntryByUidFromPureCache(uid);
+            if (entryHolder == null || entryHolder.isDeleted()) {
+                delta.addRemovedUid(uid);
+            } else if (entryHolder.isEntryUnderWriteLockXtn()) {
+                if (pendingUids == null)
+                    pendingUids = new ArrayList<String>();
+                pendingUids.add(uid);
+            } else {
+                IEntryPacket entryPacket = EntryPacketFactory.createFullPacketForReplication(entryHolder, null);
+                entryPacket.setSerializeTypeDesc(true);
+                delta.addEntry(entryPacket);
+            }
+        }
+        //the state of locked entries is known only when their transaction is resolved
+        if (pendingUids != null) {
+            migration._changedUids.addAll(pendingUids);
+            delta.setPendingEntries(pendingUids.size());
+        }
+        delta.setRemainingEntries(migration._changedUids.size());
+        return delta;
+    }
+
+    /**
+     * @return uids of the entries in the space whose routing value belongs to the chunks
+     */
+    static List<String> getEntriesUids(CacheManager cacheManager, BitSet chunks) {
+        List<String> result = new ArrayList<String>();
+        for (String uid : cacheManager.getEntriesUids()) {
+            IEntryHolder entryHolder = cacheManager.getEntryByUidFromPureCache(uid);
+            if (entryHolder != null && !entryHolder.isDeleted() && isIncluded(chunks, entryHolder.getRoutingValue()))
+                result.add(uid);
+        }
+        return result;
+    }
+
+    static BitSet toBitSet(Collection<Integer> chunks) {
+        BitSet result = new BitSet(PartitionToChunksMap.CHUNKS_COUNT);
+        for (Integer chunk : chunks)
+            result.set(chunk);
+        return result;
+    }
+
+    static boolean isIncluded(BitSet chunks, Object routingValue) {
+        int chunk = PartitionedClusterUtils.getChunkId(routingValue);
+        return chunk != PartitionedClusterUtils.NO_PARTITION && chunks.get(chunk);
+    }
+
+    /**
+     * Ends the migration, operations on the migrated chunks are no longer rejected.
+     */
+    public synchronized void end(String migrationId) {
+        getMigration(migrationId);
+        synchronized (_inProgressLock) {
+            _migration = null;
+            _inProgressLock.notifyAll();
+        }
+    }
+
+    /**
+     * Completes the migration once the target published the chunks map which moves the chunks to it -
+     * the rest of the changes are drained and the migration ends. Completing the last completed
+     * migration again returns the same changes, so the target can retry the completion.
+     *
+     * @return the final changes, null if the migration is neither in progress nor the last completed one
+     */
+    public synchronized ChunksMigrationDelta complete(String migrationId) {
+        if (migrationId.equals(_completedId))
+            return _completedDelta;
+        final Migration migration = _migration;
+        if (migration == null || !migration._id.equals(migrationId))
+            return null;
+        ChunksMigrationDelta delta = drainChanges(migrationId, Integer.MAX_VALUE);
+        _completedId = migrationId;
+        _completedDelta = delta;
+        end(migrationId);
+        return delta;
+    }
+
+    /**
+     * Completes the migration in progress if the chunks map assigns its chunks to another partition,
+     * so the chunks do not stay frozen when the completion of the target is delayed or lost.
+     *
+     * @return the chunks of the completed migration, null if no migration was completed
+     */
+    public synchronized BitSet completeIfMoved(PartitionToChunksMap chunksMap, int partitionId) {
+        final Migration migration = _migration;
+        if (migration == null)
+            return null;
+        // the chunks of a migration are moved together
+        int chunk = migration._chunks.nextSetBit(0);
+        if (chunk < 0 || chunksMap.getPartitionIdByChunk(chunk) == partitionId)
+            return null;
+        complete(migration._id);
+        return migration._chunks;
+    }
+
+    private Migration getMigration(String migrationId) {
+        final Migration migration = _migration;
+        if (migration == null || !migration._id.equals(migrationId))
+            throw new IllegalStateException("Chunks migration " + migrationId + " is not in progress");
+        return migration;
+    }
+
+    private static class Migration {
+        private final String _id;
+        private final BitSet _chunks;
+        private final Set<String> _changedUids = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+        private volatile boolean _frozen;
+
+        private Migration(String id, Collection<Integer> chunks) {
+            this._id = id;
+            this._chunks = toBitSet(chunks);
+        }
+
+        private boolean isMigrated(Object routingValue) {
+            return isIncluded(_chunks, routingValue);
+        }
+
+        private boolean includes(int slot) {
+            return slot == UNROUTED || _chunks.get(slot);
+        }
+
+        private boolean includes(int[] slots) {
+            for (int slot : slots)
+                if (includes(slot))
+                    return true;
+            return false;
+        }
+    }
+}
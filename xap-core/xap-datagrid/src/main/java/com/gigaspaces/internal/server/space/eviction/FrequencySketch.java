@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.server.space.eviction;
+
+/**
+ * A count-min sketch of 4-bit counters used to estimate the popularity of entries within a time
+ * window. Each counter row is packed into a long so an increment touches 4 longs and never
+ * allocates. Once the number of increments reaches the sample size all counters are halved, which
+ * ages out entries that used to be popular.
+ *
+ * NOTE - the sketch is intentionally not synchronized, concurrent increments may be lost which is
+ * acceptable for a frequency estimation.
+ *
+ * @since 15.5
+ */
+@com.gigaspaces.api.InternalApi
+public class FrequencySketch {
+    private static final long[] SEED = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long ONE_MASK = 0x1111111111111111L;
+    //4M counter rows (32MB) - large enough for a cache of millions of entries
+    private static final int MAX_TABLE_SIZE = 1 << 22;
+    private static final int MIN_TABLE_SIZE = 64;
+
+    private final long[] _table;
+    private final int _tableMask;
+    private final int _sampleSize;
+    private int _size; //non volatile- estimation only
+
+    public FrequencySketch(int maximumSize) {
+        int tableSize = ceilingPowerOfTwo(Math.max(Math.min(maximumSize, MAX_TABLE_SIZE), MIN_TABLE_SIZE));
+        _table = new long[tableSize];
+        _tableMask = tableSize - 1;
+        _sampleSize = 10 * tableSize;
+    }
+
+    /**
+     * Returns the estimated number of occurrences of the hash, up to 15.
+     */
+    public int frequency(int hashCode) {
+        int hash = spread(hashCode);
+        int start = (hash & 3) << 2;
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash, i);
+            int count = (int) ((_table[index] >>> ((start + i) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Increments the popularity of the hash if it does not exceed the maximal count (15). The
+     * popularity of all counters is aged periodically.
+     */
+    public void increment(int hashCode) {
+        int hash = spread(hashCode);
+        int start = (hash & 3) << 2;
+
+        boolean added = incrementAt(indexOf(hash, 0), start);
+        added |= incrementAt(indexOf(hash, 1), start + 1);
+        added |= incrementAt(indexOf(hash, 2), start + 2);
+        added |= incrementAt(indexOf(hash, 3), start + 3);
+
+        if (added && ++_size >= _sampleSize)
+            reset();
+    }
+
+    private boolean incrementAt(int i, int j) {
+        int offset = j << 2;
+        long mask = 0xfL << offset;
+        if ((_table[i] & mask) != mask) {
+            _table[i] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    //halve all counters and the size, odd counters lose their remainder
+    private void reset() {
+        int count = 0;
+        for (int i = 0; i < _table.length; i++) {
+            count += Long.bitCount(_table[i] & ONE_MASK);
+            _table[i] = (_table[i] >>> 1) & RESET_MASK;
+        }
+        _size = (_size >>> 1) - (count >>> 2);
+    }
+
+    private int indexOf(int item, int i) {
+        long hash = (item + SEED[i]) * SEED[i];
+        hash += hash >>> 32;
+        return ((int) hash) & _tableMask;
+    }
+
+    //apply a supplemental hash function to defend against poor quality hash
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+
+    private static int ceilingPowerOfTwo(int x) {
+        return 1 << -Integer.numberOfLeadingZeros(x - 1);
+    }
+}
@@ -0,0 +1,357 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.server.space.eviction;
+
+import com.gigaspaces.server.eviction.EvictableServerEntry;
+import com.gigaspaces.server.eviction.SpaceEvictionStrategy;
+import com.gigaspaces.server.eviction.SpaceEvictionStrategyConfig;
+import com.gigaspaces.server.eviction.SpaceEvictionManager;
+import com.j_spaces.kernel.SystemProperties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Frequency aware eviction strategy (sampled TinyLFU). The popularity of each entry is recorded in
+ * a {@link FrequencySketch}. Recently inserted entries first stay in a small admission window
+ * where they get a chance to build up frequency. When an entry has to be evicted, the oldest entry
+ * in the window is compared with the least frequently used entry out of a small random sample of
+ * the rest of the cache (ties broken by least recent access), and the less popular of the two is
+ * evicted - so a one-time scan of the data source cannot push out the popular entries.
+ *
+ * Unlike {@link ConcurrentLruSpaceEvictionStrategy} a touch does not relink or allocate anything -
+ * it increments the sketch counters and stamps the access time on the entry payload. Entries are
+ * kept in array based segments which are locked only on insert, remove and sampling.
+ *
+ * note- like concurrent LRU this is not an "accurate" eviction policy, the victim is the best one
+ * out of the sample and not necessarily the least valuable entry in the space.
+ *
+ * @since 15.5
+ */
+@com.gigaspaces.api.InternalApi
+public class TinyLfuSpaceEvictionStrategy extends SpaceEvictionStrategy {
+    private static final Logger _logger = LoggerFactory.getLogger(com.gigaspaces.logger.Constants.LOGGER_CACHE);
+    private static final int TOUCH_UNSAFE_MARGIN = 500;
+    private static final int MIN_TOUCH_THRESHOLD = 0;
+    private static final int MAX_TOUCH_THRESHOLD = 100;
+    public static final int DEFAULT_SAMPLE_SIZE = 8;
+    //percentage of the max cache size used as admission window
+    public static final int DEFAULT_WINDOW_PERCENTAGE = 1;
+    //max # of eviction attempts per requested entry - avoid spinning on pinned entries
+    private static final int MAX_EVICTION_ATTEMPTS_FACTOR = 4;
+
+    private final int _touchThreshold;
+    private final int _sampleSize;
+    private final int _windowPercentage;
+    private final Segment[] _segments;
+    private final AtomicInteger _estimatedNumCachedEntries; //including pinned
+    private final AtomicLong _insertionsCounter;
+    private int _estimatedNumCachedEntriesUnsafe; //non volatile- touch estimation
+    private int _touchLimit;  //don't need a volatile here
+    private long _clock; //non volatile- access time estimation
+    private int _windowSize;
+    private AtomicReferenceArray<Node> _window; //admission window, ordered by insertion
+    private FrequencySketch _sketch;
+
+    /**
+     * Creates a strategy which takes the max cache size from the space configuration upon {@link
+     * #initialize(SpaceEvictionManager, SpaceEvictionStrategyConfig)}.
+     */
+    public TinyLfuSpaceEvictionStrategy() {
+        this(MIN_TOUCH_THRESHOLD, 0);
+    }
+
+    public TinyLfuSpaceEvictionStrategy(int touchThreshold, int maxCacheSize) {
+        this(touchThreshold, maxCacheSize, DEFAULT_SAMPLE_SIZE, DEFAULT_WINDOW_PERCENTAGE,
+                Integer.getInteger(SystemProperties.ENGINE_LRU_SEGMENTS, 0));
+    }
+
+    public TinyLfuSpaceEvictionStrategy(int touchThreshold, int maxCacheSize, int sampleSize, int windowPercentage, int numOfSegments) {
+        if (touchThreshold > MAX_TOUCH_THRESHOLD || touchThreshold < MIN_TOUCH_THRESHOLD)
+            throw new IllegalArgumentException("Illegal LRU touch threshold " + touchThreshold + " - must be between " +
+                    MIN_TOUCH_THRESHOLD + " and " + MAX_TOUCH_THRESHOLD + " (inclusive).");
+        if (sampleSize < 1)
+            throw new IllegalArgumentException("Illegal eviction sample size " + sampleSize + " - must be positive.");
+        if (windowPercentage < 0 || windowPercentage >= 100)
+            throw new IllegalArgumentException("Illegal admission window percentage " + windowPercentage + " - must be between 0 (inclusive) and 100 (exclusive).");
+        // if set to 0 - use the default
+        if (numOfSegments == 0)
+            numOfSegments = SystemProperties.ENGINE_LRU_SEGMENTS_DEFAULT;
+
+        this._touchThreshold = touchThreshold;
+        this._sampleSize = sampleSize;
+        this._windowPercentage = windowPercentage;
+        this._segments = new Segment[numOfSegments];
+        for (int i = 0; i < numOfSegments; i++)
+            _segments[i] = new Segment();
+        this._estimatedNumCachedEntries = new AtomicInteger();
+        this._insertionsCounter = new AtomicLong();
+        if (maxCacheSize > 0)
+            init(maxCacheSize);
+    }
+
+    @Override
+    public void initialize(SpaceEvictionManager evictionManager, SpaceEvictionStrategyConfig config) {
+        super.initialize(evictionManager, config);
+        if (_sketch == null)
+            init(config.getMaxCacheSize());
+    }
+
+    private void init(int maxCacheSize) {
+        if (_touchThreshold > 0)
+            _touchLimit = maxCacheSize == Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) (((long) maxCacheSize * _touchThreshold) / 100);
+        _windowSize = maxCacheSize == Integer.MAX_VALUE || _windowPercentage == 0 ? 0 : Math.max(1, (int) (((long) maxCacheSize * _windowPercentage) / 100));
+        _window = _windowSize > 0 ? new AtomicReferenceArray<Node>(_windowSize) : null;
+        _sketch = new FrequencySketch(maxCacheSize);
+
+        if (_logger.isDebugEnabled())
+            _logger.debug(this.getClass().getSimpleName() + " started: [" +
+                    "max-cache-size= " + maxCacheSize +
+                    ", touch-threshold= " + _touchThreshold +
+                    ", touch-limit=" + _touchLimit +
+                    ", sample-size=" + _sampleSize +
+                    ", window-size=" + _windowSize +
+                    ", segments=" + _segments.length +
+                    "]");
+    }
+
+    /**
+     * Determines whether this eviction strategy implementation requires concurrency protection from
+     * the space.
+     */
+    @Override
+    public boolean requiresConcurrencyProtection() {
+        return false;
+    }
+
+    @Override
+    public void onInsert(EvictableServerEntry entry) {
+        introduce(entry);
+    }
+
+    @Override
+    public void onLoad(EvictableServerEntry entry) {
+        introduce(entry);
+    }
+
+    @Override
+    public void onRead(EvictableServerEntry entry) {
+        touch(entry);
+    }
+
+    @Override
+    public void onUpdate(EvictableServerEntry entry) {
+        touch(entry);
+    }
+
+    @Override
+    public void onRemove(EvictableServerEntry entry) {
+        Node node = (Node) entry.getEvictionPayLoad();
+        if (node == null || !_segments[node._segment].remove(node))
+            throw new IllegalStateException("The removed entry is not registered in the eviction strategy - [type=" + entry.getSpaceTypeDescriptor().getTypeName() + ", uid=" + entry.getUID() + "]");
+
+        _estimatedNumCachedEntriesUnsafe = _estimatedNumCachedEntries.decrementAndGet();
+    }
+
+    @Override
+    public int evict(int numOfEntries) {
+        int curSize = _estimatedNumCachedEntries.get();
+        int numToEvict = Math.min(numOfEntries, curSize);
+
+        //do we have to set a new touch timit ?
+        if (_touchThreshold != MAX_TOUCH_THRESHOLD && _touchThreshold != MIN_TOUCH_THRESHOLD) {
+            int newMax = curSize - numToEvict;
+            int newLimit = (newMax * _touchThreshold) / 100;
+            if (_touchLimit > newLimit)
+                _touchLimit = newLimit; //no volatile here
+        }
+        return numToEvict > 0 ? evictEntriesFromCache(numToEvict) : 0;
+    }
+
+    /**
+     * Returns the estimated access frequency of the entry, used for diagnostics and tests.
+     */
+    public int frequency(EvictableServerEntry entry) {
+        return _sketch.frequency(entry.getUID().hashCode());
+    }
+
+    private void introduce(EvictableServerEntry entry) {
+        // Note: the estimated is intentionally incremented before the entry is added to avoid actual# > limit.
+        _estimatedNumCachedEntriesUnsafe = _estimatedNumCachedEntries.incrementAndGet();
+        int hash = entry.getUID().hashCode();
+        long insertion = _insertionsCounter.incrementAndGet();
+        Node node = new Node(entry, hash, (hash & 0x7fffffff) % _segments.length, insertion);
+        node._lastAccess = ++_clock;
+        _sketch.increment(hash);
+        entry.setEvictionPayLoad(node);
+        _segments[node._segment].add(node);
+        if (_window != null)
+            _window.set((int) (insertion % _windowSize), node); //the overwritten node moves to the main area
+    }
+
+    private void touch(EvictableServerEntry entry) {
+        if (_touchThreshold == MAX_TOUCH_THRESHOLD)
+            return; //touch always skipped
+
+        if (_touchThreshold != MIN_TOUCH_THRESHOLD) {
+            //can we spare touching atomic int?
+            if (_touchLimit - _estimatedNumCachedEntriesUnsafe >= TOUCH_UNSAFE_MARGIN)
+                return;
+
+            int curSize = _estimatedNumCachedEntries.get();
+            if (curSize < _touchLimit)
+                return;
+        }
+        Node node = (Node) entry.getEvictionPayLoad();
+        if (node == null)
+            return;
+        //no relinking & no allocation- just record the access
+        _sketch.increment(node._hash);
+        node._lastAccess = ++_clock;
+    }
+
+    private int evictEntriesFromCache(int numToEvict) {
+        int evicted = 0;
+        int maxAttempts = numToEvict * MAX_EVICTION_ATTEMPTS_FACTOR + _segments.length;
+        for (int attempt = 0; attempt < maxAttempts && evicted < numToEvict; attempt++) {
+            if (isClosed() || _estimatedNumCachedEntries.get() == 0)
+                return evicted;
+
+            Node victim = selectVictim();
+            Node candidate = pollWindowCandidate();
+            if (candidate != null && (victim == null ||
+                    _sketch.frequency(candidate._hash) <= _sketch.frequency(victim._hash)))
+                victim = candidate; //candidate not popular enough to be admitted to the main area
+            if (victim == null)
+                continue;
+
+            EvictableServerEntry entry = victim._entry;
+            if (entry.getEvictionPayLoad() != victim)
+                continue; //removed meanwhile
+
+            //try this one
+            if (getEvictionManager().tryEvict(entry))
+                evicted++;
+        }
+        return evicted;
+    }
+
+    //claim the oldest node in the admission window, if any
+    private Node pollWindowCandidate() {
+        if (_window == null)
+            return null;
+        long oldest = _insertionsCounter.get() + 1;
+        for (int i = 0; i < _windowSize; i++) {
+            int index = (int) ((oldest + i) % _windowSize);
+            Node node = _window.get(index);
+            if (node != null && _window.compareAndSet(index, node, null) && node._entry.getEvictionPayLoad() == node)
+                return node;
+        }
+        return null;
+    }
+
+    //sample a random segment & return the least valuable entry out of the sample
+    private Node selectVictim() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long windowStart = _insertionsCounter.get() - _windowSize;
+        int start = random.nextInt(_segments.length);
+        for (int i = 0; i < _segments.length; i++) {
+            Node victim = _segments[(start + i) % _segments.length].sample(random, _sampleSize, windowStart, _sketch);
+            if (victim != null)
+                return victim;
+        }
+        return null;
+    }
+
+    private static final class Node {
+        private final EvictableServerEntry _entry;
+        private final int _hash;
+        private final int _segment;
+        private final long _insertion;
+        private long _lastAccess; //non volatile- estimation only
+        private int _index = -1; //position in segment, guarded by the segment lock
+
+        private Node(EvictableServerEntry entry, int hash, int segment, long insertion) {
+            _entry = entry;
+            _hash = hash;
+            _segment = segment;
+            _insertion = insertion;
+        }
+    }
+
+    /**
+     * Array based bag of nodes which supports O(1) insert, remove and random access.
+     */
+    private static final class Segment {
+        private static final int INITIAL_CAPACITY = 16;
+
+        private Node[] _nodes = new Node[INITIAL_CAPACITY];
+        private int _size;
+
+        synchronized void add(Node node) {
+            if (_size == _nodes.length) {
+                Node[] nodes = new Node[_nodes.length << 1];
+                System.arraycopy(_nodes, 0, nodes, 0, _size);
+                _nodes = nodes;
+            }
+            node._index = _size;
+            _nodes[_size++] = node;
+        }
+
+        synchronized boolean remove(Node node) {
+            int index = node._index;
+            if (index < 0 || index >= _size || _nodes[index] != node)
+                return false;
+            Node last = _nodes[--_size];
+            _nodes[index] = last;
+            last._index = index;
+            _nodes[_size] = null;
+            node._index = -1;
+            return true;
+        }
+
+        synchronized Node sample(ThreadLocalRandom random, int sampleSize, long windowStart, FrequencySketch sketch) {
+            if (_size == 0)
+                return null;
+            Node victim = null;
+            Node windowVictim = null;
+            int victimFrequency = Integer.MAX_VALUE;
+            int samples = Math.min(sampleSize, _size);
+            for (int i = 0; i < samples; i++) {
+                Node node = _nodes[random.nextInt(_size)];
+                if (node._insertion > windowStart) {
+                    //in admission window- keep the oldest one in case the sample contains nothing else
+                    if (windowVictim == null || node._insertion < windowVictim._insertion)
+                        windowVictim = node;
+                    continue;
+                }
+                int frequency = sketch.frequency(node._hash);
+                if (victim == null || frequency < victimFrequency ||
+                        (frequency == victimFrequency && node._lastAccess < victim._lastAccess)) {
+                    victim = node;
+                    victimFrequency = frequency;
+                }
+            }
+            return victim != null ? victim : windowVictim;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.gigaspaces.internal.server.space.executors;
+
+import com.gigaspaces.internal.server.space.SpaceEngine;
+import com.gigaspaces.internal.server.space.SpaceImpl;
+import com.gigaspaces.internal.server.space.operations.WriteEntryResult;
+import com.gigaspaces.internal.space.requests.SinglePartitionTransactionRequestInfo;
+import com.gigaspaces.internal.space.requests.SpaceRequestInfo;
+import com.gigaspaces.internal.space.responses.SinglePartitionTransactionResponseInfo;
+import com.gigaspaces.internal.space.responses.SpaceResponseInfo;
+import com.gigaspaces.internal.transaction.DummyTransactionManager;
+import com.gigaspaces.internal.transport.IEntryPacket;
+import com.j_spaces.core.AnswerHolder;
+import com.j_spaces.core.SpaceContext;
+import com.j_spaces.core.client.Modifiers;
+
+import net.jini.core.transaction.server.ServerTransaction;
+
+import java.util.List;
+
+/**
+ * Executes the operations of a single partition transaction under a transaction of the space
+ * itself, which is prepared and committed in one step once all the operations succeeded. The
+ * transaction is not leased and has no transaction manager service, and it is replicated to the
+ * backups as a single transaction. If any operation fails the transaction is aborted. Versions are
+ * checked as in any other update or take, so only operations whose entry carries a version can fail
+ * on a concurrent modification.
+ *
+ * @since 15.5
+ */
+@com.gigaspaces.api.InternalApi
+public class SpaceSinglePartitionTransactionExecutor extends SpaceActionExecutor {
+    @Override
+    public SpaceResponseInfo execute(SpaceImpl space, SpaceRequestInfo spaceRequestInfo) {
+        final SinglePartitionTransactionRequestInfo requestInfo = (SinglePartitionTransactionRequestInfo) spaceRequestInfo;
+        final List<SinglePartitionTransactionRequestInfo.Operation> operations = requestInfo.getOperations();
+        final SinglePartitionTransactionResponseInfo responseInfo = new SinglePartitionTransactionResponseInfo(operations.size());
+        final DummyTransactionManager txnManager = DummyTransactionManager.getInstance();
+        final SpaceEngine engine = space.getEngine();
+        ServerTransaction txn = null;
+        int index = 0;
+        try {
+            txn = txnManager.create();
+            engine.attachToXtn(txn, false /*fromReplication*/);
+            for (; index < operations.size(); index++)
+                responseInfo.setResult(index, execute(space, operations.get(index), txn, requestInfo.getSpaceContext()));
+            index = -1;
+            engine.prepareAndCommit(txnManager, space.createServerTransaction(txnManager, txn.id, 1), null /*operationID*/);
+        } catch (Exception e) {
+            if (txn != null)
+                abort(space, txnManager, txn);
+            responseInfo.setException(index, e);
+        }
+        return responseInfo;
+    }
+
+    private static Object execute(SpaceImpl space, SinglePartitionTransactionRequestInfo.Operation operation,
+                                  ServerTransaction txn, SpaceContext sc)
+            throws Exception {
+        int modifiers = operation.getModifiers();
+        modifiers = Modifiers.remove(modifiers, Modifiers.NO_RETURN_VALUE);
+        modifiers = Modifiers.remove(modifiers, Modifiers.NO_WRITE_LEASE);
+
+        switch (operation.getType()) {
+            case WRITE:
+            case UPDATE:
+                final IEntryPacket entryPacket = operation.getEntryPacket();
+                final WriteEntryResult writeResult = operation.getType() == SinglePartitionTransactionRequestInfo.OperationType.UPDATE
+                        ? space.update(entryPacket, txn, operation.getLease(), 0 /*timeout*/, sc, modifiers, true /*newRouter*/).getWriteEntryResult()
+                        : space.write(entryPacket, txn, operation.getLease(), modifiers, false /*fromReplication*/, sc);
+                if (writeResult != null)
+                    writeResult.removeRedundantData(entryPacket.getTypeDescriptor(), modifiers);
+                return writeResult;
+            case TAKE:
+                final AnswerHolder answerHolder = space.readNew(operation.getTemplatePacket(), txn, 0 /*timeout*/,
+                        false /*ifExists*/, true /*take*/, null /*listener*/, sc, false /*returnOnlyUid*/, operation.getModifiers());
+                return answerHolder != null && answerHolder.getAnswerPacket() != null
+                        ? answerHolder.getAnswerPacket().m_EntryPacket : null;
+            default:
+                throw new IllegalStateException("Unsupported operation type - " + operation.getType());
+        }
+    }
+
+    private static void abort(SpaceImpl space, DummyTransactionManager txnManager, ServerTransaction txn) {
+        try {
+            space.getEngine().abort(txnManager, space.createServerTransaction(txnManager, txn.id, 1), false /*supportsTwoPhase*/, null /*operationID*/);
+        } catch (Exception e) {
+            if (space.getEngine().getLogger().isDebugEnabled())
+                space.getEngine().getLogger().debug("Failed to abort single partition transaction " + txn, e);
+        }
+    }
+}
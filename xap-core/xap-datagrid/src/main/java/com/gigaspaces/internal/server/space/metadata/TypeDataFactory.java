@@ -30,16 +30,21 @@ import com.j_spaces.core.cache.TypeDataIndex;
 
 import static com.j_spaces.core.Constants.CacheManager.CACHE_MANAGER_USE_ECONOMY_HASHMAP_DEFAULT;
 import static com.j_spaces.core.Constants.CacheManager.CACHE_MANAGER_USE_ECONOMY_HASHMAP_PROP;
+import static com.j_spaces.core.Constants.CacheManager.CACHE_MANAGER_USE_LOCK_FREE_ECONOMY_HASHMAP_DEFAULT;
+import static com.j_spaces.core.Constants.CacheManager.CACHE_MANAGER_USE_LOCK_FREE_ECONOMY_HASHMAP_PROP;
 
 @com.gigaspaces.api.InternalApi
 public class TypeDataFactory {
     private final boolean _useEconomyHashMap;
+    private final boolean _useLockFreeEconomyHashMap;
 
     private final CacheManager _cacheManager;
 
     public TypeDataFactory(SpaceConfigReader configReader, CacheManager cacheManager) {
         this._useEconomyHashMap = configReader.getBooleanSpaceProperty(
                 CACHE_MANAGER_USE_ECONOMY_HASHMAP_PROP, CACHE_MANAGER_USE_ECONOMY_HASHMAP_DEFAULT);
+        this._useLockFreeEconomyHashMap = configReader.getBooleanSpaceProperty(
+                CACHE_MANAGER_USE_LOCK_FREE_ECONOMY_HASHMAP_PROP, CACHE_MANAGER_USE_LOCK_FREE_ECONOMY_HASHMAP_DEFAULT);
 
         configReader.assertSpacePropertyNotExists("engine.extended-match.enabled-classes", "7.0.1", "8.0");
         _cacheManager = cacheManager;
@@ -49,6 +54,10 @@ public class TypeDataFactory {
         return _useEconomyHashMap;
     }
 
+    public boolean useLockFreeEconomyHashMap() {
+        return _useLockFreeEconomyHashMap;
+    }
+
     public CacheManager getCcheManager() {
         return _cacheManager;
     }
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.server.space.mvcc;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * State of a single snapshot read operation.
+ *
+ * @since 15.5
+ */
+@com.gigaspaces.api.InternalApi
+public class SnapshotReadContext {
+    private final SnapshotReadsManager.Snapshot _snapshot;
+    //entries already resolved by the scan of the live entries
+    private final Set<String> _processedUids = new HashSet<String>();
+
+    public SnapshotReadContext(SnapshotReadsManager.Snapshot snapshot) {
+        _snapshot = snapshot;
+    }
+
+    public SnapshotReadsManager.Snapshot getSnapshot() {
+        return _snapshot;
+    }
+
+    /**
+     * @return true if the uid was not processed before
+     */
+    public boolean addProcessedUid(String uid) {
+        return _processedUids.add(uid);
+    }
+
+    public boolean isProcessedUid(String uid) {
+        return _processedUids.contains(uid);
+    }
+}
@@ -0,0 +1,571 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.server.space.mvcc;
+
+import com.gigaspaces.internal.server.storage.IEntryData;
+import com.gigaspaces.internal.server.storage.IEntryHolder;
+import com.gigaspaces.internal.server.storage.ITransactionalEntryData;
+import com.gigaspaces.internal.utils.concurrent.GSThreadFactory;
+import com.j_spaces.core.SpaceOperations;
+import com.j_spaces.core.XtnEntry;
+import com.j_spaces.core.XtnStatus;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Retains committed versions of entries for snapshot (multi version) reads.
+ *
+ * A snapshot is identified by the commit sequence number observed when it was opened. Every
+ * committed change (non transactional operation or transaction commit) which happens while
+ * snapshots are open draws the next sequence number, and before the change is applied the previous
+ * committed state of the entry is pushed to the entry's version chain. A snapshot reader uses the
+ * live committed state of an entry unless its version chain holds a change which was not yet
+ * committed when the snapshot was opened, in which case the retained version is used.
+ *
+ * Versions are tracked only while at least one snapshot is open, so the write path pays for the
+ * tracking only when snapshot reads are actually running. Versions which are no longer visible to
+ * any open snapshot are discarded by a background task, all versions are discarded when the last
+ * snapshot is closed.
+ *
+ * @since 15.5
+ */
+@com.gigaspaces.api.InternalApi
+public class SnapshotReadsManager {
+    private static final Logger _logger = LoggerFactory.getLogger(SnapshotReadsManager.class);
+
+    private static final long GC_INTERVAL_MILLIS = 1000;
+    private static final long DRAIN_WAIT_MILLIS = 1;
+
+    private final AtomicLong _commitSequence = new AtomicLong();
+    private final ConcurrentMap<String, VersionChain> _chains = new ConcurrentHashMap<String, VersionChain>();
+    private final Set<Snapshot> _activeSnapshots = new HashSet<Snapshot>();
+    //writers in flight per epoch parity, used to make sure tracking is active for all changes a new snapshot may miss
+    private final AtomicInteger[] _writersInFlight = new AtomicInteger[]{new AtomicInteger(), new AtomicInteger()};
+    private final ScheduledExecutorService _gcExecutor;
+
+    private volatile boolean _tracking;
+    private volatile int _period;
+    private volatile int _epoch;
+    //true while a new tracking period waits for the writers of the previous epoch, guarded by _activeSnapshots
+    private boolean _draining;
+    private boolean _closed;
+
+    public SnapshotReadsManager() {
+        _gcExecutor = Executors.newSingleThreadScheduledExecutor(new GSThreadFactory("snapshot-reads-gc", true));
+        _gcExecutor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    discardObsoleteVersions();
+                } catch (Throwable t) {
+                    _logger.warn("Failed to discard obsolete entry versions", t);
+                }
+            }
+        }, GC_INTERVAL_MILLIS, GC_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a snapshot of the currently committed state. The snapshot must be closed by {@link
+     * #closeSnapshot(Snapshot)} when the read is done.
+     */
+    public Snapshot openSnapshot(long openTime) {
+        final int prevEpoch;
+        synchronized (_activeSnapshots) {
+            awaitDrained();
+            if (_closed)
+                throw new IllegalStateException("Snapshot reads manager is closed");
+            if (!_activeSnapshots.isEmpty() || _tracking)
+                return addSnapshot(openTime);
+            //start a new tracking period - versions recorded in previous periods are ignored
+            _tracking = true;
+            _period++;
+            prevEpoch = _epoch;
+            _epoch = prevEpoch + 1;
+            _draining = true;
+        }
+
+        //wait for writers which may have missed the tracking indication, without blocking
+        //snapshots closing or the obsolete versions discarding meanwhile
+        try {
+            waitForWriters(prevEpoch);
+        } finally {
+            synchronized (_activeSnapshots) {
+                _draining = false;
+                _activeSnapshots.notifyAll();
+            }
+        }
+        synchronized (_activeSnapshots) {
+            return addSnapshot(openTime);
+        }
+    }
+
+    private void awaitDrained() {
+        boolean interrupted = false;
+        while (_draining) {
+            try {
+                _activeSnapshots.wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+    private Snapshot addSnapshot(long openTime) {
+        if (_closed)
+            throw new IllegalStateException("Snapshot reads manager is closed");
+        Snapshot snapshot = new Snapshot(_commitSequence.get(), _period, openTime);
+        _activeSnapshots.add(snapshot);
+        return snapshot;
+    }
+
+    public void closeSnapshot(Snapshot snapshot) {
+        synchronized (_activeSnapshots) {
+            if (!_activeSnapshots.remove(snapshot) || !_activeSnapshots.isEmpty())
+                return;
+            _tracking = false;
+            _chains.clear();
+        }
+    }
+
+    private void waitForWriters(int epoch) {
+        AtomicInteger writers = _writersInFlight[epoch & 1];
+        boolean interrupted = false;
+        while (writers.get() != 0) {
+            try {
+                Thread.sleep(DRAIN_WAIT_MILLIS);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Marks the beginning of a committed change, must be followed by {@link #endWrite(int)} once
+     * the change is applied.
+     *
+     * @return a token to be passed to {@link #endWrite(int)}
+     */
+    public int beginWrite() {
+        int epoch = _epoch;
+        _writersInFlight[epoch & 1].incrementAndGet();
+        return epoch;
+    }
+
+    public void endWrite(int token) {
+        _writersInFlight[token & 1].decrementAndGet();
+    }
+
+    /**
+     * @return true if changes should be recorded, should be called between {@link #beginWrite()}
+     * and {@link #endWrite(int)}
+     */
+    public boolean isTracking() {
+        return _tracking;
+    }
+
+    public CommitStamp newCommitStamp() {
+        return new CommitStamp(_period);
+    }
+
+    /**
+     * Records a change of an entry which is about to be applied under the specified stamp. Caller
+     * must hold the entry lock.
+     *
+     * @param prevData the committed data of the entry before the change, null if the entry was
+     *                 not visible
+     * @param removed  true if the entry is removed by the change
+     */
+    public void recordChange(CommitStamp stamp, String uid, String typeName, boolean isTransient, IEntryData prevData,
+                             boolean removed) {
+        final byte newKind = removed ? EntryVersion.ABSENT : EntryVersion.LIVE;
+        while (true) {
+            VersionChain chain = _chains.get(uid);
+            if (chain == null || chain._period != stamp._period || chain.isRetired()) {
+                EntryVersion initial = new EntryVersion(prevData, prevData == null ? EntryVersion.ABSENT : EntryVersion.RETAINED,
+                        CommitStamp.INITIAL, null);
+                VersionChain newChain = new VersionChain(uid, typeName, isTransient, stamp._period,
+                        new EntryVersion(null, newKind, stamp, initial));
+                boolean added = chain == null ? _chains.putIfAbsent(uid, newChain) == null : _chains.replace(uid, chain, newChain);
+                if (!added)
+                    continue;
+                stamp.addChange(newChain, null);
+                return;
+            }
+
+            EntryVersion head = chain._head;
+            if (head == null)
+                continue; //retired concurrently
+            //the live data is about to change, so the current head must retain it
+            EntryVersion prev = head._kind == EntryVersion.LIVE
+                    ? new EntryVersion(prevData, prevData == null ? EntryVersion.ABSENT : EntryVersion.RETAINED, head._from, head._older)
+                    : head;
+            if (chain.casHead(head, new EntryVersion(null, newKind, stamp, prev))) {
+                stamp.addChange(chain, head);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Publishes all the changes recorded under the stamp, after all of them were applied.
+     */
+    public void publish(CommitStamp stamp) {
+        stamp.publish(_commitSequence);
+    }
+
+    /**
+     * Reverts all the changes recorded under the stamp, when applying them failed.
+     */
+    public void abort(CommitStamp stamp) {
+        stamp.abort();
+    }
+
+    /**
+     * Returns the version of the entry visible to the snapshot, or null if the entry was not
+     * changed since the snapshot was opened (and hence its live committed state is visible).
+     */
+    public EntryVersion getVisibleVersion(Snapshot snapshot, String uid) {
+        VersionChain chain = getVersionChain(snapshot, uid);
+        return chain != null ? chain.getVisibleVersion(snapshot._sequence) : null;
+    }
+
+    /**
+     * @return the version chain of the entry in the snapshot's tracking period, null if the entry
+     * was not changed since the oldest open snapshot was opened
+     */
+    public VersionChain getVersionChain(Snapshot snapshot, String uid) {
+        VersionChain chain = _chains.get(uid);
+        return chain != null && chain._period == snapshot._period ? chain : null;
+    }
+
+    /**
+     * @return the version chains of the snapshot's tracking period
+     */
+    public Collection<VersionChain> getVersionChains(Snapshot snapshot) {
+        List<VersionChain> result = new ArrayList<VersionChain>();
+        for (VersionChain chain : _chains.values()) {
+            if (chain._period == snapshot._period && !chain.isRetired())
+                result.add(chain);
+        }
+        return result;
+    }
+
+    public int getNumOfVersionChains() {
+        return _chains.size();
+    }
+
+    /**
+     * Trims versions which are not visible to any open snapshot, and drops chains of entries
+     * which were not changed since the oldest open snapshot.
+     */
+    void discardObsoleteVersions() {
+        long oldest;
+        int period;
+        synchronized (_activeSnapshots) {
+            if (_activeSnapshots.isEmpty())
+                return;
+            oldest = Long.MAX_VALUE;
+            for (Snapshot snapshot : _activeSnapshots)
+                oldest = Math.min(oldest, snapshot._sequence);
+            period = _period;
+        }
+
+        for (VersionChain chain : _chains.values()) {
+            if (chain._period != period) {
+                if (chain.retire())
+                    _chains.remove(chain._uid, chain);
+                continue;
+            }
+            EntryVersion head = chain._head;
+            if (head == null)
+                continue;
+            EntryVersion visible = head;
+            while (visible != null && !visible._from.isCommittedBy(oldest))
+                visible = visible._older;
+            if (visible == null)
+                continue;
+            if (visible == head && head._kind != EntryVersion.RETAINED) {
+                //all open snapshots see the live state
+                if (chain.retire(head))
+                    _chains.remove(chain._uid, chain);
+            } else {
+                visible._older = null;
+            }
+        }
+    }
+
+    public void close() {
+        synchronized (_activeSnapshots) {
+            _closed = true;
+            _activeSnapshots.clear();
+            _tracking = false;
+            _chains.clear();
+        }
+        _gcExecutor.shutdownNow();
+    }
+
+    /**
+     * Returns the committed data of the entry as seen by a read committed operation, or null if
+     * the entry is not visible (written by a non committed transaction, or removed).
+     */
+    public static IEntryData getCommittedEntryData(IEntryHolder entry) {
+        if (entry.isDeleted())
+            return null;
+        ITransactionalEntryData data = entry.getTxnEntryData();
+        XtnEntry owner = data.getWriteLockOwner();
+        if (owner == null)
+            return data;
+
+        int operation = data.getWriteLockOperation();
+        if (isCommitted(owner))
+            return operation == SpaceOperations.TAKE || operation == SpaceOperations.TAKE_IE ? null : data;
+
+        if (data.getXidOriginated() == owner)
+            return null; //written by a non committed transaction
+        IEntryHolder shadow = data.getOtherUpdateUnderXtnEntry();
+        return shadow != null ? shadow.getEntryData() : data;
+    }
+
+    private static boolean isCommitted(XtnEntry xtnEntry) {
+        XtnStatus status = xtnEntry.getStatus();
+        return status == XtnStatus.COMMITED || status == XtnStatus.COMMITING
+                || (status == XtnStatus.PREPARED && xtnEntry.m_SingleParticipant);
+    }
+
+    /**
+     * An open snapshot.
+     */
+    public static final class Snapshot {
+        private final long _sequence;
+        private final int _period;
+        private final long _openTime;
+
+        private Snapshot(long sequence, int period, long openTime) {
+            _sequence = sequence;
+            _period = period;
+            _openTime = openTime;
+        }
+
+        public long getSequence() {
+            return _sequence;
+        }
+
+        /**
+         * @return the time the snapshot was opened, used to filter expired entries
+         */
+        public long getOpenTime() {
+            return _openTime;
+        }
+    }
+
+    /**
+     * The commit sequence of a single committed change (an operation or a whole transaction). The
+     * sequence is drawn only after all the changes were applied, so a snapshot which is opened
+     * while the changes are applied never sees them.
+     */
+    public static final class CommitStamp {
+        private static final long APPLYING = Long.MAX_VALUE;
+        private static final long DRAWING = Long.MAX_VALUE - 1;
+        static final CommitStamp INITIAL = new CommitStamp(0, 0);
+
+        private final int _period;
+        private volatile long _sequence;
+        //changes recorded under this stamp and the chain heads they replaced, used to revert
+        private List<Object> _changes;
+
+        private CommitStamp(int period) {
+            this(period, APPLYING);
+        }
+
+        private CommitStamp(int period, long sequence) {
+            _period = period;
+            _sequence = sequence;
+        }
+
+        private void addChange(VersionChain chain, EntryVersion replacedHead) {
+            if (_changes == null)
+                _changes = new ArrayList<Object>(2);
+            _changes.add(chain);
+            _changes.add(replacedHead);
+        }
+
+        private void publish(AtomicLong commitSequence) {
+            _sequence = DRAWING;
+            _sequence = commitSequence.incrementAndGet();
+            _changes = null;
+        }
+
+        private void abort() {
+            if (_changes != null) {
+                for (int i = _changes.size() - 2; i >= 0; i -= 2) {
+                    VersionChain chain = (VersionChain) _changes.get(i);
+                    EntryVersion replacedHead = (EntryVersion) _changes.get(i + 1);
+                    EntryVersion head = chain._head;
+                    if (head != null && head._from == this) {
+                        if (replacedHead != null)
+                            chain.casHead(head, replacedHead);
+                        else if (chain.retire(head))
+                            chain.remove();
+                    }
+                }
+            }
+            //never visible
+            _sequence = APPLYING;
+            _changes = null;
+        }
+
+        /**
+         * @return true if the change was committed before the snapshot with the specified sequence
+         * was opened
+         */
+        boolean isCommittedBy(long snapshotSequence) {
+            long sequence = _sequence;
+            //the sequence is being drawn right now, it may precede the snapshot
+            while (sequence == DRAWING) {
+                Thread.yield();
+                sequence = _sequence;
+            }
+            return sequence <= snapshotSequence;
+        }
+    }
+
+    /**
+     * A committed state of an entry, valid from the commit of its stamp until the commit of the
+     * next (newer) version.
+     */
+    public static final class EntryVersion {
+        static final byte RETAINED = 0;
+        static final byte LIVE = 1;
+        static final byte ABSENT = 2;
+
+        private final IEntryData _data;
+        private final byte _kind;
+        private final CommitStamp _from;
+        private volatile EntryVersion _older;
+
+        private EntryVersion(IEntryData data, byte kind, CommitStamp from, EntryVersion older) {
+            _data = data;
+            _kind = kind;
+            _from = from;
+            _older = older;
+        }
+
+        /**
+         * @return true if the entry did not exist (or was not visible) in this version
+         */
+        public boolean isAbsent() {
+            return _kind == ABSENT;
+        }
+
+        /**
+         * @return true if this version is the current committed state of the entry
+         */
+        public boolean isLive() {
+            return _kind == LIVE;
+        }
+
+        /**
+         * @return the retained data, null unless this is a retained version
+         */
+        public IEntryData getData() {
+            return _data;
+        }
+    }
+
+    /**
+     * The versions of a single entry, newest first.
+     */
+    public final class VersionChain {
+        private final String _uid;
+        private final String _typeName;
+        private final boolean _isTransient;
+        private final int _period;
+        //not private - updated by HEAD_UPDATER of the enclosing class
+        volatile EntryVersion _head;
+
+        private VersionChain(String uid, String typeName, boolean isTransient, int period, EntryVersion head) {
+            _uid = uid;
+            _typeName = typeName;
+            _isTransient = isTransient;
+            _period = period;
+            _head = head;
+        }
+
+        public String getUid() {
+            return _uid;
+        }
+
+        public String getTypeName() {
+            return _typeName;
+        }
+
+        public boolean isTransient() {
+            return _isTransient;
+        }
+
+        public EntryVersion getVisibleVersion(long snapshotSequence) {
+            for (EntryVersion version = _head; version != null; version = version._older) {
+                if (version._from.isCommittedBy(snapshotSequence))
+                    return version;
+            }
+            return null;
+        }
+
+        private boolean isRetired() {
+            return _head == null;
+        }
+
+        private boolean casHead(EntryVersion expected, EntryVersion update) {
+            return HEAD_UPDATER.compareAndSet(this, expected, update);
+        }
+
+        private boolean retire() {
+            EntryVersion head = _head;
+            return head != null && casHead(head, null);
+        }
+
+        private boolean retire(EntryVersion expected) {
+            return casHead(expected, null);
+        }
+
+        private void remove() {
+            _chains.remove(_uid, this);
+        }
+    }
+
+    private static final AtomicReferenceFieldUpdater<VersionChain, EntryVersion> HEAD_UPDATER =
+            AtomicReferenceFieldUpdater.newUpdater(VersionChain.class, EntryVersion.class, "_head");
+}
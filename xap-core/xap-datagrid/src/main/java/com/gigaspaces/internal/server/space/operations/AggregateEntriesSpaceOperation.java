@@ -18,6 +18,7 @@ package com.gigaspaces.internal.server.space.operations;
 
 import com.gigaspaces.internal.client.spaceproxy.operations.AggregateEntriesSpaceOperationRequest;
 import com.gigaspaces.internal.client.spaceproxy.operations.AggregateEntriesSpaceOperationResult;
+import com.gigaspaces.internal.remoting.routing.partitioned.PartitionedClusterUtils;
 import com.gigaspaces.internal.server.space.SpaceImpl;
 import com.gigaspaces.query.aggregators.AggregationInternalUtils;
 import com.gigaspaces.security.authorities.SpaceAuthority;
@@ -33,12 +34,13 @@ public class AggregateEntriesSpaceOperation extends AbstractSpaceOperation<Aggre
     @Override
     public void execute(AggregateEntriesSpaceOperationRequest request, AggregateEntriesSpaceOperationResult result, SpaceImpl space, boolean oneway)
             throws Exception {
+        int slot = PartitionedClusterUtils.NO_PARTITION;
         try{
             SpaceAuthority.SpacePrivilege requiredPrivilege = AggregationInternalUtils.containsCustomAggregators(request.getAggregators())
                     ? SpaceAuthority.SpacePrivilege.EXECUTE
                     : SpaceAuthority.SpacePrivilege.READ;
 
-            space.beginPacketOperation(true, request.getSpaceContext(), requiredPrivilege, request.getQueryPacket());
+            slot = space.beginPacketOperation(true, request.getSpaceContext(), requiredPrivilege, request.getQueryPacket());
 
             space.getEngine().aggregate(request.getQueryPacket(), request.getAggregators(), request.getReadModifiers(), request.getSpaceContext());
 
@@ -48,6 +50,7 @@ public class AggregateEntriesSpaceOperation extends AbstractSpaceOperation<Aggre
             result.setIntermediateResults(intermediateResults);
         }
         finally {
+            space.endPacketOperation(slot);
             CodeChangeUtilities.removeOneTimeClassLoaderIfNeeded(request.getAggregators());
         }
     }
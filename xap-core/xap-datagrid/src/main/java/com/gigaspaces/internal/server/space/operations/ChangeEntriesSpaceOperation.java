@@ -25,6 +25,7 @@ import com.gigaspaces.internal.client.FailedChangedEntryDetailsImpl;
 import com.gigaspaces.internal.client.spaceproxy.operations.ChangeEntriesSpaceOperationRequest;
 import com.gigaspaces.internal.client.spaceproxy.operations.ChangeEntriesSpaceOperationResult;
 import com.gigaspaces.internal.metadata.ITypeDesc;
+import com.gigaspaces.internal.remoting.routing.partitioned.PartitionedClusterUtils;
 import com.gigaspaces.internal.server.space.SpaceImpl;
 import com.gigaspaces.internal.server.storage.IEntryData;
 import com.gigaspaces.lrmi.nio.IResponseContext;
@@ -51,6 +52,7 @@ public class ChangeEntriesSpaceOperation
     public void execute(ChangeEntriesSpaceOperationRequest request,
                         ChangeEntriesSpaceOperationResult result, SpaceImpl space,
                         boolean oneway) throws Exception {
+        int slot = PartitionedClusterUtils.NO_PARTITION;
         try{
             IResponseContext respContext = ResponseContext.getResponseContext();
             if (respContext != null)
@@ -58,7 +60,7 @@ public class ChangeEntriesSpaceOperation
 
             SpacePrivilege requiredPrivilege = getRequiredPrivilege(request.getMutators());
 
-            space.beginPacketOperation(true, request.getSpaceContext(), requiredPrivilege, request.getTemplatePacket());
+            slot = space.beginPacketOperation(true, request.getSpaceContext(), requiredPrivilege, request.getTemplatePacket());
 
             ExtendedAnswerHolder answerHolder =
                     space.getEngine().change(request.getTemplatePacket(),
@@ -85,6 +87,7 @@ public class ChangeEntriesSpaceOperation
                 result.setNumOfEntriesMatched(answerHolder.getNumOfEntriesMatched());
         }
         finally {
+            space.endPacketOperation(slot);
             CodeChangeUtilities.removeOneTimeClassLoaderIfNeeded(request.getMutators());
         }
     }
@@ -16,9 +16,18 @@
 
 package com.gigaspaces.internal.server.space.operations;
 
+import com.gigaspaces.executor.SpaceTask;
+import com.gigaspaces.executor.SpaceTaskWrapper;
 import com.gigaspaces.internal.client.spaceproxy.operations.ExecuteTaskSpaceOperationRequest;
 import com.gigaspaces.internal.client.spaceproxy.operations.ExecuteTaskSpaceOperationResult;
 import com.gigaspaces.internal.server.space.SpaceImpl;
+import com.gigaspaces.internal.server.space.tasks.SpaceTaskScheduler;
+import com.gigaspaces.lrmi.nio.IResponseContext;
+import com.gigaspaces.lrmi.nio.ResponseContext;
+import com.j_spaces.core.exception.ClosedResourceException;
+import com.j_spaces.kernel.ClassLoaderHelper;
+
+import java.rmi.RemoteException;
 
 /**
  * @author Niv Ingberg
@@ -29,12 +38,75 @@ public class ExecuteTaskSpaceOperation extends AbstractSpaceOperation<ExecuteTas
     @Override
     public void execute(ExecuteTaskSpaceOperationRequest request, ExecuteTaskSpaceOperationResult result, SpaceImpl space, boolean oneway)
             throws Exception {
-        Object taskResult = space.executeTask(request.getTask(), request.getTransaction(), request.getSpaceContext(), true);
-        result.setResult(taskResult);
+        final IResponseContext respContext = ResponseContext.getResponseContext();
+        if (respContext == null) {
+            result.setResult(executeTask(request, space));
+            return;
+        }
+
+        // operations executed by the task must not reply on behalf of the task invocation
+        ResponseContext.clearResponseContext();
+        boolean deferred = false;
+        try {
+            final SpaceTaskScheduler scheduler = space.getEngine().getTaskScheduler();
+            if (scheduler != null)
+                deferred = scheduler.schedule(request.getRoutingHash(), getTaskTypeName(request.getTask()),
+                        new DeferredTaskExecution(request, space, respContext));
+            if (!deferred)
+                result.setResult(executeTask(request, space));
+        } finally {
+            ResponseContext.setExistingResponseContext(respContext);
+            if (deferred)
+                respContext.setSendResponse(false);
+        }
+    }
+
+    private static Object executeTask(ExecuteTaskSpaceOperationRequest request, SpaceImpl space) throws Exception {
+        return space.executeTask(request.getTask(), request.getTransaction(), request.getSpaceContext(), true);
+    }
+
+    private static String getTaskTypeName(SpaceTask<?> task) {
+        return task instanceof SpaceTaskWrapper
+                ? ((SpaceTaskWrapper) task).getWrappedTask().getClass().getName()
+                : task.getClass().getName();
     }
 
     @Override
     public String getLogName(ExecuteTaskSpaceOperationRequest request, ExecuteTaskSpaceOperationResult result) {
         return "execute task";
     }
+
+    /**
+     * Executes a task on a task lane, and sends the reply once it completes.
+     */
+    private static class DeferredTaskExecution implements Runnable {
+        private final ExecuteTaskSpaceOperationRequest _request;
+        private final SpaceImpl _space;
+        private final IResponseContext _respContext;
+        private final ClassLoader _contextClassLoader;
+
+        private DeferredTaskExecution(ExecuteTaskSpaceOperationRequest request, SpaceImpl space, IResponseContext respContext) {
+            this._request = request;
+            this._space = space;
+            this._respContext = respContext;
+            this._contextClassLoader = Thread.currentThread().getContextClassLoader();
+        }
+
+        @Override
+        public void run() {
+            final ExecuteTaskSpaceOperationResult result = _request.createRemoteOperationResult();
+            final ClassLoader prevClassLoader = Thread.currentThread().getContextClassLoader();
+            ClassLoaderHelper.setContextClassLoader(_contextClassLoader, true /*ignore security*/);
+            try {
+                result.setResult(executeTask(_request, _space));
+            } catch (ClosedResourceException e) {
+                result.setExecutionException(new RemoteException(e.getMessage(), e));
+            } catch (Exception e) {
+                result.setExecutionException(e);
+            } finally {
+                ClassLoaderHelper.setContextClassLoader(prevClassLoader, true /*ignore security*/);
+            }
+            _respContext.sendResponse(result, null);
+        }
+    }
 }
@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.server.space.recovery;
+
+import com.gigaspaces.internal.io.IOUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * File format of a local checkpoint. The header holds the identity of the space the checkpoint was
+ * written by, and the file ends with a checksum of its content, so a checkpoint of another space
+ * and a truncated or corrupted checkpoint are detected before any record is loaded.
+ *
+ * The object stream is reset every few records, so the stream does not keep a reference to every
+ * written record until the checkpoint is complete. The reader handles the resets on its own.
+ *
+ * @since 15.5
+ */
+class CheckpointFile {
+    static final int FORMAT_VERSION = 2;
+    private static final int BUFFER_SIZE = 1024 * 1024;
+    private static final int RESET_INTERVAL = 100;
+    private static final int CHECKSUM_SIZE = 8;
+
+    private final File _file;
+
+    CheckpointFile(File file) {
+        this._file = file;
+    }
+
+    File getFile() {
+        return _file;
+    }
+
+    /**
+     * Starts writing a checkpoint to a temporary file, which replaces the checkpoint when the
+     * writer is committed.
+     */
+    Writer createWriter(String identity, long time) throws IOException {
+        final File directory = _file.getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs())
+            throw new IOException("Failed to create checkpoint directory " + directory);
+        return new Writer(new File(directory, _file.getName() + ".tmp"), identity, time);
+    }
+
+    /**
+     * @return a reader of the checkpoint records, null if there is no checkpoint
+     * @throws InvalidCheckpointException if the checkpoint is corrupted or was written by another
+     *                                    space
+     */
+    Reader openReader(String identity) throws IOException, ClassNotFoundException {
+        if (!_file.isFile())
+            return null;
+        verifyChecksum();
+        Reader reader = new Reader(new ObjectInputStream(new BufferedInputStream(new FileInputStream(_file), BUFFER_SIZE)));
+        try {
+            final int version = reader._in.readInt();
+            if (version != FORMAT_VERSION)
+                throw new InvalidCheckpointException("unsupported version " + version);
+            final String checkpointIdentity = reader._in.readUTF();
+            if (!checkpointIdentity.equals(identity))
+                throw new InvalidCheckpointException("written by " + checkpointIdentity + " while the space is " + identity);
+            reader._time = reader._in.readLong();
+            return reader;
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    private void verifyChecksum() throws IOException {
+        final long length = _file.length();
+        if (length < CHECKSUM_SIZE)
+            throw new InvalidCheckpointException("truncated file of " + length + " bytes");
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(_file), BUFFER_SIZE))) {
+            CheckedInputStream content = new CheckedInputStream(new BoundedInputStream(in, length - CHECKSUM_SIZE), new CRC32());
+            final byte[] buffer = new byte[8192];
+            while (content.read(buffer) != -1) {
+            }
+            if (in.readLong() != content.getChecksum().getValue())
+                throw new InvalidCheckpointException("checksum mismatch");
+        }
+    }
+
+    class Writer implements Closeable {
+        private final File _tempFile;
+        private final OutputStream _fileOut;
+        private final CheckedOutputStream _checkedOut;
+        private final ObjectOutputStream _out;
+        private int _records;
+        private boolean _committed;
+
+        private Writer(File tempFile, String identity, long time) throws IOException {
+            this._tempFile = tempFile;
+            this._fileOut = new BufferedOutputStream(new FileOutputStream(tempFile), BUFFER_SIZE);
+            try {
+                this._checkedOut = new CheckedOutputStream(_fileOut, new CRC32());
+                this._out = new ObjectOutputStream(_checkedOut);
+                _out.writeInt(FORMAT_VERSION);
+                _out.writeUTF(identity);
+                _out.writeLong(time);
+            } catch (IOException | RuntimeException e) {
+                _fileOut.close();
+                tempFile.delete();
+                throw e;
+            }
+        }
+
+        void write(Object record) throws IOException {
+            _out.writeBoolean(true);
+            IOUtils.writeObject(_out, record);
+            if (++_records % RESET_INTERVAL == 0)
+                _out.reset();
+        }
+
+        int getRecords() {
+            return _records;
+        }
+
+        /**
+         * Completes the checkpoint and replaces the previous checkpoint with it.
+         */
+        void commit() throws IOException {
+            _out.writeBoolean(false);
+            _out.flush();
+            new DataOutputStream(_fileOut).writeLong(_checkedOut.getChecksum().getValue());
+            _fileOut.close();
+            Files.move(_tempFile.toPath(), _file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            _committed = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!_committed) {
+                _fileOut.close();
+                _tempFile.delete();
+            }
+        }
+    }
+
+    static class Reader implements Closeable {
+        private final ObjectInputStream _in;
+        private long _time;
+
+        private Reader(ObjectInputStream in) {
+            this._in = in;
+        }
+
+        long getTime() {
+            return _time;
+        }
+
+        /**
+         * @return the next record, null if there are no more records
+         */
+        <T> T next() throws IOException, ClassNotFoundException {
+            return _in.readBoolean() ? IOUtils.<T>readObject(_in) : null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            _in.close();
+        }
+    }
+
+    static class InvalidCheckpointException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        InvalidCheckpointException(String message) {
+            super(message);
+        }
+    }
+
+    private static class BoundedInputStream extends InputStream {
+        private final InputStream _in;
+        private long _remaining;
+
+        private BoundedInputStream(InputStream in, long length) {
+            this._in = in;
+            this._remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (_remaining <= 0)
+                return -1;
+            int result = _in.read();
+            if (result != -1)
+                _remaining--;
+            return result;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (_remaining <= 0)
+                return -1;
+            int result = _in.read(b, off, (int) Math.min(len, _remaining));
+            if (result != -1)
+                _remaining -= result;
+            return result;
+        }
+    }
+}
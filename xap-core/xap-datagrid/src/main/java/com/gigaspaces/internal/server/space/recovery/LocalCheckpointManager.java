@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.server.space.recovery;
+
+import com.gigaspaces.internal.cluster.SpaceClusterInfo;
+import com.gigaspaces.internal.cluster.node.impl.replica.EntryReplicaProducer;
+import com.gigaspaces.internal.cluster.node.impl.replica.IExecutableSpaceReplicaData;
+import com.gigaspaces.internal.cluster.node.impl.replica.ISingleStageReplicaDataProducer;
+import com.gigaspaces.internal.cluster.node.impl.replica.ISpaceReplicaData;
+import com.gigaspaces.internal.cluster.node.impl.replica.ISynchronizationCallback;
+import com.gigaspaces.internal.cluster.node.impl.replica.SpaceCopyIntermediateResult;
+import com.gigaspaces.internal.cluster.node.impl.replica.SpaceTypeReplicaDataProducer;
+import com.gigaspaces.internal.cluster.node.impl.replica.data.AbstractEntryReplicaData;
+import com.gigaspaces.internal.cluster.node.replica.SpaceCopyReplicaParameters;
+import com.gigaspaces.internal.cluster.node.replica.SpaceCopyReplicaParameters.ReplicaType;
+import com.gigaspaces.internal.server.space.SpaceEngine;
+import com.gigaspaces.internal.server.space.SpaceEngineReplicaConsumerFacade;
+import com.gigaspaces.internal.utils.concurrent.GSThreadFactory;
+import com.gigaspaces.logger.Constants;
+import com.gigaspaces.start.SystemLocations;
+import com.gigaspaces.time.SystemTime;
+import com.j_spaces.core.ISpaceState;
+import com.j_spaces.kernel.JSpaceUtilities;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically writes a checkpoint of the types and entries of an all in cache memory space to a
+ * local file, and loads it when the space is started with no other member to recover from.
+ *
+ * The checkpoint is fuzzy - each entry is consistent, but entries are read one by one while the
+ * space is active, the same way a replica is produced for a recovering member. The checkpoint is
+ * written to a temporary file which replaces the previous checkpoint only when it is complete, so
+ * a failure while writing never leaves a partial checkpoint behind. Transient entries are not
+ * written. See {@link CheckpointFile} for the validation of a checkpoint before it is loaded.
+ *
+ * @since 15.5
+ */
+@com.gigaspaces.api.InternalApi
+public class LocalCheckpointManager {
+    private static final Logger _logger = LoggerFactory.getLogger(Constants.LOGGER_ENGINE);
+
+    private static final ISynchronizationCallback NO_DUPLICATES_CALLBACK = new ISynchronizationCallback() {
+        @Override
+        public boolean synchronizationDataGenerated(ISpaceReplicaData data) {
+            return false;
+        }
+    };
+
+    private final SpaceEngine _engine;
+    private final CheckpointFile _file;
+    private final ScheduledExecutorService _executor;
+
+    public LocalCheckpointManager(SpaceEngine engine, String directory, long intervalMillis) {
+        _engine = engine;
+        final File checkpointDir = directory != null && directory.length() != 0
+                ? new File(directory)
+                : new File(SystemLocations.singleton().work().toFile(), "checkpoint");
+        _file = new CheckpointFile(new File(checkpointDir, engine.getFullSpaceName().replaceAll("[^\\w.-]", "_") + ".checkpoint"));
+        _executor = Executors.newSingleThreadScheduledExecutor(new GSThreadFactory(engine.getFullSpaceName() + "-checkpoint", true));
+        _executor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    if (isCheckpointable())
+                        checkpoint();
+                } catch (Throwable t) {
+                    _logger.warn("[" + _engine.getFullSpaceName() + "] failed to write checkpoint to " + getFile(), t);
+                }
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public File getFile() {
+        return _file.getFile();
+    }
+
+    private boolean isCheckpointable() {
+        // a space which did not complete its recovery must not replace the previous checkpoint
+        return _engine.getSpaceImpl().getState() == ISpaceState.STARTED && !_engine.getSpaceImpl().isRecovering();
+    }
+
+    /**
+     * Writes a checkpoint of the space types and non transient entries, replacing the previous
+     * checkpoint.
+     */
+    public synchronized void checkpoint() throws IOException {
+        final long startTime = SystemTime.timeMillis();
+        final int entries;
+        try (CheckpointFile.Writer writer = _file.createWriter(getIdentity(), startTime)) {
+            writeData(writer, new SpaceTypeReplicaDataProducer(_engine));
+            entries = writeData(writer, new EntryReplicaProducer(_engine, createEntriesReplicaParameters(), null, null));
+            writer.commit();
+        }
+
+        if (_logger.isDebugEnabled())
+            _logger.debug("[" + _engine.getFullSpaceName() + "] wrote checkpoint of " + entries + " entries to " + getFile() +
+                    " in " + JSpaceUtilities.formatMillis(SystemTime.timeMillis() - startTime));
+    }
+
+    /**
+     * A checkpoint is loaded only by the space which wrote it - same space name, same partition,
+     * and under chunks routing the same chunks map generation, since a checkpoint of an older map
+     * may hold entries of chunks which moved to another partition.
+     */
+    private String getIdentity() {
+        StringBuilder identity = new StringBuilder(_engine.getFullSpaceName());
+        SpaceClusterInfo clusterInfo = _engine.getClusterInfo();
+        if (clusterInfo.isPartitioned())
+            identity.append(" partition ").append(_engine.getPartitionIdOneBased()).append('/').append(clusterInfo.getNumberOfPartitions());
+        if (clusterInfo.isChunksRouting())
+            identity.append(" chunks map generation ").append(clusterInfo.getChunksMap().getGeneration());
+        return identity.toString();
+    }
+
+    private static SpaceCopyReplicaParameters createEntriesReplicaParameters() {
+        SpaceCopyReplicaParameters parameters = new SpaceCopyReplicaParameters();
+        parameters.setReplicaType(ReplicaType.COPY);
+        parameters.setMemoryOnly(true);
+        return parameters;
+    }
+
+    private static int writeData(CheckpointFile.Writer writer, ISingleStageReplicaDataProducer<? extends IExecutableSpaceReplicaData> producer)
+            throws IOException {
+        int count = 0;
+        try {
+            IExecutableSpaceReplicaData data;
+            while ((data = producer.produceNextData(NO_DUPLICATES_CALLBACK)) != null) {
+                if (data.isEntryReplicaData() && ((AbstractEntryReplicaData) data).getEntryPacket().isTransient())
+                    continue;
+                writer.write(data);
+                count++;
+            }
+        } finally {
+            producer.close(false);
+        }
+        return count;
+    }
+
+    /**
+     * Loads the types and entries of the last checkpoint into the space, if a checkpoint exists. A
+     * checkpoint which is corrupted or was written by another space is ignored.
+     *
+     * @return number of entries loaded from the checkpoint
+     */
+    public synchronized int recover() throws Exception {
+        final long startTime = SystemTime.timeMillis();
+        final CheckpointFile.Reader reader;
+        try {
+            reader = _file.openReader(getIdentity());
+        } catch (CheckpointFile.InvalidCheckpointException e) {
+            _logger.warn("[" + _engine.getFullSpaceName() + "] ignoring checkpoint " + getFile() + " - " + e.getMessage());
+            return 0;
+        }
+        if (reader == null)
+            return 0;
+
+        final SpaceEngineReplicaConsumerFacade consumeFacade = new SpaceEngineReplicaConsumerFacade(_engine);
+        final SpaceCopyIntermediateResult result = new SpaceCopyIntermediateResult();
+        int entries = 0;
+        try {
+            IExecutableSpaceReplicaData data;
+            while ((data = reader.next()) != null) {
+                data.execute(consumeFacade, result, null);
+                if (data.isEntryReplicaData())
+                    entries++;
+            }
+        } finally {
+            reader.close();
+        }
+
+        if (_logger.isInfoEnabled())
+            _logger.info("[" + _engine.getFullSpaceName() + "] checkpoint recovery:\n " +
+                    "\tCheckpoint: " + getFile() + ".\n" +
+                    "\tCheckpoint age: " + JSpaceUtilities.formatMillis(startTime - reader.getTime()) + ".\n" +
+                    "\tEntries found in checkpoint: " + entries + ".\n" +
+                    "\tTotal Time: " + JSpaceUtilities.formatMillis(SystemTime.timeMillis() - startTime) + ".");
+        return entries;
+    }
+
+    public void close() {
+        _executor.shutdownNow();
+    }
+}
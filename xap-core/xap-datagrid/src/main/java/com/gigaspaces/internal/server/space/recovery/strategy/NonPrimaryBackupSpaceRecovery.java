@@ -63,7 +63,11 @@ public class NonPrimaryBackupSpaceRecovery
      */
     public ISpaceSynchronizeReplicaState recover() throws Exception {
         recoverFromDB();
-        return recoverFromOtherSpace();
+        ISpaceSynchronizeReplicaState recoveryState = recoverFromOtherSpace();
+        // no member to recover from - use the local checkpoint
+        if (recoveryState == null)
+            _space.getEngine().recoverFromCheckpoint();
+        return recoveryState;
     }
 
     /* (non-Javadoc)
@@ -50,6 +50,9 @@ public class SpaceReplicationManager {
     public void close() {
         _replicationNode.close();
 
+        if (_mirrorService != null)
+            _mirrorService.close();
+
         if (_replicationFilterManager != null)
             _replicationFilterManager.close();
     }
@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.gigaspaces.internal.server.space.tasks;
+
+import com.gigaspaces.internal.utils.concurrent.GSThread;
+import com.gigaspaces.metrics.Gauge;
+import com.gigaspaces.metrics.LongCounter;
+import com.gigaspaces.metrics.MetricRegistrator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes space tasks on a fixed set of lanes, each served by a single thread. A task is assigned
+ * to a lane by the hash of its routing value, so tasks with the same routing are executed serially
+ * by their arrival order without contending on the same entries, while tasks with different routing
+ * are executed in parallel.
+ *
+ * Each lane is bounded - scheduling a task on a full lane blocks the caller until the lane has room
+ * for it. Task types whose average execution time exceeds the long task threshold are classified as
+ * long tasks. The classification never reorders a lane, it is used to assign tasks without a
+ * routing value - those are assigned to lanes in a round robin manner, except that short tasks skip
+ * lanes which hold long tasks, so they are not delayed behind them.
+ *
+ * @since 15.5
+ */
+@com.gigaspaces.api.InternalApi
+public class SpaceTaskScheduler {
+    private static final Logger _logger = LoggerFactory.getLogger(com.gigaspaces.logger.Constants.LOGGER_ENGINE);
+
+    private final Lane[] _lanes;
+    private final int _laneCapacity;
+    private final long _longTaskThresholdNanos;
+    private final ConcurrentHashMap<String, TaskTypeStatistics> _taskTypesStatistics = new ConcurrentHashMap<String, TaskTypeStatistics>();
+    private final AtomicInteger _roundRobinCounter = new AtomicInteger();
+    private final LongCounter _executedTasks = new LongCounter();
+    private final LongCounter _throttledTasks = new LongCounter();
+    private volatile long _avgQueueLatencyNanos;
+    private volatile long _avgExecutionLatencyNanos;
+    private volatile boolean _closed;
+
+    public SpaceTaskScheduler(String name, int numOfLanes, int laneCapacity, long longTaskThresholdNanos) {
+        if (numOfLanes <= 0)
+            throw new IllegalArgumentException("Number of task lanes must be positive - " + numOfLanes);
+        if (laneCapacity <= 0)
+            throw new IllegalArgumentException("Task lane capacity must be positive - " + laneCapacity);
+        this._laneCapacity = laneCapacity;
+        this._longTaskThresholdNanos = longTaskThresholdNanos;
+        this._lanes = new Lane[numOfLanes];
+        for (int i = 0; i < numOfLanes; i++) {
+            _lanes[i] = new Lane(name + "-task-lane-" + i);
+            _lanes[i].start();
+        }
+    }
+
+    /**
+     * Queues the task on its lane, waiting for the lane to have room for it if it is full.
+     *
+     * @param routingHash hash of the task routing value, or null if the task has no routing
+     * @param taskType    name of the task type, used to classify the task as short or long
+     * @return false if the scheduler is closed, in which case the task should be executed by the
+     * caller
+     */
+    public boolean schedule(Integer routingHash, String taskType, Runnable task) throws InterruptedException {
+        if (_closed)
+            return false;
+        final TaskTypeStatistics statistics = getTaskTypeStatistics(taskType);
+        final boolean longTask = statistics._avgExecutionNanos > _longTaskThresholdNanos;
+        return selectLane(routingHash, longTask).put(new LaneTask(task, statistics, longTask));
+    }
+
+    private Lane selectLane(Integer routingHash, boolean longTask) {
+        if (routingHash != null)
+            return _lanes[toLaneIndex(routingHash)];
+        final int first = toLaneIndex(_roundRobinCounter.getAndIncrement());
+        if (!longTask) {
+            for (int i = 0; i < _lanes.length; i++) {
+                final Lane lane = _lanes[(first + i) % _lanes.length];
+                if (lane._longTasks == 0)
+                    return lane;
+            }
+        }
+        return _lanes[first];
+    }
+
+    private int toLaneIndex(int hash) {
+        return (hash & Integer.MAX_VALUE) % _lanes.length;
+    }
+
+    private TaskTypeStatistics getTaskTypeStatistics(String taskType) {
+        TaskTypeStatistics statistics = _taskTypesStatistics.get(taskType);
+        if (statistics == null) {
+            statistics = new TaskTypeStatistics();
+            TaskTypeStatistics prev = _taskTypesStatistics.putIfAbsent(taskType, statistics);
+            if (prev != null)
+                statistics = prev;
+        }
+        return statistics;
+    }
+
+    public int getQueueDepth() {
+        int result = 0;
+        for (Lane lane : _lanes)
+            result += lane.size();
+        return result;
+    }
+
+    public long getExecutedTasks() {
+        return _executedTasks.getCount();
+    }
+
+    /**
+     * @return number of tasks which waited for their lane to have room for them
+     */
+    public long getThrottledTasks() {
+        return _throttledTasks.getCount();
+    }
+
+    public long getAvgQueueLatencyNanos() {
+        return _avgQueueLatencyNanos;
+    }
+
+    public long getAvgExecutionLatencyNanos() {
+        return _avgExecutionLatencyNanos;
+    }
+
+    public void registerMetrics(MetricRegistrator registrator) {
+        registrator.register(registrator.toPath("tasks", "queue-depth"), new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return getQueueDepth();
+            }
+        });
+        registrator.register(registrator.toPath("tasks", "queue-latency-micros"), new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return _avgQueueLatencyNanos / 1000;
+            }
+        });
+        registrator.register(registrator.toPath("tasks", "execution-latency-micros"), new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return _avgExecutionLatencyNanos / 1000;
+            }
+        });
+        registrator.register(registrator.toPath("tasks", "executed"), _executedTasks);
+        registrator.register(registrator.toPath("tasks", "throttled"), _throttledTasks);
+    }
+
+    /**
+     * Stops the lanes, tasks which are still queued are executed before their lane is stopped.
+     * Callers which wait for room in a full lane are released and should execute their task.
+     */
+    public void close() {
+        _closed = true;
+        for (Lane lane : _lanes)
+            lane.close();
+    }
+
+    private static long movingAverage(long average, long sample) {
+        return average + ((sample - average) >> 3);
+    }
+
+    private void afterExecution(LaneTask task, long startTime, long endTime) {
+        final long executionTime = endTime - startTime;
+        task._statistics._avgExecutionNanos = movingAverage(task._statistics._avgExecutionNanos, executionTime);
+        _avgQueueLatencyNanos = movingAverage(_avgQueueLatencyNanos, startTime - task._enqueueTime);
+        _avgExecutionLatencyNanos = movingAverage(_avgExecutionLatencyNanos, executionTime);
+        _executedTasks.inc();
+    }
+
+    private static class TaskTypeStatistics {
+        private volatile long _avgExecutionNanos;
+    }
+
+    private static class LaneTask {
+        private final Runnable _task;
+        private final TaskTypeStatistics _statistics;
+        private final boolean _long;
+        private final long _enqueueTime = System.nanoTime();
+
+        private LaneTask(Runnable task, TaskTypeStatistics statistics, boolean longTask) {
+            this._task = task;
+            this._statistics = statistics;
+            this._long = longTask;
+        }
+    }
+
+    private class Lane extends GSThread {
+        private final ArrayDeque<LaneTask> _tasks = new ArrayDeque<LaneTask>();
+        // number of queued and executing long tasks
+        private volatile int _longTasks;
+        private boolean _laneClosed;
+
+        private Lane(String name) {
+            super(name);
+            setDaemon(true);
+        }
+
+        private synchronized boolean put(LaneTask task) throws InterruptedException {
+            if (!_laneClosed && _tasks.size() >= _laneCapacity) {
+                _throttledTasks.inc();
+                do {
+                    wait();
+                } while (!_laneClosed && _tasks.size() >= _laneCapacity);
+            }
+            if (_laneClosed)
+                return false;
+            _tasks.add(task);
+            if (task._long)
+                _longTasks++;
+            notifyAll();
+            return true;
+        }
+
+        private synchronized int size() {
+            return _tasks.size();
+        }
+
+        private synchronized void close() {
+            _laneClosed = true;
+            notifyAll();
+        }
+
+        private synchronized LaneTask take() throws InterruptedException {
+            while (_tasks.isEmpty()) {
+                if (_laneClosed)
+                    return null;
+                wait();
+            }
+            // wake up callers waiting for room in the lane
+            notifyAll();
+            return _tasks.poll();
+        }
+
+        private synchronized void completed(LaneTask task) {
+            if (task._long)
+                _longTasks--;
+        }
+
+        @Override
+        public void run() {
+            try {
+                LaneTask task;
+                while ((task = take()) != null) {
+                    final long startTime = System.nanoTime();
+                    try {
+                        task._task.run();
+                    } catch (Throwable e) {
+                        _logger.error("Failed to execute space task on " + getName(), e);
+                    }
+                    completed(task);
+                    afterExecution(task, startTime, System.nanoTime());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
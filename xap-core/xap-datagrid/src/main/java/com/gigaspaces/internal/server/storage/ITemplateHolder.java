@@ -27,6 +27,7 @@ import com.gigaspaces.internal.server.space.FifoSearch;
 import com.gigaspaces.internal.server.space.MatchResult;
 import com.gigaspaces.internal.server.space.MultipleIdsContext;
 import com.gigaspaces.internal.server.space.iterator.ServerIteratorInfo;
+import com.gigaspaces.internal.server.space.mvcc.SnapshotReadContext;
 import com.gigaspaces.internal.transport.AbstractProjectionTemplate;
 import com.gigaspaces.internal.transport.IEntryPacket;
 import com.gigaspaces.lrmi.nio.IResponseContext;
@@ -216,6 +217,12 @@ public interface ITemplateHolder extends ISpaceItem, IEntryHolder {
 
     MatchResult match(CacheManager cacheManager, IEntryHolder entry, int skipAlreadyMatchedFixedPropertyIndex, String skipAlreadyMatchedIndexPath, boolean safeEntry, Context context, RegexCache regexCache);
 
+    /**
+     * Matches a specific version of an entry's data (used by snapshot reads, which do not
+     * necessarily read the live entry data).
+     */
+    boolean matchEntryData(CacheManager cacheManager, IEntryData entryData, String uid, Context context, RegexCache regexCache);
+
     SQLQuery<?> toSQLQuery(ITypeDesc typeDesc);
 
     boolean quickReject(Context context, FifoSearch fifoSearch);
@@ -279,4 +286,8 @@ public interface ITemplateHolder extends ISpaceItem, IEntryHolder {
     ServerIteratorInfo getServerIteratorInfo();
 
     void setServerIteratorInfo(ServerIteratorInfo serverIteratorInfo);
+
+    SnapshotReadContext getSnapshotReadContext();
+
+    void setSnapshotReadContext(SnapshotReadContext snapshotReadContext);
 }
@@ -65,7 +65,8 @@ public class TemplateEntryData implements IEntryData {
     public TemplateEntryData(ITypeDesc typeDesc, ITransportPacket packet, long expirationTime, boolean fromReplication) {
         this._entryTypeDesc = typeDesc.getEntryTypeDesc(packet.getEntryType());
         this._fieldsValues = packet.getFieldValues();
-        this._dynamicProperties = typeDesc.supportsDynamicProperties() ? new HashMap<String, Object>() : null;
+        // the dynamic properties map is created on demand, templates rarely have dynamic properties
+        this._dynamicProperties = null;
         this._customQuery = packet.getCustomQuery();
         this._versionID = packet.getVersion();
         this._expirationTime = expirationTime;
@@ -121,15 +122,21 @@ public class TemplateEntryData implements IEntryData {
 
     @Override
     public Map<String, Object> getDynamicProperties() {
+        if (_dynamicProperties == null && supportsDynamicProperties())
+            _dynamicProperties = new HashMap<String, Object>();
         return _dynamicProperties;
     }
 
+    private boolean supportsDynamicProperties() {
+        return _entryTypeDesc != null && _entryTypeDesc.getTypeDesc().supportsDynamicProperties();
+    }
+
     @Override
     public void setDynamicPropertyValue(String propertyName, Object value) {
         if (!_entryTypeDesc.getTypeDesc().supportsDynamicProperties())
             throw new UnsupportedOperationException(_entryTypeDesc.getTypeDesc().getTypeName() + " does not support dynamic properties");
 
-        _dynamicProperties.put(propertyName, value);
+        getDynamicProperties().put(propertyName, value);
     }
 
     @Override
@@ -203,8 +210,11 @@ public class TemplateEntryData implements IEntryData {
         if (pos != -1)
             return getFixedPropertyValue(pos);
 
-        if (_dynamicProperties == null)
+        if (_dynamicProperties == null) {
+            if (supportsDynamicProperties())
+                return null;
             throw new IllegalArgumentException("Unknown property name '" + name + "'");
+        }
         return _dynamicProperties.get(name);
     }
 
@@ -20,6 +20,7 @@ import com.gigaspaces.client.mutators.SpaceEntryMutator;
 import com.gigaspaces.internal.client.QueryResultTypeInternal;
 import com.gigaspaces.internal.metadata.ITypeDesc;
 import com.gigaspaces.internal.query.EntryHolderAggregatorContext;
+import com.gigaspaces.internal.server.space.mvcc.SnapshotReadContext;
 import com.gigaspaces.internal.query.ICustomQuery;
 import com.gigaspaces.internal.query.RegexCache;
 import com.gigaspaces.internal.query.explainplan.SingleExplainPlan;
@@ -152,6 +153,7 @@ public class TemplateHolder extends AbstractSpaceItem implements ITemplateHolder
     private final boolean _allValuesIndexSqlQuery;
     private SingleExplainPlan _singleExplainPlan = null;
     private ServerIteratorInfo _serverIteratorInfo;
+    private SnapshotReadContext _snapshotReadContext;
 
 
     public TemplateHolder(IServerTypeDesc typeDesc, ITemplatePacket packet, String uid,
@@ -767,6 +769,16 @@ public class TemplateHolder extends AbstractSpaceItem implements ITemplateHolder
         return res;
     }
 
+    @Override
+    public boolean matchEntryData(CacheManager cacheManager, IEntryData entryData, String uid, Context context, RegexCache regexCache) {
+        context.incrementNumOfEntriesMatched();
+        if (_uidToOperateBy != null && !_uidToOperateBy.equals(uid))
+            return false;
+        if (getCustomQuery() != null)
+            context.setOnMatchUid(uid);
+        return isEmptyTemplate() || _templateData.match(cacheManager, entryData, -1 /*skipAlreadyMatchedFixedPropertyIndex*/, null /*skipAlreadyMatchedIndexPath*/, regexCache);
+    }
+
     @Override
     public boolean quickReject(Context context, FifoSearch fifoSearch) {
         if (isDeleted() || isExpired())
@@ -1168,6 +1180,16 @@ public class TemplateHolder extends AbstractSpaceItem implements ITemplateHolder
         this._serverIteratorInfo = serverIteratorInfo;
     }
 
+    @Override
+    public SnapshotReadContext getSnapshotReadContext() {
+        return _snapshotReadContext;
+    }
+
+    @Override
+    public void setSnapshotReadContext(SnapshotReadContext snapshotReadContext) {
+        this._snapshotReadContext = snapshotReadContext;
+    }
+
     //+++++++++++++ ILockObject methods
     @Override
     public ILockObject getExternalLockObject() {
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.gigaspaces.internal.space.requests;
+
+import com.gigaspaces.internal.io.IOUtils;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Request of a chunks migration step. {@link Action#MIGRATE} is sent to the primary of the target
+ * partition, which sends the rest of the actions to the primary of the source partition.
+ *
+ * @since 15.5
+ */
+@com.gigaspaces.api.InternalApi
+public class ChunksMigrationRequestInfo extends AbstractSpaceRequestInfo {
+    private static final long serialVersionUID = 1L;
+
+    public enum Action {
+        MIGRATE, BEGIN, DRAIN, FREEZE, COMPLETE, ABORT
+    }
+
+    private Action _action;
+    private String _migrationId;
+    private int _sourcePartitionId;
+    private List<Integer> _chunks;
+    private int _maxEntries;
+
+    /**
+     * Required for Externalizable
+     */
+    public ChunksMigrationRequestInfo() {
+    }
+
+    public ChunksMigrationRequestInfo(Action action, String migrationId) {
+        this._action = action;
+        this._migrationId = migrationId;
+    }
+
+    public Action getAction() {
+        return _action;
+    }
+
+    public String getMigrationId() {
+        return _migrationId;
+    }
+
+    /**
+     * @return zero based id of the partition the chunks are migrated from
+     */
+    public int getSourcePartitionId() {
+        return _sourcePartitionId;
+    }
+
+    public ChunksMigrationRequestInfo setSourcePartitionId(int sourcePartitionId) {
+        this._sourcePartitionId = sourcePartitionId;
+        return this;
+    }
+
+    public List<Integer> getChunks() {
+        return _chunks;
+    }
+
+    public ChunksMigrationRequestInfo setChunks(Collection<Integer> chunks) {
+        this._chunks = new ArrayList<Integer>(chunks);
+        return this;
+    }
+
+    public int getMaxEntries() {
+        return _maxEntries;
+    }
+
+    public ChunksMigrationRequestInfo setMaxEntries(int maxEntries) {
+        this._maxEntries = maxEntries;
+        return this;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out)
+            throws IOException {
+        super.writeExternal(out);
+        out.writeByte(_action.ordinal());
+        IOUtils.writeString(out, _migrationId);
+        out.writeInt(_sourcePartitionId);
+        if (_chunks == null)
+            out.writeInt(-1);
+        else {
+            out.writeInt(_chunks.size());
+            for (Integer chunk : _chunks)
+                out.writeInt(chunk);
+        }
+        out.writeInt(_maxEntries);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in)
+            throws IOException, ClassNotFoundException {
+        super.readExternal(in);
+        _action = Action.values()[in.readByte()];
+        _migrationId = IOUtils.readString(in);
+        _sourcePartitionId = in.readInt();
+        int numOfChunks = in.readInt();
+        if (numOfChunks != -1) {
+            _chunks = new ArrayList<Integer>(numOfChunks);
+            for (int i = 0; i < numOfChunks; i++)
+                _chunks.add(in.readInt());
+        }
+        _maxEntries = in.readInt();
+    }
+
+    @Override
+    public String toString() {
+        return "ChunksMigrationRequestInfo [action=" + _action +
+                ", migrationId=" + _migrationId +
+                ", sourcePartitionId=" + _sourcePartitionId +
+                ", chunks=" + (_chunks != null ? _chunks.size() : 0) + "]";
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.gigaspaces.internal.space.requests;
+
+import com.gigaspaces.internal.io.IOUtils;
+import com.gigaspaces.internal.transport.IEntryPacket;
+import com.gigaspaces.internal.transport.ITemplatePacket;
+import com.gigaspaces.internal.transport.ITransportPacket;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request to execute a batch of operations which are routed to the same partition as one
+ * transaction, which is created, prepared and committed by the partition itself.
+ *
+ * @since 15.5
+ */
+@com.gigaspaces.api.InternalApi
+public class SinglePartitionTransactionRequestInfo extends AbstractSpaceRequestInfo {
+    private static final long serialVersionUID = 1L;
+
+    public enum OperationType {
+        WRITE, UPDATE, TAKE
+    }
+
+    private List<Operation> _operations;
+
+    /**
+     * Required for Externalizable
+     */
+    public SinglePartitionTransactionRequestInfo() {
+    }
+
+    public SinglePartitionTransactionRequestInfo(List<Operation> operations) {
+        this._operations = operations;
+    }
+
+    public List<Operation> getOperations() {
+        return _operations;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out)
+            throws IOException {
+        super.writeExternal(out);
+        out.writeInt(_operations.size());
+        for (Operation operation : _operations) {
+            out.writeByte(operation._type.ordinal());
+            IOUtils.writeObject(out, operation._packet);
+            out.writeInt(operation._modifiers);
+            out.writeLong(operation._lease);
+        }
+    }
+
+    @Override
+    public void readExternal(ObjectInput in)
+            throws IOException, ClassNotFoundException {
+        super.readExternal(in);
+        int numOfOperations = in.readInt();
+        _operations = new ArrayList<Operation>(numOfOperations);
+        for (int i = 0; i < numOfOperations; i++) {
+            OperationType type = OperationType.values()[in.readByte()];
+            ITransportPacket packet = IOUtils.readObject(in);
+            int modifiers = in.readInt();
+            long lease = in.readLong();
+            _operations.add(new Operation(type, packet, modifiers, lease));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SinglePartitionTransactionRequestInfo [operations=" + _operations.size() + "]";
+    }
+
+    public static class Operation {
+        private final OperationType _type;
+        private final ITransportPacket _packet;
+        private final int _modifiers;
+        private final long _lease;
+
+        public Operation(OperationType type, ITransportPacket packet, int modifiers, long lease) {
+            this._type = type;
+            this._packet = packet;
+            this._modifiers = modifiers;
+            this._lease = lease;
+        }
+
+        public OperationType getType() {
+            return _type;
+        }
+
+        public ITransportPacket getPacket() {
+            return _packet;
+        }
+
+        public IEntryPacket getEntryPacket() {
+            return (IEntryPacket) _packet;
+        }
+
+        public ITemplatePacket getTemplatePacket() {
+            return (ITemplatePacket) _packet;
+        }
+
+        public int getModifiers() {
+            return _modifiers;
+        }
+
+        public long getLease() {
+            return _lease;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.gigaspaces.internal.space.responses;
+
+import com.gigaspaces.internal.io.IOUtils;
+import com.gigaspaces.internal.server.space.chunks.ChunksMigrationDelta;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * @since 15.5
+ */
+@com.gigaspaces.api.InternalApi
+public class ChunksMigrationResponseInfo extends AbstractSpaceResponseInfo {
+    private static final long serialVersionUID = 1L;
+
+    private ChunksMigrationDelta _delta;
+    private int _migratedEntries;
+
+    /**
+     * Required for Externalizable
+     */
+    public ChunksMigrationResponseInfo() {
+    }
+
+    /**
+     * @return changes drained from the source partition, null if the action does not drain changes
+     */
+    public ChunksMigrationDelta getDelta() {
+        return _delta;
+    }
+
+    public void setDelta(ChunksMigrationDelta delta) {
+        this._delta = delta;
+    }
+
+    /**
+     * @return number of entries which were migrated, relevant for the migrate action
+     */
+    public int getMigratedEntries() {
+        return _migratedEntries;
+    }
+
+    public void setMigratedEntries(int migratedEntries) {
+        this._migratedEntries = migratedEntries;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out)
+            throws IOException {
+        super.writeExternal(out);
+        IOUtils.writeObject(out, _delta);
+        out.writeInt(_migratedEntries);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in)
+            throws IOException, ClassNotFoundException {
+        super.readExternal(in);
+        _delta = IOUtils.readObject(in);
+        _migratedEntries = in.readInt();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.gigaspaces.internal.space.responses;
+
+import com.gigaspaces.internal.io.IOUtils;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * @since 15.5
+ */
+@com.gigaspaces.api.InternalApi
+public class SinglePartitionTransactionResponseInfo extends AbstractSpaceResponseInfo {
+    private static final long serialVersionUID = 1L;
+
+    private Object[] _results;
+    private int _failedOperation = -1;
+    private Exception _exception;
+
+    /**
+     * Required for Externalizable
+     */
+    public SinglePartitionTransactionResponseInfo() {
+    }
+
+    public SinglePartitionTransactionResponseInfo(int numOfOperations) {
+        this._results = new Object[numOfOperations];
+    }
+
+    /**
+     * @return result of each operation - a write entry result for writes and updates, the taken
+     * entry packet or null for takes
+     */
+    public Object[] getResults() {
+        return _results;
+    }
+
+    public void setResult(int index, Object result) {
+        _results[index] = result;
+    }
+
+    /**
+     * @return index of the operation which failed the transaction, -1 if the transaction failed
+     * when it was committed
+     */
+    public int getFailedOperation() {
+        return _failedOperation;
+    }
+
+    /**
+     * @return exception which aborted the transaction, null if it was committed
+     */
+    public Exception getException() {
+        return _exception;
+    }
+
+    public void setException(int failedOperation, Exception exception) {
+        this._failedOperation = failedOperation;
+        this._exception = exception;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out)
+            throws IOException {
+        super.writeExternal(out);
+        IOUtils.writeObjectArray(out, _results);
+        out.writeInt(_failedOperation);
+        IOUtils.writeObject(out, _exception);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in)
+            throws IOException, ClassNotFoundException {
+        super.readExternal(in);
+        _results = IOUtils.readObjectArray(in);
+        _failedOperation = in.readInt();
+        _exception = IOUtils.readObject(in);
+    }
+}
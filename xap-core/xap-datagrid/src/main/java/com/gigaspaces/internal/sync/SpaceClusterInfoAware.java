@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.sync;
+
+import com.gigaspaces.internal.cluster.SpaceClusterInfo;
+
+/**
+ * Implemented by a space data source which needs the routing of the space it is loaded into, for
+ * example to drop the initial load entries of other partitions before they reach the space.
+ *
+ * @since 15.5
+ */
+public interface SpaceClusterInfoAware {
+    /**
+     * Invoked before the initial load of the space.
+     *
+     * @param clusterInfo          cluster info of the space, used to calculate the partition of a
+     *                             routing value
+     * @param partitionIdZeroBased partition of the space
+     */
+    void setSpaceClusterInfo(SpaceClusterInfo clusterInfo, int partitionIdZeroBased);
+}
@@ -62,6 +62,7 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
@@ -98,6 +99,7 @@ public class SynchronizationStorageAdapter implements IStorageAdapter {
     private final boolean _supportsPartialUpdate;
     private final boolean _centralDataSource;
     private final boolean _supportsInheritance;
+    private boolean _initialMetadataLoaded;
 
     public SynchronizationStorageAdapter(SpaceEngine engine, SpaceDataSource spaceDataSource,
                                          SpaceSynchronizationEndpoint synchronizationEndpointInterceptor)
@@ -194,6 +196,45 @@ public class SynchronizationStorageAdapter implements IStorageAdapter {
         if (template.isTransient() || _mirrorService)
             return null;
 
+        initialMetadataLoad();
+        try {
+            return createInitialLoadIterator(_spaceDataSource.initialDataLoad());
+        } catch (Exception e) {
+            if (_logger.isDebugEnabled())
+                LogUtils.throwing(_logger, getClass(), "Initial Load", e);
+            throw new SAException(e);
+        }
+    }
+
+    @Override
+    public List<ISAdapterIterator<IEntryHolder>> initialLoadStreams(Context context, ITemplateHolder template)
+            throws SAException {
+        if (template.isTransient() || _mirrorService)
+            return null;
+
+        initialMetadataLoad();
+        try {
+            List<DataIterator<Object>> streams = _spaceDataSource.initialDataLoadStreams();
+            if (streams == null)
+                return null;
+            List<ISAdapterIterator<IEntryHolder>> result = new ArrayList<ISAdapterIterator<IEntryHolder>>(streams.size());
+            for (DataIterator<Object> stream : streams)
+                result.add(createInitialLoadIterator(stream));
+            return result;
+        } catch (Exception e) {
+            if (_logger.isDebugEnabled())
+                LogUtils.throwing(_logger, getClass(), "Initial Load", e);
+            throw new SAException(e);
+        }
+    }
+
+    private void initialMetadataLoad() throws SAException {
+        // invoked by both initialLoadStreams and initialLoad when the data source has no streams
+        if (_initialMetadataLoaded)
+            return;
+        _initialMetadataLoaded = true;
+        if (_spaceDataSource instanceof SpaceClusterInfoAware)
+            ((SpaceClusterInfoAware) _spaceDataSource).setSpaceClusterInfo(_engine.getClusterInfo(), _engine.getPartitionIdZeroBased());
         final DataIterator<SpaceTypeDescriptor> metadataIterator = _spaceDataSource.initialMetadataLoad();
         if (metadataIterator != null) {
             try {
@@ -217,27 +258,21 @@ public class SynchronizationStorageAdapter implements IStorageAdapter {
                 throw new SAException(e);
             }
         }
+    }
 
-        try {
-            // Create adapter iterator that holds all the subclasses iterators
-            // in case of a storage that supports inheritance - only one iterator is used
-            DataAdaptorIterator cacheAdapterIterator = new DataAdaptorIterator(_typeManager, _entryDataType);
-            //  iterate
-            DataIterator<Object> iterator = _spaceDataSource.initialDataLoad();
-            if (iterator != null) {
-                // wrap user iterator with EntryAdapterIterator 
-                // - that will handle entry conversion during iteration                 
-                EntryAdapterIterator entryAdapterIterator = new EntryAdapterIterator(iterator, new EntryAdapter(_converter));
-
-                //  Aggregate iterator results
-                cacheAdapterIterator.add(entryAdapterIterator);
-            }
-            return cacheAdapterIterator;
-        } catch (Exception e) {
-            if (_logger.isDebugEnabled())
-                LogUtils.throwing(_logger, getClass(), "Initial Load", e);
-            throw new SAException(e);
+    private DataAdaptorIterator createInitialLoadIterator(DataIterator<Object> iterator) {
+        // Create adapter iterator that holds all the subclasses iterators
+        // in case of a storage that supports inheritance - only one iterator is used
+        DataAdaptorIterator cacheAdapterIterator = new DataAdaptorIterator(_typeManager, _entryDataType);
+        if (iterator != null) {
+            // wrap user iterator with EntryAdapterIterator
+            // - that will handle entry conversion during iteration
+            EntryAdapterIterator entryAdapterIterator = new EntryAdapterIterator(iterator, new EntryAdapter(_converter));
+
+            //  Aggregate iterator results
+            cacheAdapterIterator.add(entryAdapterIterator);
         }
+        return cacheAdapterIterator;
     }
 
     @Override
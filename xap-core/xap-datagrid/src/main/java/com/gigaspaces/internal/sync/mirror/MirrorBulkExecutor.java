@@ -22,32 +22,76 @@ import com.gigaspaces.internal.server.space.metadata.SpaceTypeManager;
 import com.gigaspaces.internal.sync.OperationsDataBatchImpl;
 import com.gigaspaces.internal.sync.TransactionDataImpl;
 import com.gigaspaces.internal.transport.IEntryPacket;
+import com.gigaspaces.internal.utils.concurrent.GSThreadFactory;
 import com.gigaspaces.sync.DataSyncOperation;
 import com.gigaspaces.sync.SpaceSynchronizationEndpoint;
+import com.j_spaces.sadapter.datasource.BulkDataPersisterContext;
 import com.j_spaces.sadapter.datasource.EntryPacketDataConverter;
 import com.j_spaces.sadapter.datasource.IDataConverter;
 import com.j_spaces.sadapter.datasource.InternalBulkItem;
 
 import net.jini.core.transaction.server.TransactionParticipantDataImpl;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 
 /**
+ * Executes replicated batches against the synchronization endpoint.
+ *
+ * When bulk concurrency is greater than 1, a non transactional batch which contains several types
+ * is split into a sub batch per type, and the sub batches are executed concurrently. The order of
+ * operations within a type is kept, and the batch completes only after all of its sub batches
+ * completed, so the batch is confirmed to its source as a whole. Each sub batch is passed to the
+ * synchronization endpoint as a batch of its own, including its afterOperationsBatchSynchronization
+ * callback. When a sub batch fails the batch is retried by its source, and the sub batches which
+ * completed in the failed attempt are not executed again. This is kept in memory only, so a retry
+ * after the mirror restarted executes them again.
+ *
  * @author Niv Ingberg
  * @since 10.0
  */
 @com.gigaspaces.api.InternalApi
 public class MirrorBulkExecutor {
 
+    private static final long IDLE_THREAD_TIMEOUT = 60;
+
     private final SpaceSynchronizationEndpoint _syncEndpoint;
     private final SpaceTypeManager _typeManager;
     private final IDataConverter<IEntryPacket> _converter;
+    private final ExecutorService _typeBatchesExecutor;
+    // per source, the operations of each type which were executed by the last failed attempt of its batch
+    private final Map<String, Map<String, DataSyncOperation[]>> _executedTypeBatches = new ConcurrentHashMap<String, Map<String, DataSyncOperation[]>>();
 
     public MirrorBulkExecutor(SpaceSynchronizationEndpoint syncEndpoint, SpaceTypeManager typeManager, Class<?> dataClass) {
+        this(syncEndpoint, typeManager, dataClass, 1);
+    }
+
+    public MirrorBulkExecutor(SpaceSynchronizationEndpoint syncEndpoint, SpaceTypeManager typeManager, Class<?> dataClass,
+                              int bulkConcurrency) {
         _syncEndpoint = syncEndpoint;
         _typeManager = typeManager;
         _converter = new EntryPacketDataConverter(typeManager, dataClass);
+        _typeBatchesExecutor = bulkConcurrency > 1 ? createTypeBatchesExecutor(bulkConcurrency - 1) : null;
+    }
+
+    private static ExecutorService createTypeBatchesExecutor(int threads) {
+        // the calling thread executes a sub batch as well
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, IDLE_THREAD_TIMEOUT, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new GSThreadFactory("mirror-bulk-executor", true));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
     public SpaceSynchronizationEndpoint getSynchronizationInterceptor() {
@@ -69,14 +113,14 @@ public class MirrorBulkExecutor {
             bulkItem.setConverter(_converter);
         }
         if (transactionMetaData == null) {
-            final OperationsDataBatchImpl batchData = new OperationsDataBatchImpl(operations, batchContext.getSourceLookupName());
-            _syncEndpoint.onOperationsBatchSynchronization(batchData);
-            try {
-                _syncEndpoint.afterOperationsBatchSynchronization(batchData);
-            } catch (Throwable t) {
-                if (batchContext.getContextLogger().isWarnEnabled())
-                    batchContext.getContextLogger().warn("Synchronization endpoint interceptor afterOperationsBatchSynchronization caused an exception", t);
+            if (_typeBatchesExecutor != null) {
+                final List<DataSyncOperation[]> typeBatches = splitByType(entries);
+                if (typeBatches.size() > 1 || _executedTypeBatches.containsKey(batchContext.getSourceLookupName())) {
+                    executeConcurrently(typeBatches, batchContext);
+                    return;
+                }
             }
+            executeOperationsBatch(operations, batchContext);
         } else {
             final TransactionDataImpl transactionData = new TransactionDataImpl(operations, transactionMetaData,
                     batchContext.getSourceLookupName());
@@ -89,4 +133,142 @@ public class MirrorBulkExecutor {
             }
         }
     }
+
+    private void executeOperationsBatch(DataSyncOperation[] operations, IReplicationInBatchContext batchContext) {
+        final OperationsDataBatchImpl batchData = new OperationsDataBatchImpl(operations, batchContext.getSourceLookupName());
+        _syncEndpoint.onOperationsBatchSynchronization(batchData);
+        try {
+            _syncEndpoint.afterOperationsBatchSynchronization(batchData);
+        } catch (Throwable t) {
+            if (batchContext.getContextLogger().isWarnEnabled())
+                batchContext.getContextLogger().warn("Synchronization endpoint interceptor afterOperationsBatchSynchronization caused an exception", t);
+        }
+    }
+
+    private void executeConcurrently(List<DataSyncOperation[]> typeBatches, final IReplicationInBatchContext batchContext) {
+        final String sourceName = batchContext.getSourceLookupName();
+        final Map<String, DataSyncOperation[]> executed = _executedTypeBatches.remove(sourceName);
+        // the retried batch starts with the operations of the failed attempt, the executed ones are skipped
+        final int[] executedCounts = new int[typeBatches.size()];
+        final int[] pendingIndexes = new int[typeBatches.size()];
+        final List<DataSyncOperation[]> pendingBatches = new ArrayList<DataSyncOperation[]>(typeBatches.size());
+        for (int i = 0; i < typeBatches.size(); i++) {
+            final DataSyncOperation[] typeBatch = typeBatches.get(i);
+            executedCounts[i] = executed != null ? getExecutedCount(typeBatch, executed.get(getTypeName(typeBatch))) : 0;
+            if (executedCounts[i] == typeBatch.length) {
+                pendingIndexes[i] = -1;
+            } else {
+                pendingIndexes[i] = pendingBatches.size();
+                pendingBatches.add(Arrays.copyOfRange(typeBatch, executedCounts[i], typeBatch.length));
+            }
+        }
+        if (pendingBatches.isEmpty())
+            return;
+
+        final BulkDataPersisterContext persisterContext = BulkDataPersisterContext.getCurrentContext();
+        final boolean[] completed = new boolean[pendingBatches.size()];
+        final List<Future<?>> futures = new ArrayList<Future<?>>(pendingBatches.size() - 1);
+        for (int i = 1; i < pendingBatches.size(); i++) {
+            final DataSyncOperation[] typeBatch = pendingBatches.get(i);
+            final int index = i;
+            futures.add(_typeBatchesExecutor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    BulkDataPersisterContext.setContext(persisterContext);
+                    try {
+                        executeOperationsBatch(typeBatch, batchContext);
+                        completed[index] = true;
+                    } finally {
+                        BulkDataPersisterContext.resetContext();
+                    }
+                }
+            }));
+        }
+
+        RuntimeException failure = null;
+        try {
+            executeOperationsBatch(pendingBatches.get(0), batchContext);
+            completed[0] = true;
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        // wait for all sub batches even if one failed, so a retry of the batch does not overlap them
+        boolean interrupted = false;
+        for (Future<?> future : futures) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    if (failure == null)
+                        failure = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : new RuntimeException(e.getCause());
+                    break;
+                }
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+        if (failure != null) {
+            final Map<String, DataSyncOperation[]> nowExecuted = new HashMap<String, DataSyncOperation[]>();
+            for (int i = 0; i < typeBatches.size(); i++) {
+                final DataSyncOperation[] typeBatch = typeBatches.get(i);
+                final int executedCount = pendingIndexes[i] == -1 || completed[pendingIndexes[i]] ? typeBatch.length : executedCounts[i];
+                if (executedCount != 0)
+                    nowExecuted.put(getTypeName(typeBatch), Arrays.copyOf(typeBatch, executedCount));
+            }
+            if (!nowExecuted.isEmpty())
+                _executedTypeBatches.put(sourceName, nowExecuted);
+            throw failure;
+        }
+    }
+
+    /**
+     * @return number of operations at the beginning of the type batch which were already executed
+     */
+    private static int getExecutedCount(DataSyncOperation[] typeBatch, DataSyncOperation[] executed) {
+        if (executed == null || executed.length > typeBatch.length)
+            return 0;
+        for (int i = 0; i < executed.length; i++)
+            if (!isSameOperation(typeBatch[i], executed[i]))
+                return 0;
+        return executed.length;
+    }
+
+    private static boolean isSameOperation(DataSyncOperation operation, DataSyncOperation other) {
+        return operation.getUid() != null && operation.getUid().equals(other.getUid())
+                && operation.getDataSyncOperationType() == other.getDataSyncOperationType()
+                && getVersion(operation) == getVersion(other);
+    }
+
+    private static int getVersion(DataSyncOperation operation) {
+        return operation instanceof MirrorChangeBulkDataItem ? ((MirrorChangeBulkDataItem) operation).getVersion()
+                : ((InternalBulkItem) operation).toEntryPacket().getVersion();
+    }
+
+    private static String getTypeName(DataSyncOperation[] typeBatch) {
+        return ((BulkItem) typeBatch[0]).getTypeName();
+    }
+
+    public void close() {
+        if (_typeBatchesExecutor != null)
+            _typeBatchesExecutor.shutdown();
+    }
+
+    static List<DataSyncOperation[]> splitByType(List<BulkItem> entries) {
+        final Map<String, List<DataSyncOperation>> operationsByType = new LinkedHashMap<String, List<DataSyncOperation>>();
+        for (BulkItem entry : entries) {
+            List<DataSyncOperation> typeOperations = operationsByType.get(entry.getTypeName());
+            if (typeOperations == null) {
+                typeOperations = new ArrayList<DataSyncOperation>();
+                operationsByType.put(entry.getTypeName(), typeOperations);
+            }
+            typeOperations.add((DataSyncOperation) entry);
+        }
+        final List<DataSyncOperation[]> typeBatches = new ArrayList<DataSyncOperation[]>(operationsByType.size());
+        for (List<DataSyncOperation> typeOperations : operationsByType.values())
+            typeBatches.add(typeOperations.toArray(new DataSyncOperation[typeOperations.size()]));
+        return typeBatches;
+    }
 }
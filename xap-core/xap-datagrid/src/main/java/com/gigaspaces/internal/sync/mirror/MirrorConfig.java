@@ -51,6 +51,7 @@ final public class MirrorConfig {
     private final String _clusterName;
     private final int _partitionsCount;
     private final int _backupsPerPartition;
+    private final int _bulkConcurrency;
 
     private final DistributedTransactionProcessingConfiguration _transactionProcessingConfiguration = new DistributedTransactionProcessingConfiguration(DIST_TX_WAIT_TIMEOUT,
             DIST_TX_WAIT_FOR_OPERATIONS);
@@ -97,6 +98,8 @@ final public class MirrorConfig {
                 _logger.warn("No cluster configuration was defined for mirror - using default configuration - supports upto " + DEFAULT_NUM_OF_PARTITIONS + " partitions and exactly " + DEFAULT_BACKUPS_PER_PARTITION + " " + (DEFAULT_BACKUPS_PER_PARTITION == 1 ? "backup" : "backups") + " per partition.");
         }
 
+        _bulkConcurrency = Math.max(1, configReader.getIntSpaceProperty(Mirror.MIRROR_SERVICE_BULK_CONCURRENCY, Mirror.MIRROR_SERVICE_BULK_CONCURRENCY_DEFAULT));
+
         final String timeoutBeforePartialCommit = configReader.getSpaceProperty(Mirror.MIRROR_DISTRIBUTED_TRANSACTION_TIMEOUT,
                 null);
         final String waitForOperationsBeforePartialCommit = configReader.getSpaceProperty(Mirror.MIRROR_DISTRIBUTED_TRANSACTION_WAIT_FOR_OPERATIONS,
@@ -114,6 +117,7 @@ final public class MirrorConfig {
                 "\t" + Mirror.FULL_MIRROR_SERVICE_CLUSTER_NAME + "=" + _clusterName +
                         "\t" + Mirror.FULL_MIRROR_SERVICE_CLUSTER_PARTITIONS_COUNT + "=" + _partitionsCount +
                         "\t" + Mirror.FULL_MIRROR_SERVICE_CLUSTER_BACKUPS_PER_PARTITION + "=" + _backupsPerPartition +
+                        "\t" + Mirror.FULL_MIRROR_SERVICE_BULK_CONCURRENCY + "=" + _bulkConcurrency +
                         "\t" + Mirror.MIRROR_DISTRIBUTED_TRANSACTION_TIMEOUT + "=" + timeoutBeforePartialCommit +
                         "\t" + Mirror.MIRROR_DISTRIBUTED_TRANSACTION_WAIT_FOR_OPERATIONS + "=" + waitForOperationsBeforePartialCommit +
                         "\t" + Mirror.MIRROR_DISTRIBUTED_TRANSACTION_MONITOR_PENDING_OPERATIONS_MEMORY + "=" + monitorPendingOperationsMemory;
@@ -139,6 +143,10 @@ final public class MirrorConfig {
         return _partitionsCount;
     }
 
+    public int getBulkConcurrency() {
+        return _bulkConcurrency;
+    }
+
     public DistributedTransactionProcessingConfiguration getDistributedTransactionProcessingParameters() {
         return _transactionProcessingConfiguration;
     }
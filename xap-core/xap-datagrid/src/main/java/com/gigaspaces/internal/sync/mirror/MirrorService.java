@@ -47,6 +47,7 @@ public class MirrorService {
 
     private final MirrorStatisticsImpl _mirrorStatistics;
     private final ReplicationNode _replicationNode;
+    private final MirrorBulkExecutor _bulkExecutor;
 
 
     public MirrorService(String name, Uuid uuid,
@@ -56,15 +57,16 @@ public class MirrorService {
                          SpaceTypeManager typeManager, MetricRegistrator metricRegister) {
         this._mirrorStatistics = new MirrorStatisticsImpl();
         this._mirrorStatistics.setMetricRegistrator(metricRegister);
-        this._replicationNode = createReplicationNode(name, uuid, mirrorConfig, syncEndpoint, dataClass, typeManager, _mirrorStatistics, metricRegister);
+        this._bulkExecutor = new MirrorBulkExecutor(syncEndpoint, typeManager, dataClass, mirrorConfig.getBulkConcurrency());
+        this._replicationNode = createReplicationNode(name, uuid, mirrorConfig, syncEndpoint, typeManager, _bulkExecutor, _mirrorStatistics, metricRegister);
     }
 
     private static ReplicationNode createReplicationNode(String name,
                                                          Uuid uuid,
                                                          MirrorConfig mirrorConfig,
                                                          SpaceSynchronizationEndpoint syncEndpoint,
-                                                         Class<?> dataClass,
                                                          SpaceTypeManager typeManager,
+                                                         MirrorBulkExecutor bulkExecutor,
                                                          MirrorStatisticsImpl mirrorStatistics,
                                                          MetricRegistrator metricRegister) {
         // Create the node builder with the proper building blocks
@@ -79,7 +81,6 @@ public class MirrorService {
 
         ReplicationNode replicationNode = new ReplicationNode(replicationNodeConfig, nodeBuilder, name, metricRegister);
 
-        MirrorBulkExecutor bulkExecutor = new MirrorBulkExecutor(syncEndpoint, typeManager, dataClass);
         replicationNode.setInEntryHandler(new MirrorReplicationInEntryHandler(bulkExecutor, mirrorStatistics));
 
         MirrorReplicationMetadataEventHandler metadataHandler = new MirrorReplicationMetadataEventHandler(bulkExecutor, mirrorStatistics);
@@ -118,4 +119,8 @@ public class MirrorService {
     public MirrorStatistics getMirrorStatistics() {
         return _mirrorStatistics;
     }
+
+    public void close() {
+        _bulkExecutor.close();
+    }
 }
@@ -0,0 +1,614 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.utils.collections.economy;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A memory-economic concurrent hash map with the same entries layout as {@link
+ * EconomyConcurrentHashMap} - the value is used as the hash entry when it is the last entry in the
+ * bin and its key is stable, and a {@link EconomyConcurrentHashMap.PinnedHashEntry} is used when
+ * the key is unstable.
+ *
+ * Unlike {@link EconomyConcurrentHashMap} the table is not divided into a fixed number of
+ * segments. Bins are never locked - since the next pointers of entries are immutable, an update
+ * builds a new copy of the bin prefix it modifies and installs it with a CAS on the bin head, and
+ * retrieval operations do not block. The table is resized as a whole by a single thread, which
+ * moves the bins one by one and replaces each moved bin with a forwarding node. Concurrent
+ * operations on a moved bin are redirected to the new table, so updates are not blocked by the
+ * resize.
+ *
+ * Same as {@link EconomyConcurrentHashMap}, "put" which is not "ifAbsent" is not supported, and
+ * null keys and values are not allowed.
+ *
+ * @since 15.5
+ */
+@com.gigaspaces.api.InternalApi
+public class LockFreeEconomyConcurrentHashMap<K, V> extends AbstractMap<K, V>
+        implements IEconomyConcurrentMap<K, V> {
+
+    static final int DEFAULT_INITIAL_CAPACITY = 16;
+    static final float DEFAULT_LOAD_FACTOR = 0.75f;
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    private final IHashEntryHandler<K, V> _handler;
+    private final float _loadFactor;
+    private final LongAdder _count = new LongAdder();
+    private final AtomicBoolean _resizing = new AtomicBoolean();
+    private volatile AtomicReferenceArray<IHashEntry<K, V>> _table;
+    private volatile long _threshold;
+
+    private transient Set<K> _keySet;
+    private transient Set<Map.Entry<K, V>> _entrySet;
+    private transient Collection<V> _values;
+
+    /**
+     * Creates a new, empty map.
+     *
+     * @param initialCapacity  the initial capacity. The implementation performs internal sizing to
+     *                         accommodate this many elements.
+     * @param loadFactor       the load factor threshold, used to control resizing.
+     * @param concurrencyLevel the estimated number of concurrently updating threads, used only as a
+     *                         sizing hint.
+     */
+    public LockFreeEconomyConcurrentHashMap(int initialCapacity, float loadFactor, int concurrencyLevel,
+                                            IHashEntryHandler<K, V> handler) {
+        if (!(loadFactor > 0) || initialCapacity < 0 || concurrencyLevel <= 0)
+            throw new IllegalArgumentException();
+
+        _handler = handler;
+        _loadFactor = loadFactor;
+        int c = Math.min(Math.max(initialCapacity, concurrencyLevel), MAXIMUM_CAPACITY);
+        int cap = 1;
+        while (cap < c)
+            cap <<= 1;
+        setTable(new AtomicReferenceArray<IHashEntry<K, V>>(cap));
+    }
+
+    public LockFreeEconomyConcurrentHashMap(IHashEntryHandler<K, V> handler) {
+        this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR, 1, handler);
+    }
+
+    private void setTable(AtomicReferenceArray<IHashEntry<K, V>> table) {
+        _threshold = (long) (table.length() * _loadFactor);
+        _table = table;
+    }
+
+    private static int hash(Object key) {
+        return EconomyConcurrentHashMap.hash(key.hashCode());
+    }
+
+    private boolean matches(IHashEntry<K, V> e, Object key, int hash) {
+        return _handler.hash(e) == hash && key.equals(_handler.key(e));
+    }
+
+    private static boolean isPinned(IHashEntry<?, ?> e) {
+        return e.isNativeHashEntry() && ((EconomyConcurrentHashMap.HashEntry<?, ?>) e).isPinnedHashEntry();
+    }
+
+    /**
+     * Clones the bin prefix up to (not including) the given entry on top of the given tail.
+     */
+    private IHashEntry<K, V> clonePrefix(IHashEntry<K, V> first, IHashEntry<K, V> e, IHashEntry<K, V> tail) {
+        for (IHashEntry<K, V> p = first; p != e; p = _handler.next(p))
+            tail = _handler.cloneEntry(p, tail);
+        return tail;
+    }
+
+    /* ---------------- Map operations -------------- */
+
+    @Override
+    public V get(Object key) {
+        int hash = hash(key);
+        AtomicReferenceArray<IHashEntry<K, V>> tab = _table;
+        for (; ; ) {
+            IHashEntry<K, V> e = tab.get(hash & (tab.length() - 1));
+            if (e instanceof ForwardingNode) {
+                tab = ((ForwardingNode<K, V>) e)._nextTable;
+                continue;
+            }
+            for (; e != null; e = _handler.next(e)) {
+                if (matches(e, key, hash))
+                    return _handler.value(e);
+            }
+            return null;
+        }
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        if (value == null)
+            throw new NullPointerException();
+        for (Iterator<V> iter = new ValueIterator(); iter.hasNext(); ) {
+            if (value.equals(iter.next()))
+                return true;
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        long sum = _count.sum();
+        return sum < 0 ? 0 : sum > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) sum;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return _count.sum() <= 0;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        throw new RuntimeException("Only put ifAbsent is supported");
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return putIfAbsent(key, value, false /*unstableKey*/);
+    }
+
+    /**
+     * same as putIfAbsent, but key is unstable in the hosting object, so create an pinnedhashentry
+     */
+    @Override
+    public V putIfAbsent(K key, V value, boolean unstableKey) {
+        if (value == null)
+            throw new NullPointerException();
+        int hash = hash(key);
+        AtomicReferenceArray<IHashEntry<K, V>> tab = _table;
+        for (; ; ) {
+            int index = hash & (tab.length() - 1);
+            IHashEntry<K, V> first = tab.get(index);
+            if (first instanceof ForwardingNode) {
+                tab = ((ForwardingNode<K, V>) first)._nextTable;
+                continue;
+            }
+            for (IHashEntry<K, V> e = first; e != null; e = _handler.next(e)) {
+                if (matches(e, key, hash))
+                    return _handler.value(e);
+            }
+            if (tab.compareAndSet(index, first, _handler.createEntry(key, value, first, hash, unstableKey)))
+                break;
+        }
+        _count.increment();
+        if (_count.sum() > _threshold)
+            resize();
+        return null;
+    }
+
+    @Override
+    public V remove(Object key) {
+        return remove(key, hash(key), null);
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        if (value == null)
+            return false;
+        return remove(key, hash(key), value) != null;
+    }
+
+    /**
+     * Remove; match on key only if value null, else match both.
+     */
+    private V remove(Object key, int hash, Object value) {
+        AtomicReferenceArray<IHashEntry<K, V>> tab = _table;
+        for (; ; ) {
+            int index = hash & (tab.length() - 1);
+            IHashEntry<K, V> first = tab.get(index);
+            if (first instanceof ForwardingNode) {
+                tab = ((ForwardingNode<K, V>) first)._nextTable;
+                continue;
+            }
+            IHashEntry<K, V> e = first;
+            while (e != null && !matches(e, key, hash))
+                e = _handler.next(e);
+            if (e == null)
+                return null;
+            V v = _handler.value(e);
+            if (value != null && !value.equals(v))
+                return null;
+            // All entries following removed node can stay in list, but all preceding ones need to be cloned.
+            if (tab.compareAndSet(index, first, clonePrefix(first, e, _handler.next(e)))) {
+                _count.decrement();
+                return v;
+            }
+        }
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        if (oldValue == null || newValue == null)
+            throw new NullPointerException();
+        return replace(key, hash(key), oldValue, newValue) != null;
+    }
+
+    @Override
+    public V replace(K key, V value) {
+        if (value == null)
+            throw new NullPointerException();
+        return replace(key, hash(key), null, value);
+    }
+
+    /**
+     * Replace; match on key only if oldValue null, else match both.
+     */
+    private V replace(K key, int hash, V oldValue, V newValue) {
+        AtomicReferenceArray<IHashEntry<K, V>> tab = _table;
+        for (; ; ) {
+            int index = hash & (tab.length() - 1);
+            IHashEntry<K, V> first = tab.get(index);
+            if (first instanceof ForwardingNode) {
+                tab = ((ForwardingNode<K, V>) first)._nextTable;
+                continue;
+            }
+            IHashEntry<K, V> e = first;
+            while (e != null && !matches(e, key, hash))
+                e = _handler.next(e);
+            if (e == null)
+                return null;
+            V v = _handler.value(e);
+            if (oldValue != null && !oldValue.equals(v))
+                return null;
+            // native entries are replaced as is, so a pinned entry stays pinned
+            IHashEntry<K, V> newNode;
+            if (isPinned(e))
+                newNode = new EconomyConcurrentHashMap.PinnedHashEntry<K, V>(_handler.key(e), hash, _handler.next(e), newValue);
+            else if (e.isNativeHashEntry())
+                newNode = new EconomyConcurrentHashMap.HashEntry<K, V>(_handler.key(e), hash, _handler.next(e), newValue);
+            else
+                newNode = _handler.createEntry(key, newValue, _handler.next(e), hash);
+            if (tab.compareAndSet(index, first, clonePrefix(first, e, newNode)))
+                return v;
+        }
+    }
+
+    /**
+     * key may be replaced in hosting (value) object w/o calling the map prevent inconsistent
+     * situations
+     */
+    @Override
+    public void setKeyUnstable(K key) {
+        int hash = hash(key);
+        AtomicReferenceArray<IHashEntry<K, V>> tab = _table;
+        for (; ; ) {
+            int index = hash & (tab.length() - 1);
+            IHashEntry<K, V> first = tab.get(index);
+            if (first instanceof ForwardingNode) {
+                tab = ((ForwardingNode<K, V>) first)._nextTable;
+                continue;
+            }
+            IHashEntry<K, V> e = first;
+            while (e != null && !matches(e, key, hash))
+                e = _handler.next(e);
+            if (e == null)
+                throw new RuntimeException("setKeyUnstable: key not found " + key);
+            if (isPinned(e))
+                return;
+            IHashEntry<K, V> newNode = _handler.cloneEntry(e, _handler.next(e), true /*unstableKey*/);
+            if (tab.compareAndSet(index, first, clonePrefix(first, e, newNode)))
+                return;
+        }
+    }
+
+    @Override
+    public void clear() {
+        AtomicReferenceArray<IHashEntry<K, V>> tab = _table;
+        clear(tab, 0, 1, tab.length());
+    }
+
+    private void clear(AtomicReferenceArray<IHashEntry<K, V>> tab, int index, int stride, int bins) {
+        for (int i = 0; i < bins; i++, index += stride) {
+            for (; ; ) {
+                IHashEntry<K, V> first = tab.get(index);
+                if (first == null)
+                    break;
+                if (first instanceof ForwardingNode) {
+                    // a moved bin is split between index and index + length in the next table
+                    clear(((ForwardingNode<K, V>) first)._nextTable, index, tab.length(), 2);
+                    break;
+                }
+                if (tab.compareAndSet(index, first, null)) {
+                    int removed = 0;
+                    for (IHashEntry<K, V> e = first; e != null; e = _handler.next(e))
+                        removed++;
+                    _count.add(-removed);
+                    break;
+                }
+            }
+        }
+    }
+
+    /* ---------------- Resizing -------------- */
+
+    /**
+     * Doubles the table while it is above the threshold. Only a single thread resizes the table,
+     * other threads keep updating the bins which were not moved yet in the current table and the
+     * moved bins in the next table.
+     */
+    private void resize() {
+        if (!_resizing.compareAndSet(false, true))
+            return;
+        try {
+            for (; ; ) {
+                AtomicReferenceArray<IHashEntry<K, V>> tab = _table;
+                int n = tab.length();
+                if (n >= MAXIMUM_CAPACITY || _count.sum() <= _threshold)
+                    return;
+                AtomicReferenceArray<IHashEntry<K, V>> nextTab = new AtomicReferenceArray<IHashEntry<K, V>>(n << 1);
+                ForwardingNode<K, V> forwardingNode = new ForwardingNode<K, V>(nextTab);
+                for (int i = 0; i < n; i++)
+                    transfer(tab, nextTab, i, forwardingNode);
+                setTable(nextTab);
+            }
+        } finally {
+            _resizing.set(false);
+        }
+    }
+
+    /**
+     * Splits the bin into the two bins of the next table, and replaces it with the forwarding
+     * node. The bins of the next table are not reachable until the bin is forwarded, so if the bin
+     * is modified meanwhile it is simply split again.
+     */
+    private void transfer(AtomicReferenceArray<IHashEntry<K, V>> tab, AtomicReferenceArray<IHashEntry<K, V>> nextTab,
+                          int index, ForwardingNode<K, V> forwardingNode) {
+        int sizeMask = nextTab.length() - 1;
+        for (; ; ) {
+            IHashEntry<K, V> first = tab.get(index);
+            IHashEntry<K, V> low = null;
+            IHashEntry<K, V> high = null;
+            if (first != null) {
+                // Reuse trailing consecutive sequence at same slot
+                IHashEntry<K, V> lastRun = first;
+                int lastIdx = _handler.hash(first) & sizeMask;
+                for (IHashEntry<K, V> last = _handler.next(first); last != null; last = _handler.next(last)) {
+                    int k = _handler.hash(last) & sizeMask;
+                    if (k != lastIdx) {
+                        lastIdx = k;
+                        lastRun = last;
+                    }
+                }
+                if (lastIdx == index)
+                    low = lastRun;
+                else
+                    high = lastRun;
+                // Clone all remaining nodes
+                for (IHashEntry<K, V> p = first; p != lastRun; p = _handler.next(p)) {
+                    if ((_handler.hash(p) & sizeMask) == index)
+                        low = _handler.cloneEntry(p, low);
+                    else
+                        high = _handler.cloneEntry(p, high);
+                }
+            }
+            nextTab.set(index, low);
+            nextTab.set(index + tab.length(), high);
+            if (tab.compareAndSet(index, first, forwardingNode))
+                return;
+        }
+    }
+
+    /**
+     * Placed at the head of a bin which was moved to the next table during resize.
+     */
+    private static final class ForwardingNode<K, V> extends EconomyConcurrentHashMap.HashEntry<K, V> {
+        private final AtomicReferenceArray<IHashEntry<K, V>> _nextTable;
+
+        private ForwardingNode(AtomicReferenceArray<IHashEntry<K, V>> nextTable) {
+            super(null, 0, null, null);
+            this._nextTable = nextTable;
+        }
+    }
+
+    /* ---------------- Views -------------- */
+
+    @Override
+    public Set<K> keySet() {
+        Set<K> ks = _keySet;
+        return (ks != null) ? ks : (_keySet = new KeySet());
+    }
+
+    @Override
+    public Collection<V> values() {
+        Collection<V> vs = _values;
+        return (vs != null) ? vs : (_values = new Values());
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        Set<Map.Entry<K, V>> es = _entrySet;
+        return (es != null) ? es : (_entrySet = new EntrySet());
+    }
+
+    /**
+     * A range of bins to traverse - when a forwarding node is met the two bins it was split to are
+     * traversed in the next table before resuming.
+     */
+    private static final class TraversalFrame<K, V> {
+        private final AtomicReferenceArray<IHashEntry<K, V>> _table;
+        private final int _stride;
+        private final TraversalFrame<K, V> _parent;
+        private int _index;
+        private int _remaining;
+
+        private TraversalFrame(AtomicReferenceArray<IHashEntry<K, V>> table, int index, int stride, int bins, TraversalFrame<K, V> parent) {
+            this._table = table;
+            this._index = index;
+            this._stride = stride;
+            this._remaining = bins;
+            this._parent = parent;
+        }
+    }
+
+    /**
+     * Weakly consistent iterator, which never throws ConcurrentModificationException.
+     */
+    class HashIterator {
+        private TraversalFrame<K, V> _frame;
+        private IHashEntry<K, V> _nextEntry;
+        private IHashEntry<K, V> _lastReturned;
+
+        HashIterator() {
+            AtomicReferenceArray<IHashEntry<K, V>> tab = _table;
+            _frame = new TraversalFrame<K, V>(tab, 0, 1, tab.length(), null);
+            advance();
+        }
+
+        private void advance() {
+            if (_nextEntry != null && (_nextEntry = _handler.next(_nextEntry)) != null)
+                return;
+            while (_frame != null) {
+                TraversalFrame<K, V> frame = _frame;
+                if (frame._remaining == 0) {
+                    _frame = frame._parent;
+                    continue;
+                }
+                int index = frame._index;
+                IHashEntry<K, V> e = frame._table.get(index);
+                frame._index += frame._stride;
+                frame._remaining--;
+                if (e instanceof ForwardingNode) {
+                    _frame = new TraversalFrame<K, V>(((ForwardingNode<K, V>) e)._nextTable, index, frame._table.length(), 2, frame);
+                } else if (e != null) {
+                    _nextEntry = e;
+                    return;
+                }
+            }
+        }
+
+        public boolean hasNext() {
+            return _nextEntry != null;
+        }
+
+        IHashEntry<K, V> nextEntry() {
+            if (_nextEntry == null)
+                throw new NoSuchElementException();
+            _lastReturned = _nextEntry;
+            advance();
+            return _lastReturned;
+        }
+
+        public void remove() {
+            if (_lastReturned == null)
+                throw new IllegalStateException();
+            LockFreeEconomyConcurrentHashMap.this.remove(_handler.key(_lastReturned));
+            _lastReturned = null;
+        }
+    }
+
+    final class KeyIterator extends HashIterator implements Iterator<K> {
+        public K next() {
+            return _handler.key(nextEntry());
+        }
+    }
+
+    final class ValueIterator extends HashIterator implements Iterator<V> {
+        public V next() {
+            return _handler.value(nextEntry());
+        }
+    }
+
+    final class EntryIterator extends HashIterator implements Iterator<Map.Entry<K, V>> {
+        public Map.Entry<K, V> next() {
+            IHashEntry<K, V> e = nextEntry();
+            return new java.util.AbstractMap.SimpleImmutableEntry<K, V>(_handler.key(e), _handler.value(e));
+        }
+    }
+
+    final class KeySet extends AbstractSet<K> {
+        public Iterator<K> iterator() {
+            return new KeyIterator();
+        }
+
+        public int size() {
+            return LockFreeEconomyConcurrentHashMap.this.size();
+        }
+
+        public boolean contains(Object o) {
+            return LockFreeEconomyConcurrentHashMap.this.containsKey(o);
+        }
+
+        public boolean remove(Object o) {
+            return LockFreeEconomyConcurrentHashMap.this.remove(o) != null;
+        }
+
+        public void clear() {
+            LockFreeEconomyConcurrentHashMap.this.clear();
+        }
+    }
+
+    final class Values extends AbstractCollection<V> {
+        public Iterator<V> iterator() {
+            return new ValueIterator();
+        }
+
+        public int size() {
+            return LockFreeEconomyConcurrentHashMap.this.size();
+        }
+
+        public boolean contains(Object o) {
+            return LockFreeEconomyConcurrentHashMap.this.containsValue(o);
+        }
+
+        public void clear() {
+            LockFreeEconomyConcurrentHashMap.this.clear();
+        }
+    }
+
+    final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            V v = LockFreeEconomyConcurrentHashMap.this.get(e.getKey());
+            return v != null && v.equals(e.getValue());
+        }
+
+        public boolean remove(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            return LockFreeEconomyConcurrentHashMap.this.remove(e.getKey(), e.getValue());
+        }
+
+        public int size() {
+            return LockFreeEconomyConcurrentHashMap.this.size();
+        }
+
+        public void clear() {
+            LockFreeEconomyConcurrentHashMap.this.clear();
+        }
+    }
+}
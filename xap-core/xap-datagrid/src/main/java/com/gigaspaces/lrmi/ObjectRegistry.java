@@ -16,6 +16,9 @@
 
 package com.gigaspaces.lrmi;
 
+import com.gigaspaces.internal.collections.CollectionsFactory;
+import com.gigaspaces.internal.collections.ConcurrentLongObjectMap;
+
 import java.rmi.NoSuchObjectException;
 import java.rmi.Remote;
 import java.util.ArrayList;
@@ -106,11 +109,11 @@ public class ObjectRegistry {
     }
 
     final private ConcurrentHashMap<Remote, Entry> _objMap;    // maps remote objects to registry entries.
-    final private ConcurrentHashMap<Long, Entry> _objIdMap;  // maps IDs of remote objects to registry entries.
+    final private ConcurrentLongObjectMap<Entry> _objIdMap;  // maps IDs of remote objects to registry entries.
 
     public ObjectRegistry() {
         _objMap = new ConcurrentHashMap<Remote, Entry>();
-        _objIdMap = new ConcurrentHashMap<Long, Entry>();
+        _objIdMap = CollectionsFactory.getInstance().createConcurrentLongObjectMap();
     }
 
     /**
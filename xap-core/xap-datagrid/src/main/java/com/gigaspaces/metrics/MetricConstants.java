@@ -29,4 +29,5 @@ public interface MetricConstants {
     String CONNECTIONS_METRIC_NAME = "connections";
     String ACTIVE_CONNECTIONS_METRIC_NAME = "active-connections";
     String CACHE_SIZE = "cache-size";
+    String QUERY_CACHE_METRIC_NAME = "query-cache";
 }
\ No newline at end of file
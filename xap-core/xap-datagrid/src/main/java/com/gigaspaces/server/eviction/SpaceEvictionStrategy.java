@@ -19,6 +19,7 @@ package com.gigaspaces.server.eviction;
 
 import com.gigaspaces.internal.server.space.eviction.AllInCacheSpaceEvictionStrategy;
 import com.gigaspaces.internal.server.space.eviction.ConcurrentLruSpaceEvictionStrategy;
+import com.gigaspaces.internal.server.space.eviction.TinyLfuSpaceEvictionStrategy;
 
 /**
  * Base class for space eviction strategy implementations. When the space memory manager detects
@@ -28,6 +29,7 @@ import com.gigaspaces.internal.server.space.eviction.ConcurrentLruSpaceEvictionS
  * @author Yechiel Feffer
  * @see AllInCacheSpaceEvictionStrategy
  * @see ConcurrentLruSpaceEvictionStrategy
+ * @see TinyLfuSpaceEvictionStrategy
  * @since 9.1
  */
 
@@ -103,6 +103,18 @@ public interface Constants {
         String MIRROR_DISTRIBUTED_TRANSACTION_WAIT_FOR_OPERATIONS = MIRROR_DISTRIBUTED_TRANSACTION_PROCESSING_PARAMETERS + "wait-for-operations";
         String FULL_MIRROR_DISTRIBUTED_TRANSACTION_WAIT_FOR_OPERATIONS = SPACE_CONFIG_PREFIX + MIRROR_DISTRIBUTED_TRANSACTION_WAIT_FOR_OPERATIONS;
         String MIRROR_DISTRIBUTED_TRANSACTION_MONITOR_PENDING_OPERATIONS_MEMORY = MIRROR_DISTRIBUTED_TRANSACTION_PROCESSING_PARAMETERS + "monitor-pending-operations-memory";
+
+        /**
+         * Max number of per type sub batches of a non transactional batch which are executed
+         * concurrently against the synchronization endpoint, 1 executes batches as a whole. When
+         * greater than 1, onOperationsBatchSynchronization and afterOperationsBatchSynchronization
+         * are invoked once per type sub batch rather than once per batch. A batch completes when
+         * its slowest sub batch completes. When a sub batch fails the batch is retried, and the sub
+         * batches which completed are not executed again unless the mirror restarted meanwhile.
+         */
+        String MIRROR_SERVICE_BULK_CONCURRENCY = MIRROR_SERVICE_PREFIX + "bulk-concurrency";
+        String FULL_MIRROR_SERVICE_BULK_CONCURRENCY = SPACE_CONFIG_PREFIX + MIRROR_SERVICE_BULK_CONCURRENCY;
+        String MIRROR_SERVICE_BULK_CONCURRENCY_DEFAULT = "1";
     }
 
     public interface Space {
@@ -425,6 +437,37 @@ public interface Constants {
         String ENGINE_DEMOTE_COMPLETION_EVENT_TIMEOUT = "engine.demote.completion-event-timeout";
         String ENGINE_DEMOTE_COMPLETION_EVENT_TIMEOUT_DEFAULT = "5s";
 
+        /**
+         * Number of lanes remote space tasks are executed on, tasks with the same routing are
+         * executed serially on the same lane. 0 executes tasks on the invoking thread.
+         */
+        String ENGINE_TASK_LANES_PROP = "engine.task.lanes";
+        String ENGINE_TASK_LANES_DEFAULT = "0";
+        String FULL_ENGINE_TASK_LANES_PROP = SPACE_CONFIG_PREFIX + ENGINE_TASK_LANES_PROP;
+        String ENGINE_TASK_LANE_CAPACITY_PROP = "engine.task.lane-capacity";
+        String ENGINE_TASK_LANE_CAPACITY_DEFAULT = "1000";
+        String ENGINE_TASK_LONG_THRESHOLD_PROP = "engine.task.long-threshold";
+        String ENGINE_TASK_LONG_THRESHOLD_DEFAULT = "10ms";
+
+        /**
+         * Whether reads by id which are not under a transaction are served directly from the id
+         * index without locking, in an all in cache space.
+         */
+        String ENGINE_DIRECT_READ_BY_ID_PROP = "engine.direct_read_by_id";
+        String ENGINE_DIRECT_READ_BY_ID_DEFAULT = "false";
+
+        /**
+         * Interval of local checkpoints of an all in cache memory space, 0 disables checkpoints. A
+         * space which is started with no other member to recover from loads its last checkpoint.
+         */
+        String ENGINE_CHECKPOINT_INTERVAL_PROP = "engine.checkpoint.interval";
+        String ENGINE_CHECKPOINT_INTERVAL_DEFAULT = "0";
+        /**
+         * Directory of local checkpoints, the work directory is used if not set.
+         */
+        String ENGINE_CHECKPOINT_DIR_PROP = "engine.checkpoint.dir";
+        String ENGINE_CHECKPOINT_DIR_DEFAULT = "";
+
 
 
     }
@@ -727,6 +770,27 @@ public interface Constants {
          * touching is performed. 0 means always touch, 100 means no touch at all
          */
         String CACHE_MANAGER_LRU_TOUCH_THRESHOLD_DEFAULT = "50";
+
+        /**
+         * the algorithm used to select eviction candidates when running in LRU cache policy.
+         * "lru" (default) uses {@link com.gigaspaces.internal.server.space.eviction.ConcurrentLruSpaceEvictionStrategy},
+         * "tinylfu" uses the frequency aware & scan resistant {@link com.gigaspaces.internal.server.space.eviction.TinyLfuSpaceEvictionStrategy}
+         */
+        String CACHE_MANAGER_LRU_ALGORITHM_PROP = "engine.lru_algorithm";
+        String FULL_CACHE_MANAGER_LRU_ALGORITHM_PROP = SPACE_CONFIG_PREFIX + CACHE_MANAGER_LRU_ALGORITHM_PROP;
+        String CACHE_MANAGER_LRU_ALGORITHM_LRU = "lru";
+        String CACHE_MANAGER_LRU_ALGORITHM_TINY_LFU = "tinylfu";
+        String CACHE_MANAGER_LRU_ALGORITHM_DEFAULT = CACHE_MANAGER_LRU_ALGORITHM_LRU;
+
+        /**
+         * enables snapshot (multi version) reads of read multiple & aggregate operations which use
+         * the {@link com.gigaspaces.client.ReadModifiers#SNAPSHOT_READ} modifier. supported only in
+         * ALL_IN_CACHE cache policy without blob store
+         */
+        String CACHE_MANAGER_SNAPSHOT_READS_ENABLED_PROP = "engine.snapshot_reads_enabled";
+        String FULL_CACHE_MANAGER_SNAPSHOT_READS_ENABLED_PROP = SPACE_CONFIG_PREFIX + CACHE_MANAGER_SNAPSHOT_READS_ENABLED_PROP;
+        String CACHE_MANAGER_SNAPSHOT_READS_ENABLED_DEFAULT = "false";
+
         /**
          * size of evictable locks table
          */
@@ -737,10 +801,29 @@ public interface Constants {
          */
         String CACHE_MANAGER_EVICTABLE_LOCKS_SIZE_DEFAULT = "2000";
 
+        /**
+         * size of the striped entry locks table of all-in-cache spaces, 0 to lock entries by
+         * themselves
+         */
+        String CACHE_MANAGER_STRIPED_ENTRY_LOCKS_SIZE_PROP = "engine.StripedEntryLocksSize";
+
+        /**
+         * default size of the striped entry locks table
+         */
+        String CACHE_MANAGER_STRIPED_ENTRY_LOCKS_SIZE_DEFAULT = "0";
+
         String CACHE_MANAGER_USE_ECONOMY_HASHMAP_PROP = "engine.use_economy_hashmap";
 
         String CACHE_MANAGER_USE_ECONOMY_HASHMAP_DEFAULT = "false";
 
+        /**
+         * when economy hashmaps are used, use the lock free variant for the index value stores
+         * instead of the segment locked map
+         */
+        String CACHE_MANAGER_USE_LOCK_FREE_ECONOMY_HASHMAP_PROP = "engine.use_lock_free_economy_hashmap";
+
+        String CACHE_MANAGER_USE_LOCK_FREE_ECONOMY_HASHMAP_DEFAULT = "false";
+
         String CACHE_MANAGER_PARTIAL_UPDATE_REPLICATION_PROP = "engine.partial_update_replication";
 
         String CACHE_MANAGER_PARTIAL_UPDATE_REPLICATION_DEFAULT = "true";
@@ -859,6 +942,20 @@ public interface Constants {
             long ACTIVE_SERVER_LOOKUP_SAMPLING_INTERVAL_DEFAULT = 100;
             String THREAD_POOL_SIZE = PREFIX + "threadpool-size";
             String LOAD_BALANCER_TYPE = PREFIX + "load-balancer-type";
+            String BATCHING_ENABLED = PREFIX + "batching.enabled";
+            boolean BATCHING_ENABLED_DEFAULT = false;
+            String BATCHING_MAX_SIZE = PREFIX + "batching.max-size";
+            int BATCHING_MAX_SIZE_DEFAULT = 64;
+            String BATCHING_WINDOW_MICROS = PREFIX + "batching.window-micros";
+            long BATCHING_WINDOW_MICROS_DEFAULT = 100;
+            String BACKUP_READS_MAX_STALENESS = PREFIX + "backup-reads.max-staleness";
+            long BACKUP_READS_MAX_STALENESS_DEFAULT = 0;
+            String BACKUP_READS_HEDGE = PREFIX + "backup-reads.hedge";
+            boolean BACKUP_READS_HEDGE_DEFAULT = true;
+            String BACKUP_READS_HEDGE_PERCENTILE = PREFIX + "backup-reads.hedge.percentile";
+            int BACKUP_READS_HEDGE_PERCENTILE_DEFAULT = 95;
+            String BACKUP_READS_HEDGE_MIN_DELAY_MICROS = PREFIX + "backup-reads.hedge.min-delay-micros";
+            long BACKUP_READS_HEDGE_MIN_DELAY_MICROS_DEFAULT = 1000;
         }
 
         public interface OldRouter {
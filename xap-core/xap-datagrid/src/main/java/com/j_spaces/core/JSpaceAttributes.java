@@ -86,6 +86,7 @@ import static com.j_spaces.core.Constants.Engine.ENGINE_MEMORY_USAGE_WR_ONLY_CHE
 import static com.j_spaces.core.Constants.Engine.ENGINE_MIN_THREADS_DEFAULT;
 import static com.j_spaces.core.Constants.Engine.ENGINE_NOTIFIER_RETRIES_DEFAULT;
 import static com.j_spaces.core.Constants.Engine.ENGINE_SERIALIZATION_TYPE_DEFAULT;
+import static com.j_spaces.core.Constants.Engine.ENGINE_TASK_LANES_DEFAULT;
 import static com.j_spaces.core.Constants.Engine.FULL_ENGINE_MAX_THREADS_PROP;
 import static com.j_spaces.core.Constants.Engine.FULL_ENGINE_MEMORY_EXPLICIT_GC_PROP;
 import static com.j_spaces.core.Constants.Engine.FULL_ENGINE_MEMORY_GC_BEFORE_MEMORY_SHORTAGE_PROP;
@@ -98,6 +99,7 @@ import static com.j_spaces.core.Constants.Engine.FULL_ENGINE_MEMORY_USAGE_WR_ONL
 import static com.j_spaces.core.Constants.Engine.FULL_ENGINE_MEMORY_USAGE_WR_ONLY_CHECK_PERCENTAGE_RATIO_PROP;
 import static com.j_spaces.core.Constants.Engine.FULL_ENGINE_MIN_THREADS_PROP;
 import static com.j_spaces.core.Constants.Engine.FULL_ENGINE_NOTIFIER_TTL_PROP;
+import static com.j_spaces.core.Constants.Engine.FULL_ENGINE_TASK_LANES_PROP;
 import static com.j_spaces.core.Constants.Engine.FULL_ENGINE_SERIALIZATION_TYPE_PROP;
 import static com.j_spaces.core.Constants.IS_SPACE_LOAD_ON_STARTUP;
 import static com.j_spaces.core.Constants.Jms.FULL_JMS_QUEUE_NAMES_PROP;
@@ -641,6 +643,18 @@ public class JSpaceAttributes
                 ENGINE_MIN_THREADS_DEFAULT);
     }
 
+    public void setEngineTaskLanes(int taskLanes) {
+        this.setProperty(FULL_ENGINE_TASK_LANES_PROP, String.valueOf(taskLanes));
+    }
+
+    /**
+     * @return number of lanes remote space tasks are executed on, 0 if they are executed on the
+     * invoking thread
+     */
+    public int getEngineTaskLanes() {
+        return Integer.parseInt(getProperty(FULL_ENGINE_TASK_LANES_PROP, ENGINE_TASK_LANES_DEFAULT));
+    }
+
     /**
      * @param dCacheConfigName
      */
@@ -43,6 +43,8 @@ public class SpaceContext implements Externalizable {
 
     //token which is used to verify that the client has permissions to perform operations in quiesce mode
     private QuiesceToken quiesceToken;
+    //max staleness (in millis) of a read served by a backup space, 0 if the read must be served by the primary
+    private long maxBackupStaleness;
 
     /**
      * Empty constructor for Externalizable impl.
@@ -65,6 +67,18 @@ public class SpaceContext implements Externalizable {
         return newContext;
     }
 
+    /**
+     * Creates a copy of this context which allows a read to be served by a backup space whose
+     * replication from the primary has progressed within the specified staleness.
+     */
+    public SpaceContext createBackupReadCopy(long maxBackupStaleness) {
+        SpaceContext newContext = new SpaceContext(fromGateway, chunksMapGeneration);
+        newContext.securityContext = securityContext;
+        newContext.quiesceToken = quiesceToken;
+        newContext.maxBackupStaleness = maxBackupStaleness;
+        return newContext;
+    }
+
     public SecurityContext getSecurityContext() {
         return securityContext;
     }
@@ -77,9 +91,14 @@ public class SpaceContext implements Externalizable {
         return fromGateway;
     }
 
+    public long getMaxBackupStaleness() {
+        return maxBackupStaleness;
+    }
+
     private static final short FLAG_SECURITY = 1 << 0;
     private static final short FLAG_FROM_GATEWAY = 1 << 1;
     private static final short FLAG_QUIESCE_TOKEN = 1 << 2;
+    private static final short FLAG_BACKUP_READ = 1 << 3;
 
     public void writeExternal(ObjectOutput out) throws IOException {
         PlatformLogicalVersion version = LRMIInvocationContext.getEndpointLogicalVersion();
@@ -101,6 +120,8 @@ public class SpaceContext implements Externalizable {
         if (quiesceToken != null)
             IOUtils.writeObject(out, quiesceToken);
         out.writeShort(((short) this.chunksMapGeneration));
+        if (maxBackupStaleness != 0)
+            out.writeLong(maxBackupStaleness);
     }
 
     private void writeExternalV10_1_0(ObjectOutput out) throws IOException {
@@ -140,6 +161,8 @@ public class SpaceContext implements Externalizable {
             flags |= FLAG_FROM_GATEWAY;
         if (quiesceToken != null)
             flags |= FLAG_QUIESCE_TOKEN;
+        if (maxBackupStaleness != 0)
+            flags |= FLAG_BACKUP_READ;
 
         return flags;
     }
@@ -167,6 +190,9 @@ public class SpaceContext implements Externalizable {
             quiesceToken = IOUtils.readObject(in);
 
         this.chunksMapGeneration = ((int) in.readShort());
+
+        if ((flags & FLAG_BACKUP_READ) != 0)
+            maxBackupStaleness = in.readLong();
     }
 
     private void readExternalV10_1_0(ObjectInput in) throws IOException, ClassNotFoundException {
@@ -17,6 +17,7 @@
 
 package com.j_spaces.core;
 
+import com.gigaspaces.internal.server.space.mvcc.SnapshotReadsManager;
 import com.gigaspaces.internal.server.storage.IEntryHolder;
 import com.j_spaces.core.cache.CacheManager;
 import com.j_spaces.core.cache.IEntryCacheInfo;
@@ -34,6 +35,10 @@ public class XtnEntry extends XtnInfo {
     public final transient XtnData _xtnData;
     private final transient FifoBackgroundRequest.AllowFifoNotificationsForNonFifoType _allowFifoNotificationsForNonFifoType;
     private final transient boolean _createdOnNonBackup;
+    //pending commit of the transaction changes for snapshot reads
+    private transient boolean _snapshotCommitPending;
+    private transient int _snapshotWriteToken;
+    private transient SnapshotReadsManager.CommitStamp _snapshotCommitStamp;
 
     /**
      * Constructs a new Xtn Entry.
@@ -118,4 +123,27 @@ public class XtnEntry extends XtnInfo {
     {
         return _createdOnNonBackup;
     }
+
+    public boolean isSnapshotCommitPending() {
+        return _snapshotCommitPending;
+    }
+
+    public int getSnapshotWriteToken() {
+        return _snapshotWriteToken;
+    }
+
+    public SnapshotReadsManager.CommitStamp getSnapshotCommitStamp() {
+        return _snapshotCommitStamp;
+    }
+
+    public void setSnapshotCommit(int writeToken, SnapshotReadsManager.CommitStamp stamp) {
+        _snapshotCommitPending = true;
+        _snapshotWriteToken = writeToken;
+        _snapshotCommitStamp = stamp;
+    }
+
+    public void resetSnapshotCommit() {
+        _snapshotCommitPending = false;
+        _snapshotCommitStamp = null;
+    }
 }
@@ -27,16 +27,23 @@ import java.util.Set;
 
 @com.gigaspaces.api.InternalApi
 public class CacheContextFactory {
+    /**
+     * max number of nested contexts kept per thread, deeper nesting allocates contexts on demand
+     */
+    static final int MAX_NESTED_CONTEXTS = 4;
+
     private final String _fullSpaceName;
     private final Set<Context> _createdContexts;
     private volatile boolean _isClosed;
 
-    private final ThreadLocal<Context> _context = new ThreadLocal<Context>() {
+    // the first context is the thread main context, the rest are created on demand for nested operations
+    private final ThreadLocal<Context[]> _contexts = new ThreadLocal<Context[]>() {
         @Override
-        protected Context initialValue() {
-            Context context = new Context();
-            _createdContexts.add(context);
-            return context;
+        protected Context[] initialValue() {
+            Context[] contexts = new Context[1 + MAX_NESTED_CONTEXTS];
+            contexts[0] = new Context();
+            _createdContexts.add(contexts[0]);
+            return contexts;
         }
     };
 
@@ -55,12 +62,13 @@ public class CacheContextFactory {
         if (_isClosed)    //closeAllContext called
             throw new ClosedResourceException("Space [" + _fullSpaceName + "] is not available. Internal resources are being closed.");
 
-        Context context = _context.get();
+        Context[] contexts = _contexts.get();
+        Context context = contexts[0];
         if (context.isLocalActive()) // this thread already has an active context --> need another one.
         {
             // no need to save in the _createdContexts
             // since we assume the other context will be released after this one.
-            context = new Context();
+            context = getNestedCacheContext(contexts);
         }
 
         context.setActive(true);
@@ -78,14 +86,25 @@ public class CacheContextFactory {
         if (_isClosed)    //closeAllContext called
             return null;
 
-        Context context = _context.get();
+        Context context = _contexts.get()[0];
         return context.isLocalActive() ? context : null;
     }
 
+    private static Context getNestedCacheContext(Context[] contexts) {
+        for (int i = 1; i < contexts.length; i++) {
+            if (contexts[i] == null)
+                contexts[i] = new Context();
+            if (!contexts[i].isLocalActive())
+                return contexts[i];
+        }
+        return new Context();
+    }
+
 
     /**
      * Free a Context acquired by getCacheContext(). If Context was taken from the pool, it will be
      * returned to it. Otherwise, it was allocated on demand, and will be collected by the JVM GC.
+     * Nested contexts of a thread are pooled as well, so a freed context must not be used again.
      * Make sure to call this method from within a finally block to release any acquired Contexts.
      *
      * @param ctx A Context object in use, and to be freed.
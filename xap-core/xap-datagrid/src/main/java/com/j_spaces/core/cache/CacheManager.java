@@ -39,6 +39,8 @@ import com.gigaspaces.internal.server.space.SpaceEngine.EntryRemoveReasonCodes;
 import com.gigaspaces.internal.server.space.SpaceEngine.TemplateRemoveReasonCodes;
 import com.gigaspaces.internal.server.space.eviction.*;
 import com.gigaspaces.internal.server.space.metadata.IServerTypeDescListener;
+import com.gigaspaces.internal.server.space.chunks.ChunksMigrationSource;
+import com.gigaspaces.internal.server.space.mvcc.SnapshotReadsManager;
 import com.gigaspaces.internal.server.space.metadata.SpaceTypeManager;
 import com.gigaspaces.internal.server.space.metadata.TypeDataFactory;
 import com.gigaspaces.internal.server.space.operations.WriteEntryResult;
@@ -52,6 +54,7 @@ import com.gigaspaces.internal.transport.TemplatePacket;
 import com.gigaspaces.internal.utils.StringUtils;
 import com.gigaspaces.internal.utils.collections.economy.EconomyConcurrentHashMap;
 import com.gigaspaces.internal.utils.collections.economy.HashEntryHandlerSpaceEntry;
+import com.gigaspaces.internal.utils.concurrent.GSThreadFactory;
 import com.gigaspaces.management.space.LocalCacheDetails;
 import com.gigaspaces.metadata.SpaceMetadataException;
 import com.gigaspaces.metadata.index.CompoundIndex;
@@ -105,8 +108,15 @@ import net.jini.core.transaction.server.ServerTransaction;
 import net.jini.space.InternalSpaceException;
 
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.LongAdder;
 
@@ -181,6 +191,8 @@ public class CacheManager extends AbstractCacheManager
     private int _minExtendedIndexActivationSize;
 
     private IBasicLockManager<IEntryHolder> _lockManager;
+    // entries are locked by a striped locks table instead of by themselves
+    private boolean _stripedEntryLocks;
 
     private final AtomicInteger _actualCacheSize;
     private final boolean _isTimeBasedEvictionStrategy;
@@ -189,6 +201,10 @@ public class CacheManager extends AbstractCacheManager
 
     private SpaceEvictionStrategy _evictionStrategy;
 
+    //retains committed entry versions for snapshot reads, null if snapshot reads are disabled
+    private SnapshotReadsManager _snapshotReadsManager;
+    private ChunksMigrationSource _chunksMigrationSource;
+
     //for persistent evictable only - contains UIDs for entries recently deleted
     final private RecentDeletesRepository _recentDeletesRespository;
     //for persistent evictable only - contains UIDs for entries recently updated
@@ -196,6 +212,7 @@ public class CacheManager extends AbstractCacheManager
 
     final private long _recoveryLogInterval = Long.getLong(SystemProperties.CACHE_MANAGER_RECOVER_INTERVAL_LOG, SystemProperties.CACHE_MANAGER_RECOVER_INTERVAL_DEFAULT);
     final private boolean _logRecoveryProcess = Boolean.parseBoolean(System.getProperty(SystemProperties.CACHE_MANAGER_LOG_RECOVER_PROCESS, "true"));
+    final private int _initialLoadThreads = Integer.getInteger(SystemProperties.CACHE_MANAGER_INITIAL_LOAD_THREADS, Runtime.getRuntime().availableProcessors());
 
     private boolean _partialUpdateReplication;
 
@@ -467,7 +484,7 @@ public class CacheManager extends AbstractCacheManager
 
         //create the lock manager
         _lockManager = isBlobStoreCachePolicy() ? new BlobStoreLockManager() : ((isAllInCachePolicy() ?
-                new AllInCacheLockManager<IEntryHolder>() :
+                createAllInCacheLockManager(configReader) :
                 new BasicEvictableLockManager<IEntryHolder>(configReader)));
 
 		/* get min extd' index activation size  */
@@ -484,6 +501,39 @@ public class CacheManager extends AbstractCacheManager
                 CACHE_MANAGER_PARTIAL_UPDATE_REPLICATION_PROP,
                 CACHE_MANAGER_PARTIAL_UPDATE_REPLICATION_DEFAULT);
 
+        if (configReader.getBooleanSpaceProperty(CACHE_MANAGER_SNAPSHOT_READS_ENABLED_PROP, CACHE_MANAGER_SNAPSHOT_READS_ENABLED_DEFAULT)) {
+            if (!isAllInCachePolicy() || isBlobStoreCachePolicy() || _engine.isLocalCache())
+                throw new CreateException("Snapshot reads are supported only in ALL_IN_CACHE cache policy without blob store");
+            _snapshotReadsManager = new SnapshotReadsManager();
+        }
+
+        if (_engine.getClusterInfo().isChunksRouting() && isAllInCachePolicy() && !isBlobStoreCachePolicy() && !_engine.isLocalCache())
+            _chunksMigrationSource = new ChunksMigrationSource(this);
+    }
+
+    /**
+     * @return the snapshot reads manager, null if snapshot reads are disabled
+     */
+    public SnapshotReadsManager getSnapshotReadsManager() {
+        return _snapshotReadsManager;
+    }
+
+    /**
+     * @return the source side state of chunks migration, null if chunks migration is not supported
+     */
+    public ChunksMigrationSource getChunksMigrationSource() {
+        return _chunksMigrationSource;
+    }
+
+    private void onChunksMigrationEntryChanged(IEntryHolder entryHolder) {
+        if (_chunksMigrationSource != null)
+            _chunksMigrationSource.onEntryChanged(entryHolder);
+    }
+
+    private SnapshotReadsManager.CommitStamp recordSnapshotChange(IEntryHolder entryHolder, IEntryData prevData, boolean removed) {
+        SnapshotReadsManager.CommitStamp stamp = _snapshotReadsManager.newCommitStamp();
+        _snapshotReadsManager.recordChange(stamp, entryHolder.getUID(), entryHolder.getClassName(), entryHolder.isTransient(), prevData, removed);
+        return stamp;
     }
 
     public boolean isTimeBasedEvictionStrategy() {
@@ -704,7 +754,7 @@ public class CacheManager extends AbstractCacheManager
     }
 
     public boolean needReReadAfterEntryLock() {
-        return isEvictableCachePolicy() || isblobStoreDataSpace();
+        return isEvictableCachePolicy() || isblobStoreDataSpace() || _stripedEntryLocks;
     }
 
     public boolean mayNeedEntriesUnpinning() {
@@ -792,6 +842,15 @@ public class CacheManager extends AbstractCacheManager
         }
     }
 
+    private IBasicLockManager<IEntryHolder> createAllInCacheLockManager(SpaceConfigReader configReader) {
+        int stripedLocksSize = configReader.getIntSpaceProperty(
+                CACHE_MANAGER_STRIPED_ENTRY_LOCKS_SIZE_PROP, CACHE_MANAGER_STRIPED_ENTRY_LOCKS_SIZE_DEFAULT);
+        if (stripedLocksSize <= 0)
+            return new AllInCacheLockManager<IEntryHolder>();
+        _stripedEntryLocks = true;
+        return new StripedLockManager<IEntryHolder>(stripedLocksSize);
+    }
+
     private SpaceEvictionStrategy createEvictionStrategy(SpaceConfigReader configReader, Properties properties)
             throws CreateException {
         if (isAllInCachePolicy() || isBlobStoreCachePolicy())
@@ -800,6 +859,12 @@ public class CacheManager extends AbstractCacheManager
         if (getCachePolicy() == CACHE_POLICY_LRU) {
             int touchThreashold = configReader.getIntSpaceProperty(CACHE_MANAGER_LRU_TOUCH_THRESHOLD_PROP,
                     CACHE_MANAGER_LRU_TOUCH_THRESHOLD_DEFAULT);
+            String lruAlgorithm = configReader.getSpaceProperty(CACHE_MANAGER_LRU_ALGORITHM_PROP, CACHE_MANAGER_LRU_ALGORITHM_DEFAULT);
+            if (CACHE_MANAGER_LRU_ALGORITHM_TINY_LFU.equalsIgnoreCase(lruAlgorithm))
+                return new TinyLfuSpaceEvictionStrategy(touchThreashold, getMaxCacheSize());
+            if (!CACHE_MANAGER_LRU_ALGORITHM_LRU.equalsIgnoreCase(lruAlgorithm))
+                throw new CreateException("Invalid LRU algorithm specified [" + lruAlgorithm + "] - must be either " +
+                        CACHE_MANAGER_LRU_ALGORITHM_LRU + " or " + CACHE_MANAGER_LRU_ALGORITHM_TINY_LFU);
             return new ConcurrentLruSpaceEvictionStrategy(touchThreashold, getMaxCacheSize());
         }
 
@@ -939,7 +1004,8 @@ public class CacheManager extends AbstractCacheManager
                     "\tEntries inserted to space: " + initialLoadInfo.getInsertedToCache() + ".\n" +
                     "\tEntries ignored: " + (initialLoadInfo.getFoundInDatabase() - initialLoadInfo.getInsertedToCache()) + ".\n" +
                     formattedErrors +
-                    "\tTotal Time: " + JSpaceUtilities.formatMillis(SystemTime.timeMillis() - initialLoadInfo.getRecoveryStartTime()) + ".");
+                    "\tTotal Time: " + JSpaceUtilities.formatMillis(SystemTime.timeMillis() - initialLoadInfo.getRecoveryStartTime()) + ".\n" +
+                    "\tLoad rate: " + toEntriesPerSecond(initialLoadInfo.getInsertedToCache(), SystemTime.timeMillis() - initialLoadInfo.getRecoveryStartTime()) + " entries/sec.");
         }
         if (getBlobStoreInternalCache() != null) {
             if (getBlobStoreInternalCache().getBlobStoreInternalCacheFilter() != null) {
@@ -964,6 +1030,14 @@ public class CacheManager extends AbstractCacheManager
                 Long.MAX_VALUE /* expiration time*/,
                 isFifo);
 
+        if (!isBlobStoreCachePolicy()) {
+            final List<ISAdapterIterator<IEntryHolder>> streams = _storageAdapter.initialLoadStreams(context, th);
+            if (streams != null) {
+                residentEntriesStreamsInitialLoad(context, streams, initialLoadInfo);
+                return;
+            }
+        }
+
         ISAdapterIterator<IEntryHolder> entriesIterSA = null;
         try {
             context.setInInitialLoad(true);
@@ -1058,6 +1132,136 @@ public class CacheManager extends AbstractCacheManager
         }
     }
 
+    /**
+     * Loads the entries of several independent initial load streams, each stream is consumed by a
+     * single loader thread. A single stream is consumed by the calling thread.
+     */
+    private void residentEntriesStreamsInitialLoad(Context context, List<ISAdapterIterator<IEntryHolder>> streams, InitialLoadInfo initialLoadInfo)
+            throws SAException {
+        final InitialLoadStreamsProgress progress = new InitialLoadStreamsProgress();
+        final int numOfThreads = Math.max(1, Math.min(_initialLoadThreads, streams.size()));
+        try {
+            if (numOfThreads == 1) {
+                context.setInInitialLoad(true);
+                for (ISAdapterIterator<IEntryHolder> stream : streams)
+                    loadInitialLoadStream(context, stream, initialLoadInfo, progress, true /*logProgress*/);
+            } else {
+                if (_logger.isInfoEnabled())
+                    _logger.info("Loading " + streams.size() + " initial load streams using " + numOfThreads + " threads");
+                final ExecutorService executor = Executors.newFixedThreadPool(numOfThreads, new GSThreadFactory(_engine.getFullSpaceName() + "-initial-load", true));
+                try {
+                    final List<Future<?>> futures = new ArrayList<Future<?>>(streams.size());
+                    for (final ISAdapterIterator<IEntryHolder> stream : streams) {
+                        futures.add(executor.submit(new Callable<Object>() {
+                            @Override
+                            public Object call() throws Exception {
+                                Context streamContext = getCacheContext();
+                                try {
+                                    streamContext.setInInitialLoad(true);
+                                    loadInitialLoadStream(streamContext, stream, initialLoadInfo, progress, false /*logProgress*/);
+                                } finally {
+                                    streamContext.setInInitialLoad(false);
+                                    freeCacheContext(streamContext);
+                                }
+                                return null;
+                            }
+                        }));
+                    }
+                    awaitInitialLoadStreams(futures, initialLoadInfo, progress);
+                } finally {
+                    executor.shutdownNow();
+                }
+            }
+        } finally {
+            context.setInInitialLoad(false);
+            initialLoadInfo.setFoundInDatabase(initialLoadInfo.getFoundInDatabase() + progress.foundInDatabase.get());
+            initialLoadInfo.setInsertedToCache(initialLoadInfo.getInsertedToCache() + progress.insertedToCache.get());
+            for (ISAdapterIterator<IEntryHolder> stream : streams) {
+                try {
+                    stream.close();
+                } catch (SAException e) {
+                    _logger.warn("Failed to close initial load stream", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param logProgress true if the stream is consumed by the calling thread, loader threads leave
+     *                    the progress logging to the calling thread
+     */
+    private void loadInitialLoadStream(Context context, ISAdapterIterator<IEntryHolder> stream, InitialLoadInfo initialLoadInfo,
+                                       InitialLoadStreamsProgress progress, boolean logProgress)
+            throws SAException {
+        while (true) {
+            IEntryHolder eh = stream.next();
+            if (eh == null)
+                break;
+
+            progress.foundInDatabase.incrementAndGet();
+            //Verify that entry read
+            //from the DB belongs to this partition
+            if (_engine.isPartitionedSpace()) {
+                if (eh.getRoutingValue() == null) {
+                    addInitialLoadError(initialLoadInfo, "Object without routing  -  [" + eh.getClassName() + ":" + eh.getUID() + "]");
+                    continue;
+                }
+                if (!_engine.isEntryFromPartition(eh))
+                    continue;
+            }
+            // concurrent streams may still insert the same uid, which is detected by the insertion
+            IEntryCacheInfo pEntry = _entries.containsKey(eh.getUID()) ? null
+                    : safeInsertEntryToCache(context, eh, false /* newEntry */, null /*pType*/, false /*pin*/, InitialLoadOrigin.FROM_NON_BLOBSTORE /*fromInitialLoad*/);
+            if (pEntry == null || pEntry.getEntryHolder(this) != eh) {
+                addInitialLoadError(initialLoadInfo, "Object with duplicate uid -  [" + eh.getClassName() + ":" + eh.getUID() + "]");
+                continue;
+            }
+            final int insertedToCache = progress.insertedToCache.incrementAndGet();
+            if (logProgress)
+                initialLoadInfo.setLastLoggedTime(logInsertionIfNeeded(initialLoadInfo.getRecoveryStartTime(), initialLoadInfo.getLastLoggedTime(), initialLoadInfo.getInsertedToCache() + insertedToCache));
+        }
+    }
+
+    private void awaitInitialLoadStreams(List<Future<?>> futures, InitialLoadInfo initialLoadInfo, InitialLoadStreamsProgress progress)
+            throws SAException {
+        long lastLoggedTime = initialLoadInfo.getLastLoggedTime();
+        try {
+            for (Future<?> future : futures) {
+                while (true) {
+                    try {
+                        future.get(_recoveryLogInterval, TimeUnit.MILLISECONDS);
+                        break;
+                    } catch (TimeoutException e) {
+                        lastLoggedTime = logInsertionIfNeeded(initialLoadInfo.getRecoveryStartTime(), lastLoggedTime,
+                                initialLoadInfo.getInsertedToCache() + progress.insertedToCache.get());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SAException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SAException)
+                throw (SAException) e.getCause();
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new SAException(e.getCause());
+        } finally {
+            initialLoadInfo.setLastLoggedTime(lastLoggedTime);
+        }
+    }
+
+    private static void addInitialLoadError(InitialLoadInfo initialLoadInfo, String error) {
+        synchronized (initialLoadInfo) {
+            initialLoadInfo.getInitialLoadErrors().add(error);
+        }
+    }
+
+    private static class InitialLoadStreamsProgress {
+        private final AtomicInteger foundInDatabase = new AtomicInteger();
+        private final AtomicInteger insertedToCache = new AtomicInteger();
+    }
+
     //in case types loaded from mirror verify they reside in ssd
     private void insertMetadataTypeToBlobstoreIfNeeded(IEntryHolder eh, Set<String> typesIn) {
         if (!eh.getServerTypeDesc().getTypeDesc().isBlobstoreEnabled() || typesIn.contains(eh.getServerTypeDesc().getTypeDesc().getTypeName()))
@@ -1200,7 +1404,8 @@ public class CacheManager extends AbstractCacheManager
         if (_logRecoveryProcess && _logger.isInfoEnabled()) {
             long curTime = SystemTime.timeMillis();
             if (curTime - lastLogTime > _recoveryLogInterval) {
-                _logger.info("Entries loaded so far: " + fetchedEntries + " [" + JSpaceUtilities.formatMillis(curTime - startLogTime) + "]");
+                _logger.info("Entries loaded so far: " + fetchedEntries + " [" + JSpaceUtilities.formatMillis(curTime - startLogTime) + ", "
+                        + toEntriesPerSecond(fetchedEntries, curTime - startLogTime) + " entries/sec]");
                 return curTime;
             }
         }
@@ -1208,6 +1413,10 @@ public class CacheManager extends AbstractCacheManager
     }
 
 
+    private static long toEntriesPerSecond(int entries, long durationMillis) {
+        return durationMillis > 0 ? entries * 1000L / durationMillis : entries;
+    }
+
     /**
      * shut down cache manager. does not throw any exception- unusable.
      */
@@ -1249,6 +1458,9 @@ public class CacheManager extends AbstractCacheManager
         if (_evictionStrategy != null)
             _evictionStrategy.close();
 
+        if (_snapshotReadsManager != null)
+            _snapshotReadsManager.close();
+
         if (_replicationNode != null && _replicationNode.getDirectPesistencySyncHandler() != null)
             _replicationNode.getDirectPesistencySyncHandler().close();
     }
@@ -1357,6 +1569,35 @@ public class CacheManager extends AbstractCacheManager
         if (entryHolder.getXidOriginated() != null)
             entryHolder.getXidOriginated().setOperatedUpon();
 
+        //transactional writes are recorded for snapshot reads on commit
+        if (_snapshotReadsManager != null && entryHolder.getXidOriginatedTransaction() == null) {
+            int snapshotWriteToken = _snapshotReadsManager.beginWrite();
+            SnapshotReadsManager.CommitStamp stamp = null;
+            boolean inserted = false;
+            try {
+                if (_snapshotReadsManager.isTracking()) {
+                    IEntryHolder existing = getEntryByUidFromPureCache(entryHolder.getUID());
+                    stamp = recordSnapshotChange(entryHolder, existing != null ? SnapshotReadsManager.getCommittedEntryData(existing) : null, false /*removed*/);
+                }
+                insertEntryToCacheAndSA(context, entryHolder, shouldReplicate, origin, typeData);
+                inserted = true;
+            } finally {
+                if (stamp != null) {
+                    if (inserted)
+                        _snapshotReadsManager.publish(stamp);
+                    else
+                        _snapshotReadsManager.abort(stamp);
+                }
+                _snapshotReadsManager.endWrite(snapshotWriteToken);
+            }
+        } else {
+            insertEntryToCacheAndSA(context, entryHolder, shouldReplicate, origin, typeData);
+        }
+        onChunksMigrationEntryChanged(entryHolder);
+    }
+
+    private void insertEntryToCacheAndSA(Context context, IEntryHolder entryHolder, boolean shouldReplicate, boolean origin, TypeData typeData)
+            throws SAException, EntryAlreadyInSpaceException {
         IEntryCacheInfo pE = null;
 
         pE = insertEntryToCache(context, entryHolder, true /* newEntry */,
@@ -1425,6 +1666,35 @@ public class CacheManager extends AbstractCacheManager
 
     public IEntryHolder updateEntry(Context context, IEntryHolder entry, ITemplateHolder template, boolean shouldReplicate, boolean origin)
             throws SAException {
+        if (_snapshotReadsManager == null) {
+            IEntryHolder result = updateEntryInCacheAndSA(context, entry, template, shouldReplicate, origin);
+            onChunksMigrationEntryChanged(entry);
+            return result;
+        }
+
+        int snapshotWriteToken = _snapshotReadsManager.beginWrite();
+        SnapshotReadsManager.CommitStamp stamp = null;
+        boolean updated = false;
+        try {
+            if (_snapshotReadsManager.isTracking())
+                stamp = recordSnapshotChange(entry, entry.getEntryData(), false /*removed*/);
+            IEntryHolder result = updateEntryInCacheAndSA(context, entry, template, shouldReplicate, origin);
+            updated = true;
+            onChunksMigrationEntryChanged(entry);
+            return result;
+        } finally {
+            if (stamp != null) {
+                if (updated)
+                    _snapshotReadsManager.publish(stamp);
+                else
+                    _snapshotReadsManager.abort(stamp);
+            }
+            _snapshotReadsManager.endWrite(snapshotWriteToken);
+        }
+    }
+
+    private IEntryHolder updateEntryInCacheAndSA(Context context, IEntryHolder entry, ITemplateHolder template, boolean shouldReplicate, boolean origin)
+            throws SAException {
         IEntryCacheInfo pEntry = null;
         IEntryHolder new_eh = null;
 
@@ -1839,6 +2109,40 @@ public class CacheManager extends AbstractCacheManager
     public int removeEntry(Context context, IEntryHolder entryHolder, IEntryCacheInfo pEntry, boolean shouldReplicate,
                            boolean origin, EntryRemoveReasonCodes removeReason, boolean disableSAcall)
             throws SAException {
+        if (_snapshotReadsManager == null) {
+            int res = removeEntryFromCacheAndSA(context, entryHolder, pEntry, shouldReplicate, origin, removeReason, disableSAcall);
+            onChunksMigrationEntryChanged(entryHolder);
+            return res;
+        }
+
+        int snapshotWriteToken = _snapshotReadsManager.beginWrite();
+        SnapshotReadsManager.CommitStamp stamp = null;
+        boolean removed = false;
+        try {
+            if (_snapshotReadsManager.isTracking()) {
+                //removing an entry which is not visible to committed reads (e.g. rolled back write) is not a change
+                IEntryData prevData = SnapshotReadsManager.getCommittedEntryData(entryHolder);
+                if (prevData != null)
+                    stamp = recordSnapshotChange(entryHolder, prevData, true /*removed*/);
+            }
+            int res = removeEntryFromCacheAndSA(context, entryHolder, pEntry, shouldReplicate, origin, removeReason, disableSAcall);
+            removed = true;
+            onChunksMigrationEntryChanged(entryHolder);
+            return res;
+        } finally {
+            if (stamp != null) {
+                if (removed)
+                    _snapshotReadsManager.publish(stamp);
+                else
+                    _snapshotReadsManager.abort(stamp);
+            }
+            _snapshotReadsManager.endWrite(snapshotWriteToken);
+        }
+    }
+
+    private int removeEntryFromCacheAndSA(Context context, IEntryHolder entryHolder, IEntryCacheInfo pEntry, boolean shouldReplicate,
+                                          boolean origin, EntryRemoveReasonCodes removeReason, boolean disableSAcall)
+            throws SAException {
         boolean is_writing_xtn = entryHolder.getXidOriginatedTransaction() != null;
         XtnEntry xtnEntry = null;
         boolean updated_recent_deletes = false;
@@ -2173,6 +2477,9 @@ public class CacheManager extends AbstractCacheManager
         } //switch (templateOperation)
 
         pEntry.getEntryHolder(this).setMaybeUnderXtn(true);
+        //the entry is tracked while locked, and polled by the migration until the xtn is resolved
+        if (template.getTemplateOperation() != SpaceOperations.READ && template.getTemplateOperation() != SpaceOperations.READ_IE)
+            onChunksMigrationEntryChanged(pEntry.getEntryHolder(this));
         return pEntry.getEntryHolder(this);
     }
 
@@ -2201,6 +2508,13 @@ public class CacheManager extends AbstractCacheManager
         return pEntry != null ? pEntry.getEntryHolder(this) : null;
     }
 
+    /**
+     * @return uids of the entries in pure cache
+     */
+    public Set<String> getEntriesUids() {
+        return Collections.unmodifiableSet(_entries.keySet());
+    }
+
     /**
      * @param uid of entry to check
      * @return <code>true</code> if this entry is in pure cache; <code>false</code> otherwise.
@@ -3533,8 +3847,9 @@ public class CacheManager extends AbstractCacheManager
 
 
 //POC  insert to foreign indexes/queries
-            for (QueryExtensionIndexManagerWrapper queryExtensionIndexManager : pType.getForeignQueriesHandlers())
-                queryExtensionIndexManager.insertEntry(new SpaceServerEntryImpl(pEntry, this), false /*fromTransactionalUpdate*/);
+            if (pType.isUsingQueryExtensionIndexManager())
+                for (QueryExtensionIndexManagerWrapper queryExtensionIndexManager : pType.getForeignQueriesHandlers())
+                    queryExtensionIndexManager.insertEntry(new SpaceServerEntryImpl(pEntry, this), false /*fromTransactionalUpdate*/);
         } //if (m_AnyIndexes > 0)
         if (applySequenceNumber)
             //set the sequence number in the field
@@ -3890,8 +4205,9 @@ public class CacheManager extends AbstractCacheManager
                 numIndexesProcessed++;
             } /* for (int pos...) */
 
-            for (QueryExtensionIndexManagerWrapper queryExtensionIndexManager : pType.getForeignQueriesHandlers())
-                queryExtensionIndexManager.removeEntry(new SpaceServerEntryImpl(pEntry, this), QueryExtensionIndexRemoveMode.NO_XTN, pEntry.getVersion());
+            if (pType.isUsingQueryExtensionIndexManager())
+                for (QueryExtensionIndexManagerWrapper queryExtensionIndexManager : pType.getForeignQueriesHandlers())
+                    queryExtensionIndexManager.removeEntry(new SpaceServerEntryImpl(pEntry, this), QueryExtensionIndexRemoveMode.NO_XTN, pEntry.getVersion());
         } /* if pType.m_AnyIndexes */
 
         if (pEntry.getBackRefs() != null)
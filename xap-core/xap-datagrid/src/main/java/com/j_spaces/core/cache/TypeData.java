@@ -1031,6 +1031,12 @@ public class TypeData {
             return;
 
         }
+        IEntryData entryData = pEntry.getEntryHolder(cacheManager).getEntryData();
+        if (!isAnyIndexValueChanged(pEntry, entryData, oldEntryData)) {
+            //the backrefs and index values are kept as is
+            replaceEntryInForeignQueriesHandlers(cacheManager, pEntry);
+            return;
+        }
         boolean insertedNewValues = false;
         int refpos = 1;
         // replace indexes only on a need-to basis
@@ -1039,7 +1045,6 @@ public class TypeData {
             pEntry.setBackRefs(new ArrayList<IObjectInfo<IEntryCacheInfo>>(deletedBackRefs.size()));
             pEntry.getBackRefs().add(deletedBackRefs.get(0));
         }
-        IEntryData entryData = pEntry.getEntryHolder(cacheManager).getEntryData();
         int numOfFieldsDone = 0;
         ArrayList<Object> originalUniques = null;
         try {
@@ -1073,13 +1078,7 @@ public class TypeData {
                 numOfFieldsDone++;
             }//for
 
-            for (QueryExtensionIndexManagerWrapper queryExtensionIndexManager : getForeignQueriesHandlers()) {
-                try {
-                    queryExtensionIndexManager.replaceEntry(new SpaceServerEntryImpl(pEntry, cacheManager));
-                } catch (Exception ex) {
-                    throw new RuntimeException("Remove entry to foreign index failed", ex);
-                }
-            }
+            replaceEntryInForeignQueriesHandlers(cacheManager, pEntry);
             insertedNewValues = true;
             //if unique indexes inserted first- we need to remove the original values
             if (originalUniques != null) {
@@ -1104,6 +1103,31 @@ public class TypeData {
     }
 
 
+    private boolean isAnyIndexValueChanged(IEntryCacheInfo pEntry, IEntryData entryData, IEntryData oldEntryData) {
+        for (TypeDataIndex<Object> index : _indexes) {
+            if (index.disableIndexUsageForOperation(this, pEntry.getLatestIndexCreationNumber()))
+                continue;
+            Object oldFieldValue = index.getIndexValue(oldEntryData);
+            Object fieldValue = index.getIndexValue(entryData);
+            //multi-value indexes re-index unless the same collection instance is kept
+            if (index.isMultiValuePerEntryIndex() ? oldFieldValue != fieldValue : !TypeData.objectsEquality(oldFieldValue, fieldValue))
+                return true;
+        }
+        return false;
+    }
+
+    private void replaceEntryInForeignQueriesHandlers(CacheManager cacheManager, IEntryCacheInfo pEntry) {
+        if (!isUsingQueryExtensionIndexManager())
+            return;
+        for (QueryExtensionIndexManagerWrapper queryExtensionIndexManager : getForeignQueriesHandlers()) {
+            try {
+                queryExtensionIndexManager.replaceEntry(new SpaceServerEntryImpl(pEntry, cacheManager));
+            } catch (Exception ex) {
+                throw new RuntimeException("Remove entry to foreign index failed", ex);
+            }
+        }
+    }
+
     //index update failed- remove the new vaues, the old ones are still inserted
     private void restoreReferencesAfterUpdateFailure(CacheManager cacheManager, IEntryHolder eh, IEntryCacheInfo pEntry, IEntryData originalEntryData, ArrayList<IObjectInfo<IEntryCacheInfo>> originalBackRefs,
                                                      int numOfUpdatedFields, boolean insertedNewValues, ArrayList<Object> originalUniques) {
@@ -34,6 +34,7 @@ import com.gigaspaces.internal.utils.StringUtils;
 import com.gigaspaces.internal.utils.collections.economy.EconomyConcurrentHashMap;
 import com.gigaspaces.internal.utils.collections.economy.HashEntryHandlerSpaceEntry;
 import com.gigaspaces.internal.utils.collections.economy.IEconomyConcurrentMap;
+import com.gigaspaces.internal.utils.collections.economy.LockFreeEconomyConcurrentHashMap;
 import com.gigaspaces.metadata.index.ISpaceIndex;
 import com.gigaspaces.metadata.index.SpaceIndexType;
 import com.gigaspaces.server.ServerEntry;
@@ -66,6 +67,8 @@ public class TypeDataIndex<K> {
 
     //the percentage of unique values- above it we try "put" of raw value first
     private static final int UNIQUE_VALUE_TRY_THRESHOLD = 40;
+    private static final int CHUNKED_LIST_MAX_INDEX_VALUES = Integer.getInteger(SystemProperties.ENGINE_CHUNKED_STORED_LIST_MAX_INDEX_VALUES,
+            SystemProperties.ENGINE_CHUNKED_STORED_LIST_MAX_INDEX_VALUES_DEFAULT);
 
 
     private final int _position;
@@ -73,6 +76,9 @@ public class TypeDataIndex<K> {
 
     private final ISpaceIndex _indexDefinition;
 
+    //set once the index had many values, from then on its lists are not chunked even if values were removed
+    private volatile boolean _highCardinality;
+
     //in case index is not unique
     private final ConcurrentMap<Object, IStoredList<IEntryCacheInfo>> _nonUniqueEntriesStore;
     //in case index is unique
@@ -164,7 +170,10 @@ public class TypeDataIndex<K> {
         int numOfCHMSegents = Integer.getInteger(SystemProperties.CACHE_MANAGER_HASHMAP_SEGMENTS, SystemProperties.CACHE_MANAGER_HASHMAP_SEGMENTS_DEFAULT);
 
         if (!_thinExtendedIndex) {
-            if (_useEconomyHashMap) {
+            if (_useEconomyHashMap && cacheManager.getTypeDataFactory().useLockFreeEconomyHashMap()) {
+                this._uniqueEntriesStore = index.isUnique() ? new LockFreeEconomyConcurrentHashMap<Object, IEntryCacheInfo>(16, 0.75f, numOfCHMSegents, new HashEntryHandlerSpaceEntry(pos)) : null;
+                this._nonUniqueEntriesStore = new LockFreeEconomyConcurrentHashMap<Object, IStoredList<IEntryCacheInfo>>(16, 0.75f, numOfCHMSegents, new HashEntryHandlerSpaceEntry<Object>(pos));
+            } else if (_useEconomyHashMap) {
                 this._uniqueEntriesStore = index.isUnique() ? new EconomyConcurrentHashMap<Object, IEntryCacheInfo>(16, 0.75f, numOfCHMSegents, new HashEntryHandlerSpaceEntry(pos)) : null;
                 this._nonUniqueEntriesStore = new EconomyConcurrentHashMap<Object, IStoredList<IEntryCacheInfo>>(16, 0.75f, numOfCHMSegents, new HashEntryHandlerSpaceEntry<Object>(pos));
             } else {
@@ -350,6 +359,25 @@ public class TypeDataIndex<K> {
     }
 
 
+    /**
+     * @return true if the index never had many distinct values, so the lists of entries per value
+     * are shared by many entries and highly contended.
+     */
+    boolean isLowCardinality() {
+        return CHUNKED_LIST_MAX_INDEX_VALUES > 0 && !_highCardinality && !updateHighCardinality();
+    }
+
+    /**
+     * sample the number of values of the index - called on added values and created lists until
+     * it first reaches the chunked lists threshold.
+     */
+    private boolean updateHighCardinality() {
+        if (getNonUniqueEntriesStore().size() < CHUNKED_LIST_MAX_INDEX_VALUES)
+            return false;
+        _highCardinality = true;
+        return true;
+    }
+
     /**
      * @return the uniqueIndex
      */
@@ -451,6 +479,8 @@ public class TypeDataIndex<K> {
                         }
                         currentSL = getNonUniqueEntriesStore().putIfAbsent(fieldValue, pEntry);
                         if (currentSL == null) {
+                            if (CHUNKED_LIST_MAX_INDEX_VALUES > 0 && !_highCardinality && !_useEconomyHashMap)
+                                updateHighCardinality();
                             oi = pEntry;
                             if (_fifoGroupsIndexExtention != null)
                                 _fifoGroupsIndexExtention.addToValuesList(fieldValue, pEntry);
@@ -474,6 +504,8 @@ public class TypeDataIndex<K> {
                     if (newSL == null) {
                         if (_useEconomyHashMap)
                             newSL = StoredListFactory.createConcurrentSegmentedList(false /*segmented*/, pType.isAllowFifoIndexScans(), fieldValue);
+                        else if (isLowCardinality())
+                            newSL = StoredListFactory.createChunkedList();
                         else
                             newSL = StoredListFactory.createConcurrentList(pType.isAllowFifoIndexScans());
                     }
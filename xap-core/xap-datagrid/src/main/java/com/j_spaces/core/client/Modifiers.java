@@ -243,6 +243,14 @@ public class Modifiers {
      */
     public static final int EXPLAIN_PLAN = 1 << 28;
 
+    /**
+     * Reads the committed state of the space as of the beginning of the operation, without
+     * locking entries and without being affected by concurrent writers.
+     *
+     * @since 15.5
+     */
+    public static final int SNAPSHOT_READ = 1 << 29;
+
     public static boolean contains(int modifiers, int setting) {
         return (modifiers & setting) != 0;
     }
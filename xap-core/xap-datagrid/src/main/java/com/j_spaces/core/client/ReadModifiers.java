@@ -126,6 +126,14 @@ public class ReadModifiers {
      */
     public static final int MEMORY_ONLY_SEARCH = Modifiers.MEMORY_ONLY_SEARCH;
 
+    /**
+     * Read the committed state of the space as of the beginning of the operation (read multiple &
+     * aggregate only).
+     *
+     * @since 15.5
+     */
+    public static final int SNAPSHOT_READ = Modifiers.SNAPSHOT_READ;
+
     private static final int[] isolationLevelModifiers = new int[]{REPEATABLE_READ, READ_COMMITTED, DIRTY_READ, EXCLUSIVE_READ_LOCK};
 
     public static int setIsolationLevelModifier(int modifiers, int newIsolationModifier) {
@@ -236,4 +244,16 @@ public class ReadModifiers {
     public static boolean isMemoryOnlySearch(int mod) {
         return Modifiers.contains(mod, MEMORY_ONLY_SEARCH);
     }
+
+    /**
+     * Checks if the SNAPSHOT_READ bit was set for this modifier.
+     *
+     * @param mod a set of modifiers
+     * @return <tt>true</tt> if <code>mod</code> includes the <tt>SNAPSHOT_READ</tt> modifier;
+     * <tt>false</tt> otherwise.
+     * @since 15.5
+     */
+    public static boolean isSnapshotRead(int mod) {
+        return Modifiers.contains(mod, SNAPSHOT_READ);
+    }
 }
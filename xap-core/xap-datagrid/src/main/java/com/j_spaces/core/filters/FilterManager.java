@@ -75,6 +75,7 @@ public class FilterManager implements ISpaceComponentsHandler {
     private static final String DEFAULT_NAME = "default";
 
     public final boolean[] _isFilter;
+    private final boolean[] _isNonStatisticsFilter;
 
     private final IJSpace _space;
     private final PrioritySpaceFiltersHolder[] _filters;
@@ -84,6 +85,7 @@ public class FilterManager implements ISpaceComponentsHandler {
     public FilterManager(SpaceTypeManager typeManager, IJSpace space, SpaceEngine engine) {
         _filters = new PrioritySpaceFiltersHolder[FilterOperationCodes.MAX_FILTER_OPERATION_CODES];
         _isFilter = new boolean[FilterOperationCodes.MAX_FILTER_OPERATION_CODES];
+        _isNonStatisticsFilter = new boolean[FilterOperationCodes.MAX_FILTER_OPERATION_CODES];
         _filtersRepository = new Hashtable<String, FilterHolder>();
         _typeManager = typeManager;
         _space = space;
@@ -122,25 +124,37 @@ public class FilterManager implements ISpaceComponentsHandler {
                 }
                 _filters[i] = new PrioritySpaceFiltersHolder(filterHolders);
             }
+            _isNonStatisticsFilter[i] = initNonStatisticsFilter(i);
         }
 
     }
 
 
-    //has AfterTakeMultiple filter other then jSpaceStatistics
-    private boolean initNonStatisticsAfterTakeMultipleOpFilter() {
-        if(!_isFilter[FilterOperationCodes.AFTER_TAKE_MULTIPLE]){
+    /**
+     * @return true if a filter other than the space statistics is registered for the operation
+     */
+    public boolean hasNonStatisticsFilter(int operationCode) {
+        return _isNonStatisticsFilter[operationCode];
+    }
+
+    private boolean initNonStatisticsFilter(int operationCode) {
+        if (!_isFilter[operationCode]) {
             return false;
         }
 
-        PrioritySpaceFiltersHolder prioritySpaceFiltersHolder = _filters[FilterOperationCodes.AFTER_TAKE_MULTIPLE];
+        PrioritySpaceFiltersHolder prioritySpaceFiltersHolder = _filters[operationCode];
+        if (prioritySpaceFiltersHolder == null) {
+            return false;
+        }
 
-        if(prioritySpaceFiltersHolder.isSingleFilterHolder){
+        if (prioritySpaceFiltersHolder.isSingleFilterHolder) {
             return !(prioritySpaceFiltersHolder.singleFilterHolder.getFilter() instanceof JSpaceStatistics);
         } else {
             for (FilterHolder[] prioritizedFilterHolder : prioritySpaceFiltersHolder.prioritizedFilterHolders) {
+                if (prioritizedFilterHolder == null)
+                    continue;
                 for (FilterHolder filterHolder : prioritizedFilterHolder) {
-                    if(!(filterHolder.getFilter() instanceof JSpaceStatistics)){
+                    if (filterHolder != null && !(filterHolder.getFilter() instanceof JSpaceStatistics)) {
                         return true;
                     }
                 }
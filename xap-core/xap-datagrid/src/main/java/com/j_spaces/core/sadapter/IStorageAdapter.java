@@ -34,6 +34,7 @@ import com.j_spaces.core.cache.context.Context;
 import net.jini.core.transaction.server.ServerTransaction;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -59,6 +60,18 @@ public interface IStorageAdapter {
 
     ISAdapterIterator initialLoad(Context context, ITemplateHolder template) throws SAException;
 
+    /**
+     * Initial load using several independent iterators, which are consumed concurrently. Replaces
+     * {@link #initialLoad(Context, ITemplateHolder)} if supported.
+     *
+     * @return the iterators, or null if the storage does not support loading using several
+     * iterators
+     * @since 15.5
+     */
+    default List<ISAdapterIterator<IEntryHolder>> initialLoadStreams(Context context, ITemplateHolder template) throws SAException {
+        return null;
+    }
+
     /**
      * Inserts a new entry to the SA storage.
      *
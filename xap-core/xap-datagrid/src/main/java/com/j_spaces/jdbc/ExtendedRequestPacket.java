@@ -17,6 +17,8 @@
 package com.j_spaces.jdbc;
 
 import com.gigaspaces.internal.io.IOUtils;
+import com.gigaspaces.internal.version.PlatformLogicalVersion;
+import com.gigaspaces.lrmi.LRMIInvocationContext;
 import com.j_spaces.jdbc.driver.GPreparedStatement.PreparedValuesCollection;
 
 import java.io.Externalizable;
@@ -42,6 +44,7 @@ public class ExtendedRequestPacket
         setPreparedValues(packet.getPreparedValues());
         setPreparedValuesCollection(packet.getPreparedValuesCollection());
         setModifiers(packet.getModifiers());
+        setFetchSize(packet.getFetchSize());
     }
 
 
@@ -60,6 +63,8 @@ public class ExtendedRequestPacket
         IOUtils.writeObjectArray(out, getPreparedValues());
         IOUtils.writeObject(out, getPreparedValuesCollection());
         IOUtils.writeObject(out, modifiers);
+        if (LRMIInvocationContext.getEndpointLogicalVersion().greaterOrEquals(PlatformLogicalVersion.v15_5_0))
+            out.writeInt(getFetchSize());
     }
 
     @Override
@@ -70,6 +75,8 @@ public class ExtendedRequestPacket
         setPreparedValues(IOUtils.readObjectArray(in));
         setPreparedValuesCollection((PreparedValuesCollection) IOUtils.readObject(in));
         modifiers = IOUtils.readObject(in);
+        if (LRMIInvocationContext.getEndpointLogicalVersion().greaterOrEquals(PlatformLogicalVersion.v15_5_0))
+            setFetchSize(in.readInt());
     }
 
 }
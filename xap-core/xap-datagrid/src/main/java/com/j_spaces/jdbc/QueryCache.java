@@ -16,43 +16,89 @@
 
 package com.j_spaces.jdbc;
 
-import com.gigaspaces.internal.utils.collections.ConcurrentBoundedCache;
 import com.gigaspaces.internal.utils.collections.ConcurrentSoftCache;
 import com.j_spaces.kernel.SystemProperties;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 
 /**
- * Caches JDBC queries by their string representation
+ * Caches JDBC queries by their string representation.
+ *
+ * The bounded cache keeps the most recently used queries - when the bound is exceeded the least
+ * recently used queries are evicted, instead of clearing the whole cache. Queries which are not
+ * prepared are cached after their templates were built, so a hit skips both the parsing and the
+ * templates building. Statements are keyed after collapsing whitespace outside quoted literals,
+ * so statements which differ only in formatting share the same cached query. The size, hits,
+ * misses and evictions of the space query processor cache are reported as the space
+ * <code>query-cache</code> metrics.
  *
  * @author anna
  * @since 6.1
  */
 @com.gigaspaces.api.InternalApi
 public class QueryCache {
+    // part of the bound evicted at once, so eviction is not triggered by every put of a full cache
+    private static final int EVICTION_FRACTION = 10;
+
+    private final Map<String, CachedQuery> _statementCache;
+    private final int _maxSize;
+    private final AtomicLong _clock = new AtomicLong();
+    private final Object _evictionLock = new Object();
+    private final LongAdder _hits = new LongAdder();
+    private final LongAdder _misses = new LongAdder();
+    private final LongAdder _evictions = new LongAdder();
+
     /**
      *
      */
-    private Map<String, Query> _statementCache;
+    public QueryCache() {
+        this(getConfiguredMaxSize());
+    }
 
     /**
-     *
+     * @param maxSize max number of cached queries, negative for an unbounded soft cache, 0 to
+     *                disable the cache.
      */
-    public QueryCache() {
+    public QueryCache(int maxSize) {
+        _maxSize = maxSize;
+        _statementCache = maxSize < 0 ? new ConcurrentSoftCache<String, CachedQuery>() : new ConcurrentHashMap<String, CachedQuery>();
+    }
+
+    private static int getConfiguredMaxSize() {
         String val = System.getProperty(SystemProperties.ENABLE_BOUNDED_QUERY_CACHE);
-        boolean isCacheBounded = new Boolean(val != null ? val : SystemProperties.ENABLE_BOUNDED_QUERY_CACHE_DEFAULT);
-        _statementCache = isCacheBounded ? new ConcurrentBoundedCache<String, Query>() : new ConcurrentSoftCache<String, Query>();
+        boolean isCacheBounded = Boolean.parseBoolean(val != null ? val : SystemProperties.ENABLE_BOUNDED_QUERY_CACHE_DEFAULT);
+        if (!isCacheBounded)
+            return -1;
+        long size = Long.getLong(SystemProperties.BOUNDED_QUERY_CACHE_SIZE, SystemProperties.BOUNDED_QUERY_CACHE_SIZE_DEFAULT);
+        return (int) Math.max(0, Math.min(size, Integer.MAX_VALUE));
     }
 
     public void addQueryToCache(String statement, Query query) {
-        _statementCache.put(statement, query);
+        if (_maxSize == 0)
+            return;
+        _statementCache.put(normalizeStatement(statement), new CachedQuery(query, _clock.incrementAndGet()));
+        if (_maxSize > 0 && _statementCache.size() > _maxSize)
+            evict();
     }
 
     // return the query from the cache, it may be null though, so the caller
     // method should check
     public Query getQueryFromCache(String statement) {
-        return _statementCache.get(statement);
+        CachedQuery cachedQuery = _maxSize != 0 ? _statementCache.get(normalizeStatement(statement)) : null;
+        if (cachedQuery == null) {
+            _misses.increment();
+            return null;
+        }
+        _hits.increment();
+        cachedQuery.lastAccess = _clock.incrementAndGet();
+        return cachedQuery.query;
     }
 
 
@@ -64,5 +110,118 @@ public class QueryCache {
 
     }
 
+    public int size() {
+        return _statementCache.size();
+    }
+
+    public long getHits() {
+        return _hits.sum();
+    }
+
+    public long getMisses() {
+        return _misses.sum();
+    }
+
+    public long getEvictions() {
+        return _evictions.sum();
+    }
+
+    private void evict() {
+        synchronized (_evictionLock) {
+            int excess = _statementCache.size() - _maxSize;
+            if (excess <= 0)
+                return;
+            int toEvict = Math.min(_statementCache.size(), excess + Math.max(1, _maxSize / EVICTION_FRACTION));
+            // the access times are copied before sorting, concurrent hits keep changing them
+            List<EvictionCandidate> candidates = new ArrayList<EvictionCandidate>(_statementCache.size());
+            for (Map.Entry<String, CachedQuery> entry : _statementCache.entrySet())
+                candidates.add(new EvictionCandidate(entry.getKey(), entry.getValue()));
+            Collections.sort(candidates);
+            for (int i = 0; i < toEvict && i < candidates.size(); i++) {
+                EvictionCandidate candidate = candidates.get(i);
+                if (_statementCache.remove(candidate.key, candidate.cachedQuery))
+                    _evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Collapses whitespace runs outside quoted literals to a single space and trims the statement.
+     * The statement itself is returned if it is already normalized.
+     */
+    static String normalizeStatement(String statement) {
+        if (statement == null || !requiresNormalization(statement))
+            return statement;
+        StringBuilder sb = new StringBuilder(statement.length());
+        char quote = 0;
+        boolean pendingSpace = false;
+        for (int i = 0; i < statement.length(); i++) {
+            char c = statement.charAt(i);
+            if (quote == 0 && Character.isWhitespace(c)) {
+                pendingSpace = sb.length() != 0;
+                continue;
+            }
+            if (pendingSpace) {
+                sb.append(' ');
+                pendingSpace = false;
+            }
+            if (quote == 0 && (c == '\'' || c == '"'))
+                quote = c;
+            else if (c == quote)
+                quote = 0;
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private static boolean requiresNormalization(String statement) {
+        int length = statement.length();
+        if (length == 0)
+            return false;
+        if (Character.isWhitespace(statement.charAt(0)) || Character.isWhitespace(statement.charAt(length - 1)))
+            return true;
+        char quote = 0;
+        for (int i = 0; i < length; i++) {
+            char c = statement.charAt(i);
+            if (quote != 0) {
+                if (c == quote)
+                    quote = 0;
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (Character.isWhitespace(c) && (c != ' ' || Character.isWhitespace(statement.charAt(i + 1)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class CachedQuery {
+        private final Query query;
+        private volatile long lastAccess;
+
+        private CachedQuery(Query query, long lastAccess) {
+            this.query = query;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    /**
+     * A cached query and its last access when eviction started, ordered least recently used first.
+     */
+    private static class EvictionCandidate implements Comparable<EvictionCandidate> {
+        private final String key;
+        private final CachedQuery cachedQuery;
+        private final long lastAccess;
 
-}
\ No newline at end of file
+        private EvictionCandidate(String key, CachedQuery cachedQuery) {
+            this.key = key;
+            this.cachedQuery = cachedQuery;
+            this.lastAccess = cachedQuery.lastAccess;
+        }
+
+        @Override
+        public int compareTo(EvictionCandidate other) {
+            return Long.compare(lastAccess, other.lastAccess);
+        }
+    }
+}
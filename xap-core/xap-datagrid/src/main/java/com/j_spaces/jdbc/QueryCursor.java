@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.j_spaces.jdbc;
+
+import com.gigaspaces.time.SystemTime;
+
+import java.util.Arrays;
+
+/**
+ * Server side cursor over the rows of a select result, which are fetched by the JDBC driver in
+ * chunks of its fetch size. Rows are released by the cursor once fetched.
+ *
+ * @since 15.5
+ */
+@com.gigaspaces.api.InternalApi
+public class QueryCursor {
+    private final Object[][] _rows;
+    private int _position;
+    private long _lastAccessTime;
+
+    public QueryCursor(Object[][] rows) {
+        _rows = rows;
+        _lastAccessTime = SystemTime.timeMillis();
+    }
+
+    /**
+     * @return the next rows of the cursor, at most fetchSize rows
+     */
+    public synchronized Object[][] next(int fetchSize) {
+        final int size = fetchSize > 0 ? Math.min(fetchSize, _rows.length - _position) : _rows.length - _position;
+        final Object[][] chunk = Arrays.copyOfRange(_rows, _position, _position + size);
+        Arrays.fill(_rows, _position, _position + size, null);
+        _position += size;
+        _lastAccessTime = SystemTime.timeMillis();
+        return chunk;
+    }
+
+    public synchronized boolean isExhausted() {
+        return _position == _rows.length;
+    }
+
+    /**
+     * @return true if the cursor was not accessed during the last leaseTime milliseconds
+     */
+    public synchronized boolean isExpired(long leaseTime) {
+        return SystemTime.timeMillis() - _lastAccessTime > leaseTime;
+    }
+}
@@ -25,6 +25,8 @@ import com.gigaspaces.security.service.SecurityInterceptor;
 import com.j_spaces.core.IJSpace;
 import com.j_spaces.jdbc.driver.GConnection;
 import com.j_spaces.jdbc.parser.grammar.SqlParser;
+import com.j_spaces.jdbc.request.CloseCursorRequest;
+import com.j_spaces.jdbc.request.FetchCursorRequest;
 import com.j_spaces.jdbc.request.SetAutoCommitRequest;
 import com.j_spaces.jdbc.request.SetTransaction;
 import com.j_spaces.jdbc.request.SetUseSingleSpace;
@@ -98,6 +100,7 @@ public class QueryHandler {
                         session.getTransaction());
                 session.setUnderTransaction(request.getStatement());
                 commitForcedTransaction(query, session);
+                openCursorIfNeeded(request, response, session);
                 break;
             case PREPARED_WITH_VALUES:
                 AbstractDMLQuery dmlQuery = (AbstractDMLQuery) handleStatement(request, space);
@@ -110,6 +113,7 @@ public class QueryHandler {
                         session.getTransaction());
                 session.setUnderTransaction(request.getStatement());
                 commitForcedTransaction(dmlQuery, session);
+                openCursorIfNeeded(request, response, session);
                 break;
             case PREPARED_STATEMENT:
                 query = handleStatement(request, space);
@@ -133,6 +137,21 @@ public class QueryHandler {
         return response;
     }
 
+    /**
+     * Keeps the select result rows which exceed the fetch size of the request in a session cursor,
+     * only the first rows are returned with the response.
+     */
+    private void openCursorIfNeeded(RequestPacket request, ResponsePacket response, QuerySession session) {
+        final ResultEntry result = response.getResultEntry();
+        if (request.getFetchSize() <= 0 || result == null || result.getRowNumber() <= request.getFetchSize())
+            return;
+
+        session.closeExpiredCursors(_config.getCursorLeaseTime());
+        final QueryCursor cursor = new QueryCursor(result.getFieldValues());
+        result.setFieldValues(cursor.next(request.getFetchSize()));
+        response.setCursorId(session.openCursor(cursor));
+    }
+
     /**
      * Commits the transaction if it was forced by the query.
      */
@@ -308,6 +327,39 @@ public class QueryHandler {
         return response;
     }
 
+    /**
+     * Handle fetch cursor request - returns the next rows of the cursor, the cursor is released
+     * once all its rows were fetched.
+     *
+     * @return response packet
+     */
+    public ResponsePacket visit(FetchCursorRequest request, QuerySession session) throws SQLException {
+        session.closeExpiredCursors(_config.getCursorLeaseTime());
+        final QueryCursor cursor = session.getCursor(request.getCursorId());
+        if (cursor == null)
+            throw new SQLException("Cursor [" + request.getCursorId() + "] is closed or expired", "GSP", -163);
+
+        final ResultEntry result = new ResultEntry();
+        result.setFieldValues(cursor.next(request.getFetchSize()));
+        final ResponsePacket response = new ResponsePacket();
+        response.setResultEntry(result);
+        if (cursor.isExhausted())
+            session.closeCursor(request.getCursorId());
+        else
+            response.setCursorId(request.getCursorId());
+        return response;
+    }
+
+    /**
+     * Handle close cursor request
+     *
+     * @return response packet
+     */
+    public ResponsePacket visit(CloseCursorRequest request, QuerySession session) {
+        session.closeCursor(request.getCursorId());
+        return new ResponsePacket();
+    }
+
     /**
      * Handle set single space [on off] request
      *
@@ -190,6 +190,11 @@ public class QueryProcessor implements IQueryProcessor {
         return _stub;
     }
 
+    public QueryCache getQueryCache() {
+        QueryHandler queryHandler = _queryHandler;
+        return queryHandler != null ? queryHandler.getQueryCache() : null;
+    }
+
     public static synchronized void setDefaultConfig(QueryProcessorConfiguration defaultConfig) {
         if (QueryProcessor.defaultConfig == null){
             QueryProcessor.defaultConfig = defaultConfig;
@@ -55,6 +55,10 @@ public class QueryProcessorConfiguration {
 
     private static final String SPACE_URL = "SPACE_URL";
 
+    private static final String CURSOR_LEASE_TIME_PROPERTY = "CURSOR_LEASE_TIME";
+
+    private static final long CURSOR_LEASE_TIME_DEFAULT = 10 * 60 * 1000;
+
     private static final String PORT_PROPERTY = "PORT";
 
     private static final int PORT_DEFAULT = 2872;
@@ -73,6 +77,7 @@ public class QueryProcessorConfiguration {
     private boolean _traceExecTime = Boolean.parseBoolean(QueryProcessorInfo.QP_TRACE_EXEC_TIME_DEFAULT);
     private boolean _autoCommit = Boolean.parseBoolean(QueryProcessorInfo.QP_AUTO_COMMIT_DEFAULT);
     private String _spaceURL;
+    private long _cursorLeaseTime = CURSOR_LEASE_TIME_DEFAULT;
 
     private int _listenPort = PORT_DEFAULT;
 
@@ -124,6 +129,7 @@ public class QueryProcessorConfiguration {
         _dateTimeFormat = localProps.getProperty(DATE_TIME_FORMAT_PROPERTY, _dateTimeFormat);
         _timeFormat = localProps.getProperty(TIME_FORMAT_PROPERTY, _timeFormat);
         _spaceURL = localProps.getProperty(SPACE_URL);
+        _cursorLeaseTime = getLong(localProps.getProperty(CURSOR_LEASE_TIME_PROPERTY), _cursorLeaseTime);
         _listenPort = getInteger(localProps.getProperty(PORT_PROPERTY), PORT_DEFAULT);
 
         // Get JDBC transaction configuration                      
@@ -240,6 +246,17 @@ public class QueryProcessorConfiguration {
         _spaceURL = spaceURL;
     }
 
+    /**
+     * @return time in milliseconds after which a cursor which was not fetched from is released
+     */
+    public long getCursorLeaseTime() {
+        return _cursorLeaseTime;
+    }
+
+    public void setCursorLeaseTime(long cursorLeaseTime) {
+        _cursorLeaseTime = cursorLeaseTime;
+    }
+
     public int getListenPort() {
         return _listenPort;
     }
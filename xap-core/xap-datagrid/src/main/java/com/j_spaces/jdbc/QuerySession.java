@@ -20,6 +20,9 @@ import net.jini.core.transaction.Transaction;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
 
 
 /**
@@ -43,6 +46,8 @@ public class QuerySession
     private ConnectionContext _connectionContext;
     private transient Integer modifiers;
     private transient QueryHandler _queryHandler;
+    private transient Map<Integer, QueryCursor> _cursors;
+    private transient int _lastCursorId;
 
 
     public QuerySession(String sessionName) {
@@ -134,4 +139,39 @@ public class QuerySession
         return _queryHandler;
     }
 
+    /**
+     * Registers a cursor over the remaining rows of a select result.
+     *
+     * @return the id of the cursor, never 0
+     */
+    public synchronized int openCursor(QueryCursor cursor) {
+        if (_cursors == null)
+            _cursors = new HashMap<Integer, QueryCursor>();
+        if (++_lastCursorId == 0)
+            _lastCursorId++;
+        _cursors.put(_lastCursorId, cursor);
+        return _lastCursorId;
+    }
+
+    public synchronized QueryCursor getCursor(int cursorId) {
+        return _cursors != null ? _cursors.get(cursorId) : null;
+    }
+
+    public synchronized void closeCursor(int cursorId) {
+        if (_cursors != null)
+            _cursors.remove(cursorId);
+    }
+
+    /**
+     * Releases cursors which were not accessed during the last leaseTime milliseconds.
+     */
+    public synchronized void closeExpiredCursors(long leaseTime) {
+        if (_cursors == null)
+            return;
+        for (Iterator<QueryCursor> iterator = _cursors.values().iterator(); iterator.hasNext(); ) {
+            if (iterator.next().isExpired(leaseTime))
+                iterator.remove();
+        }
+    }
+
 }
@@ -56,6 +56,7 @@ public class RequestPacket implements Serializable {
     private String statement = null;
     private Object[] preparedValues = null;
     private PreparedValuesCollection _preparedValuesCollection;
+    private int fetchSize;
 
     private transient Integer modifiers;
 
@@ -93,6 +94,18 @@ public class RequestPacket implements Serializable {
         return type;
     }
 
+    /**
+     * @return max number of select result rows returned with the response, the rest are kept in a
+     * cursor of the session. 0 returns all rows.
+     */
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
     public void setType(Type type) {
         this.type = type;
     }
@@ -43,6 +43,7 @@ public class ResponsePacket implements Serializable, Iterable<IEntryPacket> {
     private ResultEntry resultEntry = null;
     private Collection<IEntryPacket> resultSet = null;
     private IEntryPacket[] resultArray;
+    private int cursorId;
 
     public ResponsePacket() {
     }
@@ -67,6 +68,18 @@ public class ResponsePacket implements Serializable, Iterable<IEntryPacket> {
         this.resultEntry = resultEntry;
     }
 
+    /**
+     * @return id of the session cursor which holds the rest of the result rows, 0 if the result
+     * entry holds all the remaining rows
+     */
+    public int getCursorId() {
+        return cursorId;
+    }
+
+    public void setCursorId(int cursorId) {
+        this.cursorId = cursorId;
+    }
+
     @Override
     public String toString() {
 
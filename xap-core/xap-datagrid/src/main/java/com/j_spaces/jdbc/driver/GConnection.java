@@ -33,6 +33,8 @@ import com.j_spaces.jdbc.ResponsePacket;
 import com.j_spaces.jdbc.ResultEntry;
 import com.j_spaces.jdbc.batching.BatchResponsePacket;
 import com.j_spaces.jdbc.driver.GPreparedStatement.PreparedValuesCollection;
+import com.j_spaces.jdbc.request.CloseCursorRequest;
+import com.j_spaces.jdbc.request.FetchCursorRequest;
 import com.j_spaces.jdbc.request.SetAutoCommitRequest;
 import com.j_spaces.jdbc.request.SetTransaction;
 import com.j_spaces.jdbc.request.SetUseSingleSpace;
@@ -641,10 +643,22 @@ public class GConnection implements Connection {
      * @return The ResponsePacket received from the QueryProcessor
      */
     public ResponsePacket sendStatement(String statement) throws SQLException {
+        return sendStatement(statement, 0);
+    }
+
+    /**
+     * Send a packet that contains a statement.
+     *
+     * @param statement the sql statement that should be sent
+     * @param fetchSize max number of result rows returned with the response, 0 for all rows
+     * @return The ResponsePacket received from the QueryProcessor
+     */
+    public ResponsePacket sendStatement(String statement, int fetchSize) throws SQLException {
         RequestPacket packet = new RequestPacket();
         packet.setModifiers(readModifiers);
         packet.setType(RequestPacket.Type.STATEMENT);
         packet.setStatement(statement);
+        packet.setFetchSize(fetchSize);
         return writeRequestPacket(packet);
     }
 
@@ -655,14 +669,46 @@ public class GConnection implements Connection {
      * @return The ResponsePacket received from the QueryProcessor
      */
     public ResponsePacket sendPreparedStatement(String statement, Object[] values) throws SQLException {
+        return sendPreparedStatement(statement, values, 0);
+    }
+
+    /**
+     * Send a packet that contains a PreparedStatement.
+     *
+     * @param statement the SQL statement that should be sent.
+     * @param fetchSize max number of result rows returned with the response, 0 for all rows
+     * @return The ResponsePacket received from the QueryProcessor
+     */
+    public ResponsePacket sendPreparedStatement(String statement, Object[] values, int fetchSize) throws SQLException {
         RequestPacket packet = new RequestPacket();
         packet.setModifiers(readModifiers);
         packet.setType(RequestPacket.Type.PREPARED_WITH_VALUES);
         packet.setStatement(statement);
         packet.setPreparedValues(values);
+        packet.setFetchSize(fetchSize);
         return writeRequestPacket(packet);
     }
 
+    /**
+     * Fetch the next rows of a result whose rows are kept in a cursor of the QueryProcessor.
+     *
+     * @param cursorId  the cursor id returned with the previous rows
+     * @param fetchSize max number of rows to fetch, 0 for all rows
+     * @return The ResponsePacket received from the QueryProcessor
+     */
+    public ResponsePacket fetchCursor(int cursorId, int fetchSize) throws SQLException {
+        return writeRequestPacket(new FetchCursorRequest(cursorId, fetchSize));
+    }
+
+    /**
+     * Release a cursor whose rows were not fully fetched. Cursors of a closed connection are
+     * already released.
+     */
+    public void closeCursor(int cursorId) throws SQLException {
+        if (qp != null)
+            writeRequestPacket(new CloseCursorRequest(cursorId));
+    }
+
     /**
      * Send a packet that contains a PreparedStatement values batch.
      */
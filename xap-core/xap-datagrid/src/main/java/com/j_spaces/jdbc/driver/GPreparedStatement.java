@@ -128,10 +128,10 @@ public class GPreparedStatement extends GStatement implements PreparedStatement
     public boolean execute() throws SQLException {
         checkValues();
 
-        ResponsePacket response = connection.sendPreparedStatement(sql, _preparedValuesCollection.getCurrentValues());
+        ResponsePacket response = connection.sendPreparedStatement(sql, _preparedValuesCollection.getCurrentValues(), fetchSize);
         //after the statement was sent and checked, we can return the result
         if (response.getResultEntry() != null) {
-            buildResultSet(response.getResultEntry());
+            buildResultSet(response);
             return true;
         } else {
             updateCount = response.getIntResult();
@@ -396,9 +396,9 @@ public class GPreparedStatement extends GStatement implements PreparedStatement
             //	"GSP",-146);
             executeUpdate();
         } else {
-            ResponsePacket response = connection.sendPreparedStatement(sql, _preparedValuesCollection.getCurrentValues());
+            ResponsePacket response = connection.sendPreparedStatement(sql, _preparedValuesCollection.getCurrentValues(), fetchSize);
             //	query was sent and checked
-            buildResultSet(response.getResultEntry()); //build the ResultSet
+            buildResultSet(response); //build the ResultSet
         }
         return resultSet;
     }
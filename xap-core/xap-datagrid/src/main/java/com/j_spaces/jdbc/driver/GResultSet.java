@@ -16,6 +16,7 @@
 
 package com.j_spaces.jdbc.driver;
 
+import com.j_spaces.jdbc.ResponsePacket;
 import com.j_spaces.jdbc.ResultEntry;
 
 import java.io.ByteArrayInputStream;
@@ -54,10 +55,28 @@ public class GResultSet implements ResultSet {
     private final GStatement statement;
     private boolean last_was_null = false;
     private int currentRow = 0; //first time after next it will be 1
+    //rows fetched so far which were not consumed, and the number of rows consumed before them
+    private Object[][] rows;
+    private int rowsOffset = 0;
+    private int cursorId;
+    private int fetchSize;
 
     public GResultSet(GStatement statement, ResultEntry results) {
+        this(statement, results, 0, 0);
+    }
+
+    /**
+     * @param results   the result columns and its first rows
+     * @param cursorId  id of the QueryProcessor cursor which holds the rest of the rows, 0 if the
+     *                  results hold all the rows
+     * @param fetchSize number of rows to fetch from the cursor at a time
+     */
+    public GResultSet(GStatement statement, ResultEntry results, int cursorId, int fetchSize) {
         this.statement = statement;
         this.results = results;
+        this.rows = results != null ? results.getFieldValues() : null;
+        this.cursorId = cursorId;
+        this.fetchSize = fetchSize;
     }
 
     public int getConcurrency() throws SQLException {
@@ -69,10 +88,11 @@ public class GResultSet implements ResultSet {
     }
 
     /**
-     * This is only used as a hint. no support here.
+     * Number of rows fetched from the QueryProcessor cursor at a time, 0 fetches all the rest of the
+     * rows.
      */
     public int getFetchSize() throws SQLException {
-        return 0;
+        return fetchSize;
     }
 
     public int getRow() throws SQLException {
@@ -105,8 +125,13 @@ public class GResultSet implements ResultSet {
     }
 
     public void close() throws SQLException {
-        //can clear everything
-        //or do nothing
+        rows = null;
+        //release the cursor if not all rows were fetched
+        if (cursorId != 0) {
+            int openCursorId = cursorId;
+            cursorId = 0;
+            statement.connection.closeCursor(openCursorId);
+        }
     }
 
     public void deleteRow() throws SQLException {
@@ -138,7 +163,7 @@ public class GResultSet implements ResultSet {
     }
 
     public boolean isAfterLast() throws SQLException {
-        return (currentRow > results.getRowNumber());
+        return (cursorId == 0 && currentRow > rowsOffset + getFetchedRowsCount());
     }
 
     public boolean isBeforeFirst() throws SQLException {
@@ -150,7 +175,7 @@ public class GResultSet implements ResultSet {
     }
 
     public boolean isLast() throws SQLException {
-        return (currentRow == results.getRowNumber());
+        return (cursorId == 0 && currentRow == rowsOffset + getFetchedRowsCount());
     }
 
     public boolean last() throws SQLException {
@@ -158,13 +183,38 @@ public class GResultSet implements ResultSet {
     }
 
     public boolean next() throws SQLException {
-        if (results == null || currentRow + 1 > results.getRowNumber())
+        if (results == null)
+            return false;
+        if (currentRow + 1 > rowsOffset + getFetchedRowsCount() && !fetchNextRows())
             return false;
         currentRow++;
         return true;
 
     }
 
+    private int getFetchedRowsCount() {
+        return rows != null ? rows.length : 0;
+    }
+
+    /**
+     * Fetches the next rows from the cursor, returns false if the cursor has no more rows.
+     */
+    private boolean fetchNextRows() throws SQLException {
+        while (cursorId != 0) {
+            ResponsePacket response = statement.connection.fetchCursor(cursorId, fetchSize);
+            rowsOffset += getFetchedRowsCount();
+            rows = response.getResultEntry().getFieldValues();
+            cursorId = response.getCursorId();
+            if (getFetchedRowsCount() != 0)
+                return true;
+        }
+        return false;
+    }
+
+    private Object[] getCurrentRowValues() {
+        return rows[currentRow - rowsOffset - 1];
+    }
+
     public boolean previous() throws SQLException {
         throw new SQLException("Command not Supported!", "GSP", -132);
     }
@@ -187,7 +237,7 @@ public class GResultSet implements ResultSet {
 
     public byte getByte(int columnIndex) throws SQLException {
         checkRowNumber();
-        Object ob = results.getFieldValues(currentRow)[columnIndex - 1];
+        Object ob = getCurrentRowValues()[columnIndex - 1];
         if (ob == null) {
             last_was_null = true;
             return 0;
@@ -202,7 +252,7 @@ public class GResultSet implements ResultSet {
 
     public double getDouble(int columnIndex) throws SQLException {
         checkRowNumber();
-        Object ob = results.getFieldValues(currentRow)[columnIndex - 1];
+        Object ob = getCurrentRowValues()[columnIndex - 1];
         if (ob == null) {
             last_was_null = true;
             return 0D;
@@ -217,7 +267,7 @@ public class GResultSet implements ResultSet {
 
     public float getFloat(int columnIndex) throws SQLException {
         checkRowNumber();
-        Object ob = results.getFieldValues(currentRow)[columnIndex - 1];
+        Object ob = getCurrentRowValues()[columnIndex - 1];
         if (ob == null) {
             last_was_null = true;
             return 0f;
@@ -232,7 +282,7 @@ public class GResultSet implements ResultSet {
 
     public int getInt(int columnIndex) throws SQLException {
         checkRowNumber();
-        Object ob = results.getFieldValues(currentRow)[columnIndex - 1];
+        Object ob = getCurrentRowValues()[columnIndex - 1];
         if (ob == null) {
             last_was_null = true;
             return 0;
@@ -247,7 +297,7 @@ public class GResultSet implements ResultSet {
 
     public long getLong(int columnIndex) throws SQLException {
         checkRowNumber();
-        Object ob = results.getFieldValues(currentRow)[columnIndex - 1];
+        Object ob = getCurrentRowValues()[columnIndex - 1];
         if (ob == null) {
             last_was_null = true;
             return 0L;
@@ -262,7 +312,7 @@ public class GResultSet implements ResultSet {
 
     public short getShort(int columnIndex) throws SQLException {
         checkRowNumber();
-        Object ob = results.getFieldValues(currentRow)[columnIndex - 1];
+        Object ob = getCurrentRowValues()[columnIndex - 1];
         if (ob == null) {
             last_was_null = true;
             return 0;
@@ -280,7 +330,9 @@ public class GResultSet implements ResultSet {
     }
 
     public void setFetchSize(int rows) throws SQLException {
-        throw new SQLException("Command not Supported!", "GSP", -132);
+        if (rows < 0)
+            throw new SQLException("Fetch size must be >= 0", "GSP", -164);
+        fetchSize = rows;
     }
 
     public void updateNull(int columnIndex) throws SQLException {
@@ -296,7 +348,7 @@ public class GResultSet implements ResultSet {
 
     public boolean getBoolean(int columnIndex) throws SQLException {
         checkRowNumber();
-        Object ob = results.getFieldValues(currentRow)[columnIndex - 1];
+        Object ob = getCurrentRowValues()[columnIndex - 1];
         if (ob == null) {
             last_was_null = true;
             return false;
@@ -319,7 +371,7 @@ public class GResultSet implements ResultSet {
 
     public byte[] getBytes(int columnIndex) throws SQLException {
         checkRowNumber();
-        Object ob = results.getFieldValues(currentRow)[columnIndex - 1];
+        Object ob = getCurrentRowValues()[columnIndex - 1];
         if (ob == null) {
             last_was_null = true;
             return null;
@@ -368,7 +420,7 @@ public class GResultSet implements ResultSet {
 
     public InputStream getAsciiStream(int columnIndex) throws SQLException {
         checkRowNumber();
-        Object result = results.getFieldValues(currentRow)[columnIndex - 1];
+        Object result = getCurrentRowValues()[columnIndex - 1];
 
         if (result == null) {
             last_was_null = true;
@@ -385,7 +437,7 @@ public class GResultSet implements ResultSet {
 
     public InputStream getBinaryStream(int columnIndex) throws SQLException {
         checkRowNumber();
-        Object result = results.getFieldValues(currentRow)[columnIndex - 1];
+        Object result = getCurrentRowValues()[columnIndex - 1];
 
         if (result == null) {
             last_was_null = true;
@@ -416,7 +468,7 @@ public class GResultSet implements ResultSet {
 
     public Reader getCharacterStream(int columnIndex) throws SQLException {
         checkRowNumber();
-        Object result = results.getFieldValues(currentRow)[columnIndex - 1];
+        Object result = getCurrentRowValues()[columnIndex - 1];
 
         if (result == null) {
             last_was_null = true;
@@ -438,7 +490,7 @@ public class GResultSet implements ResultSet {
 
     public Object getObject(int columnIndex) throws SQLException {
         checkRowNumber();
-        Object ob = results.getFieldValues(currentRow)[columnIndex - 1];
+        Object ob = getCurrentRowValues()[columnIndex - 1];
         if (ob == null)
             last_was_null = true;
 
@@ -460,7 +512,7 @@ public class GResultSet implements ResultSet {
 
     public String getString(int columnIndex) throws SQLException {
         checkRowNumber();
-        Object ob = results.getFieldValues(currentRow)[columnIndex - 1];
+        Object ob = getCurrentRowValues()[columnIndex - 1];
         if (ob == null) {
             last_was_null = true;
             return null;
@@ -554,7 +606,7 @@ public class GResultSet implements ResultSet {
 
     public BigDecimal getBigDecimal(int columnIndex) throws SQLException {
         checkRowNumber();
-        Object ob = results.getFieldValues(currentRow)[columnIndex - 1];
+        Object ob = getCurrentRowValues()[columnIndex - 1];
         if (ob == null) {
             last_was_null = true;
             return BigDecimal.ZERO;
@@ -579,7 +631,7 @@ public class GResultSet implements ResultSet {
 
     public URL getURL(int columnIndex) throws SQLException {
         checkRowNumber();
-        Object ob = results.getFieldValues(currentRow)[columnIndex - 1];
+        Object ob = getCurrentRowValues()[columnIndex - 1];
         if (ob == null) {
             last_was_null = true;
             return null;
@@ -601,7 +653,7 @@ public class GResultSet implements ResultSet {
 
     public Blob getBlob(int columnIndex) throws SQLException {
         checkRowNumber();
-        Object ob = results.getFieldValues(currentRow)[columnIndex - 1];
+        Object ob = getCurrentRowValues()[columnIndex - 1];
         if (ob == null) {
             last_was_null = true;
             return null;
@@ -622,7 +674,7 @@ public class GResultSet implements ResultSet {
 
     public Clob getClob(int columnIndex) throws SQLException {
         checkRowNumber();
-        Object ob = results.getFieldValues(currentRow)[columnIndex - 1];
+        Object ob = getCurrentRowValues()[columnIndex - 1];
         if (ob == null) {
             last_was_null = true;
             return null;
@@ -643,7 +695,7 @@ public class GResultSet implements ResultSet {
 
     public Date getDate(int columnIndex) throws SQLException {
         checkRowNumber();
-        Object ob = results.getFieldValues(currentRow)[columnIndex - 1];
+        Object ob = getCurrentRowValues()[columnIndex - 1];
         if (ob == null) {
             last_was_null = true;
             return null;
@@ -663,7 +715,7 @@ public class GResultSet implements ResultSet {
 
     public Ref getRef(int columnIndex) throws SQLException {
         checkRowNumber();
-        Object ob = results.getFieldValues(currentRow)[columnIndex - 1];
+        Object ob = getCurrentRowValues()[columnIndex - 1];
         if (ob == null) {
             last_was_null = true;
             return null;
@@ -693,7 +745,7 @@ public class GResultSet implements ResultSet {
 
     public Time getTime(int columnIndex) throws SQLException {
         checkRowNumber();
-        Object ob = results.getFieldValues(currentRow)[columnIndex - 1];
+        Object ob = getCurrentRowValues()[columnIndex - 1];
         if (ob == null) {
             last_was_null = true;
             return null;
@@ -712,7 +764,7 @@ public class GResultSet implements ResultSet {
 
     public Timestamp getTimestamp(int columnIndex) throws SQLException {
         checkRowNumber();
-        Object ob = results.getFieldValues(currentRow)[columnIndex - 1];
+        Object ob = getCurrentRowValues()[columnIndex - 1];
         if (ob == null) {
             last_was_null = true;
             return null;
@@ -901,7 +953,7 @@ public class GResultSet implements ResultSet {
         if (currentRow <= 0)
             throw new SQLException("The next() method must be called at least once",
                     "GSP", -161);
-        if (currentRow > results.getRowNumber())
+        if (currentRow > rowsOffset + getFetchedRowsCount())
             throw new SQLException("Exhausted ResultSet!", "GSP", -162);
     }
 
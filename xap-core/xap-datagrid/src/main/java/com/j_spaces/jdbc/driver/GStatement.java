@@ -45,6 +45,7 @@ public class GStatement implements Statement {
     protected ResultSet resultSet = null;
     protected List<String> _queriesBatch;
     protected boolean ignoreUnsupportedOptions;
+    protected int fetchSize;
 
     //logger
     final private static Logger _logger = LoggerFactory.getLogger(Constants.LOGGER_QUERY);
@@ -68,12 +69,13 @@ public class GStatement implements Statement {
     }
 
     /**
-     * this is just a hint method, so pay no attention to the returned value
+     * Number of rows fetched from the QueryProcessor at a time, 0 fetches all rows with the query
+     * response.
      *
      * @see java.sql.Statement#getFetchSize()
      */
     public int getFetchSize() throws SQLException {
-        return 0;
+        return fetchSize;
     }
 
     /**
@@ -213,7 +215,9 @@ public class GStatement implements Statement {
      * @see java.sql.Statement#setFetchSize(int)
      */
     public void setFetchSize(int rows) throws SQLException {
-        handleUnsupportedSqlOperationsCalls("setFetchSize");
+        if (rows < 0)
+            throw new SQLException("Fetch size must be >= 0", "GSP", -164);
+        fetchSize = rows;
     }
 
     /**
@@ -301,9 +305,9 @@ public class GStatement implements Statement {
     public boolean execute(String sql) throws SQLException {
         init();
 
-        ResponsePacket packet = connection.sendStatement(sql);
+        ResponsePacket packet = connection.sendStatement(sql, fetchSize);
         if (packet.getResultEntry() != null) {
-            buildResultSet(packet.getResultEntry());
+            buildResultSet(packet);
             return true;
         } else {
             updateCount = packet.getIntResult();
@@ -408,9 +412,9 @@ public class GStatement implements Statement {
             throw new SQLException("Cannot call anything but SELECT with executeQuery. Use executeUpdate instead",
                     "GSP", -143);
 
-        ResponsePacket response = connection.sendStatement(sql);
+        ResponsePacket response = connection.sendStatement(sql, fetchSize);
         //query was sent and checked
-        buildResultSet(response.getResultEntry()); //build the ResultSet
+        buildResultSet(response); //build the ResultSet
         return resultSet;
     }
 
@@ -419,6 +423,11 @@ public class GStatement implements Statement {
         resultSet = new GResultSet(this, entry);
     }
 
+    //translate the response to a GResultSet, which fetches the rest of the rows from the response cursor
+    protected void buildResultSet(ResponsePacket response) {
+        resultSet = new GResultSet(this, response.getResultEntry(), response.getCursorId(), fetchSize);
+    }
+
     public boolean isClosed() throws SQLException {
         throw new UnsupportedOperationException();
     }
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.j_spaces.jdbc.request;
+
+import com.j_spaces.jdbc.QueryHandler;
+import com.j_spaces.jdbc.QuerySession;
+import com.j_spaces.jdbc.RequestPacket;
+import com.j_spaces.jdbc.ResponsePacket;
+
+/**
+ * Releases a session cursor whose rows were not fully fetched.
+ *
+ * @since 15.5
+ */
+@com.gigaspaces.api.InternalApi
+public class CloseCursorRequest extends RequestPacket {
+    private static final long serialVersionUID = 1L;
+
+    private int _cursorId;
+
+    public CloseCursorRequest() {
+        super();
+    }
+
+    public CloseCursorRequest(int cursorId) {
+        _cursorId = cursorId;
+    }
+
+    public int getCursorId() {
+        return _cursorId;
+    }
+
+    @Override
+    public ResponsePacket accept(QueryHandler handler, QuerySession session) {
+        return handler.visit(this, session);
+    }
+
+    @Override
+    public String toString() {
+        return "close cursor " + _cursorId;
+    }
+}
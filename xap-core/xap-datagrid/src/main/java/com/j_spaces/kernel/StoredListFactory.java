@@ -56,6 +56,16 @@ public final class StoredListFactory {
         return new ConcurrentStoredList<T>(false /* segmented*/, supportsFifo);
     }
 
+    /**
+     * Creates a lock free chunked stored list - used for lists with highly concurrent adds and
+     * removes. The list supports fifo scans.
+     *
+     * @return IStoredList
+     */
+    public static <T> IStoredList<T> createChunkedList() {
+        return new ChunkedStoredList<T>();
+    }
+
     /**
      * Creates a concurrent segmented stored list - used for highly concurrent lists.
      *
@@ -303,6 +303,13 @@ public class SystemProperties extends CommonSystemProperties {
     public final static String SPACE_ITERATOR_TYPE = "com.gs.iterator.type";
     public final static String SPACE_ITERATOR_TYPE_DEFAULT = SpaceIteratorType.CURSOR.toString();
 
+    /**
+     * Set the default number of batches a {@link SpaceIteratorType#CURSOR} space iterator may
+     * prefetch from each partition ahead of consumption. Defaults to 1
+     */
+    public final static String SPACE_ITERATOR_PREFETCH_BATCHES = "com.gs.iterator.prefetch-batches";
+    public final static String SPACE_ITERATOR_PREFETCH_BATCHES_DEFAULT = "1";
+
     /**
      * Set to true in order to enable lrmi class loading for all purposes, set to false to disable
      * it. Defaults to true
@@ -629,6 +636,19 @@ public class SystemProperties extends CommonSystemProperties {
      */
     public final static int ENGINE_STORED_LIST_LOCKS_DEFAULT = 10 * Runtime.getRuntime().availableProcessors();
 
+    /**
+     * Max number of distinct values an index may have had for lists of entries created for its
+     * values to be lock free chunked lists. Indexes with few values have many entries per value, so
+     * their lists are highly contended. Once an index reached it, lists created for its values are
+     * not chunked anymore. If set to 0 - chunked lists are not used.
+     */
+    public final static String ENGINE_CHUNKED_STORED_LIST_MAX_INDEX_VALUES = "com.gs.engine.chunkedStoredListMaxIndexValues";
+
+    /**
+     * Default max number of distinct values of an index for which chunked lists are used.
+     */
+    public final static int ENGINE_CHUNKED_STORED_LIST_MAX_INDEX_VALUES_DEFAULT = 64;
+
 
     /**
      * Number of segments used by the concurrent server-based lru . Two different segments can be
@@ -666,6 +686,14 @@ public class SystemProperties extends CommonSystemProperties {
      */
     public static final String CACHE_MANAGER_LOG_RECOVER_PROCESS = "com.gs.cacheManager.logRecovery";
 
+    /**
+     * Number of threads which consume the initial load streams of a space data source, default is
+     * the number of available processors.
+     *
+     * @since 15.5
+     */
+    public static final String CACHE_MANAGER_INITIAL_LOAD_THREADS = "com.gs.cacheManager.initialLoadThreads";
+
 
     /**
      * protect embedded indexes by clonning values.
@@ -759,6 +787,17 @@ public class SystemProperties extends CommonSystemProperties {
     public static final String REPLICATION_USE_BACKUP_BLOBSTORE_BULKS = "com.gs.replication.blobstore.use_backup_bulks";
     public static final String REPLICATION_USE_BACKUP_BLOBSTORE_BULKS_DEFAULT = "true";
 
+    /**
+     * Max time (in microseconds) a sync replication waits for an in flight replication of the same
+     * group, in order to be dispatched together with other concurrent replications. 0 (the default)
+     * disables group commit.
+     */
+    public static final String REPLICATION_GROUP_COMMIT_MAX_DELAY_MICROS = "com.gs.replication.group_commit.max_delay_micros";
+    public static final long REPLICATION_GROUP_COMMIT_MAX_DELAY_MICROS_DEFAULT = 0;
+
+    public static final String REPLICATION_GROUP_COMMIT_MAX_BATCH_SIZE = "com.gs.replication.group_commit.max_batch_size";
+    public static final int REPLICATION_GROUP_COMMIT_MAX_BATCH_SIZE_DEFAULT = 500;
+
     public static final String DIRECT_PERSISTENCY_RECOVER_RETRIES = "com.gs.direct_persistency.recover_retries";
     public static final int DIRECT_PERSISTENCY_RECOVER_RETRIES_DEFAULT = 10;
 
@@ -0,0 +1,624 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.j_spaces.kernel.list;
+
+import com.gigaspaces.internal.utils.concurrent.UncheckedAtomicIntegerFieldUpdater;
+import com.gigaspaces.internal.utils.concurrent.UncheckedAtomicReferenceFieldUpdater;
+import com.gigaspaces.internal.utils.threadlocal.AbstractResource;
+import com.gigaspaces.internal.utils.threadlocal.PoolFactory;
+import com.gigaspaces.internal.utils.threadlocal.ThreadLocalPool;
+import com.j_spaces.kernel.IObjectInfo;
+import com.j_spaces.kernel.IStoredList;
+import com.j_spaces.kernel.IStoredListIterator;
+
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * A lock free stored list built of a chain of array chunks, used for index values shared by many
+ * entries. An add claims the next slot of the last chunk with a single atomic increment, and a
+ * remove marks its node as removed and clears its slot, so concurrent adds and removes do not
+ * contend on a single insertion point or on neighbour nodes. Chunks whose slots were all removed
+ * are unlinked from the chain by a single compacting thread at a time, and runs of chunks which
+ * are at least half removed are replaced by one chunk holding their live nodes in the same order,
+ * so the removed slots a scan passes over are bounded by the size of the list. Scans go over the
+ * chunks without taking any lock, and end at the last chunk which existed when the scan was
+ * established. Scans are in insertion order, except that random scans alternate between insertion
+ * order and reverse order, so concurrent random scans do not all start at the head.
+ *
+ * @since 15.5
+ */
+@com.gigaspaces.api.InternalApi
+public class ChunkedStoredList<T>
+        implements IStoredList<T> {
+    private static final int FIRST_CHUNK_CAPACITY = 8;
+    private static final int MAX_CHUNK_CAPACITY = 1024;
+    // removes between compactions of partly removed chunks, if the list is smaller
+    private static final int MIN_REMOVES_TO_COMPACT = 64;
+
+    // an empty chunk which is never unlinked - the chain starts after it
+    private final Chunk<T> _first;
+    // the chunk to append to - may lag behind the actual last chunk
+    private volatile Chunk<T> _last;
+    private volatile int _size;
+    private volatile int _compacting;
+    private volatile int _removesSinceCompaction;
+    private int _iterCount;
+
+    final private static ThreadLocalPool<ChunkedListIterator> _SLHolderPool =
+            new ThreadLocalPool<ChunkedListIterator>(new ChunkedListIteratorFactory());
+
+    private static final AtomicIntegerFieldUpdater<ChunkedStoredList> sizeUpdater = UncheckedAtomicIntegerFieldUpdater.newUpdater(ChunkedStoredList.class, "_size");
+    private static final AtomicIntegerFieldUpdater<ChunkedStoredList> compactingUpdater = UncheckedAtomicIntegerFieldUpdater.newUpdater(ChunkedStoredList.class, "_compacting");
+    private static final AtomicIntegerFieldUpdater<ChunkedStoredList> removesSinceCompactionUpdater = UncheckedAtomicIntegerFieldUpdater.newUpdater(ChunkedStoredList.class, "_removesSinceCompaction");
+    private static final AtomicReferenceFieldUpdater<ChunkedStoredList, Chunk> lastUpdater = UncheckedAtomicReferenceFieldUpdater.newUpdater(ChunkedStoredList.class, Chunk.class, "_last");
+
+    public ChunkedStoredList() {
+        _first = new Chunk<T>(0, 0);
+        _last = _first;
+    }
+
+    @Override
+    public int size() {
+        return _size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public IObjectInfo<T> add(T subject) {
+        if (sizeUpdater.incrementAndGet(this) < 0) {// list was invalidated
+            _size = Integer.MIN_VALUE;
+            return null;
+        }
+        for (Chunk<T> chunk = _last; ; chunk = nextChunk(chunk)) {
+            int index = chunk.claim();
+            if (index < chunk.capacity()) {
+                ChunkedSLObjectInfo<T> node = new ChunkedSLObjectInfo<T>(subject, chunk, index);
+                chunk._slots.set(index, node);
+                return node;
+            }
+        }
+    }
+
+    @Override
+    public IObjectInfo<T> addUnlocked(T subject) {
+        return add(subject);
+    }
+
+    /**
+     * get the chunk following the given full chunk, append one if there is none
+     */
+    private Chunk<T> nextChunk(Chunk<T> chunk) {
+        Chunk<T> next = chunk._next;
+        if (next == null) {
+            Chunk<T> newChunk = new Chunk<T>(chunk._seq + 1, chunk.capacity() == 0 ? FIRST_CHUNK_CAPACITY : Math.min(MAX_CHUNK_CAPACITY, chunk.capacity() * 2));
+            if (chunk.casNext(null, newChunk)) {
+                next = newChunk;
+                // the chunk could not be unlinked while it was last
+                if (chunk.isFullyRemoved())
+                    compact();
+            } else {
+                next = chunk._next;
+            }
+        }
+        lastUpdater.compareAndSet(this, chunk, next);
+        return next;
+    }
+
+    @Override
+    public void remove(IObjectInfo<T> oi) {
+        removeUnlocked(oi);
+        oi.setSubject(null); //nullify subject
+    }
+
+    @Override
+    public void removeUnlocked(IObjectInfo<T> oi) {
+        if (!removeNode((ChunkedSLObjectInfo<T>) oi))
+            throw new RuntimeException("ChunkedStoredList:remove node already removed");
+    }
+
+    private boolean removeNode(ChunkedSLObjectInfo<T> node) {
+        if (!node.markRemoved())
+            return false;
+        // a removed node is not moved, so its location is stable
+        final Chunk<T> chunk = node._chunk;
+        chunk._slots.lazySet(node._index, null);
+        sizeUpdater.decrementAndGet(this);
+        final boolean chunkRemoved = chunk.incrementRemoved() == chunk.capacity();
+        if (chunkRemoved || removesSinceCompactionUpdater.incrementAndGet(this) >= Math.max(MIN_REMOVES_TO_COMPACT, _size))
+            compact();
+        return true;
+    }
+
+    /**
+     * unlink chunks whose slots were all removed, and replace each run of chunks which are at least
+     * half removed by a chunk holding their live nodes. The last chunk is never unlinked or replaced
+     * since adds may still append after it, and if another thread is compacting the chunks are left
+     * to its next compaction.
+     */
+    private void compact() {
+        if (!compactingUpdater.compareAndSet(this, 0, 1))
+            return;
+        try {
+            _removesSinceCompaction = 0;
+            Chunk<T> prev = _first;
+            Chunk<T> chunk = prev._next;
+            while (chunk != null && chunk._next != null) {
+                if (chunk.isFullyRemoved()) {
+                    prev._next = chunk._next;
+                    chunk = chunk._next;
+                    continue;
+                }
+                int live = chunk.isSparse() ? chunk.countLive() : -1;
+                if (live < 0) {
+                    prev = chunk;
+                    chunk = chunk._next;
+                    continue;
+                }
+                Chunk<T> runEnd = chunk;
+                for (Chunk<T> next = chunk._next; next._next != null && next.isSparse(); next = next._next) {
+                    int nextLive = next.countLive();
+                    if (nextLive < 0 || live + nextLive > MAX_CHUNK_CAPACITY)
+                        break;
+                    live += nextLive;
+                    runEnd = next;
+                }
+                Chunk<T> merged = merge(chunk, runEnd, live);
+                prev._next = merged != null ? merged : runEnd._next;
+                if (merged != null)
+                    prev = merged;
+                chunk = runEnd._next;
+            }
+        } finally {
+            _compacting = 0;
+        }
+    }
+
+    /**
+     * move the live nodes of the chunks from the given first chunk up to the given last chunk to a
+     * new chunk. The replaced chunks keep referencing their nodes, so scans which are positioned in
+     * them still see the moved nodes once.
+     *
+     * @return the new chunk, linked to the chunk following the last chunk, or null if no live node
+     * was left
+     */
+    private Chunk<T> merge(Chunk<T> first, Chunk<T> last, int live) {
+        if (live == 0)
+            return null;
+        // the new chunk takes the position of the first chunk, so scans which were established
+        // before any of the chunks existed still end after it
+        Chunk<T> merged = new Chunk<T>(first._seq, live);
+        // no adds to the new chunk
+        merged._claimed = live;
+        int index = 0;
+        for (Chunk<T> chunk = first; ; chunk = chunk._next) {
+            for (int i = 0; i < chunk.capacity() && index < live; i++) {
+                ChunkedSLObjectInfo<T> node = chunk._slots.get(i);
+                if (node != null && node.markMoving()) {
+                    merged._slots.lazySet(index, node);
+                    node.moved(merged, index++);
+                }
+            }
+            if (chunk == last)
+                break;
+        }
+        // slots of nodes which were removed while moving count as removed, the moved nodes may
+        // already be removed as well
+        if (index < live && merged.addRemoved(live - index) == live)
+            return null;
+        merged._next = last._next;
+        return merged;
+    }
+
+    /**
+     * get the number of chunks linked in this SL
+     */
+    int getNumChunks() {
+        int res = 0;
+        for (Chunk<T> chunk = _first._next; chunk != null; chunk = chunk._next)
+            res++;
+        return res;
+    }
+
+    /**
+     * get the number of slots, live and removed, in the chunks linked in this SL
+     */
+    int getNumSlots() {
+        int res = 0;
+        for (Chunk<T> chunk = _first._next; chunk != null; chunk = chunk._next)
+            res += chunk.capacity();
+        return res;
+    }
+
+    @Override
+    public boolean contains(T obj) {
+        throw new RuntimeException("ChunkedStoredList::contains not supported");
+    }
+
+    /**
+     * given an object scan the list, find it and remove it, returns true if found
+     */
+    @Override
+    public boolean removeByObject(T obj) {
+        for (Chunk<T> chunk = _first._next; chunk != null; chunk = chunk._next) {
+            for (int i = 0, published = chunk.published(); i < published; i++) {
+                ChunkedSLObjectInfo<T> node = chunk._slots.get(i);
+                if (node == null || node.isRemoved())
+                    continue;
+                T other = node.getSubject();
+                if (other != null && other.equals(obj) && removeNode(node)) {
+                    node.setSubject(null);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sets an indication that this StoredList is invalid.
+     *
+     * if {@linkplain #isEmpty() isEmpty()} returns true, the indication is set; otherwise the
+     * indication remains false.
+     *
+     * @return <code>true</code> if StoredList was set to invalid; <code>false</code> otherwise.
+     */
+    @Override
+    public boolean invalidate() {
+        return sizeUpdater.compareAndSet(this, 0, Integer.MIN_VALUE);
+    }
+
+    /**
+     * Returns the first element in the list (fifo)
+     */
+    @Override
+    public IObjectInfo<T> getHead() {
+        for (Chunk<T> chunk = _first._next; chunk != null; chunk = chunk._next) {
+            for (int i = 0, published = chunk.published(); i < published; i++) {
+                ChunkedSLObjectInfo<T> node = chunk._slots.get(i);
+                if (node != null && !node.isRemoved())
+                    return node;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public T getObjectFromHead() {
+        IObjectInfo<T> head = getHead();
+        return head != null ? head.getSubject() : null;
+    }
+
+    @Override
+    public boolean optimizeScanForSingleObject() {
+        return size() <= 1;
+    }
+
+    /**
+     * establish a scan position. random scans alternate between insertion order and reverse order
+     */
+    @Override
+    public IStoredListIterator<T> establishListScan(boolean randomScan) {
+        return establishListScan(randomScan, false);
+    }
+
+    @Override
+    public IStoredListIterator<T> establishListScan(boolean randomScan, boolean alternatingThread) {
+        ChunkedListIterator<T> slh = alternatingThread ? new ChunkedListIterator<T>(true) : _SLHolderPool.get();
+
+        if (randomScan && (++_iterCount) % 2 == 0) {
+            // the chain is scanned backwards from a snapshot of its chunks - replaced chunks keep
+            // referencing their nodes, so the scan still sees each live node once
+            for (Chunk<T> chunk = _first._next; chunk != null; chunk = chunk._next)
+                slh._chunks.add(chunk);
+            slh._reverse = true;
+            slh._chunkPos = slh._chunks.size();
+            slh._index = 0;
+        } else {
+            Chunk<T> last = _last;
+            while (last._next != null)
+                last = last._next;
+            slh._chunk = _first;
+            slh._index = -1;
+            slh._lastSeq = last._seq;
+        }
+
+        if (advance(slh))
+            return slh;
+        slh.release();
+        return null;
+    }
+
+    @Override
+    public IStoredListIterator<T> next(IStoredListIterator<T> slh) {
+        ChunkedListIterator<T> iter = (ChunkedListIterator<T>) slh;
+        if (advance(iter))
+            return iter;
+        slh.release();
+        return null;
+    }
+
+    private boolean advance(ChunkedListIterator<T> iter) {
+        if (iter._reverse)
+            return advanceReverse(iter);
+        iter._cur = null;
+        Chunk<T> chunk = iter._chunk;
+        while (chunk != null && chunk._seq <= iter._lastSeq) {
+            for (int published = chunk.published(); ++iter._index < published; ) {
+                ChunkedSLObjectInfo<T> node = chunk._slots.get(iter._index);
+                if (node != null && !node.isRemoved()) {
+                    iter._cur = node;
+                    return true;
+                }
+            }
+            chunk = chunk._next;
+            iter._chunk = chunk;
+            iter._index = -1;
+        }
+        return false;
+    }
+
+    private boolean advanceReverse(ChunkedListIterator<T> iter) {
+        iter._cur = null;
+        for (; ; ) {
+            while (--iter._index >= 0) {
+                ChunkedSLObjectInfo<T> node = iter._chunk._slots.get(iter._index);
+                if (node != null && !node.isRemoved()) {
+                    iter._cur = node;
+                    return true;
+                }
+            }
+            if (iter._chunkPos == 0)
+                return false;
+            iter._chunk = iter._chunks.get(--iter._chunkPos);
+            iter._index = iter._chunk.published();
+        }
+    }
+
+    @Override
+    public void freeSLHolder(IStoredListIterator<T> slh) {
+        if (slh != null)
+            slh.release();
+    }
+
+    @Override
+    public boolean isMultiObjectCollection() {
+        return true;
+    }
+
+    @Override
+    public boolean isIterator() {
+        return false;
+    }
+
+    public void dump(Logger logger, String msg) {
+        if (logger.isInfoEnabled()) {
+            logger.info(msg);
+
+            IStoredListIterator<T> slh = null;
+            try {
+                for (slh = establishListScan(false); slh != null; slh = next(slh)) {
+                    T subject = slh.getSubject();
+                    if (subject != null)
+                        logger.info(subject.getClass().getName());
+                }
+            } finally {
+                if (slh != null)
+                    slh.release();
+            }
+        }
+    }
+
+    //+++++++ HASH ENTRY METHODS- unsupported for basic SL
+    public int getHashCode(int id) {
+        throw new RuntimeException(" unsupported");
+    }
+
+    public Object getKey(int id) {
+        throw new RuntimeException(" unsupported");
+    }
+
+    public IStoredList<T> getValue(int id) {
+        throw new RuntimeException(" unsupported");
+    }
+
+    public boolean isNativeHashEntry() {
+        return false;
+    }
+
+    static final class Chunk<T> {
+        private final long _seq;
+        private final AtomicReferenceArray<ChunkedSLObjectInfo<T>> _slots;
+        private volatile int _claimed;
+        private volatile int _removed;
+        private volatile Chunk<T> _next;
+
+        private static final AtomicIntegerFieldUpdater<Chunk> claimedUpdater = UncheckedAtomicIntegerFieldUpdater.newUpdater(Chunk.class, "_claimed");
+        private static final AtomicIntegerFieldUpdater<Chunk> removedUpdater = UncheckedAtomicIntegerFieldUpdater.newUpdater(Chunk.class, "_removed");
+        private static final AtomicReferenceFieldUpdater<Chunk, Chunk> nextUpdater = UncheckedAtomicReferenceFieldUpdater.newUpdater(Chunk.class, Chunk.class, "_next");
+
+        Chunk(long seq, int capacity) {
+            _seq = seq;
+            _slots = new AtomicReferenceArray<ChunkedSLObjectInfo<T>>(capacity);
+        }
+
+        int capacity() {
+            return _slots.length();
+        }
+
+        int claim() {
+            // slots are claimed only while not full, so failed claims do not keep growing the counter
+            return _claimed < capacity() ? claimedUpdater.getAndIncrement(this) : capacity();
+        }
+
+        /**
+         * @return the number of slots which were claimed - a claimed slot may not be set yet
+         */
+        int published() {
+            return Math.min(_claimed, capacity());
+        }
+
+        int incrementRemoved() {
+            return removedUpdater.incrementAndGet(this);
+        }
+
+        boolean isFullyRemoved() {
+            return _removed == capacity();
+        }
+
+        boolean isSparse() {
+            return _removed * 2 >= capacity();
+        }
+
+        /**
+         * @return the number of live nodes in this full chunk, or -1 if some slots are not accounted
+         * for yet - claimed slots which are not set, or nodes being removed
+         */
+        int countLive() {
+            // removed nodes are counted before the slots are read, since a removed node's slot is
+            // cleared before it is counted
+            final int removed = _removed;
+            int live = 0;
+            for (int i = 0; i < capacity(); i++) {
+                if (_slots.get(i) != null)
+                    live++;
+            }
+            return live + removed == capacity() ? live : -1;
+        }
+
+        int addRemoved(int delta) {
+            return removedUpdater.addAndGet(this, delta);
+        }
+
+        boolean casNext(Chunk<T> expect, Chunk<T> update) {
+            return nextUpdater.compareAndSet(this, expect, update);
+        }
+    }
+
+    static final class ChunkedSLObjectInfo<T> implements IObjectInfo<T> {
+        private static final int LIVE = 0;
+        private static final int REMOVED = 1;
+        private static final int MOVING = 2;
+
+        private T _data;
+        // published by the state changes
+        private Chunk<T> _chunk;
+        private int _index;
+        private volatile int _state;
+
+        private static final AtomicIntegerFieldUpdater<ChunkedSLObjectInfo> stateUpdater = UncheckedAtomicIntegerFieldUpdater.newUpdater(ChunkedSLObjectInfo.class, "_state");
+
+        ChunkedSLObjectInfo(T subject, Chunk<T> chunk, int index) {
+            _data = subject;
+            _chunk = chunk;
+            _index = index;
+        }
+
+        public void setSubject(T subject) {
+            _data = subject;
+        }
+
+        public T getSubject() {
+            return _data;
+        }
+
+        boolean markRemoved() {
+            for (; ; ) {
+                int state = _state;
+                if (state == REMOVED)
+                    return false;
+                if (state == LIVE && stateUpdater.compareAndSet(this, LIVE, REMOVED))
+                    return true;
+                // a move is a few writes by the compacting thread
+                if (state == MOVING)
+                    Thread.yield();
+            }
+        }
+
+        boolean markMoving() {
+            return stateUpdater.compareAndSet(this, LIVE, MOVING);
+        }
+
+        void moved(Chunk<T> chunk, int index) {
+            _chunk = chunk;
+            _index = index;
+            _state = LIVE;
+        }
+
+        boolean isRemoved() {
+            return _state == REMOVED;
+        }
+    }
+
+    private static class ChunkedListIteratorFactory implements PoolFactory<ChunkedListIterator> {
+        public ChunkedListIterator create() {
+            return new ChunkedListIterator(false);
+        }
+    }
+
+    static class ChunkedListIterator<T>
+            extends AbstractResource
+            implements IStoredListIterator<T> {
+        private final boolean _alternatingThread;
+        Chunk<T> _chunk;
+        int _index;
+        long _lastSeq;
+        ChunkedSLObjectInfo<T> _cur;
+        // the chunks of a reverse scan, scanned from the last one
+        final ArrayList<Chunk<T>> _chunks = new ArrayList<Chunk<T>>();
+        int _chunkPos;
+        boolean _reverse;
+
+        ChunkedListIterator(boolean alternatingThread) {
+            _alternatingThread = alternatingThread;
+        }
+
+        @Override
+        protected void clean() {
+            _chunk = null;
+            _index = -1;
+            _lastSeq = 0;
+            _cur = null;
+            _chunks.clear();
+            _chunkPos = 0;
+            _reverse = false;
+        }
+
+        public void setSubject(T subject) {
+            throw new RuntimeException("invalid usage");
+        }
+
+        public T getSubject() {
+            return _cur != null ? _cur.getSubject() : null;
+        }
+
+        @Override
+        public void release() {
+            if (_alternatingThread)
+                return;
+            super.release();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.j_spaces.kernel.locks;
+
+import com.gigaspaces.internal.server.storage.ITemplateHolder;
+
+/**
+ * Lock manager implementation for all-in-cache which locks entries by a fixed table of lock
+ * objects selected by the entry uid, instead of locking the entry itself. Contended entries inflate
+ * the monitors of the table objects which are reused, instead of inflating a monitor per entry.
+ * Lock objects are padded so neighbour objects in the table do not share a cache line. Templates
+ * are locked by themselves, entries are always locked by their uid lock object, regardless of the
+ * isEvictable indication passed by the caller (all-in-cache callers pass false for entries too).
+ *
+ * Since an entry is not its own lock object, an entry must be re-read after it is locked.
+ *
+ * @since 15.5
+ */
+@com.gigaspaces.api.InternalApi
+public class StripedLockManager<T extends ISelfLockingSubject>
+        implements IBasicLockManager<T> {
+    //padded lock object no 2 of them in same cache line
+    private static class PaddedLockObject implements ILockObject {
+        long p1, p2, p3, p4, p5, p6, p7, p8;  //padding
+
+        public boolean isLockSubject() {
+            return false;
+        }
+    }
+
+    private final PaddedLockObject[] _locks;
+    private final int _mask;
+
+    public StripedLockManager(int size) {
+        int stripes = 1;
+        while (stripes < size)
+            stripes <<= 1;
+
+        _locks = new PaddedLockObject[stripes];
+        for (int i = 0; i < stripes; i++)
+            _locks[i] = new PaddedLockObject();
+        _mask = stripes - 1;
+    }
+
+    /*
+     * @see com.j_spaces.kernel.locks.IBasicLockManager#getLockObject(java.lang.Object)
+     */
+    public ILockObject getLockObject(T subject) {
+        return getLockObject(subject, true /*isEvictable*/);
+    }
+
+    /*
+     * @see com.j_spaces.kernel.locks.IBasicLockManager#getLockObject(java.lang.Object, java.lang.Object, boolean)
+     */
+    public ILockObject getLockObject(T subject, boolean isEvictable) {
+        if (subject instanceof ITemplateHolder)
+            return subject; //templates lock themselves
+
+        return getLockObject_impl(subject.getUID());
+    }
+
+    /**
+     * based only on subject's uid, return a lock object in order to lock the represented subject
+     *
+     * @return the lock object
+     */
+    public ILockObject getLockObject(String subjectUid) {
+        return getLockObject_impl(subjectUid);
+    }
+
+    private ILockObject getLockObject_impl(String subjectUid) {
+        int h = subjectUid.hashCode();
+        return _locks[(h ^ (h >>> 16)) & _mask];
+    }
+
+    /*
+     * @see com.j_spaces.kernel.locks.IBasicLockManager#freeLockObject(com.j_spaces.kernel.locks.ILockObject)
+     */
+    public void freeLockObject(ILockObject lockObject) {
+        return;
+    }
+
+    /**
+     * do we use subject for locking itself ?
+     *
+     * @param isEvictable - is subject evictable
+     * @return false, entries are never locked by themselves
+     */
+    public boolean isPerLogicalSubjectLockObject(boolean isEvictable) {
+        return false;
+    }
+
+    int getNumLocks() {
+        return _locks.length;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.gigaspaces.client.iterator.cursor;
+
+import com.gigaspaces.async.AsyncFutureListener;
+import com.gigaspaces.async.internal.DefaultAsyncResult;
+import com.gigaspaces.internal.client.SpaceIteratorBatchResult;
+import com.gigaspaces.internal.client.spaceproxy.ISpaceProxy;
+import com.gigaspaces.internal.client.spaceproxy.executors.SinglePartitionGetBatchForIteratorSpaceTask;
+import com.gigaspaces.internal.cluster.SpaceClusterInfo;
+import com.gigaspaces.internal.remoting.routing.partitioned.PartitionedClusterUtils;
+import com.gigaspaces.internal.space.requests.GetBatchForIteratorSpaceRequestInfo;
+import com.gigaspaces.internal.transport.ITemplatePacket;
+
+import net.jini.core.transaction.Transaction;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+public class SpaceIteratorBatchResultProviderTest {
+
+    private static final int BATCH_SIZE = 2;
+    private static final int PARTITION = PartitionedClusterUtils.NO_PARTITION;
+
+    private ISpaceProxy spaceProxy;
+
+    @Before
+    public void setUp() {
+        spaceProxy = Mockito.mock(ISpaceProxy.class, Mockito.RETURNS_DEEP_STUBS);
+        Mockito.when(spaceProxy.getDirectProxy().getSpaceClusterInfo()).thenReturn(new SpaceClusterInfo());
+    }
+
+    @Test
+    public void nextBatchIsRequestedOnConsumeWithoutPrefetch() throws Exception {
+        SpaceIteratorBatchResultProvider provider = createProvider(1);
+        Assert.assertEquals(Arrays.asList(0), requestedBatches());
+
+        SpaceIteratorBatchResult batch0 = arrive(provider, 0, BATCH_SIZE);
+        Assert.assertEquals(Arrays.asList(0), requestedBatches());
+        consume(provider, batch0);
+        Assert.assertEquals(Arrays.asList(0, 1), requestedBatches());
+
+        SpaceIteratorBatchResult batch1 = arrive(provider, 1, BATCH_SIZE);
+        provider.close();
+        provider.onBatchConsumed(batch1);
+        Assert.assertEquals(Arrays.asList(0, 1), requestedBatches());
+    }
+
+    @Test
+    public void creditsLimitInFlightPrefetch() throws Exception {
+        SpaceIteratorBatchResultProvider provider = createProvider(2);
+        Assert.assertEquals(Arrays.asList(0), requestedBatches());
+
+        SpaceIteratorBatchResult batch0 = arrive(provider, 0, BATCH_SIZE);
+        //a credit is left, the next batch is requested before the buffered one is consumed
+        Assert.assertEquals(Arrays.asList(0, 1), requestedBatches());
+        SpaceIteratorBatchResult batch1 = arrive(provider, 1, BATCH_SIZE);
+        //all credits are used by buffered batches
+        Assert.assertEquals(Arrays.asList(0, 1), requestedBatches());
+        Assert.assertEquals(2, provider.getBufferedBatches(PARTITION));
+
+        consume(provider, batch0);
+        Assert.assertEquals(Arrays.asList(0, 1, 2), requestedBatches());
+        Assert.assertEquals(1, provider.getBufferedBatches(PARTITION));
+        //the batch in flight is not requested again
+        consume(provider, batch1);
+        Assert.assertEquals(Arrays.asList(0, 1, 2), requestedBatches());
+
+        //the last batch is not full, no more batches are requested
+        consume(provider, arrive(provider, 2, 1));
+        Assert.assertEquals(Arrays.asList(0, 1, 2), requestedBatches());
+    }
+
+    @Test
+    public void creditsAreReturnedOnClose() throws Exception {
+        SpaceIteratorBatchResultProvider provider = createProvider(2);
+        SpaceIteratorBatchResult batch0 = arrive(provider, 0, BATCH_SIZE);
+        arrive(provider, 1, BATCH_SIZE);
+        Assert.assertEquals(2, provider.getBufferedBatches(PARTITION));
+
+        provider.close();
+        Assert.assertEquals(0, provider.getBufferedBatches(PARTITION));
+        Assert.assertNull(provider.consumeBatch(0));
+
+        //batches which were in flight when closing do not trigger more requests
+        provider.onBatchConsumed(batch0);
+        arrive(provider, 2, BATCH_SIZE);
+        Assert.assertEquals(Arrays.asList(0, 1), requestedBatches());
+    }
+
+    private SpaceIteratorBatchResultProvider createProvider(int prefetchBatches) {
+        ITemplatePacket queryPacket = Mockito.mock(ITemplatePacket.class);
+        return new SpaceIteratorBatchResultProvider(spaceProxy, BATCH_SIZE, 0, queryPacket, UUID.randomUUID(), 60000, prefetchBatches);
+    }
+
+    private static SpaceIteratorBatchResult arrive(SpaceIteratorBatchResultProvider provider, int batchNumber, int entries) {
+        SpaceIteratorBatchResult result = new SpaceIteratorBatchResult(new Object[entries], PARTITION, batchNumber, provider.getUuid());
+        provider.addAsyncBatchResult(new DefaultAsyncResult<SpaceIteratorBatchResult>(result, null));
+        return result;
+    }
+
+    private static void consume(SpaceIteratorBatchResultProvider provider, SpaceIteratorBatchResult expected) throws InterruptedException {
+        Assert.assertSame(expected, provider.consumeBatch(0));
+        if (expected.getEntries().length == BATCH_SIZE)
+            provider.onBatchConsumed(expected);
+    }
+
+    private List<Integer> requestedBatches() throws Exception {
+        ArgumentCaptor<SinglePartitionGetBatchForIteratorSpaceTask> tasks = ArgumentCaptor.forClass(SinglePartitionGetBatchForIteratorSpaceTask.class);
+        Mockito.verify(spaceProxy, Mockito.atLeastOnce()).execute(tasks.capture(), Mockito.eq(PARTITION), Mockito.any(Transaction.class),
+                Mockito.any(AsyncFutureListener.class));
+        List<Integer> batchNumbers = new ArrayList<Integer>();
+        for (SinglePartitionGetBatchForIteratorSpaceTask task : tasks.getAllValues())
+            batchNumbers.add(((GetBatchForIteratorSpaceRequestInfo) task.getSpaceRequestInfo()).getBatchNumber());
+        return batchNumbers;
+    }
+}
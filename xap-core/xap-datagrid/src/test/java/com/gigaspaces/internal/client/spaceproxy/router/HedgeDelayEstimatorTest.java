@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.client.spaceproxy.router;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HedgeDelayEstimatorTest {
+
+    @Test
+    public void minDelayIsUsedUntilEnoughSamples() {
+        HedgeDelayEstimator estimator = new HedgeDelayEstimator(95, 1000);
+        for (int i = 0; i < HedgeDelayEstimator.RECALCULATE_INTERVAL - 1; i++)
+            estimator.addSample(50000);
+        Assert.assertEquals(1000, estimator.getDelayNanos());
+    }
+
+    @Test
+    public void delayIsPercentileOfSamples() {
+        HedgeDelayEstimator estimator = new HedgeDelayEstimator(95, 1000);
+        for (int i = 1; i <= HedgeDelayEstimator.MAX_SAMPLES; i++)
+            estimator.addSample(i * 10000L);
+        // ceil(1024 * 0.95) = 973
+        Assert.assertEquals(9730000L, estimator.getDelayNanos());
+    }
+
+    @Test
+    public void delayIsNotBelowMinDelay() {
+        HedgeDelayEstimator estimator = new HedgeDelayEstimator(50, 1000);
+        for (int i = 0; i < HedgeDelayEstimator.RECALCULATE_INTERVAL; i++)
+            estimator.addSample(10);
+        Assert.assertEquals(1000, estimator.getDelayNanos());
+    }
+
+    @Test
+    public void delayAdaptsToRecentSamples() {
+        HedgeDelayEstimator estimator = new HedgeDelayEstimator(90, 1000);
+        for (int i = 0; i < HedgeDelayEstimator.MAX_SAMPLES; i++)
+            estimator.addSample(1000000);
+        Assert.assertEquals(1000000, estimator.getDelayNanos());
+        for (int i = 0; i < HedgeDelayEstimator.MAX_SAMPLES; i++)
+            estimator.addSample(20000);
+        Assert.assertEquals(20000, estimator.getDelayNanos());
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.gigaspaces.internal.client.spaceproxy.router;
+
+import com.gigaspaces.async.AsyncFutureListener;
+import com.gigaspaces.async.AsyncResult;
+import com.gigaspaces.internal.client.spaceproxy.SpaceProxyImpl;
+import com.gigaspaces.internal.client.spaceproxy.operations.ReadTakeEntrySpaceOperationRequest;
+import com.gigaspaces.internal.client.spaceproxy.operations.ReadTakeEntrySpaceOperationResult;
+import com.gigaspaces.internal.remoting.RemoteOperationFutureListener;
+import com.gigaspaces.internal.remoting.routing.clustered.RemoteOperationsExecutorProxy;
+import com.gigaspaces.internal.remoting.routing.clustered.RemoteOperationsExecutorsCluster;
+import com.gigaspaces.internal.remoting.routing.clustered.SpaceProxyLoadBalancingStrategy;
+import com.gigaspaces.internal.server.space.IRemoteSpace;
+import com.gigaspaces.internal.transport.ITemplatePacket;
+import com.gigaspaces.internal.transport.TemplatePacket;
+import com.j_spaces.core.Constants;
+import com.j_spaces.core.IdQueryPacket;
+import com.j_spaces.core.SpaceContext;
+
+import net.jini.core.transaction.Transaction;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.slf4j.LoggerFactory;
+
+import java.util.Properties;
+
+public class SpaceBackupReadsHandlerTest {
+
+    private static final long MAX_STALENESS = 100;
+
+    private SpaceClusterRemoteOperationRouter router;
+    private RemoteOperationsExecutorsCluster cluster;
+    private SpaceProxyLoadBalancingStrategy loadBalancer;
+    private RemoteOperationsExecutorProxy active;
+    private RemoteOperationsExecutorProxy backup;
+
+    @Before
+    public void setUp() throws Exception {
+        SpaceProxyImpl spaceProxy = Mockito.mock(SpaceProxyImpl.class);
+        Mockito.when(spaceProxy.beforeExecute(Mockito.any(ReadTakeEntrySpaceOperationRequest.class), Mockito.any(IRemoteSpace.class),
+                Mockito.anyInt(), Mockito.anyString(), Mockito.anyBoolean())).thenReturn(true);
+        router = Mockito.mock(SpaceClusterRemoteOperationRouter.class);
+        Mockito.when(router.getSpaceProxy()).thenReturn(spaceProxy);
+
+        active = createMember("active");
+        backup = createMember("backup");
+        loadBalancer = Mockito.mock(SpaceProxyLoadBalancingStrategy.class);
+        Mockito.when(loadBalancer.getCandidate(Mockito.any(ReadTakeEntrySpaceOperationRequest.class))).thenReturn(active);
+        cluster = Mockito.mock(RemoteOperationsExecutorsCluster.class);
+        Mockito.when(cluster.getLogger()).thenReturn(LoggerFactory.getLogger(SpaceBackupReadsHandlerTest.class));
+        Mockito.when(cluster.getName()).thenReturn("space");
+        Mockito.when(cluster.getLoadBalancer()).thenReturn(loadBalancer);
+        Mockito.when(cluster.getAnyConnectedMemberExcept(active)).thenReturn(backup);
+    }
+
+    @Test
+    public void onlyNonBlockingReadsByIdAreBackupReadable() {
+        Assert.assertTrue(SpaceBackupReadsHandler.isBackupReadable(createRequest(idQuery(), null, false, 0)));
+        Assert.assertFalse(SpaceBackupReadsHandler.isBackupReadable(createRequest(idQuery(), null, true, 0)));
+        Assert.assertFalse(SpaceBackupReadsHandler.isBackupReadable(createRequest(idQuery(), Mockito.mock(Transaction.class), false, 0)));
+        Assert.assertFalse(SpaceBackupReadsHandler.isBackupReadable(createRequest(idQuery(), null, false, 1000)));
+        Assert.assertFalse(SpaceBackupReadsHandler.isBackupReadable(createRequest(new TemplatePacket(), null, false, 0)));
+    }
+
+    @Test
+    public void nonReadableRequestIsNotHandled() throws Exception {
+        ReadTakeEntrySpaceOperationRequest request = createRequest(idQuery(), null, true, 0);
+        Assert.assertFalse(createHandler(false).execute(request));
+        Mockito.verifyZeroInteractions(backup, router);
+    }
+
+    @Test
+    public void readIsServedByBackup() throws Exception {
+        ReadTakeEntrySpaceOperationRequest request = createRequest(idQuery(), null, false, 0);
+        ReadTakeEntrySpaceOperationRequest backupRequest = createCopy(request);
+        ReadTakeEntrySpaceOperationResult result = new ReadTakeEntrySpaceOperationResult();
+        Mockito.when(backup.execute(backupRequest)).thenReturn(result);
+        Mockito.when(backupRequest.getRemoteOperationResult()).thenReturn(result);
+
+        Assert.assertTrue(createHandler(false).execute(request));
+
+        Mockito.verify(request).setRemoteOperationResult(result);
+        Mockito.verify(router, Mockito.never()).executeOnActiveMember(request);
+        ArgumentCaptor<SpaceContext> spaceContext = ArgumentCaptor.forClass(SpaceContext.class);
+        Mockito.verify(backupRequest).setSpaceContext(spaceContext.capture());
+        Assert.assertEquals(MAX_STALENESS, spaceContext.getValue().getMaxBackupStaleness());
+    }
+
+    @Test
+    public void readRejectedByBackupIsExecutedOnActive() throws Exception {
+        ReadTakeEntrySpaceOperationRequest request = createRequest(idQuery(), null, false, 0);
+        ReadTakeEntrySpaceOperationRequest backupRequest = createCopy(request);
+        ReadTakeEntrySpaceOperationResult result = new ReadTakeEntrySpaceOperationResult();
+        result.setExecutionException(new Exception("backup space"));
+        Mockito.when(backup.execute(backupRequest)).thenReturn(result);
+
+        Assert.assertTrue(createHandler(false).execute(request));
+
+        Mockito.verify(router).executeOnActiveMember(request);
+        Mockito.verify(request, Mockito.never()).setRemoteOperationResult(Mockito.any(ReadTakeEntrySpaceOperationResult.class));
+    }
+
+    @Test
+    public void readIsExecutedOnActiveWithoutBackup() throws Exception {
+        Mockito.when(cluster.getAnyConnectedMemberExcept(active)).thenReturn(null);
+        ReadTakeEntrySpaceOperationRequest request = createRequest(idQuery(), null, false, 0);
+
+        Assert.assertTrue(createHandler(false).execute(request));
+        Assert.assertTrue(createHandler(true).execute(request));
+
+        Mockito.verify(router, Mockito.times(2)).executeOnActiveMember(request);
+        Mockito.verifyZeroInteractions(backup);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void hedgedReadIsServedByBackupWhenActiveIsSlow() throws Exception {
+        final ReadTakeEntrySpaceOperationRequest request = createRequest(idQuery(), null, false, 0);
+        final ReadTakeEntrySpaceOperationRequest activeRequest = Mockito.mock(ReadTakeEntrySpaceOperationRequest.class);
+        final ReadTakeEntrySpaceOperationRequest backupRequest = Mockito.mock(ReadTakeEntrySpaceOperationRequest.class);
+        Mockito.when(request.createCopy(Mockito.anyInt())).thenReturn(activeRequest, backupRequest);
+        final ReadTakeEntrySpaceOperationResult result = new ReadTakeEntrySpaceOperationResult();
+        Mockito.doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                AsyncResult<ReadTakeEntrySpaceOperationResult> asyncResult = Mockito.mock(AsyncResult.class);
+                Mockito.when(asyncResult.getResult()).thenReturn(result);
+                ((AsyncFutureListener<ReadTakeEntrySpaceOperationResult>) invocation.getArguments()[1]).onResult(asyncResult);
+                return null;
+            }
+        }).when(backup).executeAsync(Mockito.eq(backupRequest), Mockito.any(AsyncFutureListener.class));
+
+        // the active member never completes
+        Assert.assertTrue(createHandler(true).execute(request));
+
+        Mockito.verify(router).executeAsync(Mockito.eq(activeRequest), Mockito.any(RemoteOperationFutureListener.class));
+        Mockito.verify(request).setRemoteOperationResult(result);
+    }
+
+    private SpaceBackupReadsHandler createHandler(boolean hedge) {
+        Properties properties = new Properties();
+        properties.setProperty(Constants.SpaceProxy.Router.BACKUP_READS_MAX_STALENESS, String.valueOf(MAX_STALENESS));
+        properties.setProperty(Constants.SpaceProxy.Router.BACKUP_READS_HEDGE, String.valueOf(hedge));
+        properties.setProperty(Constants.SpaceProxy.Router.BACKUP_READS_HEDGE_MIN_DELAY_MICROS, "1000");
+        return new SpaceBackupReadsHandler(router, cluster, new SpaceRemoteOperationsExecutorsClusterConfig(properties));
+    }
+
+    private static RemoteOperationsExecutorProxy createMember(String name) {
+        RemoteOperationsExecutorProxy member = Mockito.mock(RemoteOperationsExecutorProxy.class);
+        Mockito.when(member.getName()).thenReturn(name);
+        Mockito.when(member.getExecutor()).thenReturn(Mockito.mock(IRemoteSpace.class));
+        return member;
+    }
+
+    private static ITemplatePacket idQuery() {
+        return Mockito.mock(IdQueryPacket.class);
+    }
+
+    private static ReadTakeEntrySpaceOperationRequest createRequest(ITemplatePacket template, Transaction txn, boolean take, long timeout) {
+        ReadTakeEntrySpaceOperationRequest request = Mockito.mock(ReadTakeEntrySpaceOperationRequest.class);
+        Mockito.when(request.getTemplatePacket()).thenReturn(template);
+        Mockito.when(request.getTransaction()).thenReturn(txn);
+        Mockito.when(request.isTake()).thenReturn(take);
+        Mockito.when(request.getTimeout()).thenReturn(timeout);
+        return request;
+    }
+
+    private static ReadTakeEntrySpaceOperationRequest createCopy(ReadTakeEntrySpaceOperationRequest request) {
+        ReadTakeEntrySpaceOperationRequest copy = Mockito.mock(ReadTakeEntrySpaceOperationRequest.class);
+        Mockito.when(request.createCopy(Mockito.anyInt())).thenReturn(copy);
+        return copy;
+    }
+}
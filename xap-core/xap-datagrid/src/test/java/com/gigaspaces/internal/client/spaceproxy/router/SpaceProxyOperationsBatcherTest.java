@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.client.spaceproxy.router;
+
+import com.gigaspaces.internal.client.spaceproxy.operations.WriteEntriesSpaceOperationRequest;
+import com.gigaspaces.internal.client.spaceproxy.operations.WriteEntriesSpaceOperationResult;
+import com.gigaspaces.internal.client.spaceproxy.operations.WriteEntrySpaceOperationRequest;
+import com.gigaspaces.internal.cluster.SpaceClusterInfo;
+import com.gigaspaces.internal.remoting.routing.RemoteOperationRouter;
+import com.gigaspaces.internal.remoting.routing.partitioned.PartitionedClusterRemoteOperationRouter;
+import com.gigaspaces.internal.server.space.operations.WriteEntriesResult;
+import com.gigaspaces.internal.server.space.operations.WriteEntryResult;
+import com.gigaspaces.internal.transport.IEntryPacket;
+import com.j_spaces.core.client.UpdateModifiers;
+import net.jini.core.lease.Lease;
+import net.jini.core.transaction.Transaction;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Matchers.any;
+
+public class SpaceProxyOperationsBatcherTest {
+
+    private static final int THREADS = 8;
+
+    private PartitionedClusterRemoteOperationRouter router;
+    private final AtomicInteger batches = new AtomicInteger();
+    private final AtomicInteger batchedEntries = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        SpaceClusterInfo clusterInfo = Mockito.mock(SpaceClusterInfo.class);
+        Mockito.when(clusterInfo.getNumberOfPartitions()).thenReturn(2);
+        RemoteOperationRouter partitionRouter = Mockito.mock(RemoteOperationRouter.class);
+        Mockito.doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                WriteEntriesSpaceOperationRequest request = (WriteEntriesSpaceOperationRequest) invocation.getArguments()[0];
+                IEntryPacket[] packets = request.getEntriesPackets();
+                WriteEntriesResult result = new WriteEntriesResult(packets.length);
+                for (int i = 0; i < packets.length; i++) {
+                    if (packets[i].getUID().startsWith("error"))
+                        result.setError(i, new IllegalStateException(packets[i].getUID()));
+                    else
+                        result.setResult(i, new WriteEntryResult(packets[i].getUID(), 1, Lease.FOREVER));
+                }
+                request.setRemoteOperationResult(new WriteEntriesSpaceOperationResult(result, null));
+                batches.incrementAndGet();
+                batchedEntries.addAndGet(packets.length);
+                return null;
+            }
+        }).when(partitionRouter).execute(any(WriteEntriesSpaceOperationRequest.class));
+
+        router = Mockito.mock(PartitionedClusterRemoteOperationRouter.class);
+        Mockito.when(router.getClusterInfo()).thenReturn(clusterInfo);
+        Mockito.when(router.getNumOfPartitions()).thenReturn(2);
+        Mockito.when(router.getPartitionRouter(Mockito.anyInt())).thenReturn(partitionRouter);
+    }
+
+    @Test
+    public void concurrentWritesAreBatched() throws Exception {
+        final SpaceProxyOperationsBatcher batcher = new SpaceProxyOperationsBatcher(router, THREADS, 10000000);
+        final List<WriteEntrySpaceOperationRequest> requests = new ArrayList<WriteEntrySpaceOperationRequest>();
+        for (int i = 0; i < THREADS; i++)
+            requests.add(newWriteRequest(i % 2 == 0 ? "uid" + i : "error" + i, null));
+
+        executeConcurrently(batcher, requests);
+
+        Assert.assertEquals("batch should be executed once it is full", 1, batches.get());
+        Assert.assertEquals(THREADS, batchedEntries.get());
+        for (WriteEntrySpaceOperationRequest request : requests) {
+            String uid = request.getEntryPacket().getUID();
+            if (uid.startsWith("error")) {
+                Assert.assertNull(request.getRemoteOperationResult().getResult());
+                Assert.assertEquals(uid, request.getRemoteOperationResult().getExecutionException().getMessage());
+            } else {
+                Assert.assertNull(request.getRemoteOperationResult().getExecutionException());
+                Assert.assertEquals(uid, request.getRemoteOperationResult().getResult().getUid());
+            }
+        }
+    }
+
+    @Test
+    public void batchIsExecutedWhenWindowElapses() throws Exception {
+        SpaceProxyOperationsBatcher batcher = new SpaceProxyOperationsBatcher(router, 100, 100);
+        WriteEntrySpaceOperationRequest request = newWriteRequest("uid", null);
+        Assert.assertTrue(batcher.execute(request));
+        Assert.assertEquals(1, batches.get());
+        Assert.assertEquals("uid", request.getRemoteOperationResult().getResult().getUid());
+    }
+
+    @Test
+    public void transactionalWriteIsNotBatched() throws Exception {
+        SpaceProxyOperationsBatcher batcher = new SpaceProxyOperationsBatcher(router, 100, 100);
+        Assert.assertFalse(batcher.execute(newWriteRequest("uid", Mockito.mock(Transaction.class))));
+        Assert.assertEquals(0, batches.get());
+    }
+
+    private static WriteEntrySpaceOperationRequest newWriteRequest(String uid, Transaction txn) {
+        IEntryPacket packet = Mockito.mock(IEntryPacket.class);
+        Mockito.when(packet.getUID()).thenReturn(uid);
+        Mockito.when(packet.getRoutingFieldValue()).thenReturn(1);
+        return new WriteEntrySpaceOperationRequest(packet, txn, Lease.FOREVER, 0, UpdateModifiers.UPDATE_OR_WRITE, false);
+    }
+
+    private static void executeConcurrently(final SpaceProxyOperationsBatcher batcher, List<WriteEntrySpaceOperationRequest> requests)
+            throws Exception {
+        final List<Throwable> errors = new ArrayList<Throwable>();
+        List<Thread> threads = new ArrayList<Thread>();
+        for (final WriteEntrySpaceOperationRequest request : requests) {
+            threads.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        Assert.assertTrue(batcher.execute(request));
+                    } catch (Throwable t) {
+                        synchronized (errors) {
+                            errors.add(t);
+                        }
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads)
+            thread.start();
+        for (Thread thread : threads)
+            thread.join(30000);
+        Assert.assertTrue(errors.toString(), errors.isEmpty());
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.client.spaceproxy.transaction;
+
+import com.gigaspaces.async.AsyncFuture;
+import com.gigaspaces.async.AsyncFutureListener;
+import com.gigaspaces.executor.SpaceTask;
+import com.gigaspaces.internal.client.spaceproxy.IDirectSpaceProxy;
+import com.gigaspaces.internal.client.spaceproxy.ISpaceProxy;
+import com.gigaspaces.internal.client.spaceproxy.metadata.ISpaceProxyTypeManager;
+import com.gigaspaces.internal.client.spaceproxy.metadata.ObjectType;
+import com.gigaspaces.internal.cluster.SpaceClusterInfo;
+import com.gigaspaces.internal.server.space.operations.WriteEntryResult;
+import com.gigaspaces.internal.space.responses.SinglePartitionTransactionResponseInfo;
+import com.gigaspaces.internal.transport.IEntryPacket;
+import com.j_spaces.core.client.EntryVersionConflictException;
+import net.jini.core.lease.Lease;
+import net.jini.core.transaction.CannotCommitException;
+import net.jini.core.transaction.Transaction;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+
+public class SinglePartitionTransactionTest {
+
+    private ISpaceProxy spaceProxy;
+    private ISpaceProxyTypeManager typeManager;
+
+    @Before
+    public void setUp() {
+        SpaceClusterInfo clusterInfo = Mockito.mock(SpaceClusterInfo.class);
+        Mockito.when(clusterInfo.isPartitioned()).thenReturn(true);
+        Mockito.when(clusterInfo.getNumberOfPartitions()).thenReturn(2);
+        typeManager = Mockito.mock(ISpaceProxyTypeManager.class);
+        Mockito.when(typeManager.getEntryPacketFromObject(any(), any(ObjectType.class))).thenAnswer(new Answer<IEntryPacket>() {
+            @Override
+            public IEntryPacket answer(InvocationOnMock invocation) {
+                return (IEntryPacket) invocation.getArguments()[0];
+            }
+        });
+        IDirectSpaceProxy directProxy = Mockito.mock(IDirectSpaceProxy.class);
+        Mockito.when(directProxy.getSpaceClusterInfo()).thenReturn(clusterInfo);
+        Mockito.when(directProxy.getTypeManager()).thenReturn(typeManager);
+        spaceProxy = Mockito.mock(ISpaceProxy.class);
+        Mockito.when(spaceProxy.getDirectProxy()).thenReturn(directProxy);
+    }
+
+    @Test
+    public void operationsRoutedToAnotherPartitionAreRejected() {
+        SinglePartitionTransaction txn = new SinglePartitionTransaction(spaceProxy);
+        txn.write(newEntry(1), 0).write(newEntry(3), 0);
+        try {
+            txn.write(newEntry(2), 0);
+            Assert.fail("operation routed to another partition should be rejected");
+        } catch (IllegalArgumentException e) {
+        }
+        Assert.assertEquals(2, txn.size());
+    }
+
+    @Test
+    public void operationsAreExecutedInOneRequest() throws Exception {
+        IEntryPacket first = newEntry(1);
+        IEntryPacket second = newEntry(3);
+        WriteEntryResult firstResult = new WriteEntryResult("uid1", 1, Lease.FOREVER);
+        WriteEntryResult secondResult = new WriteEntryResult("uid2", 1, Lease.FOREVER);
+        SinglePartitionTransactionResponseInfo response = new SinglePartitionTransactionResponseInfo(2);
+        response.setResult(0, firstResult);
+        response.setResult(1, secondResult);
+        mockExecute(response);
+
+        new SinglePartitionTransaction(spaceProxy).write(first, 0).write(second, 0).commit();
+
+        Mockito.verify(spaceProxy, Mockito.times(1)).execute(any(SpaceTask.class), eq(1), any(Transaction.class), any(AsyncFutureListener.class));
+        Mockito.verify(typeManager).processWriteResult(firstResult, first, first);
+        Mockito.verify(typeManager).processWriteResult(secondResult, second, second);
+    }
+
+    @Test
+    public void failedOperationFailsCommit() throws Exception {
+        SinglePartitionTransactionResponseInfo response = new SinglePartitionTransactionResponseInfo(2);
+        response.setException(1, new EntryVersionConflictException("uid2", 3, 2, "Update"));
+        mockExecute(response);
+        try {
+            new SinglePartitionTransaction(spaceProxy).write(newEntry(1), 0).write(newEntry(3), 0).commit();
+            Assert.fail("commit should fail");
+        } catch (CannotCommitException e) {
+            Assert.assertTrue(e.getCause() instanceof EntryVersionConflictException);
+        }
+        Mockito.verify(typeManager, Mockito.never()).processWriteResult(any(WriteEntryResult.class), any(), any(IEntryPacket.class));
+    }
+
+    private void mockExecute(SinglePartitionTransactionResponseInfo response) throws Exception {
+        AsyncFuture future = Mockito.mock(AsyncFuture.class);
+        Mockito.when(future.get()).thenReturn(response);
+        Mockito.when(spaceProxy.execute(any(SpaceTask.class), any(), any(Transaction.class), any(AsyncFutureListener.class))).thenReturn(future);
+    }
+
+    private static IEntryPacket newEntry(int routing) {
+        IEntryPacket packet = Mockito.mock(IEntryPacket.class);
+        Mockito.when(packet.getRoutingFieldValue()).thenReturn(routing);
+        return packet;
+    }
+}
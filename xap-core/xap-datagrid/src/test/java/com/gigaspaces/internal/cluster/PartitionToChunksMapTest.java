@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.cluster;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+
+public class PartitionToChunksMapTest {
+
+    @Test
+    public void moveChunks() {
+        PartitionToChunksMap map = newMap(4);
+        PartitionToChunksMap newMap = map.moveChunks(Arrays.asList(0, 4), 2);
+
+        Assert.assertEquals(map.getGeneration() + 1, newMap.getGeneration());
+        Assert.assertEquals(0, map.getPartitionIdByChunk(0));
+        Assert.assertEquals(2, newMap.getPartitionIdByChunk(0));
+        Assert.assertEquals(2, newMap.getPartitionIdByChunk(4));
+        Assert.assertEquals(map.getChunks(0).size() - 2, newMap.getChunks(0).size());
+        Assert.assertEquals(map.getChunks(2).size() + 2, newMap.getChunks(2).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void moveChunksToIllegalPartition() {
+        newMap(4).moveChunks(Arrays.asList(0), 4);
+    }
+
+    @Test
+    public void scaleOut() {
+        PartitionToChunksMap map = newMap(8);
+        PartitionToChunksMap newMap = map.scaleOut(16);
+
+        Assert.assertEquals(16, newMap.getNumOfPartitions());
+        Assert.assertEquals(map.getGeneration() + 1, newMap.getGeneration());
+        for (int partition = 0; partition < 16; partition++)
+            Assert.assertEquals(PartitionToChunksMap.CHUNKS_COUNT / 16, newMap.getChunks(partition).size());
+        for (int chunk = 0; chunk < PartitionToChunksMap.CHUNKS_COUNT; chunk++) {
+            int partition = newMap.getPartitionIdByChunk(chunk);
+            if (partition != map.getPartitionIdByChunk(chunk))
+                Assert.assertTrue("chunk " + chunk + " should move only to a new partition", partition >= 8);
+        }
+    }
+
+    @Test
+    public void getIncomingChunks() {
+        PartitionToChunksMap map = newMap(2);
+        PartitionToChunksMap newMap = map.scaleOut(3);
+
+        Assert.assertTrue(map.getIncomingChunks(newMap, 0).isEmpty());
+        Map<Integer, Set<Integer>> incoming = map.getIncomingChunks(newMap, 2);
+        int total = 0;
+        for (Map.Entry<Integer, Set<Integer>> entry : incoming.entrySet()) {
+            for (Integer chunk : entry.getValue())
+                Assert.assertEquals(entry.getKey().intValue(), map.getPartitionIdByChunk(chunk));
+            total += entry.getValue().size();
+        }
+        Assert.assertEquals(newMap.getChunks(2).size(), total);
+    }
+
+    private static PartitionToChunksMap newMap(int partitions) {
+        PartitionToChunksMap map = new PartitionToChunksMap(partitions, 0);
+        map.init();
+        return map;
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.cluster.node.impl.groups.sync;
+
+import com.gigaspaces.internal.cluster.node.impl.packets.IReplicationOrderedPacket;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class SyncReplicationGroupCommitterTest {
+
+    private static final int THREADS = 6;
+
+    @Test
+    public void uncontendedReplicationIsDispatchedDirectly() {
+        RecordingDispatcher dispatcher = new RecordingDispatcher(null);
+        SyncReplicationGroupCommitter committer = new SyncReplicationGroupCommitter("group", dispatcher, TimeUnit.SECONDS.toNanos(10), 100);
+        ISyncReplicationGroupOutContext context = newContext(1);
+        Assert.assertEquals(1, committer.execute(context));
+        Assert.assertEquals(1, dispatcher.dispatched.size());
+        Assert.assertSame(context, dispatcher.dispatched.get(0));
+    }
+
+    @Test
+    public void replicationsDuringInFlightDispatchAreMergedByKey() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final RecordingDispatcher dispatcher = new RecordingDispatcher(release);
+        final SyncReplicationGroupCommitter committer = new SyncReplicationGroupCommitter("group", dispatcher, TimeUnit.SECONDS.toNanos(30), 100);
+
+        Thread first = startCommitter(committer, newContext(0), null);
+        dispatcher.awaitDispatches(1);
+        List<Throwable> errors = new ArrayList<Throwable>();
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = THREADS; i > 0; i--)
+            threads.add(startCommitter(committer, newContext(i), errors));
+        // the followers join the pending batch while the first replication is in flight
+        Thread.sleep(200);
+        Assert.assertEquals(1, dispatcher.dispatched.size());
+        release.countDown();
+        first.join(30000);
+        for (Thread thread : threads)
+            thread.join(30000);
+
+        Assert.assertTrue(errors.toString(), errors.isEmpty());
+        Assert.assertEquals(2, dispatcher.dispatched.size());
+        List<IReplicationOrderedPacket> packets = dispatcher.dispatched.get(1).getOrderedPackets();
+        Assert.assertEquals(THREADS, packets.size());
+        for (int i = 0; i < THREADS; i++)
+            Assert.assertEquals(i + 1, packets.get(i).getKey());
+    }
+
+    @Test
+    public void fullBatchIsDispatchedWithoutWaiting() {
+        RecordingDispatcher dispatcher = new RecordingDispatcher(null);
+        SyncReplicationGroupCommitter committer = new SyncReplicationGroupCommitter("group", dispatcher, TimeUnit.SECONDS.toNanos(30), 1);
+        // while a replication is in flight a batch is formed, a full one must not wait for the max delay
+        dispatcher.nested = committer;
+        long start = System.nanoTime();
+        committer.execute(newContext(1));
+        Assert.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10));
+        Assert.assertEquals(2, dispatcher.dispatched.size());
+    }
+
+    @Test
+    public void dispatchErrorIsPropagatedToAllCommitters() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final RecordingDispatcher dispatcher = new RecordingDispatcher(release);
+        dispatcher.error = new IllegalStateException("failed");
+        final SyncReplicationGroupCommitter committer = new SyncReplicationGroupCommitter("group", dispatcher, TimeUnit.SECONDS.toNanos(30), 100);
+
+        List<Throwable> errors = new ArrayList<Throwable>();
+        Thread first = startCommitter(committer, newContext(0), errors);
+        dispatcher.awaitDispatches(1);
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 1; i <= THREADS; i++)
+            threads.add(startCommitter(committer, newContext(i), errors));
+        Thread.sleep(200);
+        release.countDown();
+        first.join(30000);
+        for (Thread thread : threads)
+            thread.join(30000);
+
+        Assert.assertEquals(THREADS + 1, errors.size());
+        for (Throwable error : errors)
+            Assert.assertSame(dispatcher.error, error);
+    }
+
+    private static Thread startCommitter(final SyncReplicationGroupCommitter committer, final ISyncReplicationGroupOutContext context,
+                                         final List<Throwable> errors) {
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    committer.execute(context);
+                } catch (Throwable t) {
+                    if (errors != null) {
+                        synchronized (errors) {
+                            errors.add(t);
+                        }
+                    }
+                }
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private static ISyncReplicationGroupOutContext newContext(long key) {
+        IReplicationOrderedPacket packet = Mockito.mock(IReplicationOrderedPacket.class);
+        Mockito.when(packet.getKey()).thenReturn(key);
+        SyncReplicationGroupOutContext context = new SyncReplicationGroupOutContext("group");
+        context.addOrderedPacket(packet);
+        return context;
+    }
+
+    private static class RecordingDispatcher implements SyncReplicationGroupCommitter.Dispatcher {
+        private final List<ISyncReplicationGroupOutContext> dispatched = new ArrayList<ISyncReplicationGroupOutContext>();
+        private final CountDownLatch release;
+        private volatile RuntimeException error;
+        private volatile SyncReplicationGroupCommitter nested;
+
+        private RecordingDispatcher(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public int dispatch(ISyncReplicationGroupOutContext context) {
+            synchronized (dispatched) {
+                dispatched.add(context);
+                dispatched.notifyAll();
+            }
+            SyncReplicationGroupCommitter committer = nested;
+            if (committer != null) {
+                nested = null;
+                committer.execute(newContext(2));
+            }
+            try {
+                if (release != null)
+                    release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (error != null)
+                throw error;
+            return context.size();
+        }
+
+        private void awaitDispatches(int count) throws InterruptedException {
+            synchronized (dispatched) {
+                while (dispatched.size() < count)
+                    dispatched.wait(30000);
+            }
+        }
+    }
+}
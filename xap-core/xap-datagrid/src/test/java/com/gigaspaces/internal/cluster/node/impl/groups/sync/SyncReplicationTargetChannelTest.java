@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.gigaspaces.internal.cluster.node.impl.groups.sync;
+
+import com.gigaspaces.internal.cluster.node.impl.config.TargetGroupConfig;
+import com.gigaspaces.internal.cluster.node.impl.filters.IReplicationInFilterCallback;
+import com.gigaspaces.internal.cluster.node.impl.packets.IReplicationOrderedPacket;
+import com.gigaspaces.internal.cluster.node.impl.processlog.IProcessResult;
+import com.gigaspaces.internal.cluster.node.impl.processlog.globalorder.GlobalOrderProcessResult;
+import com.gigaspaces.internal.cluster.node.impl.processlog.multibucketsinglefile.MultiBucketSingleFileProcessResult;
+import com.gigaspaces.internal.cluster.node.impl.processlog.sync.IReplicationSyncTargetProcessLog;
+import com.gigaspaces.internal.cluster.node.impl.router.IReplicationMonitoredConnection;
+import com.gigaspaces.internal.cluster.node.impl.router.ReplicationEndpointDetails;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Collections;
+import java.util.List;
+
+public class SyncReplicationTargetChannelTest {
+
+    private IReplicationSyncTargetProcessLog processLog;
+    private SyncReplicationTargetChannel channel;
+
+    @Before
+    public void setUp() {
+        processLog = Mockito.mock(IReplicationSyncTargetProcessLog.class);
+        ReplicationEndpointDetails sourceDetails = Mockito.mock(ReplicationEndpointDetails.class);
+        Mockito.when(sourceDetails.getLookupName()).thenReturn("primary");
+        channel = new SyncReplicationTargetChannel(Mockito.mock(TargetGroupConfig.class), "backup", "backupId", sourceDetails,
+                Mockito.mock(IReplicationMonitoredConnection.class), "group", processLog, null, null, null);
+    }
+
+    @Test
+    public void syncProcessTimeIsUnknownBeforeProcessing() {
+        Assert.assertEquals(-1, channel.getLastSyncProcessTimeStamp());
+    }
+
+    @Test
+    public void processedSynchronousPacketAdvancesSyncProcessTime() {
+        long before = System.currentTimeMillis();
+        Mockito.when(processLog.process(Mockito.eq("primary"), Mockito.any(IReplicationOrderedPacket.class),
+                Mockito.any(IReplicationInFilterCallback.class))).thenReturn(GlobalOrderProcessResult.OK);
+        channel.process(Mockito.mock(IReplicationOrderedPacket.class));
+        Assert.assertTrue(channel.getLastSyncProcessTimeStamp() >= before);
+        Assert.assertEquals(channel.getLastProcessTimeStamp(), channel.getLastSyncProcessTimeStamp());
+    }
+
+    @Test
+    public void processedSynchronousBatchAdvancesSyncProcessTime() {
+        givenBatchResult(GlobalOrderProcessResult.OK);
+        channel.processBatch(newBatch(), true);
+        Assert.assertEquals(channel.getLastProcessTimeStamp(), channel.getLastSyncProcessTimeStamp());
+    }
+
+    @Test
+    public void backlogBatchDoesNotAdvanceSyncProcessTime() {
+        givenBatchResult(GlobalOrderProcessResult.OK);
+        channel.processBatch(newBatch(), false);
+        Assert.assertTrue(channel.getLastProcessTimeStamp() > 0);
+        Assert.assertEquals(-1, channel.getLastSyncProcessTimeStamp());
+    }
+
+    @Test
+    public void failedProcessDoesNotAdvanceSyncProcessTime() {
+        givenBatchResult(new GlobalOrderProcessResult(new Exception("consume failed"), 0));
+        channel.processBatch(newBatch(), true);
+        Assert.assertEquals(-1, channel.getLastSyncProcessTimeStamp());
+    }
+
+    @Test
+    public void multiBucketProcessDoesNotAdvanceSyncProcessTime() {
+        givenBatchResult(MultiBucketSingleFileProcessResult.OK);
+        channel.processBatch(newBatch(), true);
+        Assert.assertEquals(-1, channel.getLastSyncProcessTimeStamp());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenBatchResult(IProcessResult result) {
+        Mockito.when(processLog.processBatch(Mockito.eq("primary"), Mockito.any(List.class),
+                Mockito.any(IReplicationInFilterCallback.class))).thenReturn(result);
+    }
+
+    private static List<IReplicationOrderedPacket> newBatch() {
+        return Collections.singletonList(Mockito.mock(IReplicationOrderedPacket.class));
+    }
+}
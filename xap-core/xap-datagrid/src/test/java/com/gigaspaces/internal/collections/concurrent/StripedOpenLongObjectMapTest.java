@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.collections.concurrent;
+
+import com.gigaspaces.internal.collections.LongObjectIterator;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class StripedOpenLongObjectMapTest {
+
+    @Test
+    public void putGetRemove() {
+        StripedOpenLongObjectMap<String> map = new StripedOpenLongObjectMap<String>();
+        map.put(0, "zero");
+        map.put(1, "one");
+        map.put(-1, "minus one");
+        Assert.assertEquals(3, map.size());
+        Assert.assertEquals("zero", map.get(0));
+        Assert.assertEquals("minus one", map.get(-1));
+        Assert.assertNull(map.get(2));
+
+        map.put(1, "uno");
+        Assert.assertEquals("uno", map.get(1));
+        Assert.assertEquals(3, map.size());
+
+        Assert.assertEquals("uno", map.remove(1));
+        Assert.assertNull(map.remove(1));
+        Assert.assertEquals("zero", map.remove(0));
+        Assert.assertNull(map.get(1));
+        Assert.assertEquals(1, map.size());
+
+        map.clear();
+        Assert.assertEquals(0, map.size());
+        Assert.assertNull(map.get(-1));
+    }
+
+    @Test
+    public void putIfAbsent() {
+        StripedOpenLongObjectMap<String> map = new StripedOpenLongObjectMap<String>();
+        Assert.assertNull(map.putIfAbsent(7, "a"));
+        Assert.assertEquals("a", map.putIfAbsent(7, "b"));
+        Assert.assertNull(map.putIfAbsent(0, "a"));
+        Assert.assertEquals("a", map.putIfAbsent(0, "b"));
+        map.remove(7);
+        Assert.assertNull(map.putIfAbsent(7, "c"));
+        Assert.assertEquals("c", map.get(7));
+    }
+
+    @Test
+    public void growsAndReusesRemovedSlots() {
+        StripedOpenLongObjectMap<Long> map = new StripedOpenLongObjectMap<Long>(2, 4);
+        for (long i = 0; i < 10000; i++)
+            map.put(i, i);
+        Assert.assertEquals(10000, map.size());
+        for (long i = 0; i < 10000; i += 2)
+            Assert.assertEquals(Long.valueOf(i), map.remove(i));
+        Assert.assertEquals(5000, map.size());
+        for (long i = 0; i < 10000; i++)
+            Assert.assertEquals(i % 2 == 0 ? null : Long.valueOf(i), map.get(i));
+        // repeatedly adding and removing keys must not exhaust the table
+        for (long i = 10000; i < 100000; i++) {
+            map.put(i, i);
+            map.remove(i);
+        }
+        Assert.assertEquals(5000, map.size());
+    }
+
+    @Test
+    public void iterator() {
+        StripedOpenLongObjectMap<Long> map = new StripedOpenLongObjectMap<Long>();
+        Map<Long, Long> expected = new HashMap<Long, Long>();
+        for (long i = -50; i < 50; i++) {
+            map.put(i * 1000, i);
+            expected.put(i * 1000, i);
+        }
+
+        Map<Long, Long> actual = new HashMap<Long, Long>();
+        LongObjectIterator<Long> iterator = map.iterator();
+        while (iterator.hasNext()) {
+            iterator.advance();
+            actual.put(iterator.key(), iterator.value());
+            if (iterator.key() < 0)
+                iterator.remove();
+        }
+        Assert.assertEquals(expected, actual);
+        Assert.assertEquals(50, map.size());
+        Assert.assertEquals(50, map.getValues(new Long[50]).length);
+    }
+
+    @Test
+    public void concurrentReadersSeeCompletedPuts() throws Exception {
+        final StripedOpenLongObjectMap<Long> map = new StripedOpenLongObjectMap<Long>(4, 16);
+        final int numOfKeys = 200000;
+        final CountDownLatch done = new CountDownLatch(1);
+        final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+        Thread reader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    while (done.getCount() != 0) {
+                        for (long i = 1; i < numOfKeys; i += 997) {
+                            Long value = map.get(i);
+                            if (value != null && value != i)
+                                throw new AssertionError("Unexpected value " + value + " for key " + i);
+                        }
+                    }
+                } catch (Throwable t) {
+                    error.set(t);
+                }
+            }
+        });
+        reader.start();
+        for (long i = 1; i < numOfKeys; i++) {
+            map.put(i, i);
+            Assert.assertEquals(Long.valueOf(i), map.get(i));
+        }
+        done.countDown();
+        reader.join();
+        Assert.assertNull(error.get());
+        Assert.assertEquals(numOfKeys - 1, map.size());
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.remoting.routing.partitioned;
+
+import com.gigaspaces.async.AsyncResult;
+import com.gigaspaces.async.AsyncResultsAccumulator;
+import com.gigaspaces.async.StreamingAsyncResultsReducer;
+import com.gigaspaces.executor.SpaceTask;
+import com.gigaspaces.internal.client.spaceproxy.operations.ExecuteTaskSpaceOperationRequest;
+import com.gigaspaces.internal.client.spaceproxy.operations.ExecuteTaskSpaceOperationResult;
+import com.gigaspaces.internal.remoting.RemoteOperationRequest;
+import com.gigaspaces.internal.remoting.routing.RemoteOperationRouter;
+import com.j_spaces.core.IJSpace;
+import net.jini.core.transaction.Transaction;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Matchers.any;
+
+public class BroadcastOperationFutureListenerTest {
+
+    private static final int PARTITIONS = 4;
+
+    private PartitionedClusterRemoteOperationRouter router;
+    private final List<ExecuteTaskSpaceOperationRequest> dispatched = new ArrayList<ExecuteTaskSpaceOperationRequest>();
+
+    @Before
+    public void setUp() {
+        RemoteOperationRouter partitionRouter = Mockito.mock(RemoteOperationRouter.class);
+        Mockito.doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                dispatched.add((ExecuteTaskSpaceOperationRequest) invocation.getArguments()[0]);
+                return null;
+            }
+        }).when(partitionRouter).executeAsync(any(RemoteOperationRequest.class), any(BroadcastOperationFutureListener.class));
+
+        router = Mockito.mock(PartitionedClusterRemoteOperationRouter.class);
+        Mockito.when(router.getNumOfPartitions()).thenReturn(PARTITIONS);
+        Mockito.when(router.getLogger()).thenReturn(LoggerFactory.getLogger(getClass()));
+        Mockito.when(router.getPartitionRouter(Mockito.anyInt())).thenReturn(partitionRouter);
+    }
+
+    @Test
+    public void streamedResultsAreFoldedWithinWindow() throws Exception {
+        ExecuteTaskSpaceOperationRequest request = new ExecuteTaskSpaceOperationRequest(new SumTask(2, Integer.MAX_VALUE), null, null, false);
+        BroadcastOperationFutureListener<ExecuteTaskSpaceOperationResult> listener = newListener(request);
+
+        Assert.assertEquals("only the window should be executed", 2, dispatched.size());
+        complete(listener, 0, 10);
+        Assert.assertEquals(3, dispatched.size());
+        complete(listener, 1, 20);
+        complete(listener, 2, 30);
+        Assert.assertEquals(PARTITIONS, dispatched.size());
+        Assert.assertFalse(listener.isDone());
+        complete(listener, 3, 40);
+        Assert.assertTrue(listener.isDone());
+        Assert.assertEquals(100, listener.get());
+    }
+
+    @Test
+    public void reducerTerminatesExecutionEarly() throws Exception {
+        ExecuteTaskSpaceOperationRequest request = new ExecuteTaskSpaceOperationRequest(new SumTask(1, 25), null, null, false);
+        BroadcastOperationFutureListener<ExecuteTaskSpaceOperationResult> listener = newListener(request);
+
+        complete(listener, 0, 10);
+        complete(listener, 1, 20);
+        Assert.assertTrue(listener.isDone());
+        Assert.assertEquals("remaining partitions should not be executed", 2, dispatched.size());
+        Assert.assertEquals(30, listener.get());
+    }
+
+    private BroadcastOperationFutureListener<ExecuteTaskSpaceOperationResult> newListener(ExecuteTaskSpaceOperationRequest request) {
+        BroadcastOperationFutureListener<ExecuteTaskSpaceOperationResult> listener =
+                new BroadcastOperationFutureListener<ExecuteTaskSpaceOperationResult>(request, null, router, true);
+        listener.executeConcurrently((ExecuteTaskSpaceOperationRequest) request.createCopy(-1));
+        return listener;
+    }
+
+    private void complete(BroadcastOperationFutureListener<ExecuteTaskSpaceOperationResult> listener, int partitionId, int value) {
+        ExecuteTaskSpaceOperationRequest partitionRequest = dispatched.get(partitionId);
+        ExecuteTaskSpaceOperationResult result = new ExecuteTaskSpaceOperationResult();
+        result.setResult(value);
+        partitionRequest.setRemoteOperationResult(result);
+        listener.onOperationCompletion(partitionRequest, null);
+    }
+
+    private static class SumTask implements SpaceTask<Integer>, StreamingAsyncResultsReducer<Integer, Integer> {
+        private final int maxInFlightResults;
+        private final int limit;
+
+        private SumTask(int maxInFlightResults, int limit) {
+            this.maxInFlightResults = maxInFlightResults;
+            this.limit = limit;
+        }
+
+        @Override
+        public Integer execute(IJSpace space, Transaction tx) {
+            return 0;
+        }
+
+        @Override
+        public int getMaxInFlightResults() {
+            return maxInFlightResults;
+        }
+
+        @Override
+        public AsyncResultsAccumulator<Integer, Integer> createAccumulator(int expectedResults) {
+            return new AsyncResultsAccumulator<Integer, Integer>() {
+                private int sum;
+
+                @Override
+                public boolean accumulate(AsyncResult<Integer> result) {
+                    sum += result.getResult();
+                    return sum < limit;
+                }
+
+                @Override
+                public Integer getResult() {
+                    return sum;
+                }
+            };
+        }
+    }
+}
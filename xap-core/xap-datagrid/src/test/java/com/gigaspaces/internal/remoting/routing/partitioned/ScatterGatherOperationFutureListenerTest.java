@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.remoting.routing.partitioned;
+
+import com.gigaspaces.internal.client.spaceproxy.operations.UpdateLeasesSpaceOperationRequest;
+import com.gigaspaces.internal.client.spaceproxy.operations.UpdateLeasesSpaceOperationResult;
+import com.gigaspaces.internal.cluster.PartitionToChunksMap;
+import com.gigaspaces.internal.cluster.SpaceClusterInfo;
+import com.gigaspaces.internal.exceptions.ChunksMapGenerationException;
+import com.gigaspaces.internal.lease.LeaseUpdateDetails;
+import com.gigaspaces.internal.remoting.RemoteOperationRequest;
+import com.gigaspaces.internal.remoting.routing.RemoteOperationRouter;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.Matchers.any;
+
+public class ScatterGatherOperationFutureListenerTest {
+
+    private static final int PARTITIONS = 2;
+
+    private PartitionToChunksMap chunksMap;
+    private PartitionedClusterRemoteOperationRouter router;
+    private final List<List<UpdateLeasesSpaceOperationRequest>> dispatched = new ArrayList<List<UpdateLeasesSpaceOperationRequest>>();
+
+    @Before
+    public void setUp() {
+        chunksMap = new PartitionToChunksMap(PARTITIONS, 0);
+        chunksMap.init();
+        SpaceClusterInfo clusterInfo = new SpaceClusterInfo();
+        clusterInfo.setChunksMap(chunksMap);
+
+        router = Mockito.mock(PartitionedClusterRemoteOperationRouter.class);
+        Mockito.when(router.getNumOfPartitions()).thenReturn(PARTITIONS);
+        Mockito.when(router.getLogger()).thenReturn(LoggerFactory.getLogger(getClass()));
+        Mockito.when(router.getClusterInfo()).thenReturn(clusterInfo);
+        for (int i = 0; i < PARTITIONS; i++) {
+            final List<UpdateLeasesSpaceOperationRequest> partitionRequests = new ArrayList<UpdateLeasesSpaceOperationRequest>();
+            dispatched.add(partitionRequests);
+            RemoteOperationRouter partitionRouter = Mockito.mock(RemoteOperationRouter.class);
+            Mockito.doAnswer(new Answer<Void>() {
+                @Override
+                public Void answer(InvocationOnMock invocation) {
+                    partitionRequests.add((UpdateLeasesSpaceOperationRequest) invocation.getArguments()[0]);
+                    return null;
+                }
+            }).when(partitionRouter).executeAsync(any(RemoteOperationRequest.class), any(ScatterGatherOperationFutureListener.class));
+            Mockito.when(router.getPartitionRouter(i)).thenReturn(partitionRouter);
+        }
+    }
+
+    @Test
+    public void rejectedPartitionRequestIsScatteredWithNewChunksMap() throws Exception {
+        int movedRouting = getRoutingOfPartition(0);
+        int stayingRouting = getRoutingOfPartition(1);
+        ScatterGatherOperationFutureListener<UpdateLeasesSpaceOperationResult> listener =
+                execute(newRequest(movedRouting, stayingRouting));
+        Assert.assertEquals(1, dispatched.get(0).size());
+        Assert.assertEquals(1, dispatched.get(1).size());
+
+        PartitionToChunksMap newMap = chunksMap.moveChunks(Collections.singletonList(PartitionToChunksMap.getChunkId(movedRouting)), 1);
+        reject(listener, dispatched.get(0).get(0), newMap);
+        complete(listener, dispatched.get(1).get(0));
+        Assert.assertFalse(listener.isDone());
+        Assert.assertEquals("the moved index should be sent to its new partition", 2, dispatched.get(1).size());
+        UpdateLeasesSpaceOperationRequest scattered = dispatched.get(1).get(1);
+        Assert.assertEquals(1, scattered.getSize());
+        Assert.assertEquals(0, scattered.getPartitionInfo().getQuick(0));
+
+        complete(listener, scattered);
+        Assert.assertTrue(listener.isDone());
+        Assert.assertNull(listener.get());
+    }
+
+    @Test
+    public void rejectionWithoutNewerMapIsReturned() throws Exception {
+        ScatterGatherOperationFutureListener<UpdateLeasesSpaceOperationResult> listener =
+                execute(newRequest(getRoutingOfPartition(0), getRoutingOfPartition(1)));
+
+        reject(listener, dispatched.get(0).get(0), chunksMap);
+        complete(listener, dispatched.get(1).get(0));
+        Assert.assertTrue(listener.isDone());
+        Exception[] errors = (Exception[]) listener.get();
+        Assert.assertTrue(errors[0] instanceof ChunksMapGenerationException);
+        Assert.assertNull(errors[1]);
+    }
+
+    private ScatterGatherOperationFutureListener<UpdateLeasesSpaceOperationResult> execute(UpdateLeasesSpaceOperationRequest request) {
+        ScatterGatherOperationFutureListener<UpdateLeasesSpaceOperationResult> listener =
+                new ScatterGatherOperationFutureListener<UpdateLeasesSpaceOperationResult>(request, null, router, true);
+        request.scatterIndexesToPartitions(listener);
+        for (int partitionId : listener.getPartitionIds())
+            router.getPartitionRouter(partitionId).executeAsync(listener.getPartitionRequest(partitionId, request), listener);
+        return listener;
+    }
+
+    private int getRoutingOfPartition(int partitionId) {
+        for (int routing = 0; ; routing++)
+            if (chunksMap.getPartitionIdByChunk(PartitionToChunksMap.getChunkId(routing)) == partitionId)
+                return routing;
+    }
+
+    private static UpdateLeasesSpaceOperationRequest newRequest(int... routingValues) {
+        LeaseUpdateDetails[] leases = new LeaseUpdateDetails[routingValues.length];
+        for (int i = 0; i < leases.length; i++) {
+            leases[i] = Mockito.mock(LeaseUpdateDetails.class);
+            Mockito.when(leases[i].getRoutingValue()).thenReturn(routingValues[i]);
+        }
+        return new UpdateLeasesSpaceOperationRequest(leases, true);
+    }
+
+    private static void complete(ScatterGatherOperationFutureListener<UpdateLeasesSpaceOperationResult> listener, UpdateLeasesSpaceOperationRequest request) {
+        request.setRemoteOperationResult(new UpdateLeasesSpaceOperationResult());
+        listener.onOperationCompletion(request, null);
+    }
+
+    private static void reject(ScatterGatherOperationFutureListener<UpdateLeasesSpaceOperationResult> listener, UpdateLeasesSpaceOperationRequest request,
+                               PartitionToChunksMap newMap) {
+        ChunksMapGenerationException exception = new ChunksMapGenerationException("stale chunks map");
+        exception.setNewMap(newMap);
+        UpdateLeasesSpaceOperationResult result = new UpdateLeasesSpaceOperationResult();
+        result.setExecutionException(exception);
+        request.setRemoteOperationResult(result);
+        listener.onOperationCompletion(request, null);
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.gigaspaces.internal.server.space.chunks;
+
+import com.gigaspaces.internal.client.spaceproxy.IDirectSpaceProxy;
+import com.gigaspaces.internal.cluster.PartitionToChunksMap;
+import com.gigaspaces.internal.server.space.SpaceImpl;
+import com.gigaspaces.internal.server.space.ZookeeperChunksMapHandler;
+import com.gigaspaces.internal.space.requests.ChunksMigrationRequestInfo;
+import com.gigaspaces.internal.space.responses.ChunksMigrationResponseInfo;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+public class ChunksMigrationHandlerTest {
+    private static final int MIGRATED_CHUNK = 1;
+
+    @Test
+    public void completionIsRetriedAfterTheChunksMapIsPublished() {
+        PartitionToChunksMap chunksMap = new PartitionToChunksMap(2, 0);
+        chunksMap.init();
+        final int sourcePartitionId = chunksMap.getPartitionIdByChunk(MIGRATED_CHUNK);
+        final int targetPartitionId = 1 - sourcePartitionId;
+
+        SpaceImpl space = Mockito.mock(SpaceImpl.class, Mockito.RETURNS_DEEP_STUBS);
+        Mockito.when(space.isPrimary()).thenReturn(true);
+        Mockito.when(space.getPartitionId()).thenReturn(targetPartitionId);
+        Mockito.when(space.getClusterInfo().isChunksRouting()).thenReturn(true);
+        Mockito.when(space.getEngine().getCacheManager().isMemorySpace()).thenReturn(true);
+        Mockito.when(space.getEngine().getCacheManager().getEntriesUids()).thenReturn(Collections.<String>emptySet());
+        Mockito.when(space.getEngine().spaceCopyReplica(Matchers.any(), Matchers.anyString(), Matchers.any(), Matchers.any(),
+                Matchers.anyBoolean(), Matchers.anyInt(), Matchers.any(), Matchers.any(), Matchers.<Collection<Integer>>any())
+                .getCopyResult().isSuccessful()).thenReturn(true);
+        ZookeeperChunksMapHandler chunksMapHandler = Mockito.mock(ZookeeperChunksMapHandler.class);
+        Mockito.when(chunksMapHandler.getChunksMap()).thenReturn(chunksMap);
+
+        FailingCompletionHandler handler = new FailingCompletionHandler(space, chunksMapHandler, 2);
+        handler.execute(new ChunksMigrationRequestInfo(ChunksMigrationRequestInfo.Action.MIGRATE, null)
+                .setSourcePartitionId(sourcePartitionId).setChunks(Arrays.asList(MIGRATED_CHUNK)));
+
+        Assert.assertEquals(Arrays.asList(ChunksMigrationRequestInfo.Action.BEGIN, ChunksMigrationRequestInfo.Action.DRAIN,
+                ChunksMigrationRequestInfo.Action.FREEZE, ChunksMigrationRequestInfo.Action.DRAIN,
+                ChunksMigrationRequestInfo.Action.COMPLETE, ChunksMigrationRequestInfo.Action.COMPLETE,
+                ChunksMigrationRequestInfo.Action.COMPLETE), handler.actions);
+        // the primary of the source is located again before each retry
+        Assert.assertEquals(3, handler.lookups);
+        ArgumentCaptor<PartitionToChunksMap> published = ArgumentCaptor.forClass(PartitionToChunksMap.class);
+        Mockito.verify(chunksMapHandler).setChunksMap(published.capture());
+        Assert.assertEquals(targetPartitionId, published.getValue().getPartitionIdByChunk(MIGRATED_CHUNK));
+    }
+
+    @Test
+    public void migrationIsRejectedWithExternalDataSource() {
+        SpaceImpl space = Mockito.mock(SpaceImpl.class, Mockito.RETURNS_DEEP_STUBS);
+        Mockito.when(space.isPrimary()).thenReturn(true);
+        Mockito.when(space.getClusterInfo().isChunksRouting()).thenReturn(true);
+        Mockito.when(space.getEngine().getCacheManager().isMemorySpace()).thenReturn(false);
+        ChunksMigrationHandler handler = new ChunksMigrationHandler(space, Mockito.mock(ZookeeperChunksMapHandler.class));
+        try {
+            handler.execute(new ChunksMigrationRequestInfo(ChunksMigrationRequestInfo.Action.MIGRATE, null)
+                    .setSourcePartitionId(1).setChunks(Arrays.asList(MIGRATED_CHUNK)));
+            Assert.fail("Chunks migration should be rejected when entries are persisted to a data source");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    private static class FailingCompletionHandler extends ChunksMigrationHandler {
+        private final List<ChunksMigrationRequestInfo.Action> actions = new ArrayList<ChunksMigrationRequestInfo.Action>();
+        private int failures;
+        private int lookups;
+
+        private FailingCompletionHandler(SpaceImpl space, ZookeeperChunksMapHandler chunksMapHandler, int failures) {
+            super(space, chunksMapHandler);
+            this.failures = failures;
+        }
+
+        @Override
+        IDirectSpaceProxy findPrimary(int partitionId) {
+            lookups++;
+            return Mockito.mock(IDirectSpaceProxy.class, Mockito.RETURNS_DEEP_STUBS);
+        }
+
+        @Override
+        ChunksMigrationResponseInfo executeOnSource(IDirectSpaceProxy source, ChunksMigrationRequestInfo request) {
+            actions.add(request.getAction());
+            if (request.getAction() == ChunksMigrationRequestInfo.Action.COMPLETE && failures-- > 0)
+                throw new IllegalStateException("Failed to execute " + request);
+            ChunksMigrationResponseInfo response = new ChunksMigrationResponseInfo();
+            response.setDelta(new ChunksMigrationDelta());
+            return response;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.server.space.chunks;
+
+import com.gigaspaces.internal.cluster.PartitionToChunksMap;
+import com.gigaspaces.internal.exceptions.ChunksMapGenerationException;
+import com.j_spaces.core.cache.CacheManager;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class ChunksMigrationSourceTest {
+    private static final String MIGRATION_ID = "migration";
+    private static final int MIGRATED_CHUNK = 1;
+    private static final int OTHER_CHUNK = 2;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @Test
+    public void freezeWaitsForOperationsInProgress() throws Exception {
+        ChunksMigrationSource source = newSource(10000);
+        source.begin(MIGRATION_ID, Arrays.asList(MIGRATED_CHUNK));
+        source.enter(MIGRATED_CHUNK);
+
+        Future<?> freeze = executor.submit(new Runnable() {
+            @Override
+            public void run() {
+                source.freeze(MIGRATION_ID);
+            }
+        });
+        assertNotDone(freeze);
+
+        source.exit(MIGRATED_CHUNK);
+        freeze.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+    }
+
+    @Test
+    public void freezeDoesNotWaitForOtherChunks() throws Exception {
+        ChunksMigrationSource source = newSource(10000);
+        source.begin(MIGRATION_ID, Arrays.asList(MIGRATED_CHUNK));
+        source.enter(OTHER_CHUNK);
+        source.freeze(MIGRATION_ID);
+
+        source.enter(OTHER_CHUNK);
+        source.exit(OTHER_CHUNK);
+        source.exit(OTHER_CHUNK);
+        executor.shutdown();
+    }
+
+    @Test
+    public void freezeWaitsForUnroutedOperations() throws Exception {
+        ChunksMigrationSource source = newSource(100);
+        source.begin(MIGRATION_ID, Arrays.asList(MIGRATED_CHUNK));
+        source.enter(ChunksMigrationSource.UNROUTED);
+        try {
+            source.freeze(MIGRATION_ID);
+            Assert.fail("Freeze should time out while an unrouted operation is in progress");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    public void blockedOperationDoesNotDelayFreeze() throws Exception {
+        ChunksMigrationSource source = newSource(100);
+        source.begin(MIGRATION_ID, Arrays.asList(MIGRATED_CHUNK));
+        source.enter(ChunksMigrationSource.UNROUTED);
+        // e.g. a take without a routing value which waits for a matching entry
+        int slot = source.suspend();
+        Assert.assertEquals(ChunksMigrationSource.UNROUTED, slot);
+        source.freeze(MIGRATION_ID);
+
+        source.resume(slot);
+        source.exit(ChunksMigrationSource.UNROUTED);
+        source.end(MIGRATION_ID);
+        executor.shutdown();
+    }
+
+    @Test
+    public void operationsWaitUntilMigrationEnds() throws Exception {
+        ChunksMigrationSource source = newSource(10000);
+        source.begin(MIGRATION_ID, Arrays.asList(MIGRATED_CHUNK));
+        source.freeze(MIGRATION_ID);
+
+        Future<?> operation = executor.submit(new Callable<Object>() {
+            @Override
+            public Object call() {
+                source.enter(new int[]{OTHER_CHUNK, MIGRATED_CHUNK});
+                return null;
+            }
+        });
+        assertNotDone(operation);
+        source.end(MIGRATION_ID);
+        operation.get(5, TimeUnit.SECONDS);
+        source.exit(new int[]{OTHER_CHUNK, MIGRATED_CHUNK});
+        executor.shutdown();
+    }
+
+    @Test
+    public void operationsAreRejectedAfterFreezeTimeout() throws Exception {
+        ChunksMigrationSource source = newSource(100);
+        source.begin(MIGRATION_ID, Arrays.asList(MIGRATED_CHUNK));
+        source.freeze(MIGRATION_ID);
+        try {
+            source.enter(MIGRATED_CHUNK);
+            Assert.fail("Operation on a frozen chunk should time out");
+        } catch (ChunksMapGenerationException e) {
+            // expected
+        }
+
+        source.end(MIGRATION_ID);
+        source.enter(MIGRATED_CHUNK);
+        source.exit(MIGRATED_CHUNK);
+        executor.shutdown();
+    }
+
+    @Test
+    public void migrationCanBeginAfterAbortedFreeze() throws Exception {
+        ChunksMigrationSource source = newSource(100);
+        source.begin(MIGRATION_ID, Arrays.asList(MIGRATED_CHUNK));
+        source.enter(MIGRATED_CHUNK);
+        try {
+            source.freeze(MIGRATION_ID);
+            Assert.fail("Freeze should time out while an operation is in progress");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        source.end(MIGRATION_ID);
+        source.exit(MIGRATED_CHUNK);
+
+        source.begin("next", Arrays.asList(MIGRATED_CHUNK));
+        source.freeze("next");
+        source.end("next");
+        executor.shutdown();
+    }
+
+    @Test
+    public void completionCanBeRetried() throws Exception {
+        ChunksMigrationSource source = newSource(10000);
+        source.begin(MIGRATION_ID, Arrays.asList(MIGRATED_CHUNK));
+        source.freeze(MIGRATION_ID);
+
+        ChunksMigrationDelta delta = source.complete(MIGRATION_ID);
+        Assert.assertNotNull(delta);
+        Assert.assertFalse(source.isActive());
+        Assert.assertSame(delta, source.complete(MIGRATION_ID));
+        Assert.assertNull(source.complete("unknown"));
+
+        source.enter(MIGRATED_CHUNK);
+        source.exit(MIGRATED_CHUNK);
+        source.begin("next", Arrays.asList(MIGRATED_CHUNK));
+        executor.shutdown();
+    }
+
+    @Test
+    public void migrationIsCompletedWhenChunksMapMovesItsChunks() throws Exception {
+        // chunk 1 is owned by the second partition
+        PartitionToChunksMap chunksMap = new PartitionToChunksMap(2, 0);
+        chunksMap.init();
+        final int sourcePartitionId = chunksMap.getPartitionIdByChunk(MIGRATED_CHUNK);
+        ChunksMigrationSource source = newSource(10000);
+        source.begin(MIGRATION_ID, Arrays.asList(MIGRATED_CHUNK));
+        source.freeze(MIGRATION_ID);
+        Future<?> operation = executor.submit(new Runnable() {
+            @Override
+            public void run() {
+                source.enter(MIGRATED_CHUNK);
+            }
+        });
+        assertNotDone(operation);
+
+        Assert.assertNull(source.completeIfMoved(chunksMap, sourcePartitionId));
+        Assert.assertTrue(source.isActive());
+        PartitionToChunksMap newMap = chunksMap.moveChunks(Arrays.asList(MIGRATED_CHUNK), 1 - sourcePartitionId);
+        Assert.assertTrue(source.completeIfMoved(newMap, sourcePartitionId).get(MIGRATED_CHUNK));
+
+        operation.get(5, TimeUnit.SECONDS);
+        source.exit(MIGRATED_CHUNK);
+        Assert.assertFalse(source.isActive());
+        Assert.assertNotNull(source.complete(MIGRATION_ID));
+        executor.shutdown();
+    }
+
+    private static ChunksMigrationSource newSource(long freezeTimeout) {
+        return new ChunksMigrationSource(Mockito.mock(CacheManager.class), freezeTimeout);
+    }
+
+    private static void assertNotDone(Future<?> future) throws Exception {
+        try {
+            future.get(200, TimeUnit.MILLISECONDS);
+            Assert.fail("Expected to be blocked");
+        } catch (TimeoutException e) {
+            // expected
+        }
+    }
+}
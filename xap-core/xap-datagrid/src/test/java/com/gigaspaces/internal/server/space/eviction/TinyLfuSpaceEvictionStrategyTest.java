@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.server.space.eviction;
+
+import com.gigaspaces.metadata.SpaceTypeDescriptor;
+import com.gigaspaces.server.eviction.EvictableServerEntry;
+import com.gigaspaces.server.eviction.SpaceEvictionManager;
+import com.gigaspaces.server.eviction.SpaceEvictionStrategyConfig;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class TinyLfuSpaceEvictionStrategyTest {
+
+    private static final int CACHE_SIZE = 100;
+
+    @Test
+    public void frequencySketch() {
+        FrequencySketch sketch = new FrequencySketch(CACHE_SIZE);
+        int hot = "hot".hashCode();
+        int cold = "cold".hashCode();
+        for (int i = 0; i < 10; i++)
+            sketch.increment(hot);
+        sketch.increment(cold);
+
+        Assert.assertTrue(sketch.frequency(hot) >= 10);
+        Assert.assertTrue(sketch.frequency(cold) >= 1);
+        Assert.assertTrue(sketch.frequency(hot) > sketch.frequency(cold));
+
+        for (int i = 0; i < 100; i++)
+            sketch.increment(hot);
+        Assert.assertEquals("counters should saturate at 15", 15, sketch.frequency(hot));
+    }
+
+    @Test
+    public void evictUpToRequested() {
+        final TinyLfuSpaceEvictionStrategy strategy = new TinyLfuSpaceEvictionStrategy(0, CACHE_SIZE, 8, 1, 4);
+        final Set<MockEntry> cached = new HashSet<MockEntry>();
+        strategy.initialize(new MockEvictionManager(strategy, cached), new SpaceEvictionStrategyConfig(CACHE_SIZE));
+        for (int i = 0; i < CACHE_SIZE; i++)
+            insert(strategy, cached, new MockEntry("e" + i));
+
+        Assert.assertEquals(10, strategy.evict(10));
+        Assert.assertEquals(CACHE_SIZE - 10, cached.size());
+        Assert.assertEquals(CACHE_SIZE - 10, strategy.evict(CACHE_SIZE * 2));
+        Assert.assertEquals(0, cached.size());
+        Assert.assertEquals(0, strategy.evict(1));
+    }
+
+    @Test
+    public void scanResistance() {
+        final TinyLfuSpaceEvictionStrategy strategy = new TinyLfuSpaceEvictionStrategy(0, CACHE_SIZE, 8, 1, 4);
+        final Set<MockEntry> cached = new HashSet<MockEntry>();
+        strategy.initialize(new MockEvictionManager(strategy, cached), new SpaceEvictionStrategyConfig(CACHE_SIZE));
+
+        List<MockEntry> hotEntries = new ArrayList<MockEntry>();
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            MockEntry entry = new MockEntry("hot" + i);
+            hotEntries.add(entry);
+            insert(strategy, cached, entry);
+        }
+        for (int round = 0; round < 5; round++)
+            for (MockEntry entry : hotEntries)
+                strategy.onRead(entry);
+
+        //a one time scan which is 10 times bigger than the cache
+        for (int i = 0; i < CACHE_SIZE * 10; i++)
+            insert(strategy, cached, new MockEntry("scan" + i));
+
+        int survivors = 0;
+        for (MockEntry entry : hotEntries)
+            if (cached.contains(entry))
+                survivors++;
+        // a plain LRU would have no survivors at all
+        Assert.assertTrue("too few popular entries survived the scan: " + survivors, survivors >= CACHE_SIZE / 2);
+    }
+
+    private static void insert(TinyLfuSpaceEvictionStrategy strategy, Set<MockEntry> cached, MockEntry entry) {
+        int surplus = cached.size() + 1 - CACHE_SIZE;
+        if (surplus > 0)
+            strategy.evict(surplus);
+        cached.add(entry);
+        strategy.onInsert(entry);
+    }
+
+    private static class MockEvictionManager implements SpaceEvictionManager {
+        private final TinyLfuSpaceEvictionStrategy strategy;
+        private final Set<MockEntry> cached;
+
+        private MockEvictionManager(TinyLfuSpaceEvictionStrategy strategy, Set<MockEntry> cached) {
+            this.strategy = strategy;
+            this.cached = cached;
+        }
+
+        @Override
+        public boolean tryEvict(EvictableServerEntry entry) {
+            if (!cached.remove(entry))
+                return false;
+            strategy.onRemove(entry);
+            return true;
+        }
+    }
+
+    private static class MockEntry implements EvictableServerEntry {
+        private final String uid;
+        private Object evictionPayLoad;
+
+        private MockEntry(String uid) {
+            this.uid = uid;
+        }
+
+        @Override
+        public String getUID() {
+            return uid;
+        }
+
+        @Override
+        public Object getEvictionPayLoad() {
+            return evictionPayLoad;
+        }
+
+        @Override
+        public void setEvictionPayLoad(Object evictionPayLoad) {
+            this.evictionPayLoad = evictionPayLoad;
+        }
+
+        @Override
+        public SpaceTypeDescriptor getSpaceTypeDescriptor() {
+            return null;
+        }
+
+        @Override
+        public Object getFixedPropertyValue(int position) {
+            return null;
+        }
+
+        @Override
+        public Object getPropertyValue(String name) {
+            return null;
+        }
+
+        @Override
+        public Object getPathValue(String path) {
+            return null;
+        }
+
+        @Override
+        public int getVersion() {
+            return 0;
+        }
+
+        @Override
+        public long getExpirationTime() {
+            return Long.MAX_VALUE;
+        }
+    }
+}
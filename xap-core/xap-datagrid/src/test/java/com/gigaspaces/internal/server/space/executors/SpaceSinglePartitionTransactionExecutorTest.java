@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.server.space.executors;
+
+import com.gigaspaces.internal.metadata.ITypeDesc;
+import com.gigaspaces.internal.server.space.SpaceEngine;
+import com.gigaspaces.internal.server.space.SpaceImpl;
+import com.gigaspaces.internal.server.space.operations.WriteEntryResult;
+import com.gigaspaces.internal.space.requests.SinglePartitionTransactionRequestInfo;
+import com.gigaspaces.internal.space.requests.SinglePartitionTransactionRequestInfo.Operation;
+import com.gigaspaces.internal.space.requests.SinglePartitionTransactionRequestInfo.OperationType;
+import com.gigaspaces.internal.space.responses.SinglePartitionTransactionResponseInfo;
+import com.gigaspaces.internal.transport.IEntryPacket;
+import com.j_spaces.core.OperationID;
+import com.j_spaces.core.SpaceContext;
+import com.j_spaces.core.client.EntryVersionConflictException;
+import net.jini.core.lease.Lease;
+import net.jini.core.transaction.Transaction;
+import net.jini.core.transaction.server.ServerTransaction;
+import net.jini.core.transaction.server.TransactionManager;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+
+public class SpaceSinglePartitionTransactionExecutorTest {
+
+    private SpaceImpl space;
+    private SpaceEngine engine;
+
+    @Before
+    public void setUp() {
+        space = Mockito.mock(SpaceImpl.class);
+        engine = Mockito.mock(SpaceEngine.class);
+        Mockito.when(space.getEngine()).thenReturn(engine);
+    }
+
+    @Test
+    public void operationsAreCommittedInOneStep() throws Exception {
+        IEntryPacket first = newEntryPacket();
+        IEntryPacket second = newEntryPacket();
+        WriteEntryResult firstResult = new WriteEntryResult("uid1", 1, Lease.FOREVER);
+        WriteEntryResult secondResult = new WriteEntryResult("uid2", 1, Lease.FOREVER);
+        Mockito.when(space.write(eq(first), any(Transaction.class), anyLong(), anyInt(), anyBoolean(), any(SpaceContext.class))).thenReturn(firstResult);
+        Mockito.when(space.write(eq(second), any(Transaction.class), anyLong(), anyInt(), anyBoolean(), any(SpaceContext.class))).thenReturn(secondResult);
+
+        SinglePartitionTransactionResponseInfo response = execute(first, second);
+
+        Assert.assertNull(response.getException());
+        Assert.assertSame(firstResult, response.getResults()[0]);
+        Assert.assertSame(secondResult, response.getResults()[1]);
+        Mockito.verify(engine).attachToXtn(any(ServerTransaction.class), eq(false));
+        Mockito.verify(engine, Mockito.times(1)).prepareAndCommit(any(TransactionManager.class), any(ServerTransaction.class), any(OperationID.class));
+        Mockito.verify(engine, Mockito.never()).abort(any(TransactionManager.class), any(ServerTransaction.class), anyBoolean(), any(OperationID.class));
+    }
+
+    @Test
+    public void failedOperationAbortsTransaction() throws Exception {
+        IEntryPacket first = newEntryPacket();
+        IEntryPacket second = newEntryPacket();
+        EntryVersionConflictException conflict = new EntryVersionConflictException("uid2", 3, 2, "Update");
+        Mockito.when(space.write(eq(first), any(Transaction.class), anyLong(), anyInt(), anyBoolean(), any(SpaceContext.class)))
+                .thenReturn(new WriteEntryResult("uid1", 1, Lease.FOREVER));
+        Mockito.when(space.write(eq(second), any(Transaction.class), anyLong(), anyInt(), anyBoolean(), any(SpaceContext.class))).thenThrow(conflict);
+
+        SinglePartitionTransactionResponseInfo response = execute(first, second);
+
+        Assert.assertSame(conflict, response.getException());
+        Assert.assertEquals(1, response.getFailedOperation());
+        Mockito.verify(engine, Mockito.never()).prepareAndCommit(any(TransactionManager.class), any(ServerTransaction.class), any(OperationID.class));
+        Mockito.verify(engine).abort(any(TransactionManager.class), any(ServerTransaction.class), eq(false), any(OperationID.class));
+    }
+
+    private static IEntryPacket newEntryPacket() {
+        ITypeDesc typeDesc = Mockito.mock(ITypeDesc.class);
+        Mockito.when(typeDesc.getIdPropertyName()).thenReturn("id");
+        IEntryPacket packet = Mockito.mock(IEntryPacket.class);
+        Mockito.when(packet.getTypeDescriptor()).thenReturn(typeDesc);
+        return packet;
+    }
+
+    private SinglePartitionTransactionResponseInfo execute(IEntryPacket... packets) {
+        List<Operation> operations = new ArrayList<Operation>();
+        for (IEntryPacket packet : packets)
+            operations.add(new Operation(OperationType.WRITE, packet, 0, Lease.FOREVER));
+        return (SinglePartitionTransactionResponseInfo) new SpaceSinglePartitionTransactionExecutor()
+                .execute(space, new SinglePartitionTransactionRequestInfo(operations));
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.server.space.mvcc;
+
+import com.gigaspaces.internal.server.storage.IEntryData;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class SnapshotReadsManagerTest {
+
+    private static final String TYPE = "Person";
+
+    private SnapshotReadsManager manager;
+
+    @Before
+    public void setUp() {
+        manager = new SnapshotReadsManager();
+    }
+
+    @After
+    public void tearDown() {
+        manager.close();
+    }
+
+    @Test
+    public void noTrackingWithoutSnapshots() {
+        int token = manager.beginWrite();
+        Assert.assertFalse(manager.isTracking());
+        manager.endWrite(token);
+
+        SnapshotReadsManager.Snapshot snapshot = manager.openSnapshot(0);
+        Assert.assertTrue(manager.isTracking());
+        manager.closeSnapshot(snapshot);
+        Assert.assertFalse(manager.isTracking());
+    }
+
+    @Test
+    public void updateCommittedAfterSnapshotIsNotVisible() {
+        IEntryData v1 = Mockito.mock(IEntryData.class);
+        SnapshotReadsManager.Snapshot snapshot = manager.openSnapshot(0);
+        Assert.assertNull("unchanged entry should use its live data", manager.getVisibleVersion(snapshot, "1"));
+
+        SnapshotReadsManager.CommitStamp stamp = update("1", v1);
+        //applying - the snapshot sees the previous version
+        assertRetained(v1, manager.getVisibleVersion(snapshot, "1"));
+        manager.publish(stamp);
+        assertRetained(v1, manager.getVisibleVersion(snapshot, "1"));
+
+        SnapshotReadsManager.Snapshot newSnapshot = manager.openSnapshot(0);
+        Assert.assertTrue(manager.getVisibleVersion(newSnapshot, "1").isLive());
+
+        IEntryData v2 = Mockito.mock(IEntryData.class);
+        manager.publish(update("1", v2));
+        assertRetained(v1, manager.getVisibleVersion(snapshot, "1"));
+        assertRetained(v2, manager.getVisibleVersion(newSnapshot, "1"));
+
+        manager.closeSnapshot(snapshot);
+        manager.closeSnapshot(newSnapshot);
+        Assert.assertEquals(0, manager.getNumOfVersionChains());
+    }
+
+    @Test
+    public void writeAndRemoveCommittedAfterSnapshot() {
+        IEntryData data = Mockito.mock(IEntryData.class);
+        SnapshotReadsManager.Snapshot snapshot = manager.openSnapshot(0);
+
+        SnapshotReadsManager.CommitStamp write = manager.newCommitStamp();
+        manager.recordChange(write, "new", TYPE, false, null, false);
+        manager.publish(write);
+        Assert.assertTrue(manager.getVisibleVersion(snapshot, "new").isAbsent());
+
+        SnapshotReadsManager.CommitStamp remove = manager.newCommitStamp();
+        manager.recordChange(remove, "old", TYPE, false, data, true);
+        manager.publish(remove);
+        assertRetained(data, manager.getVisibleVersion(snapshot, "old"));
+        Assert.assertEquals(2, manager.getVersionChains(snapshot).size());
+
+        SnapshotReadsManager.Snapshot newSnapshot = manager.openSnapshot(0);
+        Assert.assertTrue(manager.getVisibleVersion(newSnapshot, "new").isLive());
+        Assert.assertTrue(manager.getVisibleVersion(newSnapshot, "old").isAbsent());
+        manager.closeSnapshot(snapshot);
+        manager.closeSnapshot(newSnapshot);
+    }
+
+    @Test
+    public void abortRestoresPreviousVersion() {
+        IEntryData v1 = Mockito.mock(IEntryData.class);
+        SnapshotReadsManager.Snapshot snapshot = manager.openSnapshot(0);
+        manager.abort(update("1", v1));
+        Assert.assertNull(manager.getVisibleVersion(snapshot, "1"));
+
+        manager.publish(update("1", v1));
+        IEntryData v2 = Mockito.mock(IEntryData.class);
+        manager.abort(update("1", v2));
+        assertRetained(v1, manager.getVisibleVersion(snapshot, "1"));
+
+        SnapshotReadsManager.Snapshot newSnapshot = manager.openSnapshot(0);
+        Assert.assertTrue(manager.getVisibleVersion(newSnapshot, "1").isLive());
+        manager.closeSnapshot(snapshot);
+        manager.closeSnapshot(newSnapshot);
+    }
+
+    @Test
+    public void discardVersionsNotVisibleToOpenSnapshots() {
+        IEntryData v1 = Mockito.mock(IEntryData.class);
+        IEntryData v2 = Mockito.mock(IEntryData.class);
+        SnapshotReadsManager.Snapshot oldSnapshot = manager.openSnapshot(0);
+        manager.publish(update("1", v1));
+        SnapshotReadsManager.Snapshot snapshot = manager.openSnapshot(0);
+        manager.publish(update("1", v2));
+        manager.publish(update("2", v1));
+
+        manager.closeSnapshot(oldSnapshot);
+        manager.discardObsoleteVersions();
+        assertRetained(v2, manager.getVisibleVersion(snapshot, "1"));
+        assertRetained(v1, manager.getVisibleVersion(snapshot, "2"));
+
+        SnapshotReadsManager.Snapshot newSnapshot = manager.openSnapshot(0);
+        manager.closeSnapshot(snapshot);
+        manager.discardObsoleteVersions();
+        Assert.assertEquals("entries unchanged since the open snapshot should not be retained", 0, manager.getNumOfVersionChains());
+        Assert.assertNull(manager.getVisibleVersion(newSnapshot, "1"));
+        manager.closeSnapshot(newSnapshot);
+    }
+
+    @Test
+    public void openingSnapshotWaitsForWritersWithoutBlockingTheManager() throws Exception {
+        //a writer which started before tracking and may still apply its change without recording it
+        int token = manager.beginWrite();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Callable<SnapshotReadsManager.Snapshot> open = new Callable<SnapshotReadsManager.Snapshot>() {
+                @Override
+                public SnapshotReadsManager.Snapshot call() {
+                    return manager.openSnapshot(0);
+                }
+            };
+            Future<SnapshotReadsManager.Snapshot> first = executor.submit(open);
+            Future<SnapshotReadsManager.Snapshot> second = executor.submit(open);
+            assertNotDone(first);
+            assertNotDone(second);
+
+            //the snapshots monitor is not held while waiting
+            manager.discardObsoleteVersions();
+            Assert.assertTrue(manager.isTracking());
+
+            manager.endWrite(token);
+            SnapshotReadsManager.Snapshot snapshot1 = first.get(10, TimeUnit.SECONDS);
+            SnapshotReadsManager.Snapshot snapshot2 = second.get(10, TimeUnit.SECONDS);
+            manager.closeSnapshot(snapshot1);
+            Assert.assertTrue(manager.isTracking());
+            manager.closeSnapshot(snapshot2);
+            Assert.assertFalse(manager.isTracking());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void assertNotDone(Future<?> future) throws Exception {
+        try {
+            future.get(100, TimeUnit.MILLISECONDS);
+            Assert.fail("snapshot should not be opened while writers of the previous epoch are in flight");
+        } catch (TimeoutException e) {
+            //expected
+        }
+    }
+
+    private SnapshotReadsManager.CommitStamp update(String uid, IEntryData prevData) {
+        SnapshotReadsManager.CommitStamp stamp = manager.newCommitStamp();
+        manager.recordChange(stamp, uid, TYPE, false, prevData, false);
+        return stamp;
+    }
+
+    private static void assertRetained(IEntryData expected, SnapshotReadsManager.EntryVersion version) {
+        Assert.assertNotNull(version);
+        Assert.assertFalse(version.isLive());
+        Assert.assertFalse(version.isAbsent());
+        Assert.assertSame(expected, version.getData());
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.server.space.recovery;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+public class CheckpointFileTest {
+    private static final String IDENTITY = "space partition 1/2";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void roundTrip() throws Exception {
+        CheckpointFile file = writeCheckpoint(250);
+        Assert.assertFalse(new File(file.getFile().getPath() + ".tmp").exists());
+
+        try (CheckpointFile.Reader reader = file.openReader(IDENTITY)) {
+            Assert.assertEquals(1000L, reader.getTime());
+            for (int i = 0; i < 250; i++)
+                Assert.assertEquals("record-" + i % 7, reader.next());
+            Assert.assertNull(reader.next());
+        }
+    }
+
+    @Test
+    public void missingCheckpoint() throws Exception {
+        Assert.assertNull(new CheckpointFile(new File(folder.getRoot(), "none.checkpoint")).openReader(IDENTITY));
+    }
+
+    @Test
+    public void uncommittedCheckpointIsDiscarded() throws Exception {
+        CheckpointFile file = new CheckpointFile(new File(folder.getRoot(), "space.checkpoint"));
+        try (CheckpointFile.Writer writer = file.createWriter(IDENTITY, 1000)) {
+            writer.write("record");
+        }
+        Assert.assertFalse(file.getFile().exists());
+        Assert.assertFalse(new File(file.getFile().getPath() + ".tmp").exists());
+    }
+
+    @Test(expected = CheckpointFile.InvalidCheckpointException.class)
+    public void truncatedCheckpoint() throws Exception {
+        CheckpointFile file = writeCheckpoint(250);
+        try (RandomAccessFile raf = new RandomAccessFile(file.getFile(), "rw")) {
+            raf.setLength(raf.length() / 2);
+        }
+        file.openReader(IDENTITY);
+    }
+
+    @Test(expected = CheckpointFile.InvalidCheckpointException.class)
+    public void corruptedCheckpoint() throws Exception {
+        CheckpointFile file = writeCheckpoint(250);
+        try (RandomAccessFile raf = new RandomAccessFile(file.getFile(), "rw")) {
+            long position = raf.length() / 2;
+            raf.seek(position);
+            int value = raf.read();
+            raf.seek(position);
+            raf.write(value ^ 0xFF);
+        }
+        file.openReader(IDENTITY);
+    }
+
+    @Test(expected = CheckpointFile.InvalidCheckpointException.class)
+    public void checkpointOfAnotherSpace() throws Exception {
+        writeCheckpoint(10).openReader("space partition 2/2");
+    }
+
+    private CheckpointFile writeCheckpoint(int records) throws IOException {
+        CheckpointFile file = new CheckpointFile(new File(folder.newFolder(), "space.checkpoint"));
+        try (CheckpointFile.Writer writer = file.createWriter(IDENTITY, 1000)) {
+            for (int i = 0; i < records; i++)
+                writer.write("record-" + i % 7);
+            writer.commit();
+        }
+        return file;
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.server.space.tasks;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class SpaceTaskSchedulerTest {
+
+    private SpaceTaskScheduler scheduler;
+
+    @After
+    public void tearDown() {
+        if (scheduler != null)
+            scheduler.close();
+    }
+
+    @Test
+    public void tasksWithSameRoutingAreExecutedSeriallyOnSameLane() throws Exception {
+        scheduler = new SpaceTaskScheduler("space", 4, 100, TimeUnit.SECONDS.toNanos(1));
+        final List<Integer> executed = Collections.synchronizedList(new ArrayList<Integer>());
+        final List<String> threads = Collections.synchronizedList(new ArrayList<String>());
+        final CountDownLatch completed = new CountDownLatch(20);
+        for (int i = 0; i < 20; i++) {
+            final int index = i;
+            Assert.assertTrue(scheduler.schedule(7, "task", new Runnable() {
+                @Override
+                public void run() {
+                    executed.add(index);
+                    threads.add(Thread.currentThread().getName());
+                    completed.countDown();
+                }
+            }));
+        }
+        Assert.assertTrue(completed.await(30, TimeUnit.SECONDS));
+        for (int i = 0; i < 20; i++)
+            Assert.assertEquals(Integer.valueOf(i), executed.get(i));
+        Assert.assertEquals(1, new HashSet<String>(threads).size());
+    }
+
+    @Test
+    public void schedulingWaitsWhileLaneIsFull() throws Exception {
+        scheduler = new SpaceTaskScheduler("space", 1, 2, TimeUnit.SECONDS.toNanos(1));
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        Assert.assertTrue(scheduler.schedule(1, "task", blockingTask(started, release)));
+        Assert.assertTrue(started.await(30, TimeUnit.SECONDS));
+        Assert.assertTrue(scheduler.schedule(1, "task", noop()));
+        Assert.assertTrue(scheduler.schedule(2, "task", noop()));
+        Assert.assertEquals(2, scheduler.getQueueDepth());
+
+        final List<String> executed = Collections.synchronizedList(new ArrayList<String>());
+        final CountDownLatch completed = new CountDownLatch(1);
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        Thread caller = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    scheduled.set(scheduler.schedule(3, "task", recordingTask(executed, "throttled", completed)));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        caller.start();
+        caller.join(200);
+        Assert.assertTrue(caller.isAlive());
+        Assert.assertTrue(executed.isEmpty());
+
+        release.countDown();
+        caller.join(30000);
+        Assert.assertFalse(caller.isAlive());
+        Assert.assertTrue(completed.await(30, TimeUnit.SECONDS));
+        Assert.assertTrue(scheduled.get());
+        Assert.assertEquals(1, scheduler.getThrottledTasks());
+    }
+
+    @Test
+    public void tasksOfSameRoutingAreExecutedByArrivalOrder() throws Exception {
+        scheduler = new SpaceTaskScheduler("space", 1, 100, TimeUnit.MILLISECONDS.toNanos(1));
+        establishLongTaskType();
+
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        scheduler.schedule(1, "short", blockingTask(started, release));
+        Assert.assertTrue(started.await(30, TimeUnit.SECONDS));
+
+        final List<String> executed = Collections.synchronizedList(new ArrayList<String>());
+        final CountDownLatch completed = new CountDownLatch(3);
+        scheduler.schedule(1, "short", recordingTask(executed, "short1", completed));
+        scheduler.schedule(1, "long", recordingTask(executed, "long", completed));
+        scheduler.schedule(1, "short", recordingTask(executed, "short2", completed));
+        release.countDown();
+
+        Assert.assertTrue(completed.await(30, TimeUnit.SECONDS));
+        Assert.assertEquals(Arrays.asList("short1", "long", "short2"), executed);
+    }
+
+    @Test
+    public void shortTasksWithoutRoutingSkipLanesOfLongTasks() throws Exception {
+        scheduler = new SpaceTaskScheduler("space", 2, 100, TimeUnit.MILLISECONDS.toNanos(1));
+        establishLongTaskType();
+
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        final List<String> longThread = Collections.synchronizedList(new ArrayList<String>());
+        scheduler.schedule(null, "long", new Runnable() {
+            @Override
+            public void run() {
+                longThread.add(Thread.currentThread().getName());
+                blockingTask(started, release).run();
+            }
+        });
+        Assert.assertTrue(started.await(30, TimeUnit.SECONDS));
+
+        final List<String> threads = Collections.synchronizedList(new ArrayList<String>());
+        final CountDownLatch completed = new CountDownLatch(4);
+        for (int i = 0; i < 4; i++) {
+            scheduler.schedule(null, "short", new Runnable() {
+                @Override
+                public void run() {
+                    threads.add(Thread.currentThread().getName());
+                    completed.countDown();
+                }
+            });
+        }
+        try {
+            Assert.assertTrue(completed.await(30, TimeUnit.SECONDS));
+            Assert.assertFalse(threads.contains(longThread.get(0)));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void queuedTasksAreExecutedOnClose() throws Exception {
+        scheduler = new SpaceTaskScheduler("space", 1, 100, TimeUnit.SECONDS.toNanos(1));
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        scheduler.schedule(1, "task", blockingTask(started, release));
+        Assert.assertTrue(started.await(30, TimeUnit.SECONDS));
+        final List<String> executed = Collections.synchronizedList(new ArrayList<String>());
+        final CountDownLatch completed = new CountDownLatch(1);
+        scheduler.schedule(1, "task", recordingTask(executed, "queued", completed));
+
+        scheduler.close();
+        Assert.assertFalse(scheduler.schedule(1, "task", noop()));
+        release.countDown();
+        Assert.assertTrue(completed.await(30, TimeUnit.SECONDS));
+        Assert.assertEquals(Collections.singletonList("queued"), executed);
+    }
+
+    private void establishLongTaskType() throws InterruptedException {
+        final long executedTasks = scheduler.getExecutedTasks();
+        scheduler.schedule(null, "long", new Runnable() {
+            @Override
+            public void run() {
+                sleep(50);
+            }
+        });
+        // the execution time is recorded before the task is counted as executed
+        for (int i = 0; i < 3000 && scheduler.getExecutedTasks() == executedTasks; i++)
+            sleep(10);
+        Assert.assertEquals(executedTasks + 1, scheduler.getExecutedTasks());
+    }
+
+    private static Runnable blockingTask(final CountDownLatch started, final CountDownLatch release) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                try {
+                    release.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+    }
+
+    private static Runnable recordingTask(final List<String> executed, final String name, final CountDownLatch completed) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                executed.add(name);
+                completed.countDown();
+            }
+        };
+    }
+
+    private static Runnable noop() {
+        return new Runnable() {
+            @Override
+            public void run() {
+            }
+        };
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.sync;
+
+import com.gigaspaces.datasource.DataIterator;
+import com.gigaspaces.datasource.SpaceDataSource;
+import com.gigaspaces.internal.cluster.SpaceClusterInfo;
+import com.gigaspaces.internal.server.space.SpaceConfigReader;
+import com.gigaspaces.internal.server.space.SpaceEngine;
+import com.gigaspaces.internal.server.space.SpaceImpl;
+import com.gigaspaces.internal.server.storage.IEntryHolder;
+import com.gigaspaces.internal.server.storage.ITemplateHolder;
+import com.j_spaces.core.JSpaceAttributes;
+import com.j_spaces.core.sadapter.ISAdapterIterator;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class SynchronizationStorageAdapterTest {
+    private static final SpaceClusterInfo CLUSTER_INFO = new SpaceClusterInfo();
+
+    @Test
+    public void noInitialLoadStreams() throws Exception {
+        SpaceDataSource dataSource = Mockito.mock(SpaceDataSource.class, Mockito.CALLS_REAL_METHODS);
+        SynchronizationStorageAdapter adapter = createAdapter(dataSource);
+
+        Assert.assertNull(adapter.initialLoadStreams(null, template()));
+        Assert.assertNotNull(adapter.initialLoad(null, template()));
+        Mockito.verify(dataSource, Mockito.times(1)).initialMetadataLoad();
+        Mockito.verify(dataSource, Mockito.times(1)).initialDataLoad();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void initialLoadStreams() throws Exception {
+        SpaceDataSource dataSource = Mockito.mock(SpaceDataSource.class, Mockito.CALLS_REAL_METHODS);
+        List<DataIterator<Object>> streams = Arrays.<DataIterator<Object>>asList(Mockito.mock(DataIterator.class), Mockito.mock(DataIterator.class));
+        Mockito.doReturn(streams).when(dataSource).initialDataLoadStreams();
+        SynchronizationStorageAdapter adapter = createAdapter(dataSource);
+
+        List<ISAdapterIterator<IEntryHolder>> result = adapter.initialLoadStreams(null, template());
+        Assert.assertEquals(2, result.size());
+        Mockito.verify(dataSource, Mockito.times(1)).initialMetadataLoad();
+        Mockito.verify(dataSource, Mockito.never()).initialDataLoad();
+    }
+
+    @Test
+    public void spaceClusterInfoIsInjectedBeforeInitialLoad() throws Exception {
+        SpaceDataSource dataSource = Mockito.mock(SpaceDataSource.class, Mockito.withSettings()
+                .extraInterfaces(SpaceClusterInfoAware.class).defaultAnswer(Mockito.CALLS_REAL_METHODS));
+        Mockito.doNothing().when((SpaceClusterInfoAware) dataSource).setSpaceClusterInfo(Mockito.any(SpaceClusterInfo.class), Mockito.anyInt());
+        SynchronizationStorageAdapter adapter = createAdapter(dataSource);
+
+        adapter.initialLoadStreams(null, template());
+        adapter.initialLoad(null, template());
+        InOrder inOrder = Mockito.inOrder(dataSource);
+        inOrder.verify((SpaceClusterInfoAware) dataSource).setSpaceClusterInfo(CLUSTER_INFO, 2);
+        inOrder.verify(dataSource).initialDataLoad();
+    }
+
+    private static SynchronizationStorageAdapter createAdapter(SpaceDataSource dataSource) throws Exception {
+        SpaceEngine engine = Mockito.mock(SpaceEngine.class);
+        SpaceImpl spaceImpl = Mockito.mock(SpaceImpl.class);
+        Mockito.when(engine.getConfigReader()).thenReturn(Mockito.mock(SpaceConfigReader.class));
+        Mockito.when(engine.getSpaceImpl()).thenReturn(spaceImpl);
+        Mockito.when(spaceImpl.getJspaceAttr()).thenReturn(new JSpaceAttributes());
+        Mockito.when(engine.getClusterInfo()).thenReturn(CLUSTER_INFO);
+        Mockito.when(engine.getPartitionIdZeroBased()).thenReturn(2);
+        return new SynchronizationStorageAdapter(engine, dataSource, null);
+    }
+
+    private static ITemplateHolder template() {
+        return Mockito.mock(ITemplateHolder.class);
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.sync.mirror;
+
+import com.gigaspaces.datasource.BulkItem;
+import com.gigaspaces.internal.cluster.node.IReplicationInBatchContext;
+import com.gigaspaces.sync.DataSyncOperation;
+import com.gigaspaces.sync.DataSyncOperationType;
+import com.gigaspaces.sync.OperationsBatchData;
+import com.gigaspaces.sync.SpaceSynchronizationEndpoint;
+import com.j_spaces.sadapter.datasource.InternalBulkItem;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class MirrorBulkExecutorTest {
+
+    @Test
+    public void batchIsExecutedAsWholeByDefault() {
+        RecordingEndpoint endpoint = new RecordingEndpoint();
+        MirrorBulkExecutor executor = new MirrorBulkExecutor(endpoint, null, Object.class);
+        executor.execute(items("A", "B", "A"), null, batchContext());
+
+        Assert.assertEquals(1, endpoint.batches.size());
+        Assert.assertEquals(Arrays.asList("A", "B", "A"), endpoint.batches.get(0));
+    }
+
+    @Test
+    public void typeBatchesAreExecutedConcurrently() {
+        final CountDownLatch typeBExecuted = new CountDownLatch(1);
+        RecordingEndpoint endpoint = new RecordingEndpoint() {
+            @Override
+            public void onOperationsBatchSynchronization(OperationsBatchData batchData) {
+                super.onOperationsBatchSynchronization(batchData);
+                String typeName = ((BulkItem) batchData.getBatchDataItems()[0]).getTypeName();
+                try {
+                    // the sub batch of A completes only if the sub batch of B is executed meanwhile
+                    if (typeName.equals("A"))
+                        Assert.assertTrue(typeBExecuted.await(10, TimeUnit.SECONDS));
+                    else
+                        typeBExecuted.countDown();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+        MirrorBulkExecutor executor = new MirrorBulkExecutor(endpoint, null, Object.class, 2);
+        try {
+            executor.execute(items("A", "B", "A", "B"), null, batchContext());
+        } finally {
+            executor.close();
+        }
+
+        Assert.assertEquals(2, endpoint.batches.size());
+        Assert.assertTrue(endpoint.batches.contains(Arrays.asList("A", "A")));
+        Assert.assertTrue(endpoint.batches.contains(Arrays.asList("B", "B")));
+    }
+
+    @Test
+    public void typeBatchFailureFailsBatch() {
+        RecordingEndpoint endpoint = new RecordingEndpoint() {
+            @Override
+            public void onOperationsBatchSynchronization(OperationsBatchData batchData) {
+                super.onOperationsBatchSynchronization(batchData);
+                if (((BulkItem) batchData.getBatchDataItems()[0]).getTypeName().equals("B"))
+                    throw new IllegalStateException("B failed");
+            }
+        };
+        MirrorBulkExecutor executor = new MirrorBulkExecutor(endpoint, null, Object.class, 2);
+        try {
+            executor.execute(items("A", "B"), null, batchContext());
+            Assert.fail("Failure of a type batch should fail the batch");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("B failed", e.getMessage());
+        } finally {
+            executor.close();
+        }
+        Assert.assertEquals(2, endpoint.batches.size());
+    }
+
+    @Test
+    public void retryExecutesOnlyFailedTypeBatches() {
+        final AtomicBoolean failB = new AtomicBoolean(true);
+        final List<List<String>> executedUids = new CopyOnWriteArrayList<List<String>>();
+        RecordingEndpoint endpoint = new RecordingEndpoint() {
+            @Override
+            public void onOperationsBatchSynchronization(OperationsBatchData batchData) {
+                List<String> uids = new ArrayList<String>();
+                for (DataSyncOperation operation : batchData.getBatchDataItems())
+                    uids.add(operation.getUid());
+                executedUids.add(uids);
+                if (uids.contains("b1") && failB.getAndSet(false))
+                    throw new IllegalStateException("B failed");
+            }
+        };
+        MirrorBulkExecutor executor = new MirrorBulkExecutor(endpoint, null, Object.class, 2);
+        try {
+            try {
+                executor.execute(Arrays.asList(item("A", "a1"), item("B", "b1")), null, batchContext());
+                Assert.fail("Failure of a type batch should fail the batch");
+            } catch (IllegalStateException e) {
+                Assert.assertEquals("B failed", e.getMessage());
+            }
+            executedUids.clear();
+            // the source resends the failed batch, possibly with more operations
+            executor.execute(Arrays.asList(item("A", "a1"), item("B", "b1"), item("A", "a2")), null, batchContext());
+            Assert.assertEquals(2, executedUids.size());
+            Assert.assertTrue(executedUids.contains(Arrays.asList("a2")));
+            Assert.assertTrue(executedUids.contains(Arrays.asList("b1")));
+
+            // a successful batch is not tracked
+            executedUids.clear();
+            executor.execute(Arrays.asList(item("A", "a1"), item("B", "b1")), null, batchContext());
+            Assert.assertEquals(2, executedUids.size());
+        } finally {
+            executor.close();
+        }
+    }
+
+    @Test
+    public void closeStopsTypeBatchesExecution() {
+        RecordingEndpoint endpoint = new RecordingEndpoint();
+        MirrorBulkExecutor executor = new MirrorBulkExecutor(endpoint, null, Object.class, 2);
+        executor.execute(items("A", "B"), null, batchContext());
+        executor.close();
+        try {
+            executor.execute(items("A", "B"), null, batchContext());
+            Assert.fail("Type batches should not be executed after close");
+        } catch (RejectedExecutionException e) {
+            //expected
+        }
+        //single type batches do not need the executor
+        executor.execute(items("A"), null, batchContext());
+        Assert.assertEquals(3, endpoint.batches.size());
+    }
+
+    @Test
+    public void operationsOrderIsKeptPerType() {
+        List<BulkItem> items = items("A", "B", "C", "B", "A");
+        List<DataSyncOperation[]> typeBatches = MirrorBulkExecutor.splitByType(items);
+
+        Assert.assertEquals(3, typeBatches.size());
+        Assert.assertArrayEquals(new Object[]{items.get(0), items.get(4)}, typeBatches.get(0));
+        Assert.assertArrayEquals(new Object[]{items.get(1), items.get(3)}, typeBatches.get(1));
+        Assert.assertArrayEquals(new Object[]{items.get(2)}, typeBatches.get(2));
+    }
+
+    private static List<BulkItem> items(String... typeNames) {
+        List<BulkItem> items = new ArrayList<BulkItem>();
+        for (String typeName : typeNames) {
+            InternalBulkItem item = Mockito.mock(InternalBulkItem.class);
+            Mockito.when(item.getTypeName()).thenReturn(typeName);
+            items.add(item);
+        }
+        return items;
+    }
+
+    private static BulkItem item(String typeName, String uid) {
+        InternalBulkItem item = Mockito.mock(InternalBulkItem.class, Mockito.RETURNS_DEEP_STUBS);
+        Mockito.when(item.getTypeName()).thenReturn(typeName);
+        Mockito.when(item.getUid()).thenReturn(uid);
+        Mockito.when(item.getDataSyncOperationType()).thenReturn(DataSyncOperationType.WRITE);
+        Mockito.when(item.toEntryPacket().getVersion()).thenReturn(1);
+        return item;
+    }
+
+    private static IReplicationInBatchContext batchContext() {
+        IReplicationInBatchContext batchContext = Mockito.mock(IReplicationInBatchContext.class);
+        Mockito.when(batchContext.getSourceLookupName()).thenReturn("source");
+        return batchContext;
+    }
+
+    private static class RecordingEndpoint extends SpaceSynchronizationEndpoint {
+        final List<List<String>> batches = new CopyOnWriteArrayList<List<String>>();
+
+        @Override
+        public void onOperationsBatchSynchronization(OperationsBatchData batchData) {
+            List<String> typeNames = new ArrayList<String>();
+            for (DataSyncOperation operation : batchData.getBatchDataItems())
+                typeNames.add(((BulkItem) operation).getTypeName());
+            batches.add(typeNames);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.utils.collections.economy;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class LockFreeEconomyConcurrentHashMapTest {
+
+    @Test
+    public void basicOperations() {
+        LockFreeEconomyConcurrentHashMap<String, Value> map = createMap();
+        Value a = new Value("a");
+        Assert.assertNull(map.putIfAbsent("a", a));
+        Assert.assertSame(a, map.putIfAbsent("a", new Value("a")));
+        Assert.assertSame(a, map.get("a"));
+        Assert.assertEquals(1, map.size());
+
+        Value a2 = new Value("a");
+        Assert.assertFalse(map.replace("a", a2, a2));
+        Assert.assertTrue(map.replace("a", a, a2));
+        Assert.assertSame(a2, map.get("a"));
+
+        Assert.assertFalse(map.remove("a", a));
+        Assert.assertSame(a2, map.remove("a"));
+        Assert.assertNull(map.get("a"));
+        Assert.assertTrue(map.isEmpty());
+
+        try {
+            map.put("b", new Value("b"));
+            Assert.fail("put which is not ifAbsent should not be supported");
+        } catch (RuntimeException expected) {
+        }
+    }
+
+    @Test
+    public void resize() {
+        LockFreeEconomyConcurrentHashMap<String, Value> map = createMap();
+        final int size = 10000;
+        for (int i = 0; i < size; i++)
+            map.putIfAbsent("k" + i, new Value("k" + i));
+        Assert.assertEquals(size, map.size());
+        for (int i = 0; i < size; i++)
+            Assert.assertEquals("k" + i, map.get("k" + i)._key.get());
+
+        Set<String> keys = new HashSet<String>(map.keySet());
+        Assert.assertEquals(size, keys.size());
+
+        for (int i = 0; i < size; i += 2)
+            Assert.assertNotNull(map.remove("k" + i));
+        Assert.assertEquals(size / 2, map.size());
+        Assert.assertEquals(size / 2, map.values().size());
+        map.clear();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertFalse(map.keySet().iterator().hasNext());
+    }
+
+    @Test
+    public void unstableKey() {
+        LockFreeEconomyConcurrentHashMap<String, Value> map = createMap();
+        Value a = new Value("a");
+        map.putIfAbsent("a", a);
+        map.setKeyUnstable("a");
+        a._key.set("b");
+        Assert.assertSame(a, map.get("a"));
+        Assert.assertNull(map.get("b"));
+        Assert.assertSame(a, map.remove("a"));
+
+        Value c = new Value("c");
+        map.putIfAbsent("c", c, true /*unstableKey*/);
+        c._key.set("d");
+        Assert.assertSame(c, map.get("c"));
+    }
+
+    @Test
+    public void concurrentUpdates() throws InterruptedException {
+        final LockFreeEconomyConcurrentHashMap<String, Value> map = createMap();
+        final int threads = 4;
+        final int keysPerThread = 20000;
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final String prefix = "t" + t + "-";
+            workers[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < keysPerThread; i++)
+                        map.putIfAbsent(prefix + i, new Value(prefix + i));
+                    for (int i = 0; i < keysPerThread; i += 2)
+                        map.remove(prefix + i);
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers)
+            worker.join();
+
+        Assert.assertEquals(threads * keysPerThread / 2, map.size());
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < keysPerThread; i++)
+                Assert.assertEquals(i % 2 != 0, map.containsKey("t" + t + "-" + i));
+        }
+    }
+
+    private static LockFreeEconomyConcurrentHashMap<String, Value> createMap() {
+        return new LockFreeEconomyConcurrentHashMap<String, Value>(new ValueHandler());
+    }
+
+    private static class Value implements IHashEntry<String, Value> {
+        private final AtomicReference<String> _key;
+
+        private Value(String key) {
+            this._key = new AtomicReference<String>(key);
+        }
+
+        public int getHashCode(int id) {
+            return _key.get().hashCode();
+        }
+
+        public String getKey(int id) {
+            return _key.get();
+        }
+
+        public Value getValue(int id) {
+            return this;
+        }
+
+        public boolean isNativeHashEntry() {
+            return false;
+        }
+    }
+
+    private static class ValueHandler implements IHashEntryHandler<String, Value> {
+        public int hash(IHashEntry<String, Value> e) {
+            if (e.isNativeHashEntry())
+                return ((EconomyConcurrentHashMap.HashEntry<String, Value>) e).hash;
+            return EconomyConcurrentHashMap.hash(e.getHashCode(0));
+        }
+
+        public String key(IHashEntry<String, Value> e) {
+            return e.getKey(0);
+        }
+
+        public Value value(IHashEntry<String, Value> e) {
+            return e.getValue(0);
+        }
+
+        public IHashEntry<String, Value> next(IHashEntry<String, Value> e) {
+            return e.isNativeHashEntry() ? ((EconomyConcurrentHashMap.HashEntry<String, Value>) e).next : null;
+        }
+
+        public IHashEntry<String, Value> createEntry(String key, Value value, IHashEntry<String, Value> next, int hash) {
+            return createEntry(key, value, next, hash, false);
+        }
+
+        public IHashEntry<String, Value> createEntry(String key, Value value, IHashEntry<String, Value> next, int hash, boolean unstableKey) {
+            if (next == null && !unstableKey)
+                return value;
+            return unstableKey ? new EconomyConcurrentHashMap.PinnedHashEntry<String, Value>(key, hash, next, value)
+                    : new EconomyConcurrentHashMap.HashEntry<String, Value>(key, hash, next, value);
+        }
+
+        public IHashEntry<String, Value> cloneEntry(IHashEntry<String, Value> e, IHashEntry<String, Value> newNext) {
+            return cloneEntry(e, newNext, false);
+        }
+
+        public IHashEntry<String, Value> cloneEntry(IHashEntry<String, Value> e, IHashEntry<String, Value> newNext, boolean unstableKey) {
+            if (e.isNativeHashEntry())
+                unstableKey = unstableKey || ((EconomyConcurrentHashMap.HashEntry<String, Value>) e).isPinnedHashEntry();
+            return createEntry(e.getKey(0), e.getValue(0), newNext, hash(e), unstableKey);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.j_spaces.core.cache;
+
+import com.j_spaces.core.cache.context.Context;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+public class CacheContextFactoryTest {
+
+    @Test
+    public void mainContextIsReused() {
+        CacheContextFactory factory = new CacheContextFactory(null, "space");
+        Context context = factory.getCacheContext();
+        Assert.assertSame(context, factory.viewCacheContext());
+        factory.freeCacheContext(context);
+        Assert.assertNull(factory.viewCacheContext());
+        Assert.assertSame(context, factory.getCacheContext());
+    }
+
+    @Test
+    public void nestedContextsAreReused() {
+        CacheContextFactory factory = new CacheContextFactory(null, "space");
+        Context main = factory.getCacheContext();
+        Context nested1 = factory.getCacheContext();
+        Context nested2 = factory.getCacheContext();
+        Assert.assertNotSame(main, nested1);
+        Assert.assertNotSame(nested1, nested2);
+        Assert.assertSame(main, factory.viewCacheContext());
+
+        factory.freeCacheContext(nested2);
+        factory.freeCacheContext(nested1);
+        Assert.assertSame(nested1, factory.getCacheContext());
+        Assert.assertSame(nested2, factory.getCacheContext());
+    }
+
+    @Test
+    public void nestedContextsAreReusedWhenFreedOutOfOrder() {
+        CacheContextFactory factory = new CacheContextFactory(null, "space");
+        factory.getCacheContext();
+        Context nested1 = factory.getCacheContext();
+        Context nested2 = factory.getCacheContext();
+
+        factory.freeCacheContext(nested1);
+        Context context = factory.getCacheContext();
+        Assert.assertSame(nested1, context);
+        Assert.assertNotSame(nested2, context);
+    }
+
+    @Test
+    public void deepNestingAllocatesContexts() {
+        CacheContextFactory factory = new CacheContextFactory(null, "space");
+        factory.getCacheContext();
+        Context[] nested = new Context[CacheContextFactory.MAX_NESTED_CONTEXTS];
+        for (int i = 0; i < nested.length; i++)
+            nested[i] = factory.getCacheContext();
+
+        Context overflow = factory.getCacheContext();
+        Assert.assertTrue(overflow.isActive());
+        for (Context context : nested)
+            Assert.assertNotSame(context, overflow);
+        factory.freeCacheContext(overflow);
+
+        Context next = factory.getCacheContext();
+        for (Context context : nested)
+            Assert.assertNotSame(context, next);
+    }
+
+    @Test
+    public void nestedContextsDoNotAllocate() {
+        Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threadMXBean.isThreadAllocatedMemorySupported() && threadMXBean.isThreadAllocatedMemoryEnabled());
+
+        CacheContextFactory factory = new CacheContextFactory(null, "space");
+        Context main = factory.getCacheContext();
+        final int iterations = 100000;
+        acquireNestedContexts(factory, iterations);
+
+        long threadId = Thread.currentThread().getId();
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        acquireNestedContexts(factory, iterations);
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+        factory.freeCacheContext(main);
+
+        //a single context allocation is far larger than the measurement noise spread over the iterations
+        Assert.assertTrue("allocated " + allocated + " bytes for " + iterations + " nested contexts", allocated < iterations);
+    }
+
+    private static void acquireNestedContexts(CacheContextFactory factory, int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            Context nested1 = factory.getCacheContext();
+            Context nested2 = factory.getCacheContext();
+            factory.freeCacheContext(nested2);
+            factory.freeCacheContext(nested1);
+        }
+    }
+
+    @Test
+    public void freedContextIsClean() {
+        CacheContextFactory factory = new CacheContextFactory(null, "space");
+        factory.getCacheContext();
+        Context nested = factory.getCacheContext();
+        nested.setFromReplication(true);
+        factory.freeCacheContext(nested);
+
+        Context context = factory.getCacheContext();
+        Assert.assertSame(nested, context);
+        Assert.assertFalse(context.isFromReplication());
+        Assert.assertTrue(context.isActive());
+    }
+}
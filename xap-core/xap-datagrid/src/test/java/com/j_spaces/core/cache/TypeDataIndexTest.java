@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.j_spaces.core.cache;
+
+import com.gigaspaces.internal.server.space.SpaceConfigReader;
+import com.gigaspaces.internal.server.space.metadata.TypeDataFactory;
+import com.gigaspaces.internal.utils.collections.economy.EconomyConcurrentHashMap;
+import com.gigaspaces.internal.utils.collections.economy.LockFreeEconomyConcurrentHashMap;
+import com.gigaspaces.metadata.index.ISpaceIndex;
+import com.gigaspaces.metadata.index.SpaceIndexType;
+import com.j_spaces.kernel.IStoredList;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+public class TypeDataIndexTest {
+
+    @Test
+    public void segmentLockedEconomyStoresAreUsedByDefault() {
+        SpaceConfigReader configReader = Mockito.mock(SpaceConfigReader.class);
+        Mockito.when(configReader.getBooleanSpaceProperty(Mockito.anyString(), Mockito.anyString())).thenAnswer(new Answer<Boolean>() {
+            @Override
+            public Boolean answer(InvocationOnMock invocation) {
+                return Boolean.parseBoolean((String) invocation.getArguments()[1]);
+            }
+        });
+        TypeDataFactory typeDataFactory = new TypeDataFactory(configReader, null);
+        Assert.assertFalse(typeDataFactory.useLockFreeEconomyHashMap());
+
+        TypeDataIndex<Object> index = createIndex(true, typeDataFactory.useLockFreeEconomyHashMap(), true);
+        Assert.assertTrue(index.getUniqueEntriesStore() instanceof EconomyConcurrentHashMap);
+        Assert.assertTrue(index.getNonUniqueEntriesStore() instanceof EconomyConcurrentHashMap);
+    }
+
+    @Test
+    public void lockFreeEconomyStoresAreUsedWhenEnabled() {
+        TypeDataIndex<Object> index = createIndex(true, true, true);
+        Assert.assertTrue(index.getUniqueEntriesStore() instanceof LockFreeEconomyConcurrentHashMap);
+        Assert.assertTrue(index.getNonUniqueEntriesStore() instanceof LockFreeEconomyConcurrentHashMap);
+    }
+
+    @Test
+    public void economyStoresAreUsedWhenLockFreeIsDisabled() {
+        TypeDataIndex<Object> index = createIndex(true, false, true);
+        Assert.assertTrue(index.getUniqueEntriesStore() instanceof EconomyConcurrentHashMap);
+        Assert.assertTrue(index.getNonUniqueEntriesStore() instanceof EconomyConcurrentHashMap);
+    }
+
+    @Test
+    public void concurrentStoresAreUsedWithoutEconomy() {
+        TypeDataIndex<Object> index = createIndex(false, true, false);
+        Assert.assertNull(index.getUniqueEntriesStore());
+        Assert.assertTrue(index.getNonUniqueEntriesStore() instanceof ConcurrentHashMap);
+    }
+
+    @Test
+    public void highCardinalityIsRememberedAfterValuesAreRemoved() {
+        TypeDataIndex<Object> index = createIndex(false, true, false);
+        Assert.assertTrue(index.isLowCardinality());
+        for (int i = 0; i < 1000; i++)
+            index.getNonUniqueEntriesStore().put(i, Mockito.mock(IStoredList.class));
+        Assert.assertFalse(index.isLowCardinality());
+
+        index.getNonUniqueEntriesStore().clear();
+        Assert.assertFalse(index.isLowCardinality());
+    }
+
+    static TypeDataIndex<Object> createIndex(boolean useEconomyHashMap, boolean useLockFreeEconomyHashMap, boolean unique) {
+        CacheManager cacheManager = Mockito.mock(CacheManager.class, Mockito.RETURNS_DEEP_STUBS);
+        Mockito.when(cacheManager.getEngine().getSpaceImpl().getNodeName()).thenReturn("space");
+        Mockito.when(cacheManager.getTypeDataFactory().useLockFreeEconomyHashMap()).thenReturn(useLockFreeEconomyHashMap);
+        ISpaceIndex index = Mockito.mock(ISpaceIndex.class);
+        Mockito.when(index.getIndexType()).thenReturn(SpaceIndexType.EQUAL);
+        Mockito.when(index.isUnique()).thenReturn(unique);
+        return new TypeDataIndex<Object>(cacheManager, index, 0, useEconomyHashMap, 0);
+    }
+}
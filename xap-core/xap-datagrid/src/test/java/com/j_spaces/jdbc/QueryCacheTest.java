@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.j_spaces.jdbc;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class QueryCacheTest {
+
+    @Test
+    public void hitsAndMissesAreCounted() {
+        QueryCache cache = new QueryCache(10);
+        SelectQuery query = new SelectQuery();
+        Assert.assertNull(cache.getQueryFromCache("SELECT * FROM Person"));
+        cache.addQueryToCache("SELECT * FROM Person", query);
+        Assert.assertSame(query, cache.getQueryFromCache("SELECT * FROM Person"));
+        Assert.assertEquals(1, cache.getHits());
+        Assert.assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void leastRecentlyUsedQueriesAreEvicted() {
+        QueryCache cache = new QueryCache(10);
+        for (int i = 0; i < 10; i++)
+            cache.addQueryToCache("q" + i, new SelectQuery());
+        Assert.assertNotNull(cache.getQueryFromCache("q0"));
+        cache.addQueryToCache("q10", new SelectQuery());
+
+        Assert.assertEquals(2, cache.getEvictions());
+        Assert.assertEquals(9, cache.size());
+        Assert.assertNotNull(cache.getQueryFromCache("q0"));
+        Assert.assertNotNull(cache.getQueryFromCache("q10"));
+        Assert.assertNull(cache.getQueryFromCache("q1"));
+        Assert.assertNull(cache.getQueryFromCache("q2"));
+        Assert.assertNotNull(cache.getQueryFromCache("q3"));
+    }
+
+    @Test
+    public void evictionWhileQueriesAreAccessed() throws Exception {
+        final QueryCache cache = new QueryCache(1000);
+        for (int i = 0; i < 1000; i++)
+            cache.addQueryToCache("q" + i, new SelectQuery());
+        final AtomicBoolean done = new AtomicBoolean();
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        Thread reader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                // the access times change while the evicting thread sorts the queries
+                for (int i = 0; !done.get(); i = (i + 7) % 2000)
+                    cache.getQueryFromCache("q" + i);
+            }
+        });
+        reader.start();
+        try {
+            for (int i = 1000; i < 20000; i++)
+                cache.addQueryToCache("q" + i, new SelectQuery());
+        } catch (Throwable e) {
+            failure.set(e);
+        } finally {
+            done.set(true);
+            reader.join();
+        }
+        Assert.assertNull(failure.get());
+        Assert.assertTrue(cache.size() <= 1000);
+    }
+
+    @Test
+    public void disabledCacheIsEmpty() {
+        QueryCache cache = new QueryCache(0);
+        cache.addQueryToCache("SELECT * FROM Person", new SelectQuery());
+        Assert.assertNull(cache.getQueryFromCache("SELECT * FROM Person"));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void statementsDifferingInWhitespaceShareQuery() {
+        QueryCache cache = new QueryCache(10);
+        SelectQuery query = new SelectQuery();
+        cache.addQueryToCache("SELECT * FROM Person WHERE name = 'a  b'", query);
+        Assert.assertSame(query, cache.getQueryFromCache("  SELECT *\n FROM   Person\tWHERE name = 'a  b' "));
+        Assert.assertNull(cache.getQueryFromCache("SELECT * FROM Person WHERE name = 'a b'"));
+    }
+
+    @Test
+    public void normalizedStatementIsNotCopied() {
+        String statement = "SELECT * FROM Person WHERE name = 'a  b'";
+        Assert.assertSame(statement, QueryCache.normalizeStatement(statement));
+        Assert.assertEquals("SELECT * FROM \"a\tb\" x", QueryCache.normalizeStatement(" SELECT  *  FROM \"a\tb\"\nx"));
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.j_spaces.jdbc.driver;
+
+import com.j_spaces.jdbc.ResponsePacket;
+import com.j_spaces.jdbc.ResultEntry;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.sql.SQLException;
+
+public class GResultSetTest {
+
+    @Test
+    public void rowsAreFetchedFromCursor() throws SQLException {
+        GConnection connection = Mockito.mock(GConnection.class);
+        Mockito.when(connection.fetchCursor(7, 2)).thenReturn(response(7, 3, 4), response(0, 5));
+
+        GResultSet resultSet = new GResultSet(new GStatement(connection), result(1, 2), 7, 2);
+        for (int i = 1; i <= 5; i++) {
+            Assert.assertTrue(resultSet.next());
+            Assert.assertEquals(i, resultSet.getRow());
+            Assert.assertEquals(i, resultSet.getInt(1));
+        }
+        Assert.assertTrue(resultSet.isLast());
+        Assert.assertFalse(resultSet.next());
+
+        resultSet.close();
+        Mockito.verify(connection, Mockito.times(2)).fetchCursor(7, 2);
+        Mockito.verify(connection, Mockito.never()).closeCursor(Mockito.anyInt());
+    }
+
+    @Test
+    public void closeReleasesOpenCursor() throws SQLException {
+        GConnection connection = Mockito.mock(GConnection.class);
+
+        GResultSet resultSet = new GResultSet(new GStatement(connection), result(1, 2), 7, 2);
+        Assert.assertTrue(resultSet.next());
+        Assert.assertFalse(resultSet.isLast());
+        resultSet.close();
+        resultSet.close();
+
+        Mockito.verify(connection, Mockito.times(1)).closeCursor(7);
+    }
+
+    @Test
+    public void resultWithoutCursorIsNotFetched() throws SQLException {
+        GConnection connection = Mockito.mock(GConnection.class);
+
+        GResultSet resultSet = new GResultSet(new GStatement(connection), result(1, 2));
+        Assert.assertTrue(resultSet.next());
+        Assert.assertTrue(resultSet.next());
+        Assert.assertTrue(resultSet.isLast());
+        Assert.assertFalse(resultSet.next());
+        resultSet.close();
+
+        Mockito.verifyZeroInteractions(connection);
+    }
+
+    private static ResultEntry result(int... values) {
+        Object[][] rows = new Object[values.length][];
+        for (int i = 0; i < values.length; i++)
+            rows[i] = new Object[]{values[i]};
+        return new ResultEntry(new String[]{"id"}, new String[]{"id"}, new String[]{"t"}, rows);
+    }
+
+    private static ResponsePacket response(int cursorId, int... values) {
+        ResponsePacket response = new ResponsePacket();
+        response.setResultEntry(result(values));
+        response.setCursorId(cursorId);
+        return response;
+    }
+}
@@ -13,7 +13,7 @@ public class GStatementTest {
     This behavior can be relaxed by setting a system property
 
     Operations tested:
-    setFetchSize,setMaxRows
+    setMaxRows
      */
 
     final private static int INT_VALUE = 0;
@@ -25,16 +25,6 @@ public class GStatementTest {
 
         GStatement statement = new GStatement(null);
 
-        try{
-
-            statement.setFetchSize(INT_VALUE);
-
-        }catch (Exception e){
-            Assert.assertTrue(e.getMessage().equals("Command not Supported!"));
-
-            Assert.assertTrue("Unsupported sql operations should throw an SQLException ", e.getClass().getSimpleName().equals("SQLException"));
-        }
-
         try{
 
             statement.setMaxRows(INT_VALUE);
@@ -57,19 +47,25 @@ public class GStatementTest {
 
         try{
 
-            statement.setFetchSize(INT_VALUE);
+            statement.setMaxRows(INT_VALUE);
 
         }catch (SQLException e){
             Assert.fail("Unsupported sql operations should not throw an exception " + e);
         }
+    }
 
-        try{
+    @Test
+    public void testFetchSize() throws SQLException {
+        GStatement statement = new GStatement(null);
+        Assert.assertEquals(0, statement.getFetchSize());
 
-            statement.setMaxRows(INT_VALUE);
+        statement.setFetchSize(100);
+        Assert.assertEquals(100, statement.getFetchSize());
 
-        }catch (SQLException e){
-            Assert.fail("Unsupported sql operations should not throw an exception " + e);
+        try {
+            statement.setFetchSize(-1);
+            Assert.fail("Negative fetch size should throw an SQLException");
+        } catch (SQLException expected) {
         }
     }
 }
-
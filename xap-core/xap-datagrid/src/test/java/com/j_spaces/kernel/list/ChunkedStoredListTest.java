@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.j_spaces.kernel.list;
+
+import com.j_spaces.kernel.IObjectInfo;
+import com.j_spaces.kernel.IStoredListIterator;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ChunkedStoredListTest {
+
+    @Test
+    public void scanIsInInsertionOrder() {
+        ChunkedStoredList<Integer> list = new ChunkedStoredList<Integer>();
+        for (int i = 0; i < 100; i++)
+            list.add(i);
+
+        Assert.assertEquals(100, list.size());
+        Assert.assertEquals(Integer.valueOf(0), list.getObjectFromHead());
+        List<Integer> scanned = scan(list);
+        Assert.assertEquals(100, scanned.size());
+        for (int i = 0; i < 100; i++)
+            Assert.assertEquals(Integer.valueOf(i), scanned.get(i));
+    }
+
+    @Test
+    public void removedElementsAreSkipped() {
+        ChunkedStoredList<Integer> list = new ChunkedStoredList<Integer>();
+        List<IObjectInfo<Integer>> infos = new ArrayList<IObjectInfo<Integer>>();
+        for (int i = 0; i < 50; i++)
+            infos.add(list.add(i));
+        for (int i = 0; i < 50; i += 2)
+            list.remove(infos.get(i));
+        Assert.assertTrue(list.removeByObject(49));
+        Assert.assertFalse(list.removeByObject(49));
+
+        Assert.assertEquals(24, list.size());
+        Assert.assertEquals(Integer.valueOf(1), list.getObjectFromHead());
+        List<Integer> scanned = scan(list);
+        Assert.assertEquals(24, scanned.size());
+        for (Integer value : scanned)
+            Assert.assertTrue(value % 2 == 1 && value != 49);
+    }
+
+    @Test
+    public void removedChunksAreUnlinked() {
+        ChunkedStoredList<Integer> list = new ChunkedStoredList<Integer>();
+        List<IObjectInfo<Integer>> infos = new ArrayList<IObjectInfo<Integer>>();
+        for (int i = 0; i < 1000; i++)
+            infos.add(list.add(i));
+        for (int i = 0; i < 999; i++)
+            list.remove(infos.get(i));
+
+        Assert.assertEquals(1, list.size());
+        Assert.assertEquals(Integer.valueOf(999), list.getObjectFromHead());
+        Assert.assertTrue(list.getNumChunks() <= 2);
+    }
+
+    @Test
+    public void partlyRemovedChunksAreCompacted() {
+        ChunkedStoredList<Integer> list = new ChunkedStoredList<Integer>();
+        List<IObjectInfo<Integer>> infos = new ArrayList<IObjectInfo<Integer>>();
+        for (int i = 0; i < 10000; i++)
+            infos.add(list.add(i));
+        for (int i = 0; i < 10000; i++) {
+            if (i % 4 != 0)
+                list.remove(infos.get(i));
+        }
+
+        Assert.assertEquals(2500, list.size());
+        // removed slots are bounded by the live elements, apart from the last chunk which is not compacted
+        Assert.assertTrue(list.getNumSlots() + " slots", list.getNumSlots() <= 2 * list.size() + 1024);
+        List<Integer> scanned = scan(list);
+        Assert.assertEquals(2500, scanned.size());
+        for (int i = 0; i < 2500; i++)
+            Assert.assertEquals(Integer.valueOf(i * 4), scanned.get(i));
+
+        // moved elements can still be removed
+        for (int i = 0; i < 10000; i += 4)
+            list.remove(infos.get(i));
+        Assert.assertEquals(0, list.size());
+        Assert.assertNull(list.getHead());
+        Assert.assertTrue(list.getNumChunks() <= 2);
+    }
+
+    @Test
+    public void scanEstablishedBeforeCompactionSeesLiveElementsOnce() {
+        ChunkedStoredList<Integer> list = new ChunkedStoredList<Integer>();
+        List<IObjectInfo<Integer>> infos = new ArrayList<IObjectInfo<Integer>>();
+        for (int i = 0; i < 5000; i++)
+            infos.add(list.add(i));
+
+        IStoredListIterator<Integer> slh = list.establishListScan(false);
+        Assert.assertEquals(Integer.valueOf(0), slh.getSubject());
+        for (int i = 1; i < 5000; i++) {
+            if (i % 3 != 0)
+                list.remove(infos.get(i));
+        }
+        List<Integer> scanned = new ArrayList<Integer>();
+        scanned.add(slh.getSubject());
+        while ((slh = list.next(slh)) != null)
+            scanned.add(slh.getSubject());
+
+        Assert.assertEquals(list.size(), scanned.size());
+        for (int i = 0; i < scanned.size(); i++)
+            Assert.assertEquals(Integer.valueOf(i * 3), scanned.get(i));
+    }
+
+    @Test
+    public void randomScansAlternateDirection() {
+        ChunkedStoredList<Integer> list = new ChunkedStoredList<Integer>();
+        List<IObjectInfo<Integer>> infos = new ArrayList<IObjectInfo<Integer>>();
+        for (int i = 0; i < 100; i++)
+            infos.add(list.add(i));
+        for (int i = 0; i < 100; i += 3)
+            list.remove(infos.get(i));
+
+        List<Integer> first = scan(list, true);
+        List<Integer> second = scan(list, true);
+        Assert.assertEquals(list.size(), first.size());
+        Assert.assertEquals(list.size(), second.size());
+        Assert.assertTrue(first.get(0) < first.get(1) ? second.get(0) > second.get(1) : second.get(0) < second.get(1));
+        Collections.reverse(second);
+        Assert.assertEquals(first.get(0) < first.get(1) ? first : second, scan(list, false));
+    }
+
+    @Test
+    public void reverseScanEstablishedBeforeCompactionSeesLiveElementsOnce() {
+        ChunkedStoredList<Integer> list = new ChunkedStoredList<Integer>();
+        List<IObjectInfo<Integer>> infos = new ArrayList<IObjectInfo<Integer>>();
+        for (int i = 0; i < 5000; i++)
+            infos.add(list.add(i));
+
+        IStoredListIterator<Integer> slh = list.establishListScan(true);
+        if (slh.getSubject() == 0) {
+            list.freeSLHolder(slh);
+            slh = list.establishListScan(true);
+        }
+        Assert.assertEquals(Integer.valueOf(4999), slh.getSubject());
+        for (int i = 0; i < 4999; i++) {
+            if (i % 3 != 0)
+                list.remove(infos.get(i));
+        }
+        List<Integer> scanned = new ArrayList<Integer>();
+        scanned.add(slh.getSubject());
+        while ((slh = list.next(slh)) != null)
+            scanned.add(slh.getSubject());
+
+        Assert.assertEquals(list.size(), scanned.size());
+        Collections.reverse(scanned);
+        Assert.assertEquals(scan(list, false), scanned);
+    }
+
+    @Test
+    public void invalidatedListRejectsAdds() {
+        ChunkedStoredList<Integer> list = new ChunkedStoredList<Integer>();
+        IObjectInfo<Integer> info = list.add(1);
+        Assert.assertFalse(list.invalidate());
+        list.remove(info);
+        Assert.assertTrue(list.invalidate());
+        Assert.assertNull(list.add(2));
+    }
+
+    @Test
+    public void concurrentAddsAndRemoves() throws Exception {
+        final ChunkedStoredList<Integer> list = new ChunkedStoredList<Integer>();
+        final int threads = 4;
+        final int perThread = 20000;
+        final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int base = t * perThread;
+            workers[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        List<IObjectInfo<Integer>> infos = new ArrayList<IObjectInfo<Integer>>();
+                        for (int i = 0; i < perThread; i++) {
+                            infos.add(list.add(base + i));
+                            if (i % 2 == 1)
+                                list.remove(infos.get(i - 1));
+                        }
+                    } catch (Throwable e) {
+                        error.set(e);
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers)
+            worker.join();
+
+        Assert.assertNull(error.get());
+        Assert.assertEquals(threads * perThread / 2, list.size());
+        List<Integer> scanned = scan(list);
+        Assert.assertEquals(threads * perThread / 2, scanned.size());
+        for (Integer value : scanned)
+            Assert.assertTrue(value % 2 == 1);
+    }
+
+    private static List<Integer> scan(ChunkedStoredList<Integer> list) {
+        return scan(list, false);
+    }
+
+    private static List<Integer> scan(ChunkedStoredList<Integer> list, boolean randomScan) {
+        List<Integer> result = new ArrayList<Integer>();
+        for (IStoredListIterator<Integer> slh = list.establishListScan(randomScan); slh != null; slh = list.next(slh))
+            result.add(slh.getSubject());
+        return result;
+    }
+}
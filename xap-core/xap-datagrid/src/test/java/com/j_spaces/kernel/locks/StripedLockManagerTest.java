@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.j_spaces.kernel.locks;
+
+import com.gigaspaces.internal.server.storage.IEntryHolder;
+import com.gigaspaces.internal.server.storage.ITemplateHolder;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class StripedLockManagerTest {
+
+    @Test
+    public void numOfLocksIsPowerOfTwo() {
+        Assert.assertEquals(1024, new StripedLockManager<IEntryHolder>(1000).getNumLocks());
+        Assert.assertEquals(16, new StripedLockManager<IEntryHolder>(16).getNumLocks());
+    }
+
+    @Test
+    public void entriesAreLockedByUid() {
+        StripedLockManager<IEntryHolder> lockManager = new StripedLockManager<IEntryHolder>(64);
+        IEntryHolder entry = entry("uid1");
+        IEntryHolder otherInstance = entry("uid1");
+
+        ILockObject lockObject = lockManager.getLockObject(entry);
+        Assert.assertNotSame(entry, lockObject);
+        Assert.assertFalse(lockObject.isLockSubject());
+        Assert.assertSame(lockObject, lockManager.getLockObject(otherInstance));
+        Assert.assertSame(lockObject, lockManager.getLockObject("uid1"));
+        Assert.assertSame(lockObject, lockManager.getLockObject(entry, true));
+        // all-in-cache lease manager passes isEvictable=false for entries
+        Assert.assertSame(lockObject, lockManager.getLockObject(entry, false));
+        Assert.assertFalse(lockManager.isPerLogicalSubjectLockObject(false));
+    }
+
+    @Test
+    public void templatesAreLockedByThemselves() {
+        StripedLockManager<IEntryHolder> lockManager = new StripedLockManager<IEntryHolder>(64);
+        ITemplateHolder template = Mockito.mock(ITemplateHolder.class);
+        Mockito.when(template.getUID()).thenReturn("template");
+        Assert.assertSame(template, lockManager.getLockObject(template, false));
+        Assert.assertSame(template, lockManager.getLockObject(template));
+    }
+
+    @Test(timeout = 10000)
+    public void leaseAndOperationOnSameEntryExcludeEachOther() throws Exception {
+        final StripedLockManager<IEntryHolder> lockManager = new StripedLockManager<IEntryHolder>(64);
+        final IEntryHolder leasedEntry = entry("uid1");
+        final IEntryHolder operationEntry = entry("uid1");
+        final CountDownLatch leaseLocked = new CountDownLatch(1);
+        final CountDownLatch releaseLease = new CountDownLatch(1);
+        final CountDownLatch operationLocked = new CountDownLatch(1);
+
+        // same lock acquisition as the lease manager renew/cancel/expiration of an all-in-cache entry
+        Thread leaseThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (lockManager.getLockObject(leasedEntry, false /*isEvictable*/)) {
+                    leaseLocked.countDown();
+                    awaitQuietly(releaseLease);
+                }
+            }
+        });
+        // same lock acquisition as write/take/update of the entry
+        Thread operationThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (lockManager.getLockObject(operationEntry)) {
+                    operationLocked.countDown();
+                }
+            }
+        });
+
+        leaseThread.start();
+        Assert.assertTrue(leaseLocked.await(5, TimeUnit.SECONDS));
+        operationThread.start();
+        Assert.assertFalse("operation entered while the lease holds the entry lock", operationLocked.await(200, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(Thread.State.BLOCKED, operationThread.getState());
+
+        releaseLease.countDown();
+        Assert.assertTrue(operationLocked.await(5, TimeUnit.SECONDS));
+        leaseThread.join();
+        operationThread.join();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static IEntryHolder entry(String uid) {
+        IEntryHolder entry = Mockito.mock(IEntryHolder.class);
+        Mockito.when(entry.getUID()).thenReturn(uid);
+        return entry;
+    }
+}
@@ -138,6 +138,10 @@ public abstract class AbstractSpaceBeanDefinitionParser extends AbstractSimpleBe
             if (StringUtils.hasText(initialLoadPercentage)) {
                 ((LruCachePolicy) cachePolicy).setInitialLoadPercentage(Integer.parseInt(initialLoadPercentage));
             }
+            String algorithm = lruCacheEle.getAttribute("algorithm");
+            if (StringUtils.hasText(algorithm)) {
+                ((LruCachePolicy) cachePolicy).setAlgorithm(algorithm);
+            }
         }
         Element customCacheEle = DomUtils.getChildElementByTagName(element, "custom-cache-policy");
         if (customCacheEle != null) {
@@ -19,6 +19,7 @@ package org.openspaces.core.executor.support;
 
 import com.gigaspaces.async.AsyncResultFilter;
 import com.gigaspaces.async.AsyncResultFilterEvent;
+import com.gigaspaces.async.AsyncResultsAccumulator;
 
 import org.openspaces.core.executor.DistributedTask;
 import org.openspaces.core.executor.Task;
@@ -67,6 +68,18 @@ public abstract class AbstractDelegatingDistributedTask<T extends Serializable,
         return filter;
     }
 
+    /**
+     * Applies the filter of this task, if there is one, to the results folded by the given
+     * accumulator. Used by streaming reducers, whose results are not passed to the filter by the
+     * executor.
+     */
+    protected AsyncResultsAccumulator<T, R> filterResults(AsyncResultsAccumulator<T, R> accumulator, int expectedResults) {
+        if (filter == null) {
+            return accumulator;
+        }
+        return new FilteringResultsAccumulator<T, R>(filter, accumulator, expectedResults);
+    }
+
     @Override
     protected void _writeExternal(ObjectOutput output) throws IOException {
         super._writeExternal(output);
@@ -18,8 +18,7 @@
 package org.openspaces.core.executor.support;
 
 import com.gigaspaces.async.AsyncResult;
-
-import java.util.List;
+import com.gigaspaces.async.AsyncResultsAccumulator;
 
 /**
  * A default implementation of a reducer that averages all types <code>T</code> into a result
@@ -41,17 +40,24 @@ public class AvgReducer<T extends Number, R extends Number> extends SumReducer<T
         return this;
     }
 
-    public R reduce(List<AsyncResult<T>> results) throws Exception {
-        R sum = super.reduce(results);
-        int count = 0;
-        for (AsyncResult<T> result : results) {
-            if (result.getException() == null) {
-                count++;
-            } else throw result.getException();
-        }
-        if (count == 0) {
-            throw new NoResultsException("No results to calculate average on");
-        }
-        return redeuceHelper.div(sum, count);
+    @Override
+    public AsyncResultsAccumulator<T, R> createAccumulator(int expectedResults) {
+        return new SumAccumulator() {
+            @Override
+            public boolean accumulate(AsyncResult<T> result) throws Exception {
+                if (result.getException() != null) {
+                    throw result.getException();
+                }
+                return super.accumulate(result);
+            }
+
+            @Override
+            public R getResult() throws Exception {
+                if (getCount() == 0) {
+                    throw new NoResultsException("No results to calculate average on");
+                }
+                return redeuceHelper.div(super.getResult(), getCount());
+            }
+        };
     }
 }
\ No newline at end of file
@@ -19,6 +19,8 @@ package org.openspaces.core.executor.support;
 
 import com.gigaspaces.async.AsyncResult;
 import com.gigaspaces.async.AsyncResultFilter;
+import com.gigaspaces.async.AsyncResultsAccumulator;
+import com.gigaspaces.async.StreamingAsyncResultsReducer;
 
 import org.openspaces.core.executor.Task;
 
@@ -41,7 +43,7 @@ import java.util.List;
  * @author kimchy
  * @see SumReducer
  */
-public class AvgTask<T extends Number, R extends Number> extends AbstractDelegatingDistributedTask<T, R> implements Externalizable {
+public class AvgTask<T extends Number, R extends Number> extends AbstractDelegatingDistributedTask<T, R> implements StreamingAsyncResultsReducer<T, R>, Externalizable {
 
     private static final long serialVersionUID = -6970700450888522663L;
 
@@ -92,6 +94,14 @@ public class AvgTask<T extends Number, R extends Number> extends AbstractDelegat
         return reducer.reduce(results);
     }
 
+    /**
+     * Folds the results as they arrive using its internal reducer, applying the result filter if
+     * there is one.
+     */
+    public AsyncResultsAccumulator<T, R> createAccumulator(int expectedResults) {
+        return filterResults(reducer.createAccumulator(expectedResults), expectedResults);
+    }
+
     public void writeExternal(ObjectOutput out) throws IOException {
         super._writeExternal(out);
     }
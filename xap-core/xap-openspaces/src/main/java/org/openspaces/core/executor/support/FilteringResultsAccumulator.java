@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.openspaces.core.executor.support;
+
+import com.gigaspaces.async.AsyncResult;
+import com.gigaspaces.async.AsyncResultFilter;
+import com.gigaspaces.async.AsyncResultFilterEvent;
+import com.gigaspaces.async.AsyncResultsAccumulator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An accumulator that applies a {@link AsyncResultFilter} to the results before folding them into
+ * the delegate accumulator. The results which were not skipped are kept, since the filter receives
+ * them on each result.
+ *
+ * @since 15.5
+ */
+class FilteringResultsAccumulator<T, R> implements AsyncResultsAccumulator<T, R> {
+
+    private final AsyncResultFilter<T> filter;
+
+    private final AsyncResultsAccumulator<T, R> accumulator;
+
+    private final int expectedResults;
+
+    private final List<AsyncResult<T>> receivedResults = new ArrayList<AsyncResult<T>>();
+
+    FilteringResultsAccumulator(AsyncResultFilter<T> filter, AsyncResultsAccumulator<T, R> accumulator, int expectedResults) {
+        this.filter = filter;
+        this.accumulator = accumulator;
+        this.expectedResults = expectedResults;
+    }
+
+    @SuppressWarnings("unchecked")
+    public boolean accumulate(AsyncResult<T> result) throws Exception {
+        AsyncResult<T>[] previousResults = receivedResults.toArray(new AsyncResult[receivedResults.size()]);
+        switch (filter.onResult(new AsyncResultFilterEvent<T>(result, previousResults, expectedResults))) {
+            case CONTINUE:
+                receivedResults.add(result);
+                return accumulator.accumulate(result);
+            case SKIP:
+                return true;
+            case BREAK:
+                receivedResults.add(result);
+                accumulator.accumulate(result);
+                return false;
+            case SKIP_AND_BREAK:
+            default:
+                return false;
+        }
+    }
+
+    public R getResult() throws Exception {
+        return accumulator.getResult();
+    }
+}
@@ -18,19 +18,18 @@
 package org.openspaces.core.executor.support;
 
 import com.gigaspaces.async.AsyncResult;
-import com.gigaspaces.async.AsyncResultsReducer;
+import com.gigaspaces.async.AsyncResultsAccumulator;
+import com.gigaspaces.async.StreamingAsyncResultsReducer;
 
 import org.openspaces.core.util.numbers.NumberHelper;
 import org.openspaces.core.util.numbers.NumberHelperFactory;
 
-import java.util.List;
-
 /**
  * A default implementation of a reducer that returnt the maximum of <code>T</code>.
  *
  * @author kimchy
  */
-public class MaxReducer<T extends Number> implements AsyncResultsReducer<T, T> {
+public class MaxReducer<T extends Number> implements StreamingAsyncResultsReducer<T, T> {
 
     private volatile boolean ignoreExceptions;
 
@@ -48,26 +47,27 @@ public class MaxReducer<T extends Number> implements AsyncResultsReducer<T, T> {
         return this;
     }
 
-    public T reduce(List<AsyncResult<T>> results) throws Exception {
-        T candidate = null;
-        for (AsyncResult<T> result : results) {
-            if (result.getException() != null) {
-                if (!ignoreExceptions) {
-                    throw result.getException();
+    public AsyncResultsAccumulator<T, T> createAccumulator(int expectedResults) {
+        return new AsyncResultsAccumulator<T, T>() {
+            private T candidate;
+
+            public boolean accumulate(AsyncResult<T> result) throws Exception {
+                if (result.getException() != null) {
+                    if (!ignoreExceptions) {
+                        throw result.getException();
+                    }
+                } else if (candidate == null || reduceHelper.compare(result.getResult(), candidate) > 0) {
+                    candidate = result.getResult();
                 }
-            } else {
+                return true;
+            }
+
+            public T getResult() throws Exception {
                 if (candidate == null) {
-                    candidate = result.getResult();
-                } else {
-                    if (reduceHelper.compare(result.getResult(), candidate) > 0) {
-                        candidate = result.getResult();
-                    }
+                    throw new NoResultsException("No results to calculate reduce operations even though ignoring exceptions");
                 }
+                return candidate;
             }
-        }
-        if (candidate == null) {
-            throw new NoResultsException("No results to calculate reduce operations even though ignoring exceptions");
-        }
-        return candidate;
+        };
     }
 }
\ No newline at end of file
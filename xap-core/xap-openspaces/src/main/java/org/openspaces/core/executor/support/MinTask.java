@@ -19,6 +19,8 @@ package org.openspaces.core.executor.support;
 
 import com.gigaspaces.async.AsyncResult;
 import com.gigaspaces.async.AsyncResultFilter;
+import com.gigaspaces.async.AsyncResultsAccumulator;
+import com.gigaspaces.async.StreamingAsyncResultsReducer;
 
 import org.openspaces.core.executor.Task;
 
@@ -41,7 +43,7 @@ import java.util.List;
  * @author kimchy
  * @see org.openspaces.core.executor.support.MaxReducer
  */
-public class MinTask<T extends Number> extends AbstractDelegatingDistributedTask<T, T> implements Externalizable {
+public class MinTask<T extends Number> extends AbstractDelegatingDistributedTask<T, T> implements StreamingAsyncResultsReducer<T, T>, Externalizable {
 
     private static final long serialVersionUID = -8472546701431396889L;
 
@@ -90,6 +92,14 @@ public class MinTask<T extends Number> extends AbstractDelegatingDistributedTask
         return reducer.reduce(results);
     }
 
+    /**
+     * Folds the results as they arrive using its internal reducer, applying the result filter if
+     * there is one.
+     */
+    public AsyncResultsAccumulator<T, T> createAccumulator(int expectedResults) {
+        return filterResults(reducer.createAccumulator(expectedResults), expectedResults);
+    }
+
     public void writeExternal(ObjectOutput out) throws IOException {
         super._writeExternal(out);
     }
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.openspaces.core.executor.support;
+
+import com.gigaspaces.async.AsyncFutureListener;
+import com.gigaspaces.async.AsyncResult;
+import com.gigaspaces.async.AsyncResultsAccumulator;
+import com.gigaspaces.async.StreamingAsyncResultsReducer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A listener that can be used to set on several executions, folding their results as they arrive
+ * using a streaming reducer, and then wait for the reduced result (using {@link #waitForResult()}).
+ * Unlike {@link WaitForAllListener}, the results are not kept once they were folded. The number of
+ * executions needs to be known in advance and set in the constructor. The listener completes once
+ * all the results arrived, or once the reducer terminated the reduction.
+ *
+ * @since 15.5
+ */
+public class ReducingListener<T, R> implements AsyncFutureListener<T> {
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition completed = lock.newCondition();
+
+    private final int numberOfResults;
+
+    private final AsyncResultsAccumulator<T, R> accumulator;
+
+    private int numberOfResultsArrived;
+
+    private boolean done;
+
+    private Exception exception;
+
+    /**
+     * Constructs a new listener with the number of executions this listener will be set on.
+     */
+    public ReducingListener(StreamingAsyncResultsReducer<T, R> reducer, int numberOfResults) {
+        this.numberOfResults = numberOfResults;
+        this.accumulator = reducer.createAccumulator(numberOfResults);
+        this.done = numberOfResults == 0;
+    }
+
+    public void onResult(AsyncResult<T> result) {
+        lock.lock();
+        try {
+            if (done) {
+                return;
+            }
+            try {
+                done = !accumulator.accumulate(result);
+            } catch (Exception e) {
+                exception = e;
+                done = true;
+            }
+            if (++numberOfResultsArrived == numberOfResults) {
+                done = true;
+            }
+            if (done) {
+                completed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits for the reduced result indefinitely.
+     */
+    public R waitForResult() throws Exception {
+        lock.lock();
+        try {
+            while (!done) {
+                completed.await();
+            }
+            return getResult();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits for the reduced result for the given time period.
+     *
+     * @throws TimeoutException if the reduction did not complete within the given time period
+     */
+    public R waitForResult(long timeout, TimeUnit unit) throws Exception {
+        lock.lock();
+        try {
+            long remaining = unit.toNanos(timeout);
+            while (!done) {
+                if (remaining <= 0) {
+                    throw new TimeoutException("Reduction did not complete, " + numberOfResultsArrived + " out of " + numberOfResults + " results arrived");
+                }
+                remaining = completed.awaitNanos(remaining);
+            }
+            return getResult();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private R getResult() throws Exception {
+        if (exception != null) {
+            throw exception;
+        }
+        return accumulator.getResult();
+    }
+}
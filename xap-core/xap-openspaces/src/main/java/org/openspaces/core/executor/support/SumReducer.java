@@ -18,20 +18,19 @@
 package org.openspaces.core.executor.support;
 
 import com.gigaspaces.async.AsyncResult;
-import com.gigaspaces.async.AsyncResultsReducer;
+import com.gigaspaces.async.AsyncResultsAccumulator;
+import com.gigaspaces.async.StreamingAsyncResultsReducer;
 
 import org.openspaces.core.util.numbers.NumberHelper;
 import org.openspaces.core.util.numbers.NumberHelperFactory;
 
-import java.util.List;
-
 /**
  * A default implementation of a reducer that sums all types <code>T</code> into a result
- * <code>R</code>.
+ * <code>R</code>. Results are summed as they arrive.
  *
  * @author kimchy
  */
-public class SumReducer<T extends Number, R extends Number> implements AsyncResultsReducer<T, R> {
+public class SumReducer<T extends Number, R extends Number> implements StreamingAsyncResultsReducer<T, R> {
 
     private volatile boolean ignoreExceptions;
 
@@ -49,18 +48,38 @@ public class SumReducer<T extends Number, R extends Number> implements AsyncResu
         return this;
     }
 
-    public R reduce(List<AsyncResult<T>> results) throws Exception {
-        R sum = redeuceHelper.ZERO();
-        for (AsyncResult<T> result : results) {
+    public AsyncResultsAccumulator<T, R> createAccumulator(int expectedResults) {
+        return new SumAccumulator();
+    }
+
+    protected class SumAccumulator implements AsyncResultsAccumulator<T, R> {
+
+        private R sum = redeuceHelper.ZERO();
+
+        private int count;
+
+        public boolean accumulate(AsyncResult<T> result) throws Exception {
             if (result.getException() != null) {
                 if (ignoreExceptions) {
-                    continue;
+                    return true;
                 } else {
                     throw result.getException();
                 }
             }
             sum = redeuceHelper.add(sum, result.getResult());
+            count++;
+            return true;
+        }
+
+        public R getResult() throws Exception {
+            return sum;
+        }
+
+        /**
+         * Returns the number of results that were summed.
+         */
+        public int getCount() {
+            return count;
         }
-        return sum;
     }
 }
\ No newline at end of file
@@ -32,6 +32,8 @@ public class LruCachePolicy implements CachePolicy {
 
     private Integer initialLoadPercentage;
 
+    private String algorithm;
+
     public LruCachePolicy() {
     }
 
@@ -75,6 +77,26 @@ public class LruCachePolicy implements CachePolicy {
         return this;
     }
 
+    /**
+     * The algorithm used to select the entries to evict. <code>lru</code> (the default) evicts the
+     * least recently used entries, <code>tinylfu</code> evicts the least frequently used entries
+     * and is resistant to scans which would otherwise flush the popular entries out of the cache.
+     */
+    public LruCachePolicy algorithm(String algorithm) {
+        setAlgorithm(algorithm);
+        return this;
+    }
+
+    /**
+     * The algorithm used to select the entries to evict. <code>lru</code> (the default) evicts the
+     * least recently used entries, <code>tinylfu</code> evicts the least frequently used entries
+     * and is resistant to scans which would otherwise flush the popular entries out of the cache.
+     */
+    public LruCachePolicy setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+        return this;
+    }
+
     public Properties toProps() {
         Properties props = new Properties();
         props.setProperty(Constants.CacheManager.FULL_CACHE_POLICY_PROP, "" + Constants.CacheManager.CACHE_POLICY_LRU);
@@ -84,6 +106,9 @@ public class LruCachePolicy implements CachePolicy {
         if (initialLoadPercentage != null) {
             props.setProperty(Constants.CacheManager.FULL_CACHE_MANAGER_INITIAL_LOAD_PROP, initialLoadPercentage.toString());
         }
+        if (algorithm != null) {
+            props.setProperty(Constants.CacheManager.FULL_CACHE_MANAGER_LRU_ALGORITHM_PROP, algorithm);
+        }
         return props;
     }
 }
@@ -17,6 +17,8 @@
 
 package org.openspaces.remoting;
 
+import com.gigaspaces.internal.version.PlatformLogicalVersion;
+import com.gigaspaces.lrmi.LRMIInvocationContext;
 import com.j_spaces.core.client.IReplicatable;
 import com.j_spaces.core.client.MetaDataEntry;
 
@@ -224,6 +226,7 @@ public class EventDrivenSpaceRemotingEntry extends MetaDataEntry implements Spac
         out.writeBoolean(isInvocation);
 
         if (isInvocation) {
+            final boolean compactArguments = LRMIInvocationContext.getEndpointLogicalVersion().greaterOrEquals(PlatformLogicalVersion.v15_5_0);
             if (lookupName != null) {
                 out.writeUTF(lookupName);
             }
@@ -243,13 +246,19 @@ public class EventDrivenSpaceRemotingEntry extends MetaDataEntry implements Spac
             if (arguments != null && arguments.length != 0) {
                 out.writeInt(arguments.length);
                 for (Object argument : arguments) {
-                    out.writeObject(argument);
+                    if (compactArguments)
+                        RemotingArgumentsSerializer.writeArgument(out, argument);
+                    else
+                        out.writeObject(argument);
                 }
             }
             if (metaArguments != null && metaArguments.length != 0) {
                 out.writeInt(metaArguments.length);
                 for (Object argument : metaArguments) {
-                    out.writeObject(argument);
+                    if (compactArguments)
+                        RemotingArgumentsSerializer.writeArgument(out, argument);
+                    else
+                        out.writeObject(argument);
                 }
             }
         } else {
@@ -273,6 +282,7 @@ public class EventDrivenSpaceRemotingEntry extends MetaDataEntry implements Spac
         short bitMask = in.readShort();
         isInvocation = in.readBoolean();
         if (isInvocation) {
+            final boolean compactArguments = LRMIInvocationContext.getEndpointLogicalVersion().greaterOrEquals(PlatformLogicalVersion.v15_5_0);
             if (!isFieldNull(bitMask, LOOKUP_NAME_BIT_MASK)) {
                 lookupName = in.readUTF();
             }
@@ -290,7 +300,7 @@ public class EventDrivenSpaceRemotingEntry extends MetaDataEntry implements Spac
                 int argumentNumber = in.readInt();
                 arguments = new Object[argumentNumber];
                 for (int i = 0; i < argumentNumber; i++) {
-                    arguments[i] = in.readObject();
+                    arguments[i] = compactArguments ? RemotingArgumentsSerializer.readArgument(in) : in.readObject();
                 }
             }
 
@@ -298,7 +308,7 @@ public class EventDrivenSpaceRemotingEntry extends MetaDataEntry implements Spac
                 int argumentNumber = in.readInt();
                 metaArguments = new Object[argumentNumber];
                 for (int i = 0; i < argumentNumber; i++) {
-                    metaArguments[i] = in.readObject();
+                    metaArguments[i] = compactArguments ? RemotingArgumentsSerializer.readArgument(in) : in.readObject();
                 }
             }
         } else {
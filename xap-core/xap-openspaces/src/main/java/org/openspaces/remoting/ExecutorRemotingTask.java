@@ -18,6 +18,9 @@
 package org.openspaces.remoting;
 
 import com.gigaspaces.async.AsyncResult;
+import com.gigaspaces.internal.io.IOUtils;
+import com.gigaspaces.internal.version.PlatformLogicalVersion;
+import com.gigaspaces.lrmi.LRMIInvocationContext;
 import com.j_spaces.kernel.JSpaceUtilities;
 
 import org.apache.commons.logging.Log;
@@ -162,6 +165,23 @@ public class ExecutorRemotingTask<T extends Serializable> implements Distributed
     }
 
     public void writeExternal(ObjectOutput out) throws IOException {
+        PlatformLogicalVersion version = LRMIInvocationContext.getEndpointLogicalVersion();
+        if (version.greaterOrEquals(PlatformLogicalVersion.v15_5_0))
+            writeExternalV15_5_0(out);
+        else
+            writeExternalOld(out);
+    }
+
+    private void writeExternalV15_5_0(ObjectOutput out) throws IOException {
+        // names are repeated by each invocation, so they are sent once per connection
+        IOUtils.writeRepetitiveString(out, lookupName);
+        IOUtils.writeRepetitiveString(out, methodName);
+        RemotingArgumentsSerializer.writeArguments(out, arguments);
+        RemotingArgumentsSerializer.writeArguments(out, metaArguments);
+        methodHash.writeExternal(out);
+    }
+
+    private void writeExternalOld(ObjectOutput out) throws IOException {
         out.writeUTF(lookupName);
         out.writeUTF(methodName);
         if (arguments == null) {
@@ -185,6 +205,23 @@ public class ExecutorRemotingTask<T extends Serializable> implements Distributed
     }
 
     public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        PlatformLogicalVersion version = LRMIInvocationContext.getEndpointLogicalVersion();
+        if (version.greaterOrEquals(PlatformLogicalVersion.v15_5_0))
+            readExternalV15_5_0(in);
+        else
+            readExternalOld(in);
+    }
+
+    private void readExternalV15_5_0(ObjectInput in) throws IOException, ClassNotFoundException {
+        lookupName = IOUtils.readRepetitiveString(in);
+        methodName = IOUtils.readRepetitiveString(in);
+        arguments = RemotingArgumentsSerializer.readArguments(in);
+        metaArguments = RemotingArgumentsSerializer.readArguments(in);
+        methodHash = new RemotingUtils.MethodHash();
+        methodHash.readExternal(in);
+    }
+
+    private void readExternalOld(ObjectInput in) throws IOException, ClassNotFoundException {
         lookupName = in.readUTF();
         methodName = in.readUTF();
         int size = in.readInt();
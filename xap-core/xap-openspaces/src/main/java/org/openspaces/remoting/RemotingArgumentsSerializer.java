@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.openspaces.remoting;
+
+import com.gigaspaces.internal.io.IOUtils;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.nio.ByteBuffer;
+
+/**
+ * Writes remoting invocation arguments compactly. Primitive wrappers and strings are written
+ * without a class descriptor, and <code>byte[]</code> and {@link ByteBuffer} arguments are written
+ * as raw bytes directly from their backing array, instead of going through generic object
+ * serialization. Any other argument is written with {@link ObjectOutput#writeObject(Object)}.
+ *
+ * <p>A {@link ByteBuffer} argument is written from its position to its limit without changing
+ * them, and is read as a heap buffer which wraps the received bytes.
+ *
+ * @since 15.5
+ */
+class RemotingArgumentsSerializer {
+
+    private static final byte NULL = 0;
+    private static final byte OBJECT = 1;
+    private static final byte BOOLEAN = 2;
+    private static final byte BYTE = 3;
+    private static final byte SHORT = 4;
+    private static final byte INT = 5;
+    private static final byte LONG = 6;
+    private static final byte FLOAT = 7;
+    private static final byte DOUBLE = 8;
+    private static final byte CHAR = 9;
+    private static final byte STRING = 10;
+    private static final byte BYTE_ARRAY = 11;
+    private static final byte BYTE_BUFFER = 12;
+
+    private static final int BUFFER_CHUNK_SIZE = 8192;
+
+    static void writeArguments(ObjectOutput out, Object[] arguments) throws IOException {
+        if (arguments == null) {
+            out.writeInt(0);
+            return;
+        }
+        out.writeInt(arguments.length);
+        for (Object argument : arguments)
+            writeArgument(out, argument);
+    }
+
+    static Object[] readArguments(ObjectInput in) throws IOException, ClassNotFoundException {
+        int length = in.readInt();
+        if (length == 0)
+            return null;
+        Object[] arguments = new Object[length];
+        for (int i = 0; i < length; i++)
+            arguments[i] = readArgument(in);
+        return arguments;
+    }
+
+    static void writeArgument(ObjectOutput out, Object argument) throws IOException {
+        if (argument == null) {
+            out.writeByte(NULL);
+        } else if (argument instanceof String) {
+            out.writeByte(STRING);
+            IOUtils.writeString(out, (String) argument);
+        } else if (argument instanceof Integer) {
+            out.writeByte(INT);
+            out.writeInt((Integer) argument);
+        } else if (argument instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) argument);
+        } else if (argument instanceof byte[]) {
+            out.writeByte(BYTE_ARRAY);
+            IOUtils.writeByteArray(out, (byte[]) argument);
+        } else if (argument instanceof ByteBuffer) {
+            out.writeByte(BYTE_BUFFER);
+            writeByteBuffer(out, (ByteBuffer) argument);
+        } else if (argument instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) argument);
+        } else if (argument instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) argument);
+        } else if (argument instanceof Float) {
+            out.writeByte(FLOAT);
+            out.writeFloat((Float) argument);
+        } else if (argument instanceof Short) {
+            out.writeByte(SHORT);
+            out.writeShort((Short) argument);
+        } else if (argument instanceof Byte) {
+            out.writeByte(BYTE);
+            out.writeByte((Byte) argument);
+        } else if (argument instanceof Character) {
+            out.writeByte(CHAR);
+            out.writeChar((Character) argument);
+        } else {
+            out.writeByte(OBJECT);
+            out.writeObject(argument);
+        }
+    }
+
+    static Object readArgument(ObjectInput in) throws IOException, ClassNotFoundException {
+        byte code = in.readByte();
+        switch (code) {
+            case NULL:
+                return null;
+            case OBJECT:
+                return in.readObject();
+            case BOOLEAN:
+                return in.readBoolean();
+            case BYTE:
+                return in.readByte();
+            case SHORT:
+                return in.readShort();
+            case INT:
+                return in.readInt();
+            case LONG:
+                return in.readLong();
+            case FLOAT:
+                return in.readFloat();
+            case DOUBLE:
+                return in.readDouble();
+            case CHAR:
+                return in.readChar();
+            case STRING:
+                return IOUtils.readString(in);
+            case BYTE_ARRAY:
+                return IOUtils.readByteArray(in);
+            case BYTE_BUFFER:
+                return ByteBuffer.wrap(IOUtils.readByteArray(in));
+            default:
+                throw new IOException("Unknown remoting argument code: " + code);
+        }
+    }
+
+    private static void writeByteBuffer(ObjectOutput out, ByteBuffer buffer) throws IOException {
+        int length = buffer.remaining();
+        out.writeInt(length);
+        if (buffer.hasArray()) {
+            out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), length);
+            return;
+        }
+        // direct buffers are copied in chunks, through a duplicate so the caller's position is kept
+        ByteBuffer source = buffer.duplicate();
+        byte[] chunk = new byte[Math.min(length, BUFFER_CHUNK_SIZE)];
+        while (source.hasRemaining()) {
+            int chunkLength = Math.min(chunk.length, source.remaining());
+            source.get(chunk, 0, chunkLength);
+            out.write(chunk, 0, chunkLength);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.openspaces.test.core.executor;
+
+import com.gigaspaces.async.AsyncResult;
+import com.gigaspaces.async.AsyncResultFilter;
+import com.gigaspaces.async.AsyncResultFilterEvent;
+import com.gigaspaces.async.AsyncResultsAccumulator;
+import com.gigaspaces.async.StreamingAsyncResultsReducer;
+import com.gigaspaces.async.internal.DefaultAsyncResult;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openspaces.core.executor.Task;
+import org.openspaces.core.executor.support.AvgReducer;
+import org.openspaces.core.executor.support.MaxReducer;
+import org.openspaces.core.executor.support.ReducingListener;
+import org.openspaces.core.executor.support.SumReducer;
+import org.openspaces.core.executor.support.SumTask;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+public class StreamingReducersTest {
+
+    @Test
+    public void sumFoldsResultsAsTheyArrive() throws Exception {
+        AsyncResultsAccumulator<Integer, Long> accumulator = new SumReducer<Integer, Long>(Long.class).createAccumulator(3);
+        Assert.assertTrue(accumulator.accumulate(result(1)));
+        Assert.assertTrue(accumulator.accumulate(result(2)));
+        Assert.assertEquals(Long.valueOf(3), accumulator.getResult());
+        Assert.assertTrue(accumulator.accumulate(result(3)));
+        Assert.assertEquals(Long.valueOf(6), accumulator.getResult());
+    }
+
+    @Test
+    public void reduceOfListUsesAccumulator() throws Exception {
+        MaxReducer<Integer> reducer = new MaxReducer<Integer>(Integer.class).ignoreExceptions();
+        Integer max = reducer.reduce(Arrays.asList(result(3), failure(), result(7), result(5)));
+        Assert.assertEquals(Integer.valueOf(7), max);
+        Assert.assertEquals(Double.valueOf(2), new AvgReducer<Integer, Double>(Double.class).reduce(Arrays.asList(result(1), result(3))));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void exceptionIsThrownUnlessIgnored() throws Exception {
+        new SumReducer<Integer, Long>(Long.class).createAccumulator(2).accumulate(failure());
+    }
+
+    @Test
+    public void taskFilterIsAppliedToStreamedResults() throws Exception {
+        SumTask<Integer, Long> task = new SumTask<Integer, Long>(Long.class, new ConstantTask(), new AsyncResultFilter<Integer>() {
+            public Decision onResult(AsyncResultFilterEvent<Integer> event) {
+                if (event.getCurrentResult().getResult() < 0)
+                    return Decision.SKIP;
+                return event.getReceivedResults().length == 1 ? Decision.BREAK : Decision.CONTINUE;
+            }
+        });
+        AsyncResultsAccumulator<Integer, Long> accumulator = task.createAccumulator(4);
+        Assert.assertTrue(accumulator.accumulate(result(1)));
+        Assert.assertTrue(accumulator.accumulate(result(-5)));
+        Assert.assertFalse("filter should terminate after the second accepted result", accumulator.accumulate(result(2)));
+        Assert.assertEquals(Long.valueOf(3), accumulator.getResult());
+    }
+
+    @Test
+    public void listenerCompletesWhenReducerTerminates() throws Exception {
+        ReducingListener<Integer, Integer> listener = new ReducingListener<Integer, Integer>(new AnyMatchReducer(5), 3);
+        listener.onResult(result(1));
+        listener.onResult(result(5));
+        Assert.assertEquals(Integer.valueOf(5), listener.waitForResult(1, TimeUnit.SECONDS));
+        // results which arrive after the reduction was terminated are ignored
+        listener.onResult(result(7));
+        Assert.assertEquals(Integer.valueOf(5), listener.waitForResult());
+    }
+
+    @Test(expected = java.util.concurrent.TimeoutException.class)
+    public void listenerTimesOutWhileResultsAreMissing() throws Exception {
+        ReducingListener<Integer, Long> listener = new ReducingListener<Integer, Long>(new SumReducer<Integer, Long>(Long.class), 2);
+        listener.onResult(result(1));
+        listener.waitForResult(10, TimeUnit.MILLISECONDS);
+    }
+
+    private static AsyncResult<Integer> result(int value) {
+        return new DefaultAsyncResult<Integer>(value, null);
+    }
+
+    private static AsyncResult<Integer> failure() {
+        return new DefaultAsyncResult<Integer>(null, new IllegalStateException("failed"));
+    }
+
+    private static class ConstantTask implements Task<Integer> {
+        public Integer execute() throws Exception {
+            return 1;
+        }
+    }
+
+    private static class AnyMatchReducer implements StreamingAsyncResultsReducer<Integer, Integer> {
+        private final int value;
+
+        private AnyMatchReducer(int value) {
+            this.value = value;
+        }
+
+        public AsyncResultsAccumulator<Integer, Integer> createAccumulator(int expectedResults) {
+            return new AsyncResultsAccumulator<Integer, Integer>() {
+                private Integer match;
+
+                public boolean accumulate(AsyncResult<Integer> result) {
+                    if (result.getResult() == value)
+                        match = result.getResult();
+                    return match == null;
+                }
+
+                public Integer getResult() {
+                    return match;
+                }
+            };
+        }
+    }
+}
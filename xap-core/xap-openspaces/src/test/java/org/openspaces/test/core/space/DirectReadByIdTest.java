@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openspaces.test.core.space;
+
+import com.gigaspaces.annotation.pojo.SpaceId;
+import com.j_spaces.core.IJSpace;
+import com.j_spaces.core.SpaceContext;
+import com.j_spaces.core.filters.FilterOperationCodes;
+import com.j_spaces.core.filters.FilterProvider;
+import com.j_spaces.core.filters.ISpaceFilter;
+import com.j_spaces.core.filters.entry.ISpaceFilterEntry;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.openspaces.core.GigaSpace;
+import org.openspaces.core.GigaSpaceConfigurer;
+import org.openspaces.core.space.EmbeddedSpaceConfigurer;
+import org.openspaces.core.space.filter.FilterProviderFactory;
+import org.openspaces.core.transaction.manager.DistributedJiniTxManagerConfigurer;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads by id must behave the same whether they are served directly from the id index or through
+ * the regular read path.
+ */
+@RunWith(Parameterized.class)
+public class DirectReadByIdTest {
+
+    @Parameterized.Parameters(name = "directReadById={0}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][]{{true}, {false}});
+    }
+
+    private final boolean directReadById;
+    private final CountingFilter filter = new CountingFilter();
+    private EmbeddedSpaceConfigurer spaceConfigurer;
+    private DistributedJiniTxManagerConfigurer txManagerConfigurer;
+    private GigaSpace gigaSpace;
+    private PlatformTransactionManager txManager;
+
+    public DirectReadByIdTest(boolean directReadById) {
+        this.directReadById = directReadById;
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        createSpace(false);
+    }
+
+    private void createSpace(boolean withFilter) throws Exception {
+        tearDown();
+        spaceConfigurer = new EmbeddedSpaceConfigurer("directReadById" + directReadById)
+                .lookupGroups("direct-read-by-id-test")
+                .addProperty("space-config.engine.direct_read_by_id", String.valueOf(directReadById));
+        // a filter other than the space statistics disables the direct read
+        if (withFilter) {
+            spaceConfigurer.addFilterProvider(new FilterProviderFactory() {
+                @Override
+                public FilterProvider getFilterProvider() {
+                    FilterProvider filterProvider = new FilterProvider("counting", filter);
+                    filterProvider.setOpCodes(FilterOperationCodes.BEFORE_READ, FilterOperationCodes.AFTER_READ);
+                    return filterProvider;
+                }
+            });
+        }
+        IJSpace space = spaceConfigurer.create();
+        txManagerConfigurer = new DistributedJiniTxManagerConfigurer();
+        txManager = txManagerConfigurer.transactionManager();
+        gigaSpace = new GigaSpaceConfigurer(space).transactionManager(txManager).gigaSpace();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (txManagerConfigurer != null)
+            txManagerConfigurer.destroy();
+        if (spaceConfigurer != null)
+            spaceConfigurer.close();
+        txManagerConfigurer = null;
+        spaceConfigurer = null;
+    }
+
+    @Test
+    public void readById() {
+        gigaSpace.write(new Data(1, "a"));
+        Assert.assertEquals("a", gigaSpace.readById(Data.class, 1).getValue());
+        Assert.assertNull(gigaSpace.readById(Data.class, 2));
+    }
+
+    @Test
+    public void filtersAreInvoked() throws Exception {
+        createSpace(true);
+        gigaSpace.write(new Data(1, "a"));
+        gigaSpace.readById(Data.class, 1);
+        gigaSpace.readById(Data.class, 1);
+
+        Assert.assertEquals(2, filter.beforeRead.get());
+        Assert.assertEquals(2, filter.afterRead.get());
+        Assert.assertEquals("a", filter.lastRead);
+    }
+
+    @Test
+    public void expiredEntryIsNotRead() throws Exception {
+        gigaSpace.write(new Data(1, "a"), 100);
+        Thread.sleep(300);
+        Assert.assertNull(gigaSpace.readById(Data.class, 1));
+    }
+
+    @Test
+    public void entryUpdatedUnderTransaction() {
+        gigaSpace.write(new Data(1, "a"));
+        TransactionStatus status = txManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            gigaSpace.write(new Data(1, "b"));
+            Assert.assertEquals("b", gigaSpace.readById(Data.class, 1).getValue());
+        } finally {
+            txManager.rollback(status);
+        }
+        Assert.assertEquals("a", gigaSpace.readById(Data.class, 1).getValue());
+    }
+
+    @Test
+    public void entryTakenUnderTransaction() {
+        gigaSpace.write(new Data(1, "a"));
+        TransactionStatus status = txManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            Assert.assertNotNull(gigaSpace.takeById(Data.class, 1));
+            Assert.assertNull(gigaSpace.readById(Data.class, 1));
+        } finally {
+            txManager.rollback(status);
+        }
+        Assert.assertEquals("a", gigaSpace.readById(Data.class, 1).getValue());
+    }
+
+    @Test
+    public void entryLockedByAnotherTransaction() throws Exception {
+        gigaSpace.write(new Data(1, "a"));
+        TransactionStatus status = txManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            gigaSpace.write(new Data(1, "b"));
+            final Object[] result = new Object[1];
+            Thread reader = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        result[0] = gigaSpace.readById(Data.class, 1);
+                    } catch (Throwable t) {
+                        result[0] = t;
+                    }
+                }
+            };
+            reader.start();
+            reader.join(10000);
+            Assert.assertFalse(reader.isAlive());
+            // a read with no timeout does not wait for the entry to be released by the transaction
+            Assert.assertNull(result[0]);
+        } finally {
+            txManager.rollback(status);
+        }
+    }
+
+    public static class Data {
+        private Integer id;
+        private String value;
+
+        public Data() {
+        }
+
+        public Data(Integer id, String value) {
+            this.id = id;
+            this.value = value;
+        }
+
+        @SpaceId
+        public Integer getId() {
+            return id;
+        }
+
+        public void setId(Integer id) {
+            this.id = id;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public void setValue(String value) {
+            this.value = value;
+        }
+    }
+
+    private static class CountingFilter implements ISpaceFilter {
+        private final AtomicInteger beforeRead = new AtomicInteger();
+        private final AtomicInteger afterRead = new AtomicInteger();
+        private volatile Object lastRead;
+
+        @Override
+        public void init(IJSpace space, String filterId, String url, int priority) {
+        }
+
+        @Override
+        public void process(SpaceContext context, ISpaceFilterEntry entry, int operationCode) {
+            if (operationCode == FilterOperationCodes.BEFORE_READ) {
+                beforeRead.incrementAndGet();
+            } else if (operationCode == FilterOperationCodes.AFTER_READ) {
+                afterRead.incrementAndGet();
+                lastRead = entry.getFieldValue("value");
+            }
+        }
+
+        @Override
+        public void process(SpaceContext context, ISpaceFilterEntry[] entries, int operationCode) {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
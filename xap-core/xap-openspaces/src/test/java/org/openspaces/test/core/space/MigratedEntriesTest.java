@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.openspaces.test.core.space;
+
+import com.gigaspaces.annotation.pojo.SpaceId;
+import com.gigaspaces.internal.server.space.SpaceEngine;
+import com.gigaspaces.internal.transport.EntryPacketFactory;
+import com.gigaspaces.internal.transport.IEntryPacket;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.openspaces.core.GigaSpace;
+import org.openspaces.core.GigaSpaceConfigurer;
+import org.openspaces.core.space.EmbeddedSpaceConfigurer;
+import org.openspaces.events.SpaceDataEventListener;
+import org.openspaces.events.notify.SimpleNotifyContainerConfigurer;
+import org.openspaces.events.notify.SimpleNotifyEventListenerContainer;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entries of migrated chunks are written and removed by the space itself, listeners of the space
+ * must not be notified about them.
+ */
+public class MigratedEntriesTest {
+
+    private EmbeddedSpaceConfigurer spaceConfigurer;
+    private SimpleNotifyEventListenerContainer notifyContainer;
+    private GigaSpace gigaSpace;
+    private SpaceEngine engine;
+    private final List<Integer> notifiedIds = new CopyOnWriteArrayList<Integer>();
+    private final CountDownLatch notified = new CountDownLatch(1);
+
+    @Before
+    public void setUp() throws Exception {
+        spaceConfigurer = new EmbeddedSpaceConfigurer("migratedEntries").lookupGroups("migrated-entries-test");
+        gigaSpace = new GigaSpaceConfigurer(spaceConfigurer.create()).gigaSpace();
+        engine = gigaSpace.getSpace().getDirectProxy().getSpaceImplIfEmbedded().getEngine();
+        gigaSpace.write(new Item(1, "migrated"));
+        notifyContainer = new SimpleNotifyContainerConfigurer(gigaSpace).template(new Item())
+                .notifyWrite(true).notifyTake(true)
+                .eventListener(new SpaceDataEventListener<Item>() {
+                    @Override
+                    public void onEvent(Item data, GigaSpace gigaSpace, TransactionStatus txStatus, Object source) {
+                        notifiedIds.add(data.getId());
+                        if (data.getId() == 2)
+                            notified.countDown();
+                    }
+                }).notifyContainer();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (notifyContainer != null)
+            notifyContainer.destroy();
+        if (spaceConfigurer != null)
+            spaceConfigurer.close();
+    }
+
+    @Test
+    public void migratedEntriesDoNotNotifyListeners() throws Exception {
+        String uid = engine.getCacheManager().getEntriesUids().iterator().next();
+        IEntryPacket entryPacket = EntryPacketFactory.createFullPacketForReplication(engine.getCacheManager().getEntryByUidFromPureCache(uid), null);
+
+        engine.removeMigratedEntry(uid);
+        Assert.assertNull(gigaSpace.readById(Item.class, 1));
+        engine.writeMigratedEntry(entryPacket);
+        Item item = gigaSpace.readById(Item.class, 1);
+        Assert.assertEquals("migrated", item.getName());
+        Assert.assertEquals(entryPacket.getVersion(), engine.getCacheManager().getEntryByUidFromPureCache(uid).getEntryData().getVersion());
+
+        // notifications are delivered in order, so once a user write is notified the migrated entry would have been too
+        gigaSpace.write(new Item(2, "user"));
+        Assert.assertTrue(notified.await(10, TimeUnit.SECONDS));
+        Assert.assertFalse("Migrated entries should not notify listeners " + notifiedIds, notifiedIds.contains(1));
+    }
+
+    public static class Item {
+        private Integer id;
+        private String name;
+
+        public Item() {
+        }
+
+        public Item(Integer id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        @SpaceId
+        public Integer getId() {
+            return id;
+        }
+
+        public void setId(Integer id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
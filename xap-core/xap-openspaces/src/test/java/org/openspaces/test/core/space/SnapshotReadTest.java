@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openspaces.test.core.space;
+
+import com.gigaspaces.annotation.pojo.SpaceId;
+import com.gigaspaces.client.ReadModifiers;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.openspaces.core.GigaSpace;
+import org.openspaces.core.GigaSpaceConfigurer;
+import org.openspaces.core.space.EmbeddedSpaceConfigurer;
+import org.openspaces.core.transaction.manager.DistributedJiniTxManagerConfigurer;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Snapshot reads must see the committed state of the space as of the beginning of the query while
+ * transactions keep committing concurrently.
+ */
+public class SnapshotReadTest {
+
+    private static final int ACCOUNTS = 50;
+    private static final int BALANCE = 100;
+
+    private EmbeddedSpaceConfigurer spaceConfigurer;
+    private DistributedJiniTxManagerConfigurer txManagerConfigurer;
+    private GigaSpace gigaSpace;
+    private PlatformTransactionManager txManager;
+
+    @Before
+    public void setUp() throws Exception {
+        createSpace(true);
+    }
+
+    private void createSpace(boolean snapshotReadsEnabled) throws Exception {
+        tearDown();
+        spaceConfigurer = new EmbeddedSpaceConfigurer("snapshotRead" + snapshotReadsEnabled)
+                .lookupGroups("snapshot-read-test")
+                .addProperty("space-config.engine.snapshot_reads_enabled", String.valueOf(snapshotReadsEnabled));
+        txManagerConfigurer = new DistributedJiniTxManagerConfigurer();
+        txManager = txManagerConfigurer.transactionManager();
+        gigaSpace = new GigaSpaceConfigurer(spaceConfigurer.create()).transactionManager(txManager).gigaSpace();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (txManagerConfigurer != null)
+            txManagerConfigurer.destroy();
+        if (spaceConfigurer != null)
+            spaceConfigurer.close();
+        txManagerConfigurer = null;
+        spaceConfigurer = null;
+    }
+
+    @Test
+    public void transactionNotCommittedIsNotVisible() throws Exception {
+        gigaSpace.write(new Account(1, BALANCE));
+        gigaSpace.write(new Account(2, BALANCE));
+        TransactionStatus status = txManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            gigaSpace.write(new Account(1, 0));
+            gigaSpace.takeById(Account.class, 2);
+            gigaSpace.write(new Account(3, BALANCE));
+
+            Account[] accounts = readSnapshotOutsideTransaction();
+            Assert.assertEquals(2, accounts.length);
+            for (Account account : accounts)
+                Assert.assertEquals(BALANCE, account.getBalance().intValue());
+        } finally {
+            txManager.commit(status);
+        }
+        Assert.assertEquals(2, readSnapshot().length);
+        Assert.assertEquals(BALANCE, sum(readSnapshot()));
+    }
+
+    @Test
+    public void concurrentTransfersKeepTotalBalance() throws Exception {
+        for (int i = 0; i < ACCOUNTS; i++)
+            gigaSpace.write(new Account(i, BALANCE));
+
+        final AtomicBoolean done = new AtomicBoolean();
+        final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+        Thread transfers = new Thread() {
+            @Override
+            public void run() {
+                Random random = new Random(1);
+                try {
+                    while (!done.get())
+                        transfer(random.nextInt(ACCOUNTS), random.nextInt(ACCOUNTS), random.nextInt(BALANCE));
+                } catch (Throwable t) {
+                    error.set(t);
+                }
+            }
+        };
+        transfers.start();
+        try {
+            for (int i = 0; i < 200 && error.get() == null; i++) {
+                Account[] accounts = readSnapshot();
+                Assert.assertEquals(ACCOUNTS, accounts.length);
+                Assert.assertEquals(ACCOUNTS * BALANCE, sum(accounts));
+            }
+        } finally {
+            done.set(true);
+            transfers.join(10000);
+        }
+        if (error.get() != null)
+            throw new AssertionError(error.get());
+        Assert.assertEquals(ACCOUNTS * BALANCE, sum(readSnapshot()));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void snapshotReadsNotEnabled() throws Exception {
+        createSpace(false);
+        gigaSpace.write(new Account(1, BALANCE));
+        readSnapshot();
+    }
+
+    private void transfer(int from, int to, int amount) {
+        if (from == to)
+            return;
+        TransactionStatus status = txManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            Account source = gigaSpace.readById(Account.class, from, null, 0, ReadModifiers.EXCLUSIVE_READ_LOCK);
+            Account target = gigaSpace.readById(Account.class, to, null, 0, ReadModifiers.EXCLUSIVE_READ_LOCK);
+            source.setBalance(source.getBalance() - amount);
+            target.setBalance(target.getBalance() + amount);
+            gigaSpace.writeMultiple(new Account[]{source, target});
+        } catch (RuntimeException e) {
+            txManager.rollback(status);
+            throw e;
+        }
+        txManager.commit(status);
+    }
+
+    private Account[] readSnapshot() {
+        return gigaSpace.readMultiple(new Account(), Integer.MAX_VALUE, ReadModifiers.SNAPSHOT_READ);
+    }
+
+    private Account[] readSnapshotOutsideTransaction() throws Exception {
+        final AtomicReference<Object> result = new AtomicReference<Object>();
+        Thread reader = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    result.set(readSnapshot());
+                } catch (Throwable t) {
+                    result.set(t);
+                }
+            }
+        };
+        reader.start();
+        reader.join(10000);
+        Assert.assertFalse(reader.isAlive());
+        if (result.get() instanceof Throwable)
+            throw new AssertionError(result.get());
+        return (Account[]) result.get();
+    }
+
+    private static int sum(Account[] accounts) {
+        int sum = 0;
+        for (Account account : accounts)
+            sum += account.getBalance();
+        return sum;
+    }
+
+    public static class Account {
+        private Integer id;
+        private Integer balance;
+
+        public Account() {
+        }
+
+        public Account(Integer id, Integer balance) {
+            this.id = id;
+            this.balance = balance;
+        }
+
+        @SpaceId
+        public Integer getId() {
+            return id;
+        }
+
+        public void setId(Integer id) {
+            this.id = id;
+        }
+
+        public Integer getBalance() {
+            return balance;
+        }
+
+        public void setBalance(Integer balance) {
+            this.balance = balance;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.openspaces.test.remoting;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openspaces.remoting.ExecutorRemotingTask;
+import org.openspaces.remoting.RemotingUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Date;
+
+public class ExecutorRemotingTaskSerializationTest {
+
+    @Test
+    public void argumentsAreSerialized() throws Exception {
+        Date date = new Date();
+        Object[] arguments = new Object[]{null, "str", 1, 2L, (short) 3, (byte) 4, 5.5f, 6.5d, true, 'c', date, new byte[]{1, 2, 3}};
+        ExecutorRemotingTask task = copy(new ExecutorRemotingTask("service", "method", hash(), arguments));
+
+        Assert.assertEquals("service", task.getLookupName());
+        Assert.assertEquals("method", task.getMethodName());
+        Assert.assertEquals(hash(), task.getMethodHash());
+        Assert.assertNull(task.getMetaArguments());
+        Object[] result = task.getArguments();
+        Assert.assertEquals(arguments.length, result.length);
+        for (int i = 0; i < arguments.length - 1; i++)
+            Assert.assertEquals(arguments[i], result[i]);
+        Assert.assertArrayEquals((byte[]) arguments[arguments.length - 1], (byte[]) result[arguments.length - 1]);
+    }
+
+    @Test
+    public void byteBufferArgumentIsSerializedFromPositionToLimit() throws Exception {
+        ByteBuffer heapBuffer = ByteBuffer.wrap(new byte[]{0, 1, 2, 3, 4, 5}, 1, 4).slice();
+        heapBuffer.position(1);
+        ByteBuffer directBuffer = ByteBuffer.allocateDirect(3);
+        directBuffer.put(new byte[]{7, 8, 9}).flip();
+
+        ExecutorRemotingTask task = copy(new ExecutorRemotingTask("service", "method", hash(), new Object[]{heapBuffer, directBuffer}));
+
+        assertBuffer(new byte[]{2, 3, 4}, (ByteBuffer) task.getArguments()[0]);
+        assertBuffer(new byte[]{7, 8, 9}, (ByteBuffer) task.getArguments()[1]);
+        Assert.assertEquals("serialization should not change the buffer", 1, heapBuffer.position());
+        Assert.assertEquals("serialization should not change the buffer", 0, directBuffer.position());
+    }
+
+    @Test
+    public void noArguments() throws Exception {
+        ExecutorRemotingTask task = copy(new ExecutorRemotingTask("service", "method", hash(), null));
+        Assert.assertNull(task.getArguments());
+    }
+
+    private static void assertBuffer(byte[] expected, ByteBuffer buffer) {
+        byte[] actual = new byte[buffer.remaining()];
+        buffer.get(actual);
+        Assert.assertTrue(Arrays.toString(actual), Arrays.equals(expected, actual));
+    }
+
+    private static RemotingUtils.MethodHash hash() {
+        return new RemotingUtils.MethodHash(new byte[]{1, 2, 3, 4});
+    }
+
+    private static ExecutorRemotingTask copy(ExecutorRemotingTask task) throws Exception {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(bos);
+        oos.writeObject(task);
+        oos.close();
+        ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()));
+        return (ExecutorRemotingTask) ois.readObject();
+    }
+}
@@ -23,6 +23,8 @@ import com.gigaspaces.datasource.DataSourceIdsQuery;
 import com.gigaspaces.datasource.DataSourceQuery;
 import com.gigaspaces.datasource.DataSourceSQLQuery;
 import com.gigaspaces.document.SpaceDocument;
+import com.gigaspaces.internal.cluster.SpaceClusterInfo;
+import com.gigaspaces.internal.sync.SpaceClusterInfoAware;
 import com.gigaspaces.internal.utils.StringUtils;
 import com.gigaspaces.metadata.SpaceTypeDescriptor;
 import com.j_spaces.kernel.pool.IResourceFactory;
@@ -36,6 +38,7 @@ import org.apache.commons.logging.LogFactory;
 import org.openspaces.core.cluster.ClusterInfo;
 import org.openspaces.persistency.ClusterInfoAwareSpaceDataSource;
 import org.openspaces.persistency.cassandra.datasource.CQLQueryContext;
+import org.openspaces.persistency.cassandra.datasource.CassandraParallelInitialLoadDataIterator;
 import org.openspaces.persistency.cassandra.datasource.CassandraTokenRangeAwareDataIterator;
 import org.openspaces.persistency.cassandra.datasource.CassandraTokenRangeAwareInitialLoadDataIterator;
 import org.openspaces.persistency.cassandra.datasource.SingleEntryDataIterator;
@@ -61,7 +64,7 @@ import java.util.Map.Entry;
  * @author Dan Kilman
  * @since 9.1.1
  */
-public class CassandraSpaceDataSource extends ClusterInfoAwareSpaceDataSource {
+public class CassandraSpaceDataSource extends ClusterInfoAwareSpaceDataSource implements SpaceClusterInfoAware {
 
     public static final String CQL_VERSION = "2.0.0";
 
@@ -74,6 +77,11 @@ public class CassandraSpaceDataSource extends ClusterInfoAwareSpaceDataSource {
 
     private final int batchLimit;
     private final CassandraConsistencyLevel readConsistencyLevel;
+    private final int initialLoadThreads;
+    private final int initialLoadPrefetchBatches;
+    private final boolean partitionAwareInitialLoad;
+    private volatile SpaceClusterInfo spaceClusterInfo;
+    private volatile int partitionIdZeroBased;
 
     private final Object lock = new Object();
     private boolean closed = false;
@@ -90,6 +98,38 @@ public class CassandraSpaceDataSource extends ClusterInfoAwareSpaceDataSource {
             String[] initialLoadQueryScanningBasePackages,
             boolean augmentInitialLoadEntries,
             ClusterInfo clusterInfo) {
+        this(fixedPropertyValueSerializer,
+                dynamicPropertyValueSerializer,
+                cassandraDataSource,
+                hectorClient,
+                minimumNumberOfConnections,
+                maximumNumberOfConnections,
+                batchLimit,
+                initialLoadQueryScanningBasePackages,
+                augmentInitialLoadEntries,
+                clusterInfo,
+                1,
+                1,
+                false);
+    }
+
+    /**
+     * @since 15.5
+     */
+    public CassandraSpaceDataSource(
+            PropertyValueSerializer fixedPropertyValueSerializer,
+            PropertyValueSerializer dynamicPropertyValueSerializer,
+            CassandraDataSource cassandraDataSource,
+            HectorCassandraClient hectorClient,
+            int minimumNumberOfConnections,
+            int maximumNumberOfConnections,
+            int batchLimit,
+            String[] initialLoadQueryScanningBasePackages,
+            boolean augmentInitialLoadEntries,
+            ClusterInfo clusterInfo,
+            int initialLoadThreads,
+            int initialLoadPrefetchBatches,
+            boolean partitionAwareInitialLoad) {
 
         if (hectorClient == null) {
             throw new IllegalArgumentException("hectorClient must be set and initiated");
@@ -116,8 +156,19 @@ public class CassandraSpaceDataSource extends ClusterInfoAwareSpaceDataSource {
             throw new IllegalArgumentException("batchSize must be a positive number");
         }
 
+        if (initialLoadThreads <= 0) {
+            throw new IllegalArgumentException("initialLoadThreads must be a positive number");
+        }
+
+        if (initialLoadPrefetchBatches <= 0) {
+            throw new IllegalArgumentException("initialLoadPrefetchBatches must be a positive number");
+        }
+
         this.readConsistencyLevel = hectorClient.getReadConsistencyLevel();
         this.batchLimit = batchLimit;
+        this.initialLoadThreads = initialLoadThreads;
+        this.initialLoadPrefetchBatches = initialLoadPrefetchBatches;
+        this.partitionAwareInitialLoad = partitionAwareInitialLoad;
         this.hectorClient = hectorClient;
         this.hectorClient.createMetadataColumnFamilyColumnFamilyIfNecessary();
 
@@ -133,6 +184,12 @@ public class CassandraSpaceDataSource extends ClusterInfoAwareSpaceDataSource {
         this.clusterInfo = clusterInfo;
     }
 
+    @Override
+    public void setSpaceClusterInfo(SpaceClusterInfo clusterInfo, int partitionIdZeroBased) {
+        this.spaceClusterInfo = clusterInfo;
+        this.partitionIdZeroBased = partitionIdZeroBased;
+    }
+
     /**
      * Closes open jdbc connections and the hector client connection pool.
      */
@@ -286,6 +343,22 @@ public class CassandraSpaceDataSource extends ClusterInfoAwareSpaceDataSource {
 
         Map<String, ColumnFamilyMetadata> columnFamilies = hectorClient.getColumnFamiliesMetadata();
 
+        if (initialLoadThreads > 1 || partitionAwareInitialLoad) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Loading " + columnFamilies.size() + " column families using up to " + initialLoadThreads + " threads");
+            }
+            return new CassandraParallelInitialLoadDataIterator(mapper,
+                    columnFamilies,
+                    connectionPool,
+                    initialLoadQueries,
+                    batchLimit,
+                    readConsistencyLevel,
+                    initialLoadThreads,
+                    initialLoadPrefetchBatches,
+                    partitionAwareInitialLoad ? spaceClusterInfo : null,
+                    partitionIdZeroBased);
+        }
+
         return new CassandraTokenRangeAwareInitialLoadDataIterator(mapper,
                 columnFamilies,
                 connectionPool.getResource(),
@@ -39,6 +39,9 @@ public class CassandraSpaceDataSourceConfigurer {
     protected String[] initialLoadQueryScanningBasePackages;
     protected boolean augmentInitialLoadEntries = true;
     protected ClusterInfo clusterInfo = null;
+    protected int initialLoadThreads = 1;
+    protected int initialLoadPrefetchBatches = 2;
+    protected boolean partitionAwareInitialLoad = false;
 
     /**
      * Optional. If set, all fixed properties with a type that is not primitive nor a common java
@@ -168,6 +171,50 @@ public class CassandraSpaceDataSourceConfigurer {
         return this;
     }
 
+    /**
+     * Optional.
+     *
+     * @param initialLoadThreads Number of threads used to load column families concurrently
+     *                           during initial load, each thread uses its own connection from the
+     *                           connection pool. (default: 1, column families are loaded one after
+     *                           the other)
+     * @return {@code this} instance.
+     * @since 15.5
+     */
+    public CassandraSpaceDataSourceConfigurer initialLoadThreads(int initialLoadThreads) {
+        this.initialLoadThreads = initialLoadThreads;
+        return this;
+    }
+
+    /**
+     * Optional.
+     *
+     * @param initialLoadPrefetchBatches Number of batches (of {@link #batchLimit(int)} rows) that
+     *                                   may be fetched ahead of the space during a parallel initial
+     *                                   load. (default: 2)
+     * @return {@code this} instance.
+     * @since 15.5
+     */
+    public CassandraSpaceDataSourceConfigurer initialLoadPrefetchBatches(int initialLoadPrefetchBatches) {
+        this.initialLoadPrefetchBatches = initialLoadPrefetchBatches;
+        return this;
+    }
+
+    /**
+     * Optional.
+     *
+     * @param partitionAwareInitialLoad if set, rows whose routing value does not belong to this
+     *                                  partition are filtered out while loading, before they are
+     *                                  passed to the space. The partition of a row is calculated
+     *                                  by the routing of the space. (default: false)
+     * @return {@code this} instance.
+     * @since 15.5
+     */
+    public CassandraSpaceDataSourceConfigurer partitionAwareInitialLoad(boolean partitionAwareInitialLoad) {
+        this.partitionAwareInitialLoad = partitionAwareInitialLoad;
+        return this;
+    }
+
     /**
      * @return An instance of {@link CassandraSpaceDataSource} matching this configurer
      * configuration.
@@ -182,6 +229,9 @@ public class CassandraSpaceDataSourceConfigurer {
                 batchLimit,
                 initialLoadQueryScanningBasePackages,
                 augmentInitialLoadEntries,
-                clusterInfo);
+                clusterInfo,
+                initialLoadThreads,
+                initialLoadPrefetchBatches,
+                partitionAwareInitialLoad);
     }
 }
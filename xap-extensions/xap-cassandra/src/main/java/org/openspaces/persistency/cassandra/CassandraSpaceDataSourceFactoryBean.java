@@ -115,6 +115,27 @@ public class CassandraSpaceDataSourceFactoryBean implements
         configurer.augmentInitialLoadEntries(augmentInitialLoadEntries);
     }
 
+    /**
+     * @see CassandraSpaceDataSourceConfigurer#initialLoadThreads(int)
+     */
+    public void setInitialLoadThreads(int initialLoadThreads) {
+        configurer.initialLoadThreads(initialLoadThreads);
+    }
+
+    /**
+     * @see CassandraSpaceDataSourceConfigurer#initialLoadPrefetchBatches(int)
+     */
+    public void setInitialLoadPrefetchBatches(int initialLoadPrefetchBatches) {
+        configurer.initialLoadPrefetchBatches(initialLoadPrefetchBatches);
+    }
+
+    /**
+     * @see CassandraSpaceDataSourceConfigurer#partitionAwareInitialLoad(boolean)
+     */
+    public void setPartitionAwareInitialLoad(boolean partitionAwareInitialLoad) {
+        configurer.partitionAwareInitialLoad(partitionAwareInitialLoad);
+    }
+
     @Override
     public void afterPropertiesSet() throws Exception {
         cassandraSpaceDataSource = configurer.create();
@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openspaces.persistency.cassandra.datasource;
+
+import com.gigaspaces.datasource.DataIterator;
+import com.gigaspaces.document.SpaceDocument;
+import com.gigaspaces.internal.cluster.SpaceClusterInfo;
+import com.gigaspaces.internal.remoting.routing.partitioned.PartitionedClusterUtils;
+import com.gigaspaces.internal.utils.concurrent.GSThreadFactory;
+import com.j_spaces.kernel.pool.IResourcePool;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.openspaces.persistency.cassandra.CassandraConsistencyLevel;
+import org.openspaces.persistency.cassandra.error.SpaceCassandraDataSourceException;
+import org.openspaces.persistency.cassandra.meta.ColumnFamilyMetadata;
+import org.openspaces.persistency.cassandra.meta.mapping.SpaceDocumentColumnFamilyMapper;
+import org.openspaces.persistency.cassandra.pool.ConnectionResource;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Initial load iterator which loads the column families concurrently using a pool of worker
+ * threads. Each worker walks the token range of one column family (using its own connection) and
+ * pushes the documents into a bounded queue, so the next batch is already being fetched from
+ * Cassandra while the space consumes the current one.
+ *
+ * When partition filtering is enabled, workers drop rows whose routing value does not belong to
+ * the loading partition before they reach the space. The partition is calculated by the routing
+ * of the space, including chunks based routing.
+ *
+ * @since 15.5
+ */
+public class CassandraParallelInitialLoadDataIterator implements DataIterator<Object> {
+
+    private static final Log logger = LogFactory.getLog(CassandraParallelInitialLoadDataIterator.class);
+
+    // marks the end of the documents of a single column family in the queue
+    private static final Object END_OF_COLUMN_FAMILY = new Object();
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+    private final BlockingQueue<Object> queue;
+    private final ExecutorService executor;
+    private final int numberOfColumnFamilies;
+    private final AtomicLong filteredEntries = new AtomicLong();
+
+    private volatile boolean closed;
+    private volatile RuntimeException failure;
+    private int finishedColumnFamilies;
+    private SpaceDocument nextDocument;
+
+    public CassandraParallelInitialLoadDataIterator(
+            SpaceDocumentColumnFamilyMapper mapper,
+            Map<String, ColumnFamilyMetadata> metadataMap,
+            IResourcePool<ConnectionResource> connectionPool,
+            Map<String, String> queries,
+            int batchLimit,
+            CassandraConsistencyLevel readConsistencyLevel,
+            int numberOfThreads,
+            int prefetchBatches,
+            SpaceClusterInfo partitionFilterClusterInfo,
+            int partitionIdZeroBased) {
+
+        if (numberOfThreads <= 0) {
+            throw new IllegalArgumentException("numberOfThreads must be a positive number");
+        }
+        if (prefetchBatches <= 0) {
+            throw new IllegalArgumentException("prefetchBatches must be a positive number");
+        }
+
+        this.numberOfColumnFamilies = metadataMap.size();
+        long capacity = Math.min((long) batchLimit * prefetchBatches, Integer.MAX_VALUE);
+        this.queue = new ArrayBlockingQueue<Object>((int) capacity);
+        this.executor = Executors.newFixedThreadPool(Math.max(1, Math.min(numberOfThreads, numberOfColumnFamilies)),
+                new GSThreadFactory("cassandra-initial-load", true));
+
+        PartitionFilter partitionFilter = PartitionFilter.create(partitionFilterClusterInfo, partitionIdZeroBased);
+        for (ColumnFamilyMetadata metadata : metadataMap.values()) {
+            CQLQueryContext queryContext = null; // this default value will result in a 'select all' query
+            PartitionFilter columnFamilyFilter = partitionFilter;
+            if (queries != null && queries.containsKey(metadata.getTypeName())) {
+                // the initial load query is hard-coded by the user as-is, shouldn't need parameters
+                queryContext = new CQLQueryContext(null, queries.get(metadata.getTypeName()), new Object[]{});
+                // the user query already selects the relevant entries
+                columnFamilyFilter = null;
+            }
+            executor.execute(new ColumnFamilyLoader(mapper, metadata, connectionPool, queryContext, batchLimit,
+                    readConsistencyLevel, columnFamilyFilter));
+        }
+        executor.shutdown();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextDocument != null) {
+            return true;
+        }
+
+        while (finishedColumnFamilies < numberOfColumnFamilies) {
+            Object item;
+            try {
+                item = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SpaceCassandraDataSourceException("Interrupted while waiting for initial load entries", e);
+            }
+            if (item == END_OF_COLUMN_FAMILY) {
+                finishedColumnFamilies++;
+                if (failure != null) {
+                    throw failure;
+                }
+                continue;
+            }
+            nextDocument = (SpaceDocument) item;
+            return true;
+        }
+
+        if (logger.isDebugEnabled() && filteredEntries.get() > 0) {
+            logger.debug("Initial load filtered out " + filteredEntries.get() + " entries which belong to other partitions");
+        }
+        return false;
+    }
+
+    @Override
+    public SpaceDocument next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        SpaceDocument result = nextDocument;
+        nextDocument = null;
+        return result;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove is not supported for this iterator");
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        // release workers blocked on a full queue
+        queue.clear();
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private class ColumnFamilyLoader implements Runnable {
+        private final SpaceDocumentColumnFamilyMapper mapper;
+        private final ColumnFamilyMetadata metadata;
+        private final IResourcePool<ConnectionResource> connectionPool;
+        private final CQLQueryContext queryContext;
+        private final int batchLimit;
+        private final CassandraConsistencyLevel readConsistencyLevel;
+        private final PartitionFilter partitionFilter;
+
+        private ColumnFamilyLoader(SpaceDocumentColumnFamilyMapper mapper,
+                                   ColumnFamilyMetadata metadata,
+                                   IResourcePool<ConnectionResource> connectionPool,
+                                   CQLQueryContext queryContext,
+                                   int batchLimit,
+                                   CassandraConsistencyLevel readConsistencyLevel,
+                                   PartitionFilter partitionFilter) {
+            this.mapper = mapper;
+            this.metadata = metadata;
+            this.connectionPool = connectionPool;
+            this.queryContext = queryContext;
+            this.batchLimit = batchLimit;
+            this.readConsistencyLevel = readConsistencyLevel;
+            this.partitionFilter = partitionFilter;
+        }
+
+        @Override
+        public void run() {
+            CassandraTokenRangeAwareDataIterator iterator = null;
+            try {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Starting initial load of type: " + metadata.getTypeName());
+                }
+                // the iterator releases the connection resource when closed
+                iterator = new CassandraTokenRangeAwareDataIterator(mapper,
+                        metadata,
+                        connectionPool.getResource(),
+                        queryContext,
+                        Integer.MAX_VALUE,
+                        batchLimit,
+                        readConsistencyLevel);
+                String routingPropertyName = metadata.getTypeDescriptorData().getTypeDescriptor().getRoutingPropertyName();
+                while (!closed && iterator.hasNext()) {
+                    SpaceDocument document = iterator.next();
+                    if (partitionFilter != null && !partitionFilter.accept(document.getProperty(routingPropertyName))) {
+                        filteredEntries.incrementAndGet();
+                        continue;
+                    }
+                    put(document);
+                }
+            } catch (RuntimeException e) {
+                logger.error("Failed loading type: " + metadata.getTypeName(), e);
+                failure = e;
+            } catch (InterruptedException e) {
+                // closed
+                Thread.currentThread().interrupt();
+            } finally {
+                if (iterator != null) {
+                    iterator.close();
+                }
+                try {
+                    put(END_OF_COLUMN_FAMILY);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        private void put(Object item) throws InterruptedException {
+            while (!closed) {
+                if (queue.offer(item, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether a routing value belongs to the loading partition, using the routing of the
+     * space.
+     */
+    static class PartitionFilter {
+        private final SpaceClusterInfo clusterInfo;
+        private final int partitionId;
+
+        private PartitionFilter(SpaceClusterInfo clusterInfo, int partitionId) {
+            this.clusterInfo = clusterInfo;
+            this.partitionId = partitionId;
+        }
+
+        static PartitionFilter create(SpaceClusterInfo clusterInfo, int partitionIdZeroBased) {
+            if (clusterInfo == null || !clusterInfo.isPartitioned()) {
+                return null;
+            }
+            return new PartitionFilter(clusterInfo, partitionIdZeroBased);
+        }
+
+        boolean accept(Object routingValue) {
+            // entries without routing value are kept, the space decides what to do with them
+            if (routingValue == null) {
+                return true;
+            }
+            return PartitionedClusterUtils.getPartitionId(routingValue, clusterInfo) == partitionId;
+        }
+    }
+}
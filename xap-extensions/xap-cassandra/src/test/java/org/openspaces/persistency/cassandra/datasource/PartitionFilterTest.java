@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openspaces.persistency.cassandra.datasource;
+
+import com.gigaspaces.internal.cluster.PartitionToChunksMap;
+import com.gigaspaces.internal.cluster.SpaceClusterInfo;
+import com.gigaspaces.internal.remoting.routing.partitioned.PartitionedClusterUtils;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openspaces.persistency.cassandra.datasource.CassandraParallelInitialLoadDataIterator.PartitionFilter;
+
+import java.util.Collections;
+
+public class PartitionFilterTest {
+    private static final int PARTITIONS = 2;
+
+    @Test
+    public void noFilterWithoutPartitions() {
+        Assert.assertNull(PartitionFilter.create(null, 0));
+        Assert.assertNull(PartitionFilter.create(new SpaceClusterInfo(), 0));
+    }
+
+    @Test
+    public void routingValueWithoutPartitionIsAccepted() {
+        PartitionFilter filter = PartitionFilter.create(clusterInfo(null), 0);
+        Assert.assertTrue(filter.accept(null));
+    }
+
+    @Test
+    public void hashBasedRouting() {
+        SpaceClusterInfo clusterInfo = clusterInfo(null);
+        for (Object routingValue : new Object[]{0, 1, 5, -7, 10L, Long.MIN_VALUE, "a", "b"})
+            assertRouting(clusterInfo, routingValue);
+    }
+
+    @Test
+    public void chunksBasedRouting() {
+        PartitionToChunksMap chunksMap = new PartitionToChunksMap(PARTITIONS, 0);
+        chunksMap.init();
+        // hash based routing would place 5 in the second partition
+        PartitionToChunksMap movedMap = chunksMap.moveChunks(Collections.singleton(PartitionToChunksMap.getChunkId(5)), 0);
+        SpaceClusterInfo clusterInfo = clusterInfo(movedMap);
+
+        Assert.assertTrue(PartitionFilter.create(clusterInfo, 0).accept(5));
+        Assert.assertFalse(PartitionFilter.create(clusterInfo, 1).accept(5));
+        Assert.assertTrue(PartitionFilter.create(clusterInfo, 0).accept(5L));
+        for (Object routingValue : new Object[]{0, 1, 4097, 10L, "a", "b"})
+            assertRouting(clusterInfo, routingValue);
+    }
+
+    private static void assertRouting(SpaceClusterInfo clusterInfo, Object routingValue) {
+        int partitionId = PartitionedClusterUtils.getPartitionId(routingValue, clusterInfo);
+        for (int i = 0; i < PARTITIONS; i++)
+            Assert.assertEquals(routingValue.toString(), i == partitionId, PartitionFilter.create(clusterInfo, i).accept(routingValue));
+    }
+
+    private static SpaceClusterInfo clusterInfo(PartitionToChunksMap chunksMap) {
+        SpaceClusterInfo clusterInfo = new SpaceClusterInfo();
+        clusterInfo.setNumOfPartitions(PARTITIONS);
+        clusterInfo.setChunksMap(chunksMap);
+        return clusterInfo;
+    }
+}
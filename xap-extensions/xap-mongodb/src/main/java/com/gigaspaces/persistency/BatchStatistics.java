@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.persistency;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Accumulated statistics of the batches performed by {@link MongoClientConnector}
+ *
+ * @since 15.5
+ */
+public class BatchStatistics {
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong operations = new AtomicLong();
+    private final AtomicLong bulkOperations = new AtomicLong();
+    private final AtomicLong totalLatency = new AtomicLong();
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    void update(int batchOperations, int batchBulkOperations, long latencyNanos) {
+        batches.incrementAndGet();
+        operations.addAndGet(batchOperations);
+        bulkOperations.addAndGet(batchBulkOperations);
+        totalLatency.addAndGet(latencyNanos);
+        long max;
+        while ((max = maxLatency.get()) < latencyNanos && !maxLatency.compareAndSet(max, latencyNanos)) ;
+    }
+
+    /**
+     * @return number of performed batches
+     */
+    public long getBatchesCount() {
+        return batches.get();
+    }
+
+    /**
+     * @return number of data sync operations received in all batches
+     */
+    public long getOperationsCount() {
+        return operations.get();
+    }
+
+    /**
+     * @return number of bulk operations actually sent to mongo, after coalescing operations on the
+     * same id
+     */
+    public long getBulkOperationsCount() {
+        return bulkOperations.get();
+    }
+
+    /**
+     * @return number of operations saved by coalescing operations on the same id
+     */
+    public long getCoalescedOperationsCount() {
+        return getOperationsCount() - getBulkOperationsCount();
+    }
+
+    public double getAverageBatchLatencyMillis() {
+        long count = getBatchesCount();
+        return count == 0 ? 0 : (double) totalLatency.get() / count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public double getMaxBatchLatencyMillis() {
+        return (double) maxLatency.get() / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return "BatchStatistics [batches=" + getBatchesCount() +
+                ", operations=" + getOperationsCount() +
+                ", bulkOperations=" + getBulkOperationsCount() +
+                ", avgLatencyMs=" + getAverageBatchLatencyMillis() +
+                ", maxLatencyMs=" + getMaxBatchLatencyMillis() + "]";
+    }
+}
@@ -18,11 +18,13 @@ package com.gigaspaces.persistency;
 
 import com.gigaspaces.document.SpaceDocument;
 import com.gigaspaces.internal.io.IOUtils;
+import com.gigaspaces.internal.utils.concurrent.GSThreadFactory;
 import com.gigaspaces.metadata.SpaceTypeDescriptor;
 import com.gigaspaces.metadata.SpaceTypeDescriptorVersionedSerializationUtils;
 import com.gigaspaces.persistency.error.SpaceMongoDataSourceException;
 import com.gigaspaces.persistency.error.SpaceMongoException;
 import com.gigaspaces.persistency.metadata.BatchUnit;
+import com.gigaspaces.persistency.metadata.CollectionBatch;
 import com.gigaspaces.persistency.metadata.DefaultSpaceDocumentMapper;
 import com.gigaspaces.persistency.metadata.IndexBuilder;
 import com.gigaspaces.persistency.metadata.SpaceDocumentMapper;
@@ -52,13 +54,17 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.ObjectStreamClass;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 /**
@@ -71,6 +77,7 @@ public class MongoClientConnector {
     private static final String DOLLAR_SIGN = "__d_s__";
     private static final String TYPE_DESCRIPTOR_FIELD_NAME = "value";
     private static final String METADATA_COLLECTION_NAME = "metadata";
+    public static final int DEFAULT_BULK_WRITE_PARALLELISM = Math.min(4, Runtime.getRuntime().availableProcessors());
 
     private static final Log logger = LogFactory
             .getLog(MongoClientConnector.class);
@@ -78,23 +85,40 @@ public class MongoClientConnector {
     private final MongoClient client;
     private final String dbName;
     private final IndexBuilder indexBuilder;
+    // executes bulk writes of different collections concurrently, null if parallelism is 1
+    private final ExecutorService bulkWriteExecutor;
+    private final BatchStatistics batchStatistics = new BatchStatistics();
 
     // TODO: shadi must add documentation
     private static final Map<String, SpaceTypeDescriptorContainer> types = new ConcurrentHashMap<String, SpaceTypeDescriptorContainer>();
     private static final Map<String, SpaceDocumentMapper<DBObject>> mappingCache = new ConcurrentHashMap<String, SpaceDocumentMapper<DBObject>>();
 
     public MongoClientConnector(MongoClient client, String db) {
+        this(client, db, DEFAULT_BULK_WRITE_PARALLELISM);
+    }
+
+    public MongoClientConnector(MongoClient client, String db, int bulkWriteParallelism) {
 
+        if (bulkWriteParallelism < 1)
+            throw new IllegalArgumentException("bulkWriteParallelism must be positive: " + bulkWriteParallelism);
         this.client = client;
         this.dbName = db;
         this.indexBuilder = new IndexBuilder(this);
+        this.bulkWriteExecutor = bulkWriteParallelism == 1 ? null
+                : Executors.newFixedThreadPool(bulkWriteParallelism, new GSThreadFactory("mongo-bulk-writer", true));
     }
 
     public void close() throws IOException {
 
+        if (bulkWriteExecutor != null)
+            bulkWriteExecutor.shutdown();
         client.close();
     }
 
+    public BatchStatistics getBatchStatistics() {
+        return batchStatistics;
+    }
+
     public void introduceType(IntroduceTypeData introduceTypeData) {
 
         introduceType(introduceTypeData.getTypeDescriptor());
@@ -162,8 +186,10 @@ public class MongoClientConnector {
             logger.trace("MongoClientWrapper.performBatch(" + rows + ")");
             logger.trace("Batch size to be performed is " + rows.size());
         }
-        //List<Future<? extends Number>> pending = new ArrayList<Future<? extends Number>>();
+        long startTime = System.nanoTime();
 
+        // group by collection, operations on the same id are coalesced by the collection batch
+        Map<String, CollectionBatch> batches = new LinkedHashMap<String, CollectionBatch>();
         for (BatchUnit row : rows) {
             SpaceDocument spaceDoc = row.getSpaceDocument();
             SpaceTypeDescriptor typeDescriptor = types.get(row.getTypeName())
@@ -172,38 +198,39 @@ public class MongoClientConnector {
 
             DBObject obj = mapper.toDBObject(spaceDoc);
 
-            DBCollection col = getCollection(row.getTypeName());
-            switch (row.getDataSyncOperationType()) {
-
-                case WRITE:
-                case UPDATE:
-                    col.save(obj);
-                    break;
-                case PARTIAL_UPDATE:
-                    DBObject query = BasicDBObjectBuilder
-                            .start()
-                            .add(Constants.ID_PROPERTY,
-                                    obj.get(Constants.ID_PROPERTY)).get();
-
-                    DBObject update = normalize(obj);
-                    col.update(query, update);
-                    break;
-                // case REMOVE_BY_UID: // Not supported by this implementation
-                case REMOVE:
-                    col.remove(obj);
-                    break;
-                default:
-                    throw new IllegalStateException(
-                            "Unsupported data sync operation type: "
-                                    + row.getDataSyncOperationType());
+            CollectionBatch batch = batches.get(row.getTypeName());
+            if (batch == null) {
+                batch = new CollectionBatch(row.getTypeName());
+                batches.put(row.getTypeName(), batch);
             }
+            batch.add(row.getDataSyncOperationType(), obj);
         }
 
-		/*long totalCount = waitFor(pending);
+        long totalCount;
+        if (bulkWriteExecutor == null || batches.size() == 1) {
+            totalCount = 0;
+            for (CollectionBatch batch : batches.values())
+                totalCount += batch.execute(getCollection(batch.getCollectionName()));
+        } else {
+            List<Future<? extends Number>> pending = new ArrayList<Future<? extends Number>>(batches.size());
+            for (final CollectionBatch batch : batches.values()) {
+                pending.add(bulkWriteExecutor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() {
+                        return batch.execute(getCollection(batch.getCollectionName()));
+                    }
+                }));
+            }
+            totalCount = waitFor(pending);
+        }
+
+        long latency = System.nanoTime() - startTime;
+        batchStatistics.update(rows.size(), (int) totalCount, latency);
 
-		if (logger.isTraceEnabled()) {
-			logger.trace("total accepted replies is: " + totalCount);
-		}*/
+        if (logger.isDebugEnabled()) {
+            logger.debug("Performed batch of " + rows.size() + " operations as " + totalCount
+                    + " bulk operations on " + batches.size() + " collections in " + (latency / 1000) + " micros");
+        }
     }
 
     public Collection<SpaceTypeDescriptor> loadMetadata() {
@@ -279,29 +306,6 @@ public class MongoClientConnector {
         return mapper;
     }
 
-    private static DBObject normalize(DBObject obj) {
-        BasicDBObjectBuilder builder = BasicDBObjectBuilder.start();
-
-        Iterator<String> iterator = obj.keySet().iterator();
-        builder.push("$set");
-        while (iterator.hasNext()) {
-
-            String key = iterator.next();
-
-            if (Constants.ID_PROPERTY.equals(key))
-                continue;
-
-            Object value = obj.get(key);
-
-            if (value == null)
-                continue;
-
-            builder.add(key, value);
-        }
-
-        return builder.get();
-    }
-
     private static long waitFor(List<Future<? extends Number>> replies) {
 
         long total = 0;
@@ -44,6 +44,10 @@ public class MongoClientConnectorBeanFactory implements
         configurer.client(config);
     }
 
+    public void setBulkWriteParallelism(int bulkWriteParallelism) {
+        configurer.bulkWriteParallelism(bulkWriteParallelism);
+    }
+
     public void destroy() throws Exception {
         mongoClientConnector.close();
     }
@@ -28,6 +28,7 @@ public class MongoClientConnectorConfigurer {
 
     private String db;
     private MongoClient client;
+    private int bulkWriteParallelism = MongoClientConnector.DEFAULT_BULK_WRITE_PARALLELISM;
 
     public MongoClientConnectorConfigurer client(MongoClient client) {
         this.client = client;
@@ -39,6 +40,15 @@ public class MongoClientConnectorConfigurer {
         return this;
     }
 
+    /**
+     * Sets the number of collections written concurrently when a batch is performed, 1 writes
+     * collections one after the other.
+     */
+    public MongoClientConnectorConfigurer bulkWriteParallelism(int bulkWriteParallelism) {
+        this.bulkWriteParallelism = bulkWriteParallelism;
+        return this;
+    }
+
     public MongoClientConnector create() {
 
         if (!StringUtils.hasLength(db))
@@ -47,6 +57,6 @@ public class MongoClientConnectorConfigurer {
         if (client == null)
             throw new IllegalArgumentException("Argument cannot be null or empty: config");
 
-        return new MongoClientConnector(client, db);
+        return new MongoClientConnector(client, db, bulkWriteParallelism);
     }
 }
@@ -29,7 +29,9 @@ import org.apache.commons.logging.LogFactory;
 import java.io.IOException;
 
 /**
- * A MongoDB implementation of  {@link SpaceSynchronizationEndpoint }
+ * A MongoDB implementation of  {@link SpaceSynchronizationEndpoint }. Each batch is written as one
+ * unordered bulk write per collection, after coalescing operations on the same id, and the
+ * collections are written in parallel.
  *
  * @author Shadi Massalha
  */
@@ -46,6 +48,13 @@ public class MongoSpaceSynchronizationEndpoint extends SpaceSynchronizationEndpo
         this.client = client;
     }
 
+    /**
+     * @return statistics of the batches written to mongo by this endpoint
+     */
+    public BatchStatistics getBatchStatistics() {
+        return client.getBatchStatistics();
+    }
+
     public void close() throws IOException {
         if (logger.isDebugEnabled())
             logger.trace("MongoSpaceSynchronizationEndpoint.close()");
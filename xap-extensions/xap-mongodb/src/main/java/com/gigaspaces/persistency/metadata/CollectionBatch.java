@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.persistency.metadata;
+
+import com.gigaspaces.persistency.Constants;
+import com.gigaspaces.persistency.error.SpaceMongoException;
+import com.gigaspaces.sync.DataSyncOperationType;
+import com.mongodb.BasicDBObject;
+import com.mongodb.BulkWriteOperation;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * helper class that collects the operations of a batch which target a single collection and
+ * executes them as one unordered bulk write. Since an unordered bulk does not guarantee execution
+ * order, operations on the same id are coalesced into a single operation:
+ * <ul>
+ * <li>write/update/remove supersede all previous operations on the id</li>
+ * <li>partial update is merged into a previous write/update or partial update of the id, and is
+ * dropped after a remove (updating a removed document is a no-op)</li>
+ * </ul>
+ *
+ * @since 15.5
+ */
+public class CollectionBatch {
+
+    /**
+     * Bulk operation kinds
+     */
+    public enum OperationType {
+        REPLACE, SET, REMOVE
+    }
+
+    /**
+     * A single coalesced bulk operation
+     */
+    public static class Operation {
+        private final OperationType type;
+        private final DBObject query;
+        private final DBObject document;
+
+        private Operation(OperationType type, DBObject query, DBObject document) {
+            this.type = type;
+            this.query = query;
+            this.document = document;
+        }
+
+        public OperationType getType() {
+            return type;
+        }
+
+        public DBObject getQuery() {
+            return query;
+        }
+
+        /**
+         * @return the full document for {@link OperationType#REPLACE}, the changed fields for
+         * {@link OperationType#SET}, null for {@link OperationType#REMOVE}
+         */
+        public DBObject getDocument() {
+            return document;
+        }
+    }
+
+    private final String collectionName;
+    private final Map<Object, Operation> operationsById = new LinkedHashMap<Object, Operation>();
+    // operations on documents without an id can not be coalesced
+    private final List<Operation> operationsWithoutId = new ArrayList<Operation>();
+    private int addedOperations;
+
+    public CollectionBatch(String collectionName) {
+        this.collectionName = collectionName;
+    }
+
+    public String getCollectionName() {
+        return collectionName;
+    }
+
+    public void add(DataSyncOperationType operationType, DBObject obj) {
+        addedOperations++;
+        Object id = obj.get(Constants.ID_PROPERTY);
+
+        switch (operationType) {
+            case WRITE:
+            case UPDATE:
+                add(id, new Operation(OperationType.REPLACE, queryFor(id, obj), obj));
+                break;
+            case PARTIAL_UPDATE:
+                addPartialUpdate(id, obj);
+                break;
+            // case REMOVE_BY_UID: // Not supported by this implementation
+            case REMOVE:
+                add(id, new Operation(OperationType.REMOVE, queryFor(id, obj), null));
+                break;
+            default:
+                throw new IllegalStateException(
+                        "Unsupported data sync operation type: " + operationType);
+        }
+    }
+
+    private void addPartialUpdate(Object id, DBObject obj) {
+        Operation previous = id != null ? operationsById.get(id) : null;
+        if (previous == null) {
+            add(id, new Operation(OperationType.SET, queryFor(id, obj), changedFields(obj, new BasicDBObject())));
+            return;
+        }
+
+        // a partial update of a removed document is a no-op
+        if (previous.getType() != OperationType.REMOVE)
+            changedFields(obj, previous.getDocument());
+    }
+
+    private void add(Object id, Operation operation) {
+        if (id == null)
+            operationsWithoutId.add(operation);
+        else {
+            // remove first so the map keeps the order of the latest operation
+            operationsById.remove(id);
+            operationsById.put(id, operation);
+        }
+    }
+
+    /**
+     * @return number of operations added to the batch
+     */
+    public int getAddedOperationsCount() {
+        return addedOperations;
+    }
+
+    /**
+     * @return the coalesced operations to be executed
+     */
+    public List<Operation> getOperations() {
+        Collection<Operation> byId = operationsById.values();
+        List<Operation> result = new ArrayList<Operation>(byId.size() + operationsWithoutId.size());
+        result.addAll(byId);
+        result.addAll(operationsWithoutId);
+        return result;
+    }
+
+    /**
+     * executes the coalesced operations as one unordered bulk write
+     *
+     * @return number of executed bulk operations
+     */
+    public int execute(DBCollection collection) {
+        List<Operation> operations = getOperations();
+        if (operations.isEmpty())
+            return 0;
+
+        BulkWriteOperation bulk = collection.initializeUnorderedBulkOperation();
+        for (Operation operation : operations) {
+            switch (operation.getType()) {
+                case REPLACE:
+                    bulk.find(operation.getQuery()).upsert().replaceOne(operation.getDocument());
+                    break;
+                case SET:
+                    bulk.find(operation.getQuery()).updateOne(new BasicDBObject("$set", operation.getDocument()));
+                    break;
+                case REMOVE:
+                    bulk.find(operation.getQuery()).remove();
+                    break;
+            }
+        }
+
+        try {
+            bulk.execute();
+            return operations.size();
+        } catch (RuntimeException e) {
+            throw new SpaceMongoException("Failed to execute bulk write of " + operations.size()
+                    + " operations on collection: " + collectionName, e);
+        }
+    }
+
+    private static DBObject queryFor(Object id, DBObject obj) {
+        return id != null ? new BasicDBObject(Constants.ID_PROPERTY, id) : obj;
+    }
+
+    // copies the non null fields which are not the id
+    private static DBObject changedFields(DBObject obj, DBObject target) {
+        for (String key : obj.keySet()) {
+            if (Constants.ID_PROPERTY.equals(key))
+                continue;
+
+            Object value = obj.get(key);
+
+            if (value == null)
+                continue;
+
+            target.put(key, value);
+        }
+        return target;
+    }
+}
@@ -16,6 +16,7 @@
 
 package com.gigaspaces.persistency.qa.utest;
 
+import com.gigaspaces.persistency.qa.utest.metadata.CollectionBatchTest;
 import com.gigaspaces.persistency.qa.utest.metadata.DocumentSpacePojoTest;
 import com.gigaspaces.persistency.qa.utest.metadata.PojoRepositoryTest;
 import com.gigaspaces.persistency.qa.utest.parser.SQL2MongoBaseVisitorTest;
@@ -26,6 +27,7 @@ import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
 @SuiteClasses({
+        CollectionBatchTest.class,
         DocumentSpacePojoTest.class,
         PojoRepositoryTest.class,
         SQL2MongoBaseVisitorTest.class})
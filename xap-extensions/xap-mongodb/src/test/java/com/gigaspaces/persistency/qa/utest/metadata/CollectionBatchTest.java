@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.persistency.qa.utest.metadata;
+
+import com.gigaspaces.persistency.Constants;
+import com.gigaspaces.persistency.metadata.CollectionBatch;
+import com.gigaspaces.persistency.metadata.CollectionBatch.Operation;
+import com.gigaspaces.persistency.metadata.CollectionBatch.OperationType;
+import com.gigaspaces.sync.DataSyncOperationType;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class CollectionBatchTest {
+
+    @Test
+    public void testWritesOnDifferentIdsAreNotCoalesced() {
+        CollectionBatch batch = new CollectionBatch("Person");
+        batch.add(DataSyncOperationType.WRITE, doc(1, "a"));
+        batch.add(DataSyncOperationType.WRITE, doc(2, "b"));
+        batch.add(DataSyncOperationType.REMOVE, doc(3, "c"));
+
+        List<Operation> operations = batch.getOperations();
+        Assert.assertEquals(3, batch.getAddedOperationsCount());
+        Assert.assertEquals(3, operations.size());
+        Assert.assertEquals(OperationType.REPLACE, operations.get(0).getType());
+        Assert.assertEquals(OperationType.REPLACE, operations.get(1).getType());
+        Assert.assertEquals(OperationType.REMOVE, operations.get(2).getType());
+        Assert.assertEquals(new BasicDBObject(Constants.ID_PROPERTY, 3), operations.get(2).getQuery());
+    }
+
+    @Test
+    public void testRemoveSupersedesWrite() {
+        CollectionBatch batch = new CollectionBatch("Person");
+        batch.add(DataSyncOperationType.WRITE, doc(1, "a"));
+        batch.add(DataSyncOperationType.UPDATE, doc(1, "b"));
+        batch.add(DataSyncOperationType.REMOVE, doc(1, "b"));
+
+        List<Operation> operations = batch.getOperations();
+        Assert.assertEquals(1, operations.size());
+        Assert.assertEquals(OperationType.REMOVE, operations.get(0).getType());
+    }
+
+    @Test
+    public void testWriteSupersedesRemove() {
+        CollectionBatch batch = new CollectionBatch("Person");
+        batch.add(DataSyncOperationType.REMOVE, doc(1, "a"));
+        batch.add(DataSyncOperationType.WRITE, doc(1, "b"));
+
+        List<Operation> operations = batch.getOperations();
+        Assert.assertEquals(1, operations.size());
+        Assert.assertEquals(OperationType.REPLACE, operations.get(0).getType());
+        Assert.assertEquals("b", operations.get(0).getDocument().get("name"));
+    }
+
+    @Test
+    public void testPartialUpdateIsMergedIntoWrite() {
+        CollectionBatch batch = new CollectionBatch("Person");
+        DBObject write = doc(1, "a");
+        write.put("age", 10);
+        batch.add(DataSyncOperationType.WRITE, write);
+        DBObject partial = new BasicDBObject(Constants.ID_PROPERTY, 1);
+        partial.put("age", 11);
+        partial.put("name", null);
+        batch.add(DataSyncOperationType.PARTIAL_UPDATE, partial);
+
+        List<Operation> operations = batch.getOperations();
+        Assert.assertEquals(1, operations.size());
+        Assert.assertEquals(OperationType.REPLACE, operations.get(0).getType());
+        Assert.assertEquals(11, operations.get(0).getDocument().get("age"));
+        Assert.assertEquals("a", operations.get(0).getDocument().get("name"));
+    }
+
+    @Test
+    public void testPartialUpdatesAreMerged() {
+        CollectionBatch batch = new CollectionBatch("Person");
+        DBObject first = new BasicDBObject(Constants.ID_PROPERTY, 1);
+        first.put("age", 11);
+        batch.add(DataSyncOperationType.PARTIAL_UPDATE, first);
+        batch.add(DataSyncOperationType.PARTIAL_UPDATE, doc(1, "b"));
+
+        List<Operation> operations = batch.getOperations();
+        Assert.assertEquals(1, operations.size());
+        Operation operation = operations.get(0);
+        Assert.assertEquals(OperationType.SET, operation.getType());
+        Assert.assertEquals(new BasicDBObject(Constants.ID_PROPERTY, 1), operation.getQuery());
+        Assert.assertEquals(11, operation.getDocument().get("age"));
+        Assert.assertEquals("b", operation.getDocument().get("name"));
+        Assert.assertFalse(operation.getDocument().containsField(Constants.ID_PROPERTY));
+    }
+
+    @Test
+    public void testPartialUpdateAfterRemoveIsDropped() {
+        CollectionBatch batch = new CollectionBatch("Person");
+        batch.add(DataSyncOperationType.REMOVE, doc(1, "a"));
+        batch.add(DataSyncOperationType.PARTIAL_UPDATE, doc(1, "b"));
+
+        List<Operation> operations = batch.getOperations();
+        Assert.assertEquals(1, operations.size());
+        Assert.assertEquals(OperationType.REMOVE, operations.get(0).getType());
+    }
+
+    private static DBObject doc(Object id, String name) {
+        DBObject obj = new BasicDBObject(Constants.ID_PROPERTY, id);
+        obj.put("name", name);
+        return obj;
+    }
+}
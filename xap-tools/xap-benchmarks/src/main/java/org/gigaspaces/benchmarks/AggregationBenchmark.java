@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gigaspaces.benchmarks;
+
+import com.gigaspaces.document.SpaceDocument;
+import com.gigaspaces.metadata.index.SpaceIndexType;
+import com.gigaspaces.query.aggregators.AggregationResult;
+import com.gigaspaces.query.aggregators.AggregationSet;
+import com.gigaspaces.query.aggregators.GroupByAggregator;
+import com.gigaspaces.query.aggregators.GroupByResult;
+import com.j_spaces.core.client.SQLQuery;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.openspaces.extensions.QueryExtension.groupBy;
+
+/**
+ * Aggregations over the entries of an embedded space.
+ *
+ * @since 15.5
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AggregationBenchmark {
+    private static final int VALUES = 1000;
+
+    @Param({"10000", "100000"})
+    public int entries;
+
+    private BenchmarkSpace _space;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        _space = new BenchmarkSpace("benchmark-aggregation", SpaceIndexType.EQUAL);
+        _space.fill(entries, VALUES);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        _space.close();
+    }
+
+    @Benchmark
+    public AggregationResult sumAndMax() {
+        return _space.getGigaSpace().aggregate(new SQLQuery<SpaceDocument>(BenchmarkSpace.TYPE_NAME, ""),
+                new AggregationSet().sum(BenchmarkSpace.VALUE_PROPERTY).maxValue(BenchmarkSpace.VALUE_PROPERTY).count());
+    }
+
+    @Benchmark
+    public GroupByResult groupBySum() {
+        return groupBy(_space.getGigaSpace(), new SQLQuery<SpaceDocument>(BenchmarkSpace.TYPE_NAME, ""),
+                new GroupByAggregator().selectSum(BenchmarkSpace.VALUE_PROPERTY).groupBy(BenchmarkSpace.GROUP_PROPERTY));
+    }
+}
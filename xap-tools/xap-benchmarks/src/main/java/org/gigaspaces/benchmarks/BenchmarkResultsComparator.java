@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gigaspaces.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON results files, typically of a baseline build and of the current build, and
+ * prints the change of the score of each benchmark. Exits with status 1 if any benchmark regressed
+ * by more than the threshold percent (default 10).
+ *
+ * @since 15.5
+ */
+public class BenchmarkResultsComparator {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkResultsComparator <baseline.json> <current.json> [threshold percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+        Map<String, Score> baseline = readScores(new File(args[0]));
+        Map<String, Score> current = readScores(new File(args[1]));
+
+        int regressions = 0;
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score baselineScore = baseline.get(entry.getKey());
+            if (baselineScore == null) {
+                System.out.println(String.format("%-100s %12s -> %12.3f %s", entry.getKey(), "new", entry.getValue()._score, entry.getValue()._unit));
+                continue;
+            }
+            double change = entry.getValue().improvementPercent(baselineScore);
+            boolean regressed = change < -threshold;
+            if (regressed)
+                regressions++;
+            System.out.println(String.format("%-100s %12.3f -> %12.3f %s (%+.1f%%)%s", entry.getKey(), baselineScore._score,
+                    entry.getValue()._score, entry.getValue()._unit, change, regressed ? " REGRESSION" : ""));
+        }
+        System.exit(regressions == 0 ? 0 : 1);
+    }
+
+    private static Map<String, Score> readScores(File file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<String, Score>();
+        for (JsonNode result : new ObjectMapper().readTree(file))
+            scores.put(describe(result), new Score(result));
+        return scores;
+    }
+
+    private static String describe(JsonNode result) {
+        StringBuilder sb = new StringBuilder(result.get("benchmark").asText());
+        JsonNode params = result.get("params");
+        if (params != null) {
+            sb.append(' ');
+            for (Iterator<Map.Entry<String, JsonNode>> iter = params.fields(); iter.hasNext(); ) {
+                Map.Entry<String, JsonNode> param = iter.next();
+                sb.append(param.getKey()).append('=').append(param.getValue().asText());
+                if (iter.hasNext())
+                    sb.append(',');
+            }
+        }
+        return sb.append(" [").append(result.get("mode").asText()).append(", ").append(result.get("threads").asInt()).append(" threads]").toString();
+    }
+
+    private static class Score {
+        private final double _score;
+        private final String _unit;
+        private final boolean _higherIsBetter;
+
+        private Score(JsonNode result) {
+            JsonNode metric = result.get("primaryMetric");
+            this._score = metric.get("score").asDouble();
+            this._unit = metric.get("scoreUnit").asText();
+            this._higherIsBetter = result.get("mode").asText().equals("thrpt");
+        }
+
+        private double improvementPercent(Score baseline) {
+            if (baseline._score == 0)
+                return 0;
+            double change = (_score - baseline._score) * 100 / baseline._score;
+            return _higherIsBetter ? change : -change;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gigaspaces.benchmarks;
+
+import com.gigaspaces.document.SpaceDocument;
+import com.gigaspaces.metadata.SpaceTypeDescriptorBuilder;
+import com.gigaspaces.metadata.index.SpaceIndexType;
+
+import org.openspaces.core.GigaSpace;
+import org.openspaces.core.GigaSpaceConfigurer;
+import org.openspaces.core.space.EmbeddedSpaceConfigurer;
+
+/**
+ * An embedded space holding {@value #TYPE_NAME} documents, whose {@value #VALUE_PROPERTY} property
+ * is indexed with the requested index type.
+ *
+ * @since 15.5
+ */
+class BenchmarkSpace {
+    static final String TYPE_NAME = "Item";
+    static final String ID_PROPERTY = "id";
+    static final String VALUE_PROPERTY = "value";
+    static final String GROUP_PROPERTY = "group";
+
+    private final EmbeddedSpaceConfigurer _configurer;
+    private final GigaSpace _gigaSpace;
+
+    BenchmarkSpace(String name, SpaceIndexType valueIndexType) {
+        _configurer = new EmbeddedSpaceConfigurer(name);
+        _gigaSpace = new GigaSpaceConfigurer(_configurer).gigaSpace();
+        _gigaSpace.getTypeManager().registerTypeDescriptor(new SpaceTypeDescriptorBuilder(TYPE_NAME)
+                .idProperty(ID_PROPERTY, false)
+                .addPropertyIndex(VALUE_PROPERTY, valueIndexType)
+                .create());
+    }
+
+    GigaSpace getGigaSpace() {
+        return _gigaSpace;
+    }
+
+    static SpaceDocument createItem(long id, long value) {
+        return new SpaceDocument(TYPE_NAME)
+                .setProperty(ID_PROPERTY, id)
+                .setProperty(VALUE_PROPERTY, value)
+                .setProperty(GROUP_PROPERTY, (int) (id % 16));
+    }
+
+    /**
+     * Writes items with ids 0 to count - 1, with values distributed over the given cardinality.
+     */
+    void fill(int count, int valueCardinality) {
+        SpaceDocument[] items = new SpaceDocument[count];
+        for (int i = 0; i < count; i++)
+            items[i] = createItem(i, i % valueCardinality);
+        _gigaSpace.writeMultiple(items);
+    }
+
+    void close() throws Exception {
+        _configurer.close();
+    }
+}
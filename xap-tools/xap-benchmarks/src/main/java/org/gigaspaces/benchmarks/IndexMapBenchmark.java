@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gigaspaces.benchmarks;
+
+import com.gigaspaces.internal.utils.collections.economy.EconomyConcurrentHashMap;
+import com.gigaspaces.internal.utils.collections.economy.HashEntryHandlerSpaceEntry;
+import com.gigaspaces.internal.utils.collections.economy.LockFreeEconomyConcurrentHashMap;
+import com.j_spaces.core.cache.IEntryCacheInfo;
+import com.j_spaces.kernel.IStoredList;
+import com.j_spaces.kernel.StoredListFactory;
+import com.j_spaces.kernel.SystemProperties;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Insert and lookup of index values in the value stores used by TypeDataIndex - each index value
+ * is mapped to the stored list of the entries holding it.
+ *
+ * @since 15.5
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(4)
+public class IndexMapBenchmark {
+    private static final AtomicInteger threadIds = new AtomicInteger();
+
+    @Param({"concurrent", "economy", "lockFreeEconomy"})
+    public String mapType;
+
+    @Param({"1000", "1000000"})
+    public int indexValues;
+
+    private ConcurrentMap<Object, IStoredList<IEntryCacheInfo>> _map;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        _map = createMap(mapType);
+        for (long i = 0; i < indexValues; i++)
+            _map.putIfAbsent(i, createValue(i));
+    }
+
+    private static ConcurrentMap<Object, IStoredList<IEntryCacheInfo>> createMap(String mapType) {
+        int segments = Integer.getInteger(SystemProperties.CACHE_MANAGER_HASHMAP_SEGMENTS, SystemProperties.CACHE_MANAGER_HASHMAP_SEGMENTS_DEFAULT);
+        if (mapType.equals("concurrent"))
+            return new ConcurrentHashMap<Object, IStoredList<IEntryCacheInfo>>(16, 0.75f, segments);
+        if (mapType.equals("economy"))
+            return new EconomyConcurrentHashMap<Object, IStoredList<IEntryCacheInfo>>(16, 0.75f, segments, new HashEntryHandlerSpaceEntry<Object>(0));
+        if (mapType.equals("lockFreeEconomy"))
+            return new LockFreeEconomyConcurrentHashMap<Object, IStoredList<IEntryCacheInfo>>(16, 0.75f, segments, new HashEntryHandlerSpaceEntry<Object>(0));
+        throw new IllegalArgumentException("Unknown map type: " + mapType);
+    }
+
+    private static IStoredList<IEntryCacheInfo> createValue(Object key) {
+        return StoredListFactory.createConcurrentSegmentedList(false /*segmented*/, false /*supportFifoPerSegment*/, key);
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadKeys {
+        private long _nextKey;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            // keys inserted by each thread do not collide with the initial keys and the keys of other threads
+            _nextKey = (long) (threadIds.incrementAndGet()) << 40;
+        }
+    }
+
+    @Benchmark
+    public IStoredList<IEntryCacheInfo> lookup() {
+        return _map.get((long) ThreadLocalRandom.current().nextInt(indexValues));
+    }
+
+    @Benchmark
+    public IStoredList<IEntryCacheInfo> insertAndRemove(ThreadKeys keys) {
+        Long key = keys._nextKey++;
+        _map.putIfAbsent(key, createValue(key));
+        return _map.remove(key);
+    }
+}
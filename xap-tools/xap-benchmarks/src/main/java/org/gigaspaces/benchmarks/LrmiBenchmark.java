@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gigaspaces.benchmarks;
+
+import com.gigaspaces.config.lrmi.nio.NIOConfiguration;
+import com.gigaspaces.internal.io.IOUtils;
+import com.gigaspaces.lrmi.GenericExporter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LRMI round trips over the loopback interface. The stub of the exported service is serialized
+ * once, so it invokes the service over the network rather than by a direct call.
+ *
+ * @since 15.5
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LrmiBenchmark {
+
+    @Param({"16", "1024", "65536"})
+    public int payloadSize;
+
+    private GenericExporter _exporter;
+    private EchoServiceImpl _service;
+    private EchoService _stub;
+    private byte[] _payload;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        _exporter = new GenericExporter(NIOConfiguration.create());
+        _service = new EchoServiceImpl();
+        _stub = (EchoService) IOUtils.deepClone(_exporter.export(_service));
+        _payload = new byte[payloadSize];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        _exporter.unexport(true);
+    }
+
+    @Benchmark
+    public byte[] echo() throws RemoteException {
+        return _stub.echo(_payload);
+    }
+
+    @Benchmark
+    public int ping() throws RemoteException {
+        return _stub.ping(payloadSize);
+    }
+
+    public interface EchoService extends Remote {
+        byte[] echo(byte[] payload) throws RemoteException;
+
+        int ping(int value) throws RemoteException;
+    }
+
+    public static class EchoServiceImpl implements EchoService {
+        @Override
+        public byte[] echo(byte[] payload) {
+            return payload;
+        }
+
+        @Override
+        public int ping(int value) {
+            return value;
+        }
+    }
+}
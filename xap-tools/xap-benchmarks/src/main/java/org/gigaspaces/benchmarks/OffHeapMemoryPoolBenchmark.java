@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gigaspaces.benchmarks;
+
+import com.j_spaces.core.cache.blobStore.BlobStoreRefEntryCacheInfo;
+import com.j_spaces.core.cache.blobStore.IBlobStoreOffHeapInfo;
+import com.j_spaces.core.cache.blobStore.memory_pool.OffHeapMemoryPool;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation, update and release of entries in the off heap memory pool.
+ *
+ * @since 15.5
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OffHeapMemoryPoolBenchmark {
+
+    @Param({"64", "1024", "16384"})
+    public int entrySize;
+
+    private OffHeapMemoryPool _pool;
+    private OffHeapInfo _info;
+    private OffHeapInfo _allocated;
+    private byte[] _buffer;
+    private byte[] _largerBuffer;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        _pool = new OffHeapMemoryPool(Long.MAX_VALUE);
+        _info = new OffHeapInfo();
+        _buffer = new byte[entrySize];
+        _largerBuffer = new byte[entrySize * 2];
+        _allocated = new OffHeapInfo();
+        _pool.write(_allocated, _buffer);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        _pool.delete(_allocated);
+    }
+
+    @Benchmark
+    public long writeAndDelete() {
+        _pool.write(_info, _buffer);
+        long address = _info.getOffHeapAddress();
+        _pool.delete(_info);
+        return address;
+    }
+
+    @Benchmark
+    public byte[] read() {
+        return _pool.get(_allocated);
+    }
+
+    @Benchmark
+    public long updateWithReallocation() {
+        // alternates between sizes, so each update reallocates the entry
+        _pool.update(_allocated, _pool.getUsedBytes() > entrySize * 2 ? _buffer : _largerBuffer);
+        return _allocated.getOffHeapAddress();
+    }
+
+    private static class OffHeapInfo implements IBlobStoreOffHeapInfo {
+        private static final long serialVersionUID = 1L;
+
+        private long _address = BlobStoreRefEntryCacheInfo.UNALLOCATED_OFFHEAP_MEMORY;
+
+        @Override
+        public void setOffHeapAddress(long address) {
+            _address = address;
+        }
+
+        @Override
+        public long getOffHeapAddress() {
+            return _address;
+        }
+
+        @Override
+        public String getTypeName() {
+            return "benchmark";
+        }
+
+        @Override
+        public short getServerTypeDescCode() {
+            return 0;
+        }
+    }
+}
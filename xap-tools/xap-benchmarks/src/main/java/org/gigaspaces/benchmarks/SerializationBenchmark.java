@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gigaspaces.benchmarks;
+
+import com.gigaspaces.internal.io.GSByteArrayInputStream;
+import com.gigaspaces.internal.io.GSByteArrayOutputStream;
+import com.gigaspaces.internal.io.IOUtils;
+import com.gigaspaces.internal.io.MarshalInputStream;
+import com.gigaspaces.internal.io.MarshalOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of an entry-like object with {@link IOUtils} and with the LRMI {@link
+ * MarshalOutputStream}.
+ *
+ * @since 15.5
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SerializationBenchmark {
+
+    @Param({"16", "1024"})
+    public int payloadSize;
+
+    private Payload _payload;
+    private byte[] _serialized;
+    private GSByteArrayOutputStream _reusedBuffer;
+    private MarshalOutputStream _reusedStream;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        _payload = new Payload(payloadSize);
+        _serialized = IOUtils.objectToByteBuffer(_payload);
+        _reusedBuffer = new GSByteArrayOutputStream();
+        _reusedStream = new MarshalOutputStream(_reusedBuffer);
+    }
+
+    @Benchmark
+    public byte[] ioUtilsSerialize() throws Exception {
+        return IOUtils.objectToByteBuffer(_payload);
+    }
+
+    @Benchmark
+    public Object ioUtilsDeserialize() throws Exception {
+        return IOUtils.objectFromByteBuffer(_serialized);
+    }
+
+    @Benchmark
+    public int marshalNewStream() throws IOException {
+        GSByteArrayOutputStream buffer = new GSByteArrayOutputStream();
+        MarshalOutputStream out = new MarshalOutputStream(buffer);
+        out.writeObject(_payload);
+        out.flush();
+        return buffer.size();
+    }
+
+    @Benchmark
+    public int marshalReusedStream() throws IOException {
+        // same as an LRMI connection, the stream is reset between messages and its class descriptors cache is kept
+        _reusedBuffer.reset();
+        _reusedStream.reset();
+        _reusedStream.writeObject(_payload);
+        _reusedStream.flush();
+        return _reusedBuffer.size();
+    }
+
+    @Benchmark
+    public Object marshalRoundTrip() throws Exception {
+        GSByteArrayOutputStream buffer = new GSByteArrayOutputStream();
+        MarshalOutputStream out = new MarshalOutputStream(buffer);
+        out.writeObject(_payload);
+        out.flush();
+        MarshalInputStream in = new MarshalInputStream(new GSByteArrayInputStream(buffer.toByteArray()));
+        return in.readObject();
+    }
+
+    public static class Payload implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final long id;
+        private final String name;
+        private final int[] values;
+        private final byte[] data;
+        private final Map<String, Object> properties = new HashMap<String, Object>();
+
+        public Payload(int size) {
+            this.id = size;
+            this.name = "payload-" + size;
+            this.values = new int[16];
+            this.data = new byte[size];
+            for (int i = 0; i < 8; i++)
+                properties.put("property" + i, i % 2 == 0 ? "value" + i : Integer.valueOf(i));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gigaspaces.benchmarks;
+
+import com.gigaspaces.client.ChangeSet;
+import com.gigaspaces.document.SpaceDocument;
+import com.gigaspaces.metadata.index.SpaceIndexType;
+import com.gigaspaces.query.IdQuery;
+import com.j_spaces.core.client.SQLQuery;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write, read, take and change operations of an embedded space, with the queried property indexed
+ * by the different index types.
+ *
+ * @since 15.5
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SpaceOperationsBenchmark {
+    private static final int ENTRIES = 100000;
+    private static final int VALUES = 1000;
+
+    @Param({"NONE", "EQUAL", "ORDERED", "EQUAL_AND_ORDERED"})
+    public SpaceIndexType indexType;
+
+    private BenchmarkSpace _space;
+    private final AtomicLong _nextId = new AtomicLong(ENTRIES);
+
+    @Setup(Level.Trial)
+    public void setup() {
+        _space = new BenchmarkSpace("benchmark-space-operations", indexType);
+        _space.fill(ENTRIES, VALUES);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        _space.close();
+    }
+
+    @TearDown(Level.Iteration)
+    public void removeWrittenEntries() {
+        // entries written by the write benchmark are removed so iterations start with the same content
+        long written = _nextId.getAndSet(ENTRIES);
+        for (long id = ENTRIES; id < written; id++)
+            _space.getGigaSpace().clear(new IdQuery<SpaceDocument>(BenchmarkSpace.TYPE_NAME, id));
+    }
+
+    @Benchmark
+    public Object write() {
+        long id = _nextId.getAndIncrement();
+        return _space.getGigaSpace().write(BenchmarkSpace.createItem(id, id % VALUES));
+    }
+
+    @Benchmark
+    public SpaceDocument readById() {
+        long id = ThreadLocalRandom.current().nextInt(ENTRIES);
+        return _space.getGigaSpace().readById(new IdQuery<SpaceDocument>(BenchmarkSpace.TYPE_NAME, id));
+    }
+
+    @Benchmark
+    public SpaceDocument readByValue() {
+        SQLQuery<SpaceDocument> query = new SQLQuery<SpaceDocument>(BenchmarkSpace.TYPE_NAME, BenchmarkSpace.VALUE_PROPERTY + " = ?");
+        query.setParameter(1, (long) ThreadLocalRandom.current().nextInt(VALUES));
+        return _space.getGigaSpace().read(query);
+    }
+
+    @Benchmark
+    public SpaceDocument[] readMultipleByValueRange() {
+        long from = ThreadLocalRandom.current().nextInt(VALUES - 10);
+        SQLQuery<SpaceDocument> query = new SQLQuery<SpaceDocument>(BenchmarkSpace.TYPE_NAME,
+                BenchmarkSpace.VALUE_PROPERTY + " >= ? AND " + BenchmarkSpace.VALUE_PROPERTY + " < ?");
+        query.setParameter(1, from);
+        query.setParameter(2, from + 10);
+        return _space.getGigaSpace().readMultiple(query, 100);
+    }
+
+    @Benchmark
+    public Object takeAndWrite() {
+        long id = ThreadLocalRandom.current().nextInt(ENTRIES);
+        SpaceDocument item = _space.getGigaSpace().takeById(new IdQuery<SpaceDocument>(BenchmarkSpace.TYPE_NAME, id));
+        // a concurrent benchmark thread may have taken the same entry
+        return item != null ? _space.getGigaSpace().write(item) : null;
+    }
+
+    @Benchmark
+    public Object change() {
+        long id = ThreadLocalRandom.current().nextInt(ENTRIES);
+        return _space.getGigaSpace().change(new IdQuery<SpaceDocument>(BenchmarkSpace.TYPE_NAME, id),
+                new ChangeSet().set(BenchmarkSpace.VALUE_PROPERTY, (long) ThreadLocalRandom.current().nextInt(VALUES)));
+    }
+}